@@ -0,0 +1,143 @@
+package benchmarks;
+
+import core.AbstractForwardModel;
+import core.AbstractGameState;
+import core.Game;
+import core.actions.AbstractAction;
+import games.GameType;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Microbenchmarks of the per-game hot paths used by all the search agents: AbstractForwardModel.next(),
+ * computeAvailableActions(), AbstractGameState.copy(int) and hashCode().
+ * <p>
+ * Each is run for every GameType (as the gameType @Param has no values JMH uses all of them), on a fixed set of
+ * states sampled from random playouts with a fixed seed, so that runs on different commits measure the same states.
+ * No games are excluded: a game whose states cannot be sampled fails in setup, and JMH moves on to the next one. At
+ * present these are Blackjack and TerraformingMars, where random play hits an AssertionError in the forward model.
+ * <p>
+ * Run with 'mvn -P benchmark package', and then either 'java -jar target/benchmarks.jar -prof gc' or this class's
+ * main method (which adds the gc profiler, so that the allocation rate is reported alongside the throughput).
+ * A subset can be run with the usual JMH options, e.g. '-p gameType=Connect4,Dominion ForwardModelBenchmark.copy'.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ForwardModelBenchmark {
+
+    @Param
+    public GameType gameType;
+
+    @Param({"200"})
+    public int nStates;
+
+    @Param({"42"})
+    public long seed;
+
+    AbstractForwardModel forwardModel;
+    AbstractGameState[] states;
+    int next;
+
+    @Setup(Level.Trial)
+    public void sampleStates() {
+        int nPlayers = Math.min(gameType.getMaxPlayers(), Math.max(2, gameType.getMinPlayers()));
+        Game game = gameType.createGameInstance(nPlayers, seed);
+        forwardModel = game.getForwardModel();
+        states = sampleStates(game, nStates, new Random(seed));
+        next = 0;
+    }
+
+    /**
+     * Plays random playouts of the game, keeping a copy of each state with probability
+     * 1 / 4, until n states have been kept.
+     */
+    static AbstractGameState[] sampleStates(Game game, int n, Random rnd) {
+        AbstractForwardModel fm = game.getForwardModel();
+        List<AbstractGameState> retValue = new ArrayList<>();
+        int playouts = 0;
+        while (retValue.size() < n) {
+            if (playouts++ > n)
+                throw new AssertionError("Unable to sample " + n + " non-terminal states for " + game.getGameType());
+            // each playout is of a game with a new seed (but the same sequence of seeds on every run)
+            game.reset(Collections.emptyList(), rnd.nextLong());
+            AbstractGameState state = game.getGameState();
+            while (state.isNotTerminal() && retValue.size() < n) {
+                List<AbstractAction> actions = fm.computeAvailableActions(state);
+                if (actions.isEmpty())
+                    break;
+                if (rnd.nextInt(4) == 0)
+                    retValue.add(state.copy());
+                fm.next(state, actions.get(rnd.nextInt(actions.size())).copy());
+            }
+        }
+        return retValue.toArray(new AbstractGameState[0]);
+    }
+
+    AbstractGameState nextState() {
+        AbstractGameState retValue = states[next];
+        next = (next + 1) % states.length;
+        return retValue;
+    }
+
+    /**
+     * next() changes the state it is given, so each invocation needs a fresh copy and action. This is set up outside
+     * the measurement (at the cost of some timing overhead per invocation, which JMH warns about).
+     */
+    @State(Scope.Thread)
+    public static class NextInput {
+        AbstractGameState state;
+        AbstractAction action;
+        final Random rnd = new Random(42);
+
+        @Setup(Level.Invocation)
+        public void prepare(ForwardModelBenchmark benchmark) {
+            state = benchmark.nextState().copy();
+            List<AbstractAction> actions = benchmark.forwardModel.computeAvailableActions(state);
+            action = actions.get(rnd.nextInt(actions.size())).copy();
+        }
+    }
+
+    @Benchmark
+    public AbstractGameState next(NextInput input) {
+        forwardModel.next(input.state, input.action);
+        return input.state;
+    }
+
+    @Benchmark
+    public List<AbstractAction> computeAvailableActions() {
+        return forwardModel.computeAvailableActions(nextState());
+    }
+
+    @Benchmark
+    public AbstractGameState copy() {
+        AbstractGameState state = nextState();
+        return state.copy(state.getCurrentPlayer());
+    }
+
+    @Benchmark
+    public int stateHashCode() {
+        return nextState().hashCode();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ForwardModelBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
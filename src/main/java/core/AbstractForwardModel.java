@@ -3,7 +3,9 @@ package core;
 import core.actions.AbstractAction;
 import core.actions.ActionSpace;
 import core.actions.DoNothing;
+import core.components.ComponentIDAllocator;
 import core.interfaces.IPlayerDecorator;
+import core.interfaces.IZobristHashable;
 import utilities.ActionTreeNode;
 import utilities.ElapsedCpuChessTimer;
 
@@ -23,6 +25,12 @@ public abstract class AbstractForwardModel {
     protected List<IPlayerDecorator> decorators;
     protected int decisionPlayerID;
 
+    // Optional cache of the actions (before any decorators) computed for recent states; see setActionCaching()
+    // A forward model may be shared by several threads (StandardForwardModel.copy() returns itself), so each
+    // thread has its own cache
+    private int actionCacheSize;
+    private ThreadLocal<ActionCache> actionCache;
+
     /* Limited access/Final methods */
 
     public AbstractForwardModel() {
@@ -51,8 +59,13 @@ public abstract class AbstractForwardModel {
                     firstState.gameParameters.incrementRoundS, firstState.gameParameters.incrementMilestoneS);
         }
 
-        _setup(firstState);
-        firstState.addAllComponents();
+        ComponentIDAllocator previous = ComponentIDAllocator.bind(firstState.getComponentIDAllocator());
+        try {
+            _setup(firstState);
+            firstState.addAllComponents();
+        } finally {
+            ComponentIDAllocator.release(previous);
+        }
     }
 
     /* Methods to be implemented by subclasses, unavailable to AI players */
@@ -149,17 +162,22 @@ public abstract class AbstractForwardModel {
      * @param action       - action requested to be played by a player.
      */
     public final void next(AbstractGameState currentState, AbstractAction action) {
-        if (action != null) {
-            int player = currentState.getCurrentPlayer();
-            currentState.recordAction(action, player);
-            _next(currentState, action);
-        } else {
-            if (currentState.coreGameParameters.verbose) {
-                System.out.println("Invalid action.");
+        ComponentIDAllocator previous = ComponentIDAllocator.bind(currentState.getComponentIDAllocator());
+        try {
+            if (action != null) {
+                int player = currentState.getCurrentPlayer();
+                currentState.recordAction(action, player);
+                _next(currentState, action);
+            } else {
+                if (currentState.coreGameParameters.verbose) {
+                    System.out.println("Invalid action.");
+                }
+                illegalActionPlayed(currentState, action);
             }
-            illegalActionPlayed(currentState, action);
+            currentState.advanceGameTick();
+        } finally {
+            ComponentIDAllocator.release(previous);
         }
-        currentState.advanceGameTick();
     }
 
     /**
@@ -173,14 +191,24 @@ public abstract class AbstractForwardModel {
     }
 
     public final List<AbstractAction> computeAvailableActions(AbstractGameState gameState, ActionSpace actionSpace) {
-        // If there is an action in progress (see IExtendedSequence), then delegate to that
-        List<AbstractAction> retValue;
-        if (gameState.isActionInProgress()) {
-            retValue = gameState.actionsInProgress.peek()._computeAvailableActions(gameState, actionSpace);
-        } else if (actionSpace != null && !actionSpace.isDefault()) {
-            retValue = _computeAvailableActions(gameState, actionSpace);
-        } else {
-            retValue = _computeAvailableActions(gameState);
+        ActionCache cache = actionCache == null ? null : actionCache.get();
+        List<AbstractAction> retValue = cache == null ? null : cache.get(gameState, actionSpace);
+        if (retValue == null) {
+            // If there is an action in progress (see IExtendedSequence), then delegate to that
+            ComponentIDAllocator previous = ComponentIDAllocator.bind(gameState.getComponentIDAllocator());
+            try {
+                if (gameState.isActionInProgress()) {
+                    retValue = gameState.actionsInProgress.peek()._computeAvailableActions(gameState, actionSpace);
+                } else if (actionSpace != null && !actionSpace.isDefault()) {
+                    retValue = _computeAvailableActions(gameState, actionSpace);
+                } else {
+                    retValue = _computeAvailableActions(gameState);
+                }
+            } finally {
+                ComponentIDAllocator.release(previous);
+            }
+            if (cache != null)
+                cache.put(gameState, actionSpace, retValue);
         }
 
         // Then apply Decorators regardless of source of actions
@@ -226,9 +254,108 @@ public abstract class AbstractForwardModel {
         AbstractForwardModel retValue = _copy();
         retValue.decorators = new ArrayList<>(decorators);
         retValue.decisionPlayerID = decisionPlayerID;
+        if (retValue != this)
+            retValue.setActionCaching(actionCacheSize);
         return retValue;
     }
 
+    /**
+     * Turns on (or off) caching of the actions computed for recent states, so that calling computeAvailableActions()
+     * again on a state that has not changed (or on a copy of it) does not compute them again. This is off by default.
+     * <p>
+     * The cache is keyed on the state's game tick (so it is invalidated by next()) and current player, and a hash of
+     * the state. For a state that is IZobristHashable, this is the Zobrist hash and its check hash, which are kept up
+     * to date as the state changes, and so are cheap; the game's Zobrist hash must then cover everything that the
+     * available actions depend on. Otherwise it is hashCode(), and as different states can have the same hashCode(),
+     * a copy of each state is kept with its actions, and a state is only given them if it equals() this copy. (So for
+     * these games it only helps if hashCode() and equals() are quicker than computing the actions.)
+     * The decorators are applied to the cached actions on every call, and every call returns a new List.
+     *
+     * @param cacheSize the number of states to cache the actions of (0 to turn off caching)
+     */
+    public void setActionCaching(int cacheSize) {
+        actionCacheSize = cacheSize;
+        actionCache = cacheSize > 0 ? ThreadLocal.withInitial(() -> new ActionCache(cacheSize)) : null;
+    }
+
+    public boolean isActionCaching() {
+        return actionCache != null;
+    }
+
+    /**
+     * A small LRU cache of the actions available in recently seen states
+     */
+    private static class ActionCache {
+
+        private static class Key {
+            final int tick, player;
+            final long hash, checkHash;
+            final ActionSpace actionSpace;
+
+            Key(AbstractGameState state, ActionSpace actionSpace) {
+                tick = state.getGameTick();
+                player = state.getCurrentPlayer();
+                if (state instanceof IZobristHashable hashable) {
+                    hash = hashable.getZobristHash();
+                    checkHash = hashable.getZobristCheckHash();
+                } else {
+                    hash = state.hashCode();
+                    checkHash = 0;
+                }
+                this.actionSpace = actionSpace;
+            }
+
+            @Override
+            public boolean equals(Object o) {
+                if (!(o instanceof Key)) return false;
+                Key other = (Key) o;
+                return tick == other.tick && player == other.player && hash == other.hash &&
+                        checkHash == other.checkHash && Objects.equals(actionSpace, other.actionSpace);
+            }
+
+            @Override
+            public int hashCode() {
+                return Objects.hash(tick, player, hash, checkHash, actionSpace);
+            }
+        }
+
+        private static class Entry {
+            final List<AbstractAction> actions;
+            // a copy of the state, to check that a state with the same key is the same state (null if the
+            // key has the Zobrist hashes of the state, which are enough on their own)
+            final AbstractGameState state;
+
+            Entry(List<AbstractAction> actions, AbstractGameState state) {
+                this.actions = actions;
+                this.state = state;
+            }
+        }
+
+        private final Map<Key, Entry> cache;
+
+        ActionCache(int maxSize) {
+            cache = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                    return size() > maxSize;
+                }
+            };
+        }
+
+        List<AbstractAction> get(AbstractGameState state, ActionSpace actionSpace) {
+            Entry entry = cache.get(new Key(state, actionSpace));
+            if (entry == null || (entry.state != null && !entry.state.equals(state)))
+                return null;  // (a different state with the same hashCode() is replaced by this one when it is put)
+            return new ArrayList<>(entry.actions);
+        }
+
+        void put(AbstractGameState state, ActionSpace actionSpace, List<AbstractAction> actions) {
+            // we keep our own copy, as the caller is free to change the list they are given
+            AbstractGameState check = state instanceof IZobristHashable ? null : state.copy();
+            cache.put(new Key(state, actionSpace), new Entry(new ArrayList<>(actions), check));
+        }
+    }
+
     public void addPlayerDecorator(IPlayerDecorator decorator) {
         decorators.add(decorator);
     }
@@ -4,6 +4,8 @@ import core.actions.AbstractAction;
 import core.actions.LogEvent;
 import core.components.Area;
 import core.components.Component;
+import core.components.ComponentIDAllocator;
+import core.components.ComponentIndex;
 import core.components.PartialObservableDeck;
 import core.interfaces.IComponentContainer;
 import core.interfaces.IExtendedSequence;
@@ -11,9 +13,11 @@ import core.interfaces.IGameEvent;
 import core.interfaces.IGamePhase;
 import evaluation.listeners.IGameListener;
 import evaluation.metrics.Event;
+import evaluation.optimisation.TunableParameters;
 import games.GameType;
 import utilities.ElapsedCpuChessTimer;
 import utilities.Pair;
+import utilities.SharedPrefixList;
 
 import java.util.*;
 import java.util.function.BiFunction;
@@ -38,7 +42,14 @@ public abstract class AbstractGameState {
     protected final AbstractParameters gameParameters;
     // Game being played
     protected final GameType gameType = _getGameType();
+    // Only filled by getAllComponents(), so copies of the state start without one (and just keep its ID)
     private Area allComponents;
+    private int allComponentsID;
+    // Index of all components by ID, used by getComponentById(); built on the first lookup, and rebuilt on a miss
+    private ComponentIndex componentIndex;
+    private boolean componentIndexValid;
+    // Allocates IDs to components created in this game; shared by all copies of this state
+    private ComponentIDAllocator componentIDs = new ComponentIDAllocator();
 
     // Game tick, number of iterations of game loop
     private int tick = 0;
@@ -55,8 +66,9 @@ public abstract class AbstractGameState {
     // A record of all actions taken to reach this game state
     // The history is stored as a list of pairs, where the first element is the player who took the action
     // this is in chronological order
-    private List<Pair<Integer, AbstractAction>> history = new ArrayList<>();
-    private List<String> historyText = new ArrayList<>();
+    // Copies of the state share everything recorded up to the point of the copy (see SharedPrefixList)
+    private SharedPrefixList<Pair<Integer, AbstractAction>> history = new SharedPrefixList<>();
+    private SharedPrefixList<String> historyText = new SharedPrefixList<>();
 
     // Status of the game, and status for each player (in cooperative games, the game status is also each player's status)
     protected CoreConstants.GameResult gameStatus;
@@ -90,12 +102,15 @@ public abstract class AbstractGameState {
      * Resets variables initialised for this game state.
      */
     protected void reset() {
+        componentIDs = new ComponentIDAllocator();
         allComponents = new Area(-1, "All Components");
+        allComponentsID = allComponents.getComponentID();
+        componentIndexValid = false;
         gameStatus = GAME_ONGOING;
         playerResults = new CoreConstants.GameResult[getNPlayers()];
         Arrays.fill(playerResults, GAME_ONGOING);
-        history = new ArrayList<>();
-        historyText = new ArrayList<>();
+        history = new SharedPrefixList<>();
+        historyText = new SharedPrefixList<>();
         playerTimer = new ElapsedCpuChessTimer[getNPlayers()];
         tick = 0;
         turnOwner = 0;
@@ -167,9 +182,9 @@ public abstract class AbstractGameState {
     /**
      * @return All actions that have been executed on this state since reset()/initialisation
      */
-    public List<Pair<Integer, AbstractAction>> getHistory() { return new ArrayList<>(history);}
+    public List<Pair<Integer, AbstractAction>> getHistory() { return history.toList();}
     public List<String> getHistoryAsText() {
-        return new ArrayList<>(historyText);
+        return historyText.toList();
     }
     public int getGameID() {
         return gameID;
@@ -238,14 +253,44 @@ public abstract class AbstractGameState {
         return playerResults[player] == GAME_ONGOING && gameStatus == GAME_ONGOING;
     }
     public final int getGameTick() {return tick;}
+
+    /**
+     * @return the allocator used for the IDs of all components created in this game (see ComponentIDAllocator)
+     */
+    public final ComponentIDAllocator getComponentIDAllocator() {
+        return componentIDs;
+    }
+    /**
+     * Finds a component in this state by its ID. The index of all components used for this is only built when needed
+     * (copies of the state start without one), as most copies made during search never look anything up.
+     * Once built, the index is kept as actions are applied, as components keep their IDs when they move between
+     * containers. It is rebuilt when a lookup fails (the first lookup of a component created since it was built),
+     * or after getAllComponents() is called.
+     * <p>
+     * The index is not updated as containers change: components do not know which states (or copies of states)
+     * they are part of, so there is nothing for a Deck to tell about a new component. Rebuilding on a miss is what
+     * the Area used for this before did, and in practice most lookups are of components that have been in the game
+     * from the start, which then never miss.
+     *
+     * @param id - the component ID
+     * @return the component, or null if there is none with this ID
+     */
     public final Component getComponentById(int id) {
-        Component c = allComponents.getComponent(id);
+        Component c = componentIndexValid ? componentIndex.get(id) : null;
         if (c == null) {
+            componentIndexValid = false;
+            if (componentIndex == null)
+                componentIndex = new ComponentIndex();
+            else
+                componentIndex.clear();
             try {
-                addAllComponents();
-                c = allComponents.getComponent(id);
-            } catch (Exception ignored) {
-            }  // Can crash from concurrent modifications if running with GUI TODO: this is an ugly fix
+                componentIndex.putAll(_getAllComponents());
+            } catch (ConcurrentModificationException e) {
+                // the GUI can look components up while the game thread is changing them; it tries again later
+                return null;
+            }
+            componentIndexValid = true;
+            c = componentIndex.get(id);
         }
         return c;
     }
@@ -270,8 +315,12 @@ public abstract class AbstractGameState {
      * Adds all components given by the game to the allComponents map in the correct way, first clearing the map.
      */
     protected final void addAllComponents() {
-        allComponents.clear();
+        if (allComponents == null)
+            allComponents = Area.emptyArea(-1, "All Components", allComponentsID);
+        else
+            allComponents.clear();
         allComponents.putComponents(_getAllComponents());
+        componentIndexValid = false;  // this is called to force a refresh, so the index is rebuilt on the next lookup
     }
 
     /**
@@ -293,11 +342,68 @@ public abstract class AbstractGameState {
      * @return - reduced copy of the game state.
      */
     public final AbstractGameState copy(int playerId) {
-        AbstractGameState s = _copy(playerId);
+        // Any new components created during the copy (e.g. when redeterminising) must have IDs distinct from those in this state
+        ComponentIDAllocator previous = ComponentIDAllocator.bind(componentIDs);
+        AbstractGameState s;
+        try {
+            s = _copy(playerId);
+        } finally {
+            ComponentIDAllocator.release(previous);
+        }
+        copyCoreStateTo(s, playerId, false);
+        // The list of components for ID matching in actions is populated on the first call to getComponentById()
+        return s;
+    }
+
+    /**
+     * Copies this game state into target, which is then the same as copy(playerId), but reusing target and as much
+     * of its contents as the game supports (see _copyInto()). This is for game states that are copied many times
+     * and then discarded (as in rollouts), where target is a previous copy that is no longer needed; see GameStatePool.
+     * If target cannot be reused (it is not the same game, with the same number of players and parameters), then this
+     * is the same as copy(playerId).
+     *
+     * @param target   - a copy of a game state that is no longer needed, and which is overwritten
+     * @param playerId - player observing the state
+     * @return - target (or a new copy of the game state)
+     */
+    public final AbstractGameState copyInto(AbstractGameState target, int playerId) {
+        if (target == null || target == this || target.getClass() != getClass() || target.nPlayers != nPlayers ||
+                target.nTeams != nTeams || !sameParameters(target.gameParameters, gameParameters))
+            return copy(playerId);
+        ComponentIDAllocator previous = ComponentIDAllocator.bind(componentIDs);
+        AbstractGameState s;
+        try {
+            s = _copyInto(target, playerId);
+        } finally {
+            ComponentIDAllocator.release(previous);
+        }
+        copyCoreStateTo(s, playerId, s == target);
+        return s;
+    }
+
+    // A quick check (in place of equals(), which compares every parameter) that target was copied with the same
+    // parameters: either the same object, or shallow copies of it, which share its parameter values
+    private static boolean sameParameters(AbstractParameters a, AbstractParameters b) {
+        if (a == b)
+            return true;
+        return a instanceof TunableParameters ta && b instanceof TunableParameters tb && ta.sharesValuesWith(tb);
+    }
+
+    // Copies the state held in this class to s, which is either new or (if reused) a state that is being overwritten
+    private void copyCoreStateTo(AbstractGameState s, int playerId, boolean reused) {
         // Copy super class things
-        s.allComponents = allComponents.emptyCopy();
+        s.componentIDs = componentIDs;
+        if (s.allComponents == allComponents || s.allComponentsID != allComponentsID)
+            s.allComponents = null;  // a reused state keeps its own Area, which is cleared when next filled
+        s.allComponentsID = allComponentsID;
+        if (s.componentIndex == componentIndex)
+            s.componentIndex = null;
+        s.componentIndexValid = false;
         s.gameStatus = gameStatus;
-        s.playerResults = playerResults.clone();
+        if (reused && s.playerResults != playerResults && s.playerResults.length == playerResults.length)
+            System.arraycopy(playerResults, 0, s.playerResults, 0, playerResults.length);
+        else
+            s.playerResults = playerResults.clone();
         s.gamePhase = gamePhase;
         s.coreGameParameters = coreGameParameters;
         s.tick = tick;
@@ -312,29 +418,47 @@ public abstract class AbstractGameState {
         s.rnd = playerId == -1 ? rnd : new Random(System.currentTimeMillis());
 
         if (!coreGameParameters.competitionMode) {
-            s.history = new ArrayList<>(history);
-            s.historyText = new ArrayList<>(historyText);
-            // we do not copy individual actions in history, as these are now dead and should not change
+            s.history = history.copy();
+            s.historyText = historyText.copy();
+            // this shares everything recorded so far with the copy (the shared part is never changed),
+            // and we do not copy individual actions in history, as these are now dead and should not change
             // History is for debugging and spectation of games. There is a risk that History might contain information
             // formally hidden to some participants. For this reason, in COMPETITION_MODE we explicitly do not copy
             // any history over in case a sneaky agent tries to take advantage of it.
             // If there is any information only available in History that could legitimately be used, then this should
             // be incorporated in the game-specific data in GameState where the correct hiding protocols can be enforced.
+        } else if (reused) {
+            s.history = new SharedPrefixList<>();
+            s.historyText = new SharedPrefixList<>();
         }
 
-        s.actionsInProgress = new Stack<>();
+        if (s.actionsInProgress == actionsInProgress)
+            s.actionsInProgress = new Stack<>();
+        else
+            s.actionsInProgress.clear();
         actionsInProgress.forEach(
                 a -> s.actionsInProgress.push(a.copy())
         );
 
-        s.playerTimer = new ElapsedCpuChessTimer[getNPlayers()];
+        if (!reused || s.playerTimer == playerTimer || s.playerTimer.length != getNPlayers())
+            s.playerTimer = new ElapsedCpuChessTimer[getNPlayers()];
         for (int i = 0; i < getNPlayers(); i++) {
             s.playerTimer[i] = playerTimer[i].copy();
         }
+    }
 
-        // Update the list of components for ID matching in actions.
-        s.addAllComponents();
-        return s;
+    /**
+     * Copies this game state into target, for copyInto(). By default this is the same as _copy(playerId), and ignores
+     * target; games can override it to reuse target (which is always an instance of the same class as this, and with
+     * the same parameters) and its components, for example with Deck.copyInto(), in place of new copies.
+     * The result must be the same as that of _copy(playerId).
+     *
+     * @param target   - a copy of this game state that is no longer needed
+     * @param playerId - player observing the state
+     * @return - target, or a new copy of the game-specific state
+     */
+    protected AbstractGameState _copyInto(AbstractGameState target, int playerId) {
+        return _copy(playerId);
     }
 
     /**
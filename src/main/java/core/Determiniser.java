@@ -0,0 +1,110 @@
+package core;
+
+import core.components.Component;
+import core.components.Deck;
+import core.interfaces.IDeterminisableState;
+import utilities.DeterminisationUtilities;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Makes determinisations of a game state from the point of view of one player, for a game state that implements
+ * IDeterminisableState. Each one is the same as state.copy(player), but is made more cheaply when many are needed
+ * from the same state (as for Information Set MCTS, which needs one for every iteration).
+ * <p>
+ * The positions of the hidden components are found once, when the Determiniser is created. Each determinisation is
+ * then a full copy of the state (into a previous determinisation that is no longer needed, if one is given; see
+ * AbstractGameState.copyInto()), followed by a Fisher-Yates shuffle of the components in those positions.
+ * <p>
+ * The state must not be changed while the Determiniser is used. It is safe to use from several threads at once.
+ */
+public class Determiniser {
+
+    private final AbstractGameState state;
+    private final int player;
+    // the hidden positions in each of the decks given by IDeterminisableState.getDeterminisableDecks()
+    private final int[][] hiddenPositions;
+    private final int nHidden;
+
+    private Determiniser(AbstractGameState state, int player) {
+        this.state = state;
+        this.player = player;
+        if (state.getCoreGameParameters().partialObservable) {
+            List<Deck<Component>> decks = decks(state);
+            hiddenPositions = DeterminisationUtilities.hiddenPositions(player, decks, c -> true);
+        } else {
+            hiddenPositions = new int[0][];
+        }
+        int total = 0;
+        for (int[] positions : hiddenPositions)
+            total += positions.length;
+        nHidden = total;
+    }
+
+    /**
+     * @return a Determiniser for the state from the point of view of player, or null if the state is not an
+     * IDeterminisableState
+     */
+    public static Determiniser of(AbstractGameState state, int player) {
+        if (!(state instanceof IDeterminisableState<?>))
+            return null;
+        return new Determiniser(state, player);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Deck<Component>> decks(AbstractGameState s) {
+        return ((IDeterminisableState<Component>) s).getDeterminisableDecks(player);
+    }
+
+    public AbstractGameState getState() {
+        return state;
+    }
+
+    public int getPlayer() {
+        return player;
+    }
+
+    /**
+     * @return the number of hidden components that are shuffled in each determinisation
+     */
+    public int getHiddenCount() {
+        return nHidden;
+    }
+
+    /**
+     * @param previous - a previous determinisation (or other copy of the state) that is no longer needed, and which
+     *                 is overwritten if the game supports this; or null
+     * @return a new determinisation of the state
+     */
+    public AbstractGameState determinise(AbstractGameState previous) {
+        AbstractGameState retValue = previous == null ? state.copy() : state.copyInto(previous, -1);
+        // as with copy(playerId), the determinisation has its own RNG so that the master copy is not affected
+        retValue.rnd = new Random(state.redeterminisationRnd.nextLong());
+        if (nHidden < 2)
+            return retValue;
+
+        List<Deck<Component>> decks = decks(retValue);
+        Component[] hidden = new Component[nHidden];
+        int n = 0;
+        for (int d = 0; d < hiddenPositions.length; d++) {
+            Deck<Component> deck = decks.get(d);
+            for (int position : hiddenPositions[d])
+                hidden[n++] = deck.get(position);
+        }
+        Random rnd = state.redeterminisationRnd;
+        for (int i = nHidden - 1; i > 0; i--) {
+            int j = rnd.nextInt(i + 1);
+            Component temp = hidden[i];
+            hidden[i] = hidden[j];
+            hidden[j] = temp;
+        }
+        n = 0;
+        for (int d = 0; d < hiddenPositions.length; d++) {
+            Deck<Component> deck = decks.get(d);
+            for (int position : hiddenPositions[d])
+                deck.setComponent(position, hidden[n++]);
+        }
+        return retValue;
+    }
+}
@@ -0,0 +1,99 @@
+package core;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A pool of discarded copies of game states, for code that copies a state, uses the copy briefly and then throws it
+ * away (as in the rollouts of OSLAPlayer and MCTS). copy() returns the same as AbstractGameState.copy(), but overwrites
+ * a state from the pool with AbstractGameState.copyInto() if there is one, instead of allocating a new state
+ * (and, for games that support this, new components). Only states of games that override
+ * AbstractGameState._copyInto() are pooled; for other games copy() is state.copy() and release() does nothing, as
+ * copyInto() would make a new copy anyway.
+ * <p>
+ * A state should only be given back to the pool with release() once nothing refers to it, or to any of its
+ * components, and it must not be used after that. Each thread has its own pool, so no locking is needed, and
+ * at most MAX_SIZE states of each class are kept.
+ */
+public final class GameStatePool {
+
+    public static final int MAX_SIZE = 8;
+
+    private static final ThreadLocal<Map<Class<?>, ArrayDeque<AbstractGameState>>> pool = ThreadLocal.withInitial(HashMap::new);
+
+    // whether each class of game state overrides _copyInto() (and so can reuse a pooled state)
+    private static final ClassValue<Boolean> reusable = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(Class<?> stateClass) {
+            for (Class<?> c = stateClass; c != AbstractGameState.class; c = c.getSuperclass()) {
+                try {
+                    c.getDeclaredMethod("_copyInto", AbstractGameState.class, int.class);
+                    return true;
+                } catch (NoSuchMethodException e) {
+                    // not declared here, so try the superclass
+                }
+            }
+            return false;
+        }
+    };
+
+    private GameStatePool() {
+    }
+
+    /**
+     * @param state - state to copy
+     * @return - a copy of state, which is the same as state.copy()
+     */
+    public static AbstractGameState copy(AbstractGameState state) {
+        return copy(state, -1);
+    }
+
+    /**
+     * @param state    - state to copy
+     * @param playerId - player observing the state
+     * @return - a copy of state, which is the same as state.copy(playerId)
+     */
+    public static AbstractGameState copy(AbstractGameState state, int playerId) {
+        if (!isReusable(state.getClass()))
+            return state.copy(playerId);
+        ArrayDeque<AbstractGameState> free = pool.get().get(state.getClass());
+        AbstractGameState target = free == null ? null : free.pollLast();
+        return target == null ? state.copy(playerId) : state.copyInto(target, playerId);
+    }
+
+    /**
+     * Gives a copy of a state that is no longer needed back to the pool of the current thread.
+     *
+     * @param state - a state that is not used again (and not a state that is part of a running Game)
+     */
+    public static void release(AbstractGameState state) {
+        if (!isReusable(state.getClass()))
+            return;
+        ArrayDeque<AbstractGameState> free = pool.get().computeIfAbsent(state.getClass(), c -> new ArrayDeque<>());
+        if (free.size() < MAX_SIZE && !free.contains(state))
+            free.addLast(state);
+    }
+
+    /**
+     * @return - true if states of the given class are pooled (the game overrides AbstractGameState._copyInto())
+     */
+    public static boolean isReusable(Class<? extends AbstractGameState> stateClass) {
+        return reusable.get(stateClass);
+    }
+
+    /**
+     * @return - the number of states of the given class in the pool of the current thread
+     */
+    public static int size(Class<? extends AbstractGameState> stateClass) {
+        ArrayDeque<AbstractGameState> free = pool.get().get(stateClass);
+        return free == null ? 0 : free.size();
+    }
+
+    /**
+     * Empties the pool of the current thread
+     */
+    public static void clear() {
+        pool.get().clear();
+    }
+}
@@ -257,6 +257,10 @@ public class PyTAG {
         return gameState.getGameScore(gameState.getCurrentPlayer());
     }
 
+    public double getReward(int playerId){
+        return gameState.getGameScore(playerId);
+    }
+
     public List<AbstractAction> getActions(){
         return availableActions;
     }
@@ -0,0 +1,216 @@
+package core;
+
+import games.GameType;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * A batch of N independent PyTAG environments of the same game, so that Python can reset, step and read the
+ * observations of all of them in one call each (rather than N calls of each), which is where most of the time
+ * goes when training with PyTAG.
+ * <p>
+ * All the data comes back as flat arrays, with environment i at [i * size, (i + 1) * size):
+ * <ul>
+ *     <li>getObservations() - nEnvs * getObservationSpace() doubles from the registered IStateFeatureVector.
+ *     getObservationBuffer() gives the same values in a direct ByteBuffer (native order), which is reused on each
+ *     call and can be wrapped by numpy without any copying.</li>
+ *     <li>getActionMasks() - nEnvs * getActionSpace() ints, 1 for a valid action.</li>
+ *     <li>step() returns the rewards (the score of the player who acted), and getDones() which games ended.</li>
+ * </ul>
+ * An environment whose game ends in step() is reset automatically, so its observation and mask are for the start
+ * of the next game (getPlayerResults() and getReward() give the result of the game just finished).
+ * <p>
+ * If nThreads is more than 1, then the environments are reset and stepped in parallel on a pool of that many
+ * threads; call close() to shut the pool down.
+ */
+public class PyTAGVectorEnv implements AutoCloseable {
+
+    private final PyTAG[] envs;
+    private final int observationSpace;
+    private int actionSpace;
+    private final double[] rewards;
+    private final boolean[] dones;
+    private final CoreConstants.GameResult[][] lastResults;
+    private final double[] observations;
+    private final ByteBuffer observationBuffer;
+    private final ExecutorService executor;
+
+    /**
+     * @param players The players for each game; each environment gets its own copy of these, so one
+     *                or more should be a PythonAgent to mark where the actions come from Python
+     */
+    public PyTAGVectorEnv(GameType gameToPlay, String parameterConfigFile, List<AbstractPlayer> players,
+                          int nEnvs, long seed, boolean isNormalized, int nThreads) throws Exception {
+        if (nEnvs < 1)
+            throw new IllegalArgumentException("Must have at least one environment");
+        Random seedRandom = new Random(seed);
+        envs = new PyTAG[nEnvs];
+        for (int i = 0; i < nEnvs; i++) {
+            List<AbstractPlayer> envPlayers = new ArrayList<>();
+            for (AbstractPlayer player : players)
+                envPlayers.add(player.copy());
+            envs[i] = new PyTAG(gameToPlay, parameterConfigFile, envPlayers, seedRandom.nextLong(), isNormalized);
+        }
+        observationSpace = envs[0].getObservationSpace();
+        rewards = new double[nEnvs];
+        dones = new boolean[nEnvs];
+        lastResults = new CoreConstants.GameResult[nEnvs][];
+        observations = new double[nEnvs * observationSpace];
+        observationBuffer = ByteBuffer.allocateDirect(observations.length * Double.BYTES).order(ByteOrder.nativeOrder());
+        executor = nThreads > 1 ? Executors.newFixedThreadPool(Math.min(nThreads, nEnvs)) : null;
+    }
+
+    public PyTAGVectorEnv(GameType gameToPlay, String parameterConfigFile, List<AbstractPlayer> players,
+                          int nEnvs, long seed, boolean isNormalized) throws Exception {
+        this(gameToPlay, parameterConfigFile, players, nEnvs, seed, isNormalized, 1);
+    }
+
+    public int getNumEnvs() {
+        return envs.length;
+    }
+
+    public int getObservationSpace() {
+        return observationSpace;
+    }
+
+    /**
+     * @return The size of the action mask for each environment (only known after reset())
+     */
+    public int getActionSpace() {
+        return actionSpace;
+    }
+
+    public void reset() {
+        forEachEnv(i -> {
+            envs[i].reset();
+            dones[i] = false;
+            rewards[i] = 0.0;
+        });
+        actionSpace = envs[0].getActionSpace();
+    }
+
+    /**
+     * Takes one action in each environment
+     *
+     * @param actions The index of the action (in the action mask) to take in each environment
+     * @return the rewards (the game score of the player who took the action). This array is reused by each call.
+     */
+    public double[] step(int[] actions) {
+        if (actions.length != envs.length)
+            throw new IllegalArgumentException("Need one action for each of the " + envs.length + " environments, not " + actions.length);
+        forEachEnv(i -> {
+            PyTAG env = envs[i];
+            int player = env.getPlayerID();
+            env.step(actions[i]);
+            rewards[i] = env.getReward(player);
+            dones[i] = env.isDone();
+            if (dones[i]) {
+                lastResults[i] = env.getPlayerResults().clone();
+                env.reset();
+            }
+        });
+        return rewards;
+    }
+
+    public double[] getRewards() {
+        return rewards;
+    }
+
+    /**
+     * @return for each environment, whether its game ended on the last step (and it has since been reset)
+     */
+    public boolean[] getDones() {
+        return dones;
+    }
+
+    /**
+     * @return the results of the last game to finish in the environment (null if none has yet)
+     */
+    public CoreConstants.GameResult[] getPlayerResults(int env) {
+        return lastResults[env];
+    }
+
+    public int[] getPlayerIDs() {
+        int[] retValue = new int[envs.length];
+        for (int i = 0; i < envs.length; i++)
+            retValue[i] = envs[i].getPlayerID();
+        return retValue;
+    }
+
+    /**
+     * @return the observations of all the environments (from the current player's perspective), in one array which
+     * is reused by each call
+     */
+    public double[] getObservations() {
+        forEachEnv(i -> System.arraycopy(envs[i].getObservationVector(), 0, observations, i * observationSpace, observationSpace));
+        return observations;
+    }
+
+    /**
+     * @return the observations as for getObservations(), in a direct buffer of doubles in native byte order
+     */
+    public ByteBuffer getObservationBuffer() {
+        DoubleBuffer doubles = observationBuffer.asDoubleBuffer();
+        doubles.put(getObservations());
+        return observationBuffer;
+    }
+
+    public int[] getActionMasks() {
+        int[] retValue = new int[envs.length * actionSpace];
+        for (int i = 0; i < envs.length; i++) {
+            int[] mask = envs[i].getActionMask();
+            if (mask.length != actionSpace)
+                throw new AssertionError("Environments have different action spaces : " + mask.length + " and " + actionSpace);
+            System.arraycopy(mask, 0, retValue, i * actionSpace, actionSpace);
+        }
+        return retValue;
+    }
+
+    public PyTAG getEnv(int env) {
+        return envs[env];
+    }
+
+    private interface EnvTask {
+        void run(int env) throws Exception;
+    }
+
+    private void forEachEnv(EnvTask task) {
+        try {
+            if (executor == null) {
+                for (int i = 0; i < envs.length; i++)
+                    task.run(i);
+                return;
+            }
+            List<Callable<Void>> tasks = new ArrayList<>();
+            for (int i = 0; i < envs.length; i++) {
+                int env = i;
+                tasks.add(() -> {
+                    task.run(env);
+                    return null;
+                });
+            }
+            for (Future<Void> result : executor.invokeAll(tasks))
+                result.get();
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Error in PyTAG environment", e.getCause());
+        } catch (Exception e) {
+            throw new RuntimeException("Error in PyTAG environment", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (executor != null)
+            executor.shutdown();
+    }
+}
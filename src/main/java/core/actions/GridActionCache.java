@@ -0,0 +1,53 @@
+package core.actions;
+
+import core.components.Component;
+
+/**
+ * Interned SetGridValueActions for one grid board, with one action for each player and cell, so that games in which
+ * the actions are 'player p places their piece at (x, y)' do not create new actions every time
+ * computeAvailableActions() is called. The actions are immutable, so one cache can be shared by all copies of a game
+ * state (as long as the grid board keeps the same component ID).
+ * The value placed by a player must always be the same (for example the Token from a fixed player mapping).
+ * A game that uses a subclass of SetGridValueAction can provide a Factory to create these instead.
+ */
+public class GridActionCache<T extends Component> {
+
+    /**
+     * Creates the action for the player to set the cell (x, y) of the grid board to value
+     */
+    public interface Factory<T extends Component> {
+        SetGridValueAction<T> create(int gridBoard, int player, int x, int y, T value);
+    }
+
+    private final int gridBoard;
+    private final SetGridValueAction<T>[][][] actions;  // [player][x][y]
+    private final Factory<T> factory;
+
+    public GridActionCache(int gridBoard, int nPlayers, int width, int height) {
+        this(gridBoard, nPlayers, width, height, (g, player, x, y, value) -> new SetGridValueAction<>(g, x, y, value));
+    }
+
+    @SuppressWarnings("unchecked")
+    public GridActionCache(int gridBoard, int nPlayers, int width, int height, Factory<T> factory) {
+        this.gridBoard = gridBoard;
+        this.factory = factory;
+        actions = new SetGridValueAction[nPlayers][width][height];
+    }
+
+    public int getGridBoard() {
+        return gridBoard;
+    }
+
+    /**
+     * @return the action for the player to set the cell to value (created the first time it is needed)
+     */
+    public SetGridValueAction<T> get(int player, int x, int y, T value) {
+        SetGridValueAction<T> retValue = actions[player][x][y];
+        if (retValue == null) {
+            // if two threads get here at once we just create two equal actions, which is harmless
+            retValue = factory.create(gridBoard, player, x, y, value);
+            actions[player][x][y] = retValue;
+        }
+        return retValue;
+    }
+}
@@ -48,6 +48,14 @@ public class Area extends Component implements IComponentContainer<Component> {
         return new Area(ownerId, componentName, componentID);
     }
 
+    /**
+     * @return An empty Area with the given ComponentID. This is used by AbstractGameState, which only creates
+     * allComponents when it is asked for, with the same ComponentID in every copy of the state.
+     */
+    public static Area emptyArea(int owner, String name, int ID) {
+        return new Area(owner, name, ID);
+    }
+
     /**
      * Clears the collection of components.
      */
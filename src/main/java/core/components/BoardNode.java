@@ -56,6 +56,12 @@ public class BoardNode extends Component {
         return false;
     }
 
+    // Removes all neighbours of this node, so that GraphBoard.copyInto() can reuse it
+    void clearNeighbours() {
+        neighbours.clear();
+        neighbourSideMapping.clear();
+    }
+
     /**
      * Adds neighbour to specific side of this node.
      * @param neighbour - new neighbour to be added.
@@ -18,6 +18,14 @@ public class Card extends Component {
         super(CoreConstants.ComponentType.CARD, name, ID);
     }
 
+    /**
+     * The properties of a card do not change in place, so copies of it share them (see shareComponentTo()).
+     */
+    @Override
+    public void copyComponentTo(Component copyTo) {
+        shareComponentTo(copyTo);
+    }
+
     @Override
     public Card copy(){
         Card copy = new Card(componentName, componentID);
@@ -8,23 +8,22 @@ import core.CoreConstants.ComponentType;
 import java.util.*;
 
 public abstract class Component {
-    private static int ID = 0;  // All components receive a unique and final ID from this always increasing counter
-
     protected transient final int componentID;  // Unique ID of this component
     protected final ComponentType type;  // Type of this component
     protected HashMap<Integer, Property> properties;  // Maps between integer key for the property and the property object
     protected transient int ownerId = -1;  // By default belongs to the game
     protected String componentName;  // Name of this component
+    private transient boolean sharedProperties;  // True if the properties map may be shared with copies, see shareComponentTo()
 
     public Component(ComponentType type, String name) {
-        this.componentID = ID++;
+        this.componentID = ComponentIDAllocator.nextID();  // unique and final ID, see ComponentIDAllocator
         this.type = type;
         this.componentName = name;
         this.properties = new HashMap<>();
     }
 
     public Component(ComponentType type) {
-        this.componentID = ID++;
+        this.componentID = ComponentIDAllocator.nextID();  // unique and final ID, see ComponentIDAllocator
         this.type = type;
         this.componentName = type.toString();
         this.properties = new HashMap<>();
@@ -102,10 +101,12 @@ public abstract class Component {
     }
 
     /**
-     * Get the full map of properties.
+     * Get the full map of properties. This may be changed by the caller, so it is no longer shared with any copies
+     * of this component.
      * @return - mapping from property integer key to property objects.
      */
     public HashMap<Integer, Property> getProperties() {
+        unshareProperties();
         return properties;
     }
 
@@ -125,9 +126,17 @@ public abstract class Component {
      */
     public void setProperty(Property prop)
     {
+        unshareProperties();
         properties.put(prop.getHashKey(), prop);
     }
 
+    private void unshareProperties() {
+        if (sharedProperties) {
+            properties = new HashMap<>(properties);
+            sharedProperties = false;
+        }
+    }
+
     public void setProperties(HashMap<Integer, Property> props) {
         for (Property p: props.values()) {
             setProperty(p);
@@ -205,7 +214,12 @@ public abstract class Component {
      */
     public void copyComponentTo(Component copyTo)
     {
-        copyTo.properties.clear();
+        if (copyTo.sharedProperties) {
+            copyTo.properties = new HashMap<>();
+            copyTo.sharedProperties = false;
+        } else {
+            copyTo.properties.clear();
+        }
         for (int prop_key : this.properties.keySet()) {
             Property newProp = this.properties.get(prop_key).copy();
             copyTo.setProperty(newProp);
@@ -214,6 +228,34 @@ public abstract class Component {
         copyTo.componentName = componentName;
     }
 
+    /**
+     * Copies super class variables in given subclass instance, as copyComponentTo() does, but with the properties
+     * shared rather than copied. The properties are then the immutable part of the component (as for cards, where
+     * they are the definition loaded from JSON), and the copy has its own ID, owner and name. Both keep the same map
+     * until either of them calls setProperty(), which gives that component its own map. A shared Property must not
+     * be changed in place; set a new one instead.
+     * @param copyTo - subclass component instance
+     */
+    protected void shareComponentTo(Component copyTo)
+    {
+        sharedProperties = true;
+        copyTo.properties = properties;
+        copyTo.sharedProperties = true;
+        copyTo.ownerId = ownerId;
+        copyTo.componentName = componentName;
+    }
+
+    /**
+     * Checks if the state of this component can be copied into target (in place of a new copy), as the copyInto()
+     * methods of some components do. This needs target to be a different object of exactly the same class, and with
+     * the same ID (which is final).
+     * @param target - component that would be overwritten
+     * @return - true if target can be reused as a copy of this component
+     */
+    protected boolean canCopyInto(Component target) {
+        return target != null && target != this && target.getClass() == getClass() && target.componentID == componentID;
+    }
+
     @Override
     public String toString() {
         return "Component{" +
@@ -0,0 +1,83 @@
+package core.components;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out the unique IDs given to every new Component.
+ * <p>
+ * Each game state lineage (a state created by reset(), and all copies taken from it) owns one allocator, so that
+ * IDs only need to be unique within that game. The allocator is bound to the current thread while the framework
+ * is working on the state (setup, next(), computeAvailableActions() and copy()), and any Component created
+ * in that time takes its ID from it. This means that many games can be run concurrently on different threads
+ * without their IDs interfering, and that IDs start again from the same value for each new game.
+ * <p>
+ * Components created when no allocator is bound (for example when loading data, or in the constructor of a game state)
+ * take their ID from a global counter instead. The two ranges are kept distinct (game IDs start at GAME_ID_OFFSET), so
+ * that a component created outside a game never shares an ID with one created within it.
+ * <p>
+ * Both the global counter and the per-game allocators are lock-free and safe to use from several threads; copies
+ * of a state share the allocator of their original, so a component created in any copy never re-uses an ID.
+ */
+public final class ComponentIDAllocator {
+
+    // IDs allocated within a game start from here
+    public static final int GAME_ID_OFFSET = 1 << 30;
+
+    // The fallback for components created outside any game
+    private static final AtomicInteger globalID = new AtomicInteger(0);
+    // The allocator of the game state currently being worked on by this thread (if any)
+    private static final ThreadLocal<ComponentIDAllocator> current = new ThreadLocal<>();
+
+    private final AtomicInteger nextID = new AtomicInteger(GAME_ID_OFFSET);
+
+    /**
+     * @return a new ID from this allocator
+     */
+    public int next() {
+        return nextID.getAndIncrement();
+    }
+
+    /**
+     * @return the number of IDs handed out so far by this allocator
+     */
+    public int allocated() {
+        return nextID.get() - GAME_ID_OFFSET;
+    }
+
+    /**
+     * The ID for a new Component. This comes from the allocator bound to the current thread, or the global
+     * counter if there is none.
+     *
+     * @return a new component ID
+     */
+    public static int nextID() {
+        ComponentIDAllocator allocator = current.get();
+        return allocator == null ? globalID.getAndIncrement() : allocator.next();
+    }
+
+    /**
+     * Binds an allocator to the current thread, so that all components created from now on use it.
+     * This should always be paired with a call to release() (in a finally block) with the returned value.
+     *
+     * @param allocator - the allocator to use; null to use the global counter
+     * @return the previously bound allocator (which may be null)
+     */
+    public static ComponentIDAllocator bind(ComponentIDAllocator allocator) {
+        ComponentIDAllocator previous = current.get();
+        if (allocator != previous)
+            current.set(allocator);
+        return previous;
+    }
+
+    /**
+     * Restores the allocator that was bound before the matching call to bind().
+     *
+     * @param previous - the value returned by bind()
+     */
+    public static void release(ComponentIDAllocator previous) {
+        if (previous == null)
+            current.remove();
+        else
+            current.set(previous);
+    }
+}
@@ -0,0 +1,104 @@
+package core.components;
+
+import core.interfaces.IComponentContainer;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The index of components by ID used by AbstractGameState.getComponentById().
+ * <p>
+ * This is an open-addressing hash map from int to Component (so there is no boxing of the keys, and no Entry object
+ * per component). Adding a container adds everything nested in it as well. The index is a snapshot: it does not
+ * follow later changes to the containers, so its owner (AbstractGameState) clears and rebuilds it when they change.
+ */
+public final class ComponentIndex {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private int[] keys = new int[INITIAL_CAPACITY];
+    private Component[] values = new Component[INITIAL_CAPACITY];  // null for an empty slot
+    private int size;
+
+    /**
+     * @param id - the component ID
+     * @return the component with this ID, or null if it is not in the index
+     */
+    public Component get(int id) {
+        int mask = keys.length - 1;
+        for (int i = slot(id, mask); values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == id)
+                return values[i];
+        }
+        return null;
+    }
+
+    /**
+     * Adds a component (and anything nested in it) to the index, replacing any existing entry with the same ID.
+     *
+     * @param component - the component to add
+     */
+    public void put(Component component) {
+        putOne(component);
+        if (component instanceof IComponentContainer<?> container) {
+            for (Component nested : container instanceof Deck<?> deck ? deck.components : container.getComponents()) {
+                if (nested != null)
+                    put(nested);
+            }
+        }
+    }
+
+    public void putAll(List<? extends Component> components) {
+        for (Component c : components)
+            put(c);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    private void putOne(Component component) {
+        int id = component.getComponentID();
+        int mask = keys.length - 1;
+        int i = slot(id, mask);
+        while (values[i] != null) {
+            if (keys[i] == id) {
+                values[i] = component;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = id;
+        values[i] = component;
+        if (++size * 2 > keys.length)
+            resize();
+    }
+
+    private void resize() {
+        int[] oldKeys = keys;
+        Component[] oldValues = values;
+        keys = new int[oldKeys.length * 2];
+        values = new Component[oldValues.length * 2];
+        int mask = keys.length - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldValues[j] != null) {
+                int i = slot(oldKeys[j], mask);
+                while (values[i] != null)
+                    i = (i + 1) & mask;
+                keys[i] = oldKeys[j];
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    private static int slot(int id, int mask) {
+        // IDs are mostly consecutive, so spread them out over the table
+        int h = id * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+}
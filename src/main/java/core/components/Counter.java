@@ -56,6 +56,29 @@ public class Counter extends Component {
         return copy;
     }
 
+    /**
+     * Copies this counter into target, which is then the same as a copy() of this counter, without allocating a new
+     * one (see GameStatePool). For subclasses this is the same as copy().
+     *
+     * @param target - counter to overwrite
+     * @return - target, or a new Counter (as copy()) if target could not be reused
+     */
+    public Counter copyInto(Counter target) {
+        if (getClass() != Counter.class || !canCopyInto(target))
+            return copy();
+        if (values == null)
+            target.values = null;
+        else if (target.values != null && target.values != values && target.values.length == values.length)
+            System.arraycopy(values, 0, target.values, 0, values.length);
+        else
+            target.values = values.clone();
+        target.valueIdx = valueIdx;
+        target.minimum = minimum;
+        target.maximum = maximum;
+        copyComponentTo(target);
+        return target;
+    }
+
     /**
      * Increment the value of this counter by the specified value.
      * @param amount - how much to add to this counter.
@@ -2,15 +2,22 @@ package core.components;
 
 import core.CoreConstants;
 import core.interfaces.IComponentContainer;
+import core.interfaces.IZobristHashable;
 import org.jetbrains.annotations.NotNull;
 import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
 import org.json.simple.parser.JSONParser;
 import org.json.simple.parser.ParseException;
+import utilities.Zobrist;
 
 import java.io.FileReader;
 import java.io.IOException;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
 
 import static core.CoreConstants.VisibilityMode;
 
@@ -22,11 +29,19 @@ import static core.CoreConstants.VisibilityMode;
  * * components played on the player's area
  * * Discomponent pile
  */
-public class Deck<T extends Component> extends Component implements IComponentContainer<T>, Iterable<T> {
+public class Deck<T extends Component> extends Component implements IComponentContainer<T>, Iterable<T>, IZobristHashable {
 
     protected int capacity;  // Capacity of the deck (maximum number of elements)
     protected List<T> components;  // List of components in this deck
     protected VisibilityMode visibility;
+    // true if the components list may be shared with another Deck (see copyOnWrite())
+    private boolean sharedComponents;
+    // view of components returned by getComponents(), which copies a shared list only when it is changed
+    private ComponentList componentList;
+    // Zobrist hash of the deck contents; this is only kept up to date once it has been asked for
+    private long zobristHash;
+    private long zobristCheckHash;
+    private boolean zobristHashValid;
 
     public Deck(String name, VisibilityMode visibility) {
         this(name, -1, visibility);
@@ -142,8 +157,9 @@ public class Deck<T extends Component> extends Component implements IComponentCo
      */
     public T pick(int idx) {
         if (!components.isEmpty() && idx < components.size() && idx >= 0) {
-            T c = components.get(idx);
-            components.remove(idx);
+            ownComponents();
+            T c = components.remove(idx);
+            removed(c);
             return c;
         }
         return null;
@@ -221,7 +237,9 @@ public class Deck<T extends Component> extends Component implements IComponentCo
         if (c == null)
             throw new IllegalArgumentException("null cannot be added to a Deck");
         c.setOwnerId(ownerId);
+        ownComponents();
         components.add(index, c);
+        added(c);
         return capacity == -1 || components.size() <= capacity;
     }
 
@@ -254,9 +272,11 @@ public class Deck<T extends Component> extends Component implements IComponentCo
      * @return true if not over capacity, false otherwise.
      */
     public boolean add(Deck<T> d, int index) {
+        ownComponents();
         components.addAll(index, d.components);
         for (T comp : d.components) {
             comp.setOwnerId(ownerId);
+            added(comp);
         }
         return capacity == -1 || components.size() <= capacity;
     }
@@ -266,9 +286,11 @@ public class Deck<T extends Component> extends Component implements IComponentCo
     }
 
     public boolean add(Collection<T> d, int index) {
+        ownComponents();
         components.addAll(index, d);
         for (T comp : d) {
             comp.setOwnerId(ownerId);
+            added(comp);
         }
         return capacity == -1 || components.size() <= capacity;
     }
@@ -297,7 +319,8 @@ public class Deck<T extends Component> extends Component implements IComponentCo
     public boolean remove(int idx) {
         if (idx >= 0 && idx < components.size()) {
             components.get(idx).setOwnerId(-1);
-            components.remove(idx);
+            ownComponents();
+            removed(components.remove(idx));
             return true;
         }
         return false;
@@ -322,7 +345,10 @@ public class Deck<T extends Component> extends Component implements IComponentCo
         for (T comp : components) {
             comp.setOwnerId(-1);
         }
+        ownComponents();
         components.clear();
+        zobristHash = 0L;
+        zobristCheckHash = 0L;
     }
 
     // Getters, Setters
@@ -331,6 +357,7 @@ public class Deck<T extends Component> extends Component implements IComponentCo
      * Shuffles the deck with a specific random object.
      */
     public void shuffle(Random rnd) {
+        ownComponents();
         Collections.shuffle(components, rnd);
     }
 
@@ -342,6 +369,7 @@ public class Deck<T extends Component> extends Component implements IComponentCo
      * @param rnd       - random number generator used for shuffling
      */
     public void shuffle(int fromIndex, int toIndex, Random rnd) {
+        ownComponents();
         List<T> subList = components.subList(fromIndex, toIndex);
         Collections.shuffle(subList, rnd);
         int i = 0;
@@ -352,11 +380,43 @@ public class Deck<T extends Component> extends Component implements IComponentCo
     }
 
     /**
-     * @return all the components in this deck.
+     * @return all the components in this deck. This is a view of the underlying list, so any changes to it change the
+     * deck. Reading it does not copy a list shared with another deck (see copyOnWrite()); changing it does.
      */
     @Override
     public List<T> getComponents() {
-        return components;
+        if (componentList == null)
+            componentList = new ComponentList();
+        return componentList;
+    }
+
+    // The read-only methods from IComponentContainer use the list directly, rather than through getComponents()
+    @Override
+    public int getSize() {
+        return components.size();
+    }
+
+    @Override
+    public Stream<T> stream() {
+        return components.stream();
+    }
+
+    @Override
+    public double sumDouble(Function<T, Double> lambda) {
+        double retValue = 0.0;
+        for (T c : components) {
+            retValue += lambda.apply(c);
+        }
+        return retValue;
+    }
+
+    @Override
+    public int sumInt(Function<T, Integer> lambda) {
+        int retValue = 0;
+        for (T c : components) {
+            retValue += lambda.apply(c);
+        }
+        return retValue;
     }
 
     /**
@@ -366,8 +426,11 @@ public class Deck<T extends Component> extends Component implements IComponentCo
      */
     public void setComponents(List<T> components) {
         this.components = components;
+        sharedComponents = false;
+        zobristHashValid = false;
         for (T comp : components) {
             comp.setOwnerId(ownerId);
+            added(comp);
         }
     }
 
@@ -402,7 +465,9 @@ public class Deck<T extends Component> extends Component implements IComponentCo
      */
     public void setComponent(int idx, T component) {
         component.setOwnerId(ownerId);
-        components.set(idx, component);
+        ownComponents();
+        removed(components.set(idx, component));
+        added(component);
     }
 
     /**
@@ -435,6 +500,306 @@ public class Deck<T extends Component> extends Component implements IComponentCo
         return dp;
     }
 
+    /**
+     * Creates a copy of this deck that shares the list of components with the original, until either of them is
+     * changed. This saves copying the list (and every component in it) when the copy is never changed, as is the
+     * case for many of the decks in a copy of the game state made during search.
+     * <p>
+     * Unlike copy() the components themselves are not copied, so this should only be used (in place of copy()) for
+     * decks whose components are never changed once created, for example if their copy() method just returns
+     * the same object. Subclasses of Deck have their own state that goes with the list of components, so for these
+     * this is the same as copy().
+     *
+     * @return - a new Deck with the same properties.
+     */
+    public Deck<T> copyOnWrite() {
+        if (getClass() != Deck.class)
+            return copy();
+        Deck<T> dp = new Deck<>(componentName, ownerId, componentID, visibility);
+        dp.components = components;
+        dp.capacity = capacity;
+        dp.sharedComponents = true;
+        sharedComponents = true;
+        dp.zobristHash = zobristHash;
+        dp.zobristCheckHash = zobristCheckHash;
+        dp.zobristHashValid = zobristHashValid;
+        copyComponentTo(dp);
+        return dp;
+    }
+
+    /**
+     * Copies this deck into target, which is then the same as a copy() of this deck. Target's list of components is
+     * reused (unless it is shared with another deck), so this saves allocating the deck and its list when target
+     * is no longer needed, for example in a pooled copy of the game state (see GameStatePool).
+     * <p>
+     * If target cannot be reused (it is not a deck of the same class with the same ID), then this is the same
+     * as copy(). Subclasses of Deck have their own state, so unless they override this it is always the same as copy().
+     *
+     * @param target - deck to overwrite
+     * @return - target, or a new Deck if target could not be reused
+     */
+    public Deck<T> copyInto(Deck<T> target) {
+        if (getClass() != Deck.class || !canCopyInto(target))
+            return copy();
+        copyIntoDeck(target);
+        return target;
+    }
+
+    @SuppressWarnings("unchecked")
+    protected void copyIntoDeck(Deck<T> deck) {
+        List<T> newComponents = deck.components;
+        if (deck.sharedComponents || newComponents == components)
+            newComponents = new LinkedList<>();
+        else
+            newComponents.clear();
+        for (T c : components) {
+            newComponents.add((T) c.copy());
+        }
+        deck.components = newComponents;
+        deck.sharedComponents = false;
+        deck.capacity = capacity;
+        deck.visibility = visibility;
+        deck.zobristHash = zobristHash;
+        deck.zobristCheckHash = zobristCheckHash;
+        deck.zobristHashValid = zobristHashValid;
+        copyComponentTo(deck);
+    }
+
+    // Called after a component is added to the deck
+    private void added(T c) {
+        if (zobristHashValid) {
+            zobristHash += Zobrist.componentKey(c);
+            zobristCheckHash += Zobrist.componentCheckKey(c);
+        }
+    }
+
+    // Called after a component is removed from the deck
+    private void removed(T c) {
+        if (zobristHashValid) {
+            zobristHash -= Zobrist.componentKey(c);
+            zobristCheckHash -= Zobrist.componentCheckKey(c);
+        }
+    }
+
+    /**
+     * The Zobrist hash of the contents of the deck. This is the sum of the keys of all the components in it
+     * (see Zobrist.componentKey()), and so ignores the order of the components. It is computed in full on the first
+     * call, and then kept up to date as components are added and removed.
+     *
+     * @return the hash of the contents of this deck
+     */
+    @Override
+    public long getZobristHash() {
+        if (!zobristHashValid)
+            computeZobristHashes();
+        return zobristHash;
+    }
+
+    /**
+     * The same as getZobristHash(), but with the keys of Zobrist.componentCheckKey(), which are independent of those.
+     *
+     * @return the check hash of the contents of this deck
+     */
+    @Override
+    public long getZobristCheckHash() {
+        if (!zobristHashValid)
+            computeZobristHashes();
+        return zobristCheckHash;
+    }
+
+    private void computeZobristHashes() {
+        zobristHash = 0L;
+        zobristCheckHash = 0L;
+        for (T c : components) {
+            zobristHash += Zobrist.componentKey(c);
+            zobristCheckHash += Zobrist.componentCheckKey(c);
+        }
+        zobristHashValid = true;
+    }
+
+    // Called before any change to the components list, to take a private copy if it is shared with another Deck
+    private void ownComponents() {
+        if (sharedComponents) {
+            components = new LinkedList<>(components);
+            sharedComponents = false;
+        }
+    }
+
+    // The list returned by getComponents(). Reads go straight to the current list of components; anything that may
+    // change it first takes a private copy if it is shared, and marks the Zobrist hash as out of date.
+    private class ComponentList extends AbstractList<T> {
+
+        private List<T> own() {
+            ownComponents();
+            zobristHashValid = false;
+            return components;
+        }
+
+        @Override
+        public int size() {
+            return components.size();
+        }
+
+        @Override
+        public T get(int index) {
+            return components.get(index);
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return components.contains(o);
+        }
+
+        @Override
+        public int indexOf(Object o) {
+            return components.indexOf(o);
+        }
+
+        @Override
+        public int lastIndexOf(Object o) {
+            return components.lastIndexOf(o);
+        }
+
+        @Override
+        public Object[] toArray() {
+            return components.toArray();
+        }
+
+        @Override
+        public <A> A[] toArray(A[] a) {
+            return components.toArray(a);
+        }
+
+        @Override
+        public void forEach(Consumer<? super T> action) {
+            components.forEach(action);
+        }
+
+        @Override
+        public Spliterator<T> spliterator() {
+            return components.spliterator();
+        }
+
+        @Override
+        public Stream<T> stream() {
+            return components.stream();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o == this || components.equals(o);
+        }
+
+        @Override
+        public int hashCode() {
+            return components.hashCode();
+        }
+
+        @Override
+        public T set(int index, T element) {
+            return own().set(index, element);
+        }
+
+        @Override
+        public void add(int index, T element) {
+            own().add(index, element);
+        }
+
+        @Override
+        public boolean add(T element) {
+            return own().add(element);
+        }
+
+        @Override
+        public T remove(int index) {
+            return own().remove(index);
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            return own().remove(o);
+        }
+
+        @Override
+        public boolean addAll(Collection<? extends T> c) {
+            return own().addAll(c);
+        }
+
+        @Override
+        public boolean addAll(int index, Collection<? extends T> c) {
+            return own().addAll(index, c);
+        }
+
+        @Override
+        public boolean removeAll(Collection<?> c) {
+            return own().removeAll(c);
+        }
+
+        @Override
+        public boolean retainAll(Collection<?> c) {
+            return own().retainAll(c);
+        }
+
+        @Override
+        public boolean removeIf(Predicate<? super T> filter) {
+            return own().removeIf(filter);
+        }
+
+        @Override
+        public void replaceAll(UnaryOperator<T> operator) {
+            own().replaceAll(operator);
+        }
+
+        @Override
+        public void sort(Comparator<? super T> c) {
+            own().sort(c);
+        }
+
+        @Override
+        public void clear() {
+            own().clear();
+        }
+
+        @Override
+        public ListIterator<T> listIterator(int index) {
+            // a ListIterator can change the list
+            return own().listIterator(index);
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return new Iterator<T>() {
+                List<T> list = components;
+                ListIterator<T> it = list.listIterator();
+                int next = 0;  // index of the next element
+
+                @Override
+                public boolean hasNext() {
+                    return it.hasNext();
+                }
+
+                @Override
+                public T next() {
+                    T retValue = it.next();
+                    next++;
+                    return retValue;
+                }
+
+                @Override
+                public void remove() {
+                    if (list != own()) {
+                        // the list was shared when iteration started, so we continue in the private copy
+                        list = components;
+                        it = list.listIterator(next - 1);
+                        it.next();
+                    }
+                    it.remove();
+                    next--;
+                }
+            };
+        }
+    }
+
     @SuppressWarnings("unchecked")
     protected void copyTo(Deck<T> deck) {
         List<T> newComponents = new LinkedList<>();
@@ -443,6 +808,9 @@ public class Deck<T extends Component> extends Component implements IComponentCo
         }
         deck.components = newComponents;
         deck.capacity = capacity;
+        deck.zobristHash = zobristHash;
+        deck.zobristCheckHash = zobristCheckHash;
+        deck.zobristHashValid = zobristHashValid;
 
         //copy type and component.
         copyComponentTo(deck);
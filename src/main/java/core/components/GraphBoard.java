@@ -77,6 +77,44 @@ public class GraphBoard extends Component implements IComponentContainer<BoardNo
         return b;
     }
 
+    /**
+     * Copies this board into target, which is then the same as a copy() of this board, reusing target's map and
+     * board nodes (with the same IDs) in place of new ones (see GameStatePool). For subclasses this is the same as copy().
+     * @param target - board to overwrite
+     * @return - target, or a new GraphBoard (as copy()) if target could not be reused
+     */
+    public GraphBoard copyInto(GraphBoard target)
+    {
+        if (getClass() != GraphBoard.class || !canCopyInto(target) || target.boardNodes == boardNodes)
+            return copy();
+        Map<Integer, BoardNode> nodeCopies = target.boardNodes;
+        nodeCopies.keySet().retainAll(boardNodes.keySet());
+        // Copy board nodes
+        for (BoardNode bn: boardNodes.values()) {
+            BoardNode bnCopy = nodeCopies.get(bn.getComponentID());
+            if (bnCopy == null || bnCopy.getClass() != BoardNode.class || bnCopy.getMaxNeighbours() != bn.getMaxNeighbours()) {
+                bnCopy = new BoardNode(bn.getMaxNeighbours(), "", bn.getComponentID());
+                nodeCopies.put(bn.getComponentID(), bnCopy);
+            } else {
+                bnCopy.clearNeighbours();
+            }
+            bn.copyComponentTo(bnCopy);
+        }
+        // Assign neighbours
+        for (BoardNode bn: boardNodes.values()) {
+            BoardNode bnCopy = nodeCopies.get(bn.getComponentID());
+            for (BoardNode neighbour: bn.getNeighbours()) {
+                bnCopy.addNeighbour(nodeCopies.get(neighbour.getComponentID()));
+            }
+            for (Map.Entry<BoardNode, Integer> e: bn.getNeighbourSideMapping().entrySet()) {
+                bnCopy.addNeighbour(nodeCopies.get(e.getKey().componentID), e.getValue());
+            }
+        }
+        // Copy properties
+        copyComponentTo(target);
+        return target;
+    }
+
     /**
      * Returns the node in the list which matches the given property
      * @param prop_id - ID of the property to look for.
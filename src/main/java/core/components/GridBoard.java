@@ -2,6 +2,7 @@ package core.components;
 
 import core.CoreConstants;
 import core.interfaces.IComponentContainer;
+import core.interfaces.IZobristHashable;
 import core.properties.PropertyString;
 import core.properties.PropertyVector2D;
 import org.json.simple.JSONArray;
@@ -10,6 +11,7 @@ import org.json.simple.parser.JSONParser;
 import org.json.simple.parser.ParseException;
 import utilities.Pair;
 import utilities.Vector2D;
+import utilities.Zobrist;
 
 import java.io.FileReader;
 import java.io.IOException;
@@ -19,12 +21,17 @@ import java.util.stream.Collectors;
 import static core.CoreConstants.imgHash;
 import static utilities.Utils.getNeighbourhood;
 
-public class GridBoard<T extends Component> extends Component implements IComponentContainer<T> {
+public class GridBoard<T extends Component> extends Component implements IComponentContainer<T>, IZobristHashable {
 
     private int width;  // Width of the board
     private int height;  // Height of the board
 
     private Component[][] grid;  // 2D grid representation of this board
+    // true if the grid may be shared with another GridBoard (see copyOnWrite())
+    private boolean sharedGrid;
+    // Zobrist hash of the grid contents; this is only kept up to date once it has been asked for
+    private long zobristHash;
+    private boolean zobristHashValid;
 
     protected GridBoard() {
         super(CoreConstants.ComponentType.BOARD);
@@ -69,6 +76,7 @@ public class GridBoard<T extends Component> extends Component implements ICompon
         this.width = orig.getWidth();
         this.height = orig.getHeight();
         this.grid = orig.grid.clone();
+        this.sharedGrid = orig.sharedGrid;  // the rows are still shared
     }
 
     /**
@@ -122,6 +130,8 @@ public class GridBoard<T extends Component> extends Component implements ICompon
             if (w >= 0) System.arraycopy(this.grid[i], 0, grid[i + offsetY], offsetX, w);
         }
         this.grid = grid;
+        this.sharedGrid = false;
+        this.zobristHashValid = false;
     }
 
     /**
@@ -134,6 +144,9 @@ public class GridBoard<T extends Component> extends Component implements ICompon
      */
     public boolean setElement(int x, int y, T value) {
         if (x >= 0 && x < width && y >= 0 && y < height) {
+            ownGrid();
+            if (zobristHashValid)
+                zobristHash ^= cellKey(x, y, grid[y][x]) ^ cellKey(x, y, value);
             grid[y][x] = value;
             return true;
         } else
@@ -162,7 +175,8 @@ public class GridBoard<T extends Component> extends Component implements ICompon
     }
 
     /**
-     * Retrieves the grid.
+     * Retrieves the grid. This may be shared with copies of the board (see copyOnWrite()), so it must only be read;
+     * use setElement() to change it.
      *
      * @return - 2D grid.
      */
@@ -236,10 +250,87 @@ public class GridBoard<T extends Component> extends Component implements ICompon
             if (width >= 0) System.arraycopy(grid[i], 0, gridCopy[i], 0, width);
         }
         GridBoard<T> g = new GridBoard<>(gridCopy, componentID);
+        g.zobristHash = zobristHash;
+        g.zobristHashValid = zobristHashValid;
         copyComponentTo(g);
         return g;
     }
 
+    /**
+     * Copies this board into target, which is then the same as a copy() of this board, reusing target's grid
+     * (unless it is shared with another board, or is a different size). This saves allocating the board when target is
+     * no longer needed, for example in a pooled copy of the game state (see GameStatePool).
+     *
+     * @param target - board to overwrite
+     * @return - target, or a new GridBoard (as copy()) if target could not be reused
+     */
+    public GridBoard<T> copyInto(GridBoard<T> target) {
+        if (getClass() != GridBoard.class || !canCopyInto(target))
+            return copy();
+        if (target.sharedGrid || target.grid == grid || target.width != width || target.height != height) {
+            target.grid = new Component[height][width];
+            target.width = width;
+            target.height = height;
+            target.sharedGrid = false;
+        }
+        for (int i = 0; i < height; i++)
+            System.arraycopy(grid[i], 0, target.grid[i], 0, width);
+        target.zobristHash = zobristHash;
+        target.zobristHashValid = zobristHashValid;
+        copyComponentTo(target);
+        return target;
+    }
+
+    /**
+     * Creates a copy of this board that shares the grid with the original, until either of them is changed.
+     * As with copy(), the elements of the grid are not themselves copied. Games can use this in place of copy() for
+     * boards that are often not changed in a copy of the game state.
+     *
+     * @return - a new GridBoard with the same properties.
+     */
+    public GridBoard<T> copyOnWrite() {
+        GridBoard<T> g = new GridBoard<>(grid, componentID);
+        g.sharedGrid = true;
+        sharedGrid = true;
+        g.zobristHash = zobristHash;
+        g.zobristHashValid = zobristHashValid;
+        copyComponentTo(g);
+        return g;
+    }
+
+    // Called before any change to the grid, to take a private copy if it is shared with another GridBoard
+    private void ownGrid() {
+        if (sharedGrid) {
+            Component[][] gridCopy = new Component[grid.length][];
+            for (int i = 0; i < grid.length; i++)
+                gridCopy[i] = grid[i].clone();
+            grid = gridCopy;
+            sharedGrid = false;
+        }
+    }
+
+    /**
+     * The Zobrist hash of the grid: the XOR of a key for the content of each cell (see Zobrist.componentKey()).
+     * This is computed in full on the first call, and then updated incrementally by setElement().
+     *
+     * @return the hash of the contents of this grid
+     */
+    @Override
+    public long getZobristHash() {
+        if (!zobristHashValid) {
+            zobristHash = 0L;
+            for (int y = 0; y < height; y++)
+                for (int x = 0; x < width; x++)
+                    zobristHash ^= cellKey(x, y, grid[y][x]);
+            zobristHashValid = true;
+        }
+        return zobristHash;
+    }
+
+    private long cellKey(int x, int y, Component value) {
+        return value == null ? 0L : Zobrist.key((long) y * width + x, Zobrist.componentKey(value));
+    }
+
     public GridBoard<T> emptyCopy() {
         GridBoard<T> g = new GridBoard<>(getWidth(), getHeight(), componentID);
         copyComponentTo(g);
@@ -302,6 +393,8 @@ public class GridBoard<T extends Component> extends Component implements ICompon
         }
 
         this.grid = new Component[height][width];
+        this.sharedGrid = false;
+        this.zobristHashValid = false;
 
         JSONArray grids = (JSONArray) board.get("grid");
         int y = 0;
@@ -355,6 +355,20 @@ public class PartialObservableDeck<T extends Component> extends Deck<T> {
         return commonCopy(dp);
     }
 
+    /**
+     * As Deck.copyInto(), this reuses target (and its list of components) as a copy().
+     */
+    @Override
+    public PartialObservableDeck<T> copyInto(Deck<T> target) {
+        if (getClass() != PartialObservableDeck.class || !canCopyInto(target))
+            return copy();
+        PartialObservableDeck<T> dp = (PartialObservableDeck<T>) target;
+        copyIntoDeck(dp);
+        dp.visibility = VisibilityMode.MIXED_VISIBILITY;  // as for copy()
+        // the visibility arrays are cloned, as they may be shared between elements
+        return commonCopy(dp);
+    }
+
     @NotNull
     private PartialObservableDeck<T> commonCopy(PartialObservableDeck<T> dp) {
         dp.deckVisibility = deckVisibility.clone();
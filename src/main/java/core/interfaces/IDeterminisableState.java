@@ -0,0 +1,25 @@
+package core.interfaces;
+
+import core.components.Component;
+import core.components.Deck;
+
+import java.util.List;
+
+/**
+ * Implemented by game states in which the information hidden from a player is just which of the unknown components
+ * is in each position of some decks. That is, copy(playerId) is the same as a full copy, with all the components that
+ * playerId cannot see in those decks shuffled among the positions they are in (as DeterminisationUtilities.reshuffle()
+ * does). A core.Determiniser can then find these positions once, and make each new determinisation by just shuffling
+ * the components in them.
+ */
+public interface IDeterminisableState<C extends Component> {
+
+    /**
+     * The decks are given in a fixed order, so that they are the same decks (by position in the list) in any copy
+     * of this state.
+     *
+     * @param playerId - player observing the state
+     * @return the decks that may contain components hidden from playerId
+     */
+    List<Deck<C>> getDeterminisableDecks(int playerId);
+}
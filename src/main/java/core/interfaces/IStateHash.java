@@ -0,0 +1,27 @@
+package core.interfaces;
+
+import core.AbstractGameState;
+
+/**
+ * A 64-bit alternative to IStateKey. This avoids building (and hashing) a String for every lookup, and can be
+ * used as the key of a primitive long-keyed table.
+ * <p>
+ * Two different states can have the same hash, so when a state is found in a table by its hash, getCheckHash() is
+ * compared as well. This is a second hash of the same information, computed independently of getHash(), so that it
+ * is very unlikely to be the same as well.
+ */
+public interface IStateHash {
+
+    long getHash(AbstractGameState state);
+
+    /**
+     * This must be the same for any two states that have the same getHash() and are meant to be treated as the same.
+     * By default this is state.hashCode(), which is suitable if getHash() covers the whole state; it must be
+     * overridden if getHash() leaves out parts of the state, so that states with the same hash are not kept apart.
+     *
+     * @return - a hash of the state that is independent of getHash()
+     */
+    default long getCheckHash(AbstractGameState state) {
+        return state.hashCode();
+    }
+}
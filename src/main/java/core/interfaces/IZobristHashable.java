@@ -0,0 +1,23 @@
+package core.interfaces;
+
+/**
+ * Implemented by components and game states that maintain a Zobrist hash of their contents (see utilities.Zobrist).
+ * This is updated incrementally as the forward model changes things, so that it is cheap to get at any point.
+ * <p>
+ * Equal contents must give equal hashes. Different contents should give different hashes, though there can be (rare)
+ * collisions; getZobristCheckHash() can be used to detect these.
+ */
+public interface IZobristHashable {
+
+    long getZobristHash();
+
+    /**
+     * A second hash of the same contents as getZobristHash(), computed independently of it, which is compared to
+     * tell apart two different states with the same Zobrist hash (see IStateHash.getCheckHash()).
+     * By default this is hashCode(); this must be overridden if getZobristHash() leaves out anything that
+     * hashCode() includes, so that equal Zobrist hashes of the same contents also have equal check hashes.
+     */
+    default long getZobristCheckHash() {
+        return hashCode();
+    }
+}
@@ -121,6 +121,17 @@ public enum RunArg {
     nPlayers("The number of players in each game. Overrides playerRange.",
             -1,
             new Usage[]{Usage.ParameterSearch, Usage.RunGames}),
+    nThreads("The number of threads to use to run the games of a tournament in parallel. Default is 1 (serial).\n" +
+            "\t Each thread runs its games on its own Game instance, with copies of the agents.\n" +
+            "\t For a given seed the results are the same as a serial run, provided the agents are deterministic\n" +
+            "\t given the game seed (for example with resetSeedEachGame) and do not use a time budget.\n" +
+            "\t In ParameterSearch the NTBEA repeats are run in parallel, and any spare threads evaluate batches of\n" +
+            "\t settings within each repeat. The results are reproducible for a given seed and nThreads.\n" +
+            "\t In SkillLadder, and RunGames in 'sequential' mode, this is instead the number of tournaments (rungs of\n" +
+            "\t the ladder, or pairs of agents) run at the same time, each on one thread. 0 means one per processor.\n" +
+            "\t If any agent has a time budget, then at most half the available processors are used.",
+            1,
+            new Usage[]{Usage.RunGames, Usage.ParameterSearch, Usage.SkillLadder}),
     neighbourhood("The size of neighbourhood to look at in NTBEA. Default is min(50, |searchSpace|/100) ",
             50,
             new Usage[]{Usage.ParameterSearch}),
@@ -0,0 +1,26 @@
+package evaluation.features;
+
+import core.AbstractGameState;
+import core.interfaces.IStateHash;
+import core.interfaces.IZobristHashable;
+
+/**
+ * An IStateHash that uses the incrementally maintained Zobrist hash of the game state.
+ * This is only available for games whose state implements IZobristHashable.
+ */
+public class ZobristStateHash implements IStateHash {
+
+    @Override
+    public long getHash(AbstractGameState state) {
+        if (state instanceof IZobristHashable hashable)
+            return hashable.getZobristHash();
+        throw new IllegalArgumentException(state.getGameType() + " does not support Zobrist hashing");
+    }
+
+    @Override
+    public long getCheckHash(AbstractGameState state) {
+        if (state instanceof IZobristHashable hashable)
+            return hashable.getZobristCheckHash();
+        throw new IllegalArgumentException(state.getGameType() + " does not support Zobrist hashing");
+    }
+}
@@ -0,0 +1,281 @@
+package evaluation.loggers;
+
+import core.interfaces.IStatisticLogger;
+import evaluation.summarisers.TAGOccurrenceStatSummary;
+import evaluation.summarisers.TAGStatSummary;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * A logger that writes records in a compact binary columnar format, for numeric training data (such as that from
+ * FeatureListener) where formatting and parsing text is the bottleneck. It is used in the same way as
+ * FileStatsLogger: one row per call of record(Map), with the columns fixed by the first call. Use
+ * BinaryStatsReader to read the file (AbstractLearner.loadData() does this automatically).
+ * <p>
+ * The file is a header followed by blocks of up to BLOCK_SIZE rows. All numbers are little-endian.
+ * <ul>
+ *     <li>Header: the MAGIC bytes, int version, int number of columns; then for each column a byte type (TYPE_DOUBLE
+ *     or TYPE_INT), a short length and the UTF-8 bytes of its name. Padded with zeros to a multiple of 8 bytes.</li>
+ *     <li>Block: int number of rows, padded to 8 bytes; then each column in turn, with one value per row
+ *     (8 byte doubles or 4 byte ints), each column padded to a multiple of 8 bytes.</li>
+ * </ul>
+ * A column's type is int if its first value is an Integer or Boolean (as 0 / 1), and double otherwise. Missing
+ * values are written as NaN (or MISSING_INT). Only numeric values can be recorded (the most common occurrence is used
+ * for a TAGOccurrenceStatSummary, as in FileStatsLogger). When appending to an existing file, the first record
+ * must have the same columns as the file, or an IllegalArgumentException is thrown.
+ */
+public class BinaryStatsLogger implements IStatisticLogger {
+
+    public static final byte[] MAGIC = {'T', 'A', 'G', 'B'};
+    public static final int VERSION = 1;
+    public static final byte TYPE_DOUBLE = 0;
+    public static final byte TYPE_INT = 1;
+    public static final int MISSING_INT = Integer.MIN_VALUE;
+    public static final int BLOCK_SIZE = 1 << 16;
+
+    private final String fileName;
+    private final boolean append;
+    private FileChannel channel;
+
+    private String[] columns;
+    private byte[] types;
+    private double[][] doubleBuffer;  // [column][row] for the current block (null for int columns)
+    private int[][] intBuffer;
+    private int rowsInBlock;
+
+    public BinaryStatsLogger(String fileName, boolean append) {
+        this.fileName = fileName;
+        this.append = append;
+    }
+
+    public BinaryStatsLogger(String fileName) {
+        this(fileName, true);
+    }
+
+    /**
+     * @return true if the file starts with the MAGIC bytes (and so is in this format)
+     */
+    public static boolean isBinaryStatsFile(String file) {
+        try (InputStream in = new FileInputStream(file)) {
+            byte[] start = in.readNBytes(MAGIC.length);
+            return Arrays.equals(start, MAGIC);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public void record(Map<String, ?> rawData) {
+        // first we preprocess data to remove nesting, as in FileStatsLogger
+        Map<String, Object> data = new LinkedHashMap<>();
+        for (String key : rawData.keySet()) {
+            Object thing = rawData.get(key);
+            if (thing instanceof Map) {
+                data.putAll((Map<? extends String, ?>) thing);
+            } else {
+                data.put(key, thing);
+            }
+        }
+        if (channel == null)
+            initialise(data);
+
+        for (int c = 0; c < columns.length; c++) {
+            Object datum = data.get(columns[c]);
+            if (datum instanceof TAGOccurrenceStatSummary)
+                datum = ((TAGOccurrenceStatSummary) datum).getHighestOccurrence().a;
+            if (datum instanceof Boolean)
+                datum = (Boolean) datum ? 1 : 0;
+            if (datum != null && !(datum instanceof Number))
+                throw new IllegalArgumentException("Only numeric data can be recorded in binary format : " + columns[c] + " = " + datum);
+            if (types[c] == TYPE_INT)
+                intBuffer[c][rowsInBlock] = datum == null ? MISSING_INT : ((Number) datum).intValue();
+            else
+                doubleBuffer[c][rowsInBlock] = datum == null ? Double.NaN : ((Number) datum).doubleValue();
+        }
+        rowsInBlock++;
+        if (rowsInBlock == BLOCK_SIZE)
+            writeBlock();
+    }
+
+    @Override
+    public void record(String key, Object datum) {
+        // as for FileStatsLogger, only complete records are logged
+    }
+
+    private void initialise(Map<String, Object> data) {
+        try {
+            File file = new File(fileName);
+            // if we have already written to the file (and then closed it), then we always append to it
+            boolean existing = (append || columns != null) && file.exists() && file.length() > 0;
+            if (existing) {
+                // the columns are those already in the file
+                try (BinaryStatsReader reader = new BinaryStatsReader(fileName)) {
+                    String[] fileColumns = reader.columns();
+                    byte[] fileTypes = new byte[fileColumns.length];
+                    for (int c = 0; c < fileColumns.length; c++)
+                        fileTypes[c] = reader.type(c);
+                    // (if we wrote the file ourselves, then we know that they are the same)
+                    if (columns == null)
+                        checkColumns(fileColumns, fileTypes, data);
+                    columns = fileColumns;
+                    types = fileTypes;
+                }
+                channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            } else {
+                columns = data.keySet().toArray(new String[0]);
+                types = new byte[columns.length];
+                for (int c = 0; c < columns.length; c++) {
+                    Object datum = data.get(columns[c]);
+                    types[c] = datum instanceof Integer || datum instanceof Boolean ? TYPE_INT : TYPE_DOUBLE;
+                }
+                channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.WRITE,
+                        StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+                writeHeader();
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            throw new AssertionError("Problem opening file " + fileName + " : " + e.getMessage());
+        }
+        doubleBuffer = new double[columns.length][];
+        intBuffer = new int[columns.length][];
+        for (int c = 0; c < columns.length; c++) {
+            if (types[c] == TYPE_INT)
+                intBuffer[c] = new int[BLOCK_SIZE];
+            else
+                doubleBuffer[c] = new double[BLOCK_SIZE];
+        }
+    }
+
+    /**
+     * Checks that the data to be appended to an existing file has the same columns as the file (which would otherwise
+     * silently drop any new ones), and that it has no doubles for an int column.
+     */
+    private void checkColumns(String[] fileColumns, byte[] fileTypes, Map<String, Object> data) {
+        if (!new HashSet<>(Arrays.asList(fileColumns)).equals(data.keySet()))
+            throw new IllegalArgumentException("Cannot append to " + fileName + " as it has columns " +
+                    Arrays.toString(fileColumns) + " and not " + data.keySet());
+        for (int c = 0; c < fileColumns.length; c++) {
+            Object datum = data.get(fileColumns[c]);
+            if (fileTypes[c] == TYPE_INT && !(datum == null || datum instanceof Integer || datum instanceof Boolean))
+                throw new IllegalArgumentException("Cannot append to " + fileName + " as " + fileColumns[c] +
+                        " is an int column, and not " + datum);
+        }
+    }
+
+    private void writeHeader() throws IOException {
+        int size = MAGIC.length + 8;
+        byte[][] names = new byte[columns.length][];
+        for (int c = 0; c < columns.length; c++) {
+            names[c] = columns[c].getBytes(StandardCharsets.UTF_8);
+            size += 3 + names[c].length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(padded(size)).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putInt(columns.length);
+        for (int c = 0; c < columns.length; c++) {
+            buffer.put(types[c]);
+            buffer.putShort((short) names[c].length);
+            buffer.put(names[c]);
+        }
+        buffer.rewind();
+        writeFully(buffer);
+    }
+
+    private void writeBlock() {
+        if (rowsInBlock == 0)
+            return;
+        int size = 8;
+        for (byte type : types)
+            size += padded(rowsInBlock * (type == TYPE_INT ? 4 : 8));
+        ByteBuffer buffer = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(rowsInBlock);
+        buffer.position(8);
+        for (int c = 0; c < columns.length; c++) {
+            int start = buffer.position();
+            if (types[c] == TYPE_INT)
+                buffer.asIntBuffer().put(intBuffer[c], 0, rowsInBlock);
+            else
+                buffer.asDoubleBuffer().put(doubleBuffer[c], 0, rowsInBlock);
+            buffer.position(start + padded(rowsInBlock * (types[c] == TYPE_INT ? 4 : 8)));
+        }
+        buffer.rewind();
+        try {
+            writeFully(buffer);
+        } catch (IOException e) {
+            e.printStackTrace();
+            throw new AssertionError("Problem writing to file " + fileName + " : " + e.getMessage());
+        }
+        rowsInBlock = 0;
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+    }
+
+    static int padded(int bytes) {
+        return (bytes + 7) & ~7;
+    }
+
+    static long padded(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+    /**
+     * Writes any rows not yet written, and closes the file
+     */
+    @Override
+    public void processDataAndFinish() {
+        if (channel == null) return;
+        writeBlock();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+            throw new AssertionError("Problem closing file " + fileName + " : " + e.getMessage());
+        }
+        channel = null;
+    }
+
+    /**
+     * Writes any rows not yet written (as a block smaller than BLOCK_SIZE)
+     */
+    @Override
+    public void processDataAndNotFinish() {
+        if (channel == null) return;
+        writeBlock();
+        try {
+            channel.force(false);
+        } catch (IOException e) {
+            e.printStackTrace();
+            throw new AssertionError("Problem flushing file " + fileName + " : " + e.getMessage());
+        }
+    }
+
+    /**
+     * This always returns an empty Map
+     *
+     * @return A summary of the data
+     */
+    @Override
+    public Map<String, TAGStatSummary> summary() {
+        return new HashMap<>();
+    }
+
+    @Override
+    public BinaryStatsLogger emptyCopy(String id) {
+        String[] fileParts = fileName.split(Pattern.quote("."));
+        if (fileParts.length != 2)
+            throw new AssertionError("Filename does not conform to expected <stem>.<type>");
+        return new BinaryStatsLogger(fileParts[0] + "_" + id + "." + fileParts[1], append);
+    }
+}
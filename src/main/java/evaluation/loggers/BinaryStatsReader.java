@@ -0,0 +1,168 @@
+package evaluation.loggers;
+
+import java.io.IOException;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static evaluation.loggers.BinaryStatsLogger.*;
+
+/**
+ * Reads a file written by BinaryStatsLogger. Each block of the file is memory-mapped separately (so the file can be
+ * larger than the 2GB limit on a single mapping), and the columns of each block are read in place (as DoubleBuffer /
+ * IntBuffer views of the mapping), so nothing is copied or parsed until a value is asked for.
+ */
+public class BinaryStatsReader implements AutoCloseable {
+
+    private final FileChannel channel;
+    private final String[] columns;
+    private final byte[] types;
+    // for each block, its mapping, its first row and the start of each column in the mapping
+    private final MappedByteBuffer[] blocks;
+    private final int[] blockStartRow;
+    private final int[][] columnOffsets;
+    private final int nRows;
+
+    public BinaryStatsReader(String fileName) throws IOException {
+        channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ);
+        long size = channel.size();
+
+        // the header is small, so we just read it
+        ByteBuffer header = read(0, MAGIC.length + 8, fileName);
+        byte[] magic = new byte[MAGIC.length];
+        header.get(magic);
+        if (!Arrays.equals(magic, MAGIC))
+            throw new IOException("Not a BinaryStatsLogger file : " + fileName);
+        int version = header.getInt();
+        if (version != VERSION)
+            throw new IOException("Unsupported version " + version + " of BinaryStatsLogger file : " + fileName);
+        int nColumns = header.getInt();
+        columns = new String[nColumns];
+        types = new byte[nColumns];
+        long position = header.capacity();
+        for (int c = 0; c < nColumns; c++) {
+            ByteBuffer column = read(position, 3, fileName);
+            types[c] = column.get();
+            byte[] name = new byte[column.getShort()];
+            read(position + 3, name.length, fileName).get(name);
+            columns[c] = new String(name, StandardCharsets.UTF_8);
+            position += 3 + name.length;
+        }
+        position = padded(position);
+
+        List<MappedByteBuffer> mappings = new ArrayList<>();
+        List<Integer> starts = new ArrayList<>();
+        List<int[]> offsets = new ArrayList<>();
+        int rows = 0;
+        while (position < size) {
+            int blockRows = read(position, 4, fileName).getInt();
+            int[] columnStart = new int[nColumns];
+            long blockSize = 8;
+            for (int c = 0; c < nColumns; c++) {
+                columnStart[c] = (int) blockSize;
+                blockSize += padded(blockRows * (types[c] == TYPE_INT ? 4L : 8L));
+            }
+            if (position + blockSize > size)
+                throw new IOException("Incomplete block at end of file : " + fileName);
+            if (blockSize > Integer.MAX_VALUE)
+                throw new IOException("Block too large to map : " + fileName);
+            MappedByteBuffer mapping = channel.map(FileChannel.MapMode.READ_ONLY, position, blockSize);
+            mapping.order(ByteOrder.LITTLE_ENDIAN);
+            mappings.add(mapping);
+            starts.add(rows);
+            offsets.add(columnStart);
+            rows += blockRows;
+            position += blockSize;
+        }
+        nRows = rows;
+        blocks = mappings.toArray(new MappedByteBuffer[0]);
+        blockStartRow = starts.stream().mapToInt(i -> i).toArray();
+        columnOffsets = offsets.toArray(new int[0][]);
+    }
+
+    private ByteBuffer read(long position, int bytes, String fileName) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0)
+                throw new IOException("Unexpected end of file : " + fileName);
+        }
+        return buffer.flip();
+    }
+
+    public String[] columns() {
+        return columns.clone();
+    }
+
+    public byte type(int column) {
+        return types[column];
+    }
+
+    public int nRows() {
+        return nRows;
+    }
+
+    public int nBlocks() {
+        return blockStartRow.length;
+    }
+
+    public int blockRows(int block) {
+        return (block + 1 < blockStartRow.length ? blockStartRow[block + 1] : nRows) - blockStartRow[block];
+    }
+
+    /**
+     * @return a view of the values of a double column in one block (no data is copied)
+     */
+    public DoubleBuffer doubleColumn(int block, int column) {
+        if (types[column] != TYPE_DOUBLE)
+            throw new IllegalArgumentException("Column " + columns[column] + " is not a double column");
+        return view(block, column, 8).asDoubleBuffer();
+    }
+
+    /**
+     * @return a view of the values of an int column in one block (no data is copied)
+     */
+    public IntBuffer intColumn(int block, int column) {
+        if (types[column] != TYPE_INT)
+            throw new IllegalArgumentException("Column " + columns[column] + " is not an int column");
+        return view(block, column, 4).asIntBuffer();
+    }
+
+    private ByteBuffer view(int block, int column, int width) {
+        return blocks[block].slice(columnOffsets[block][column], blockRows(block) * width).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Reads all the rows into one double[] per row (int columns are converted, and MISSING_INT becomes NaN)
+     */
+    public double[][] readRows() {
+        double[][] retValue = new double[nRows][columns.length];
+        for (int b = 0; b < nBlocks(); b++) {
+            int start = blockStartRow[b];
+            int n = blockRows(b);
+            for (int c = 0; c < columns.length; c++) {
+                if (types[c] == TYPE_INT) {
+                    IntBuffer values = intColumn(b, c);
+                    for (int r = 0; r < n; r++) {
+                        int value = values.get(r);
+                        retValue[start + r][c] = value == MISSING_INT ? Double.NaN : value;
+                    }
+                } else {
+                    DoubleBuffer values = doubleColumn(b, c);
+                    for (int r = 0; r < n; r++)
+                        retValue[start + r][c] = values.get(r);
+                }
+            }
+        }
+        return retValue;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -23,6 +23,8 @@ public class SummaryLogger implements IStatisticLogger {
 
     File logFile;
     public boolean printToConsole = true;
+    // if true, numeric data is summarised without keeping every value (see TAGNumericStatSummary)
+    public boolean streaming = false;
     Map<String, TAGStatSummary> data = new HashMap<>();
 
     public SummaryLogger() {}
@@ -37,7 +39,7 @@ public class SummaryLogger implements IStatisticLogger {
         if (value instanceof Number) {
             // A number, record details numeric statistics
             if (!data.containsKey(key)) {
-                summary = new TAGNumericStatSummary(key);
+                summary = new TAGNumericStatSummary(key, streaming);
                 data.put(key, summary);
             }
             ((TAGNumericStatSummary) summary).add((Number) value);
@@ -94,8 +96,9 @@ public class SummaryLogger implements IStatisticLogger {
 
     @Override
     public SummaryLogger emptyCopy(String id) {
-        if (logFile == null) return new SummaryLogger();
-        return new SummaryLogger(logFile.getPath()); // TODO include id in filename
+        SummaryLogger retValue = logFile == null ? new SummaryLogger() : new SummaryLogger(logFile.getPath()); // TODO include id in filename
+        retValue.streaming = streaming;
+        return retValue;
     }
 
     @Override
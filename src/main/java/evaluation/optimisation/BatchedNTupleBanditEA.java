@@ -0,0 +1,137 @@
+package evaluation.optimisation;
+
+import evodef.SearchSpace;
+import ntbea.NTupleSystem;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * A version of the NTBEA search loop (NTupleBanditEA.runTrial) that evaluates a batch of settings at a time, so that
+ * these can be run in parallel.
+ * <p>
+ * On each step the batch is the current point plus the batchSize - 1 best neighbours (by the UCB of the N-Tuple
+ * model), from a neighbourhood of mutations of the current point. All of these are evaluated, and then added to the
+ * model in the order they are in the batch. The next current point is the best (by UCB) of a new neighbourhood.
+ * With a batchSize of 1 this is the standard algorithm.
+ * <p>
+ * All random choices are taken from the Random provided (unlike NTupleBanditEA), so for a given seed and batchSize
+ * the same points are evaluated, in the same order, however many threads are used to do so.
+ */
+public class BatchedNTupleBanditEA {
+
+    private static final double epsilon = 1e-6;  // for random tie-breaking, as in NTupleBanditEA
+
+    final NTupleSystem model;
+    final double kExplore;
+    final int neighbourhoodSize;
+    final int batchSize;
+    final Random rnd;
+    // The distinct points evaluated, in the order they were first evaluated
+    final Map<List<Integer>, int[]> sampledPoints = new LinkedHashMap<>();
+
+    public BatchedNTupleBanditEA(NTupleSystem model, double kExplore, int neighbourhoodSize, int batchSize, Random rnd) {
+        if (batchSize < 1)
+            throw new IllegalArgumentException("Batch size must be at least 1");
+        this.model = model;
+        this.kExplore = kExplore;
+        this.neighbourhoodSize = neighbourhoodSize;
+        this.batchSize = batchSize;
+        this.rnd = rnd;
+    }
+
+    /**
+     * Runs nEvals evaluations of settings chosen by the search, adding the results to the model
+     *
+     * @param executor Used to run the evaluations of each batch (or null to run them on this thread)
+     */
+    public void runTrial(GameEvaluator evaluator, int nEvals, ExecutorService executor) {
+        SearchSpace searchSpace = evaluator.searchSpace();
+        double searchSpaceSize = 1.0;
+        for (int i = 0; i < searchSpace.nDims(); i++)
+            searchSpaceSize *= searchSpace.nValues(i);
+        int nNeighbours = (int) Math.min(neighbourhoodSize, searchSpaceSize - 1);
+
+        int[] current = new int[searchSpace.nDims()];
+        for (int i = 0; i < current.length; i++)
+            current[i] = rnd.nextInt(searchSpace.nValues(i));
+
+        int evalsDone = 0;
+        while (evalsDone < nEvals) {
+            List<int[]> batch = new ArrayList<>();
+            batch.add(current);
+            if (batchSize > 1)
+                batch.addAll(bestNeighbours(current, nNeighbours, Math.min(batchSize, nEvals - evalsDone) - 1, searchSpace));
+
+            double[] results = evaluator.evaluate(batch, executor);
+            for (int i = 0; i < batch.size(); i++) {
+                model.addPoint(batch.get(i), results[i]);
+                sampledPoints.putIfAbsent(Arrays.stream(batch.get(i)).boxed().toList(), batch.get(i));
+            }
+            evalsDone += batch.size();
+
+            List<int[]> next = bestNeighbours(current, nNeighbours, 1, searchSpace);
+            if (!next.isEmpty())
+                current = next.get(0);
+        }
+    }
+
+    /**
+     * This is the equivalent of NTupleSystem.getBestOfSampled(), but breaks ties in favour of the point that was
+     * sampled first (rather than depending on the iteration order of a HashSet of arrays), so that it is reproducible.
+     *
+     * @return the sampled point with the highest mean estimate from the model
+     */
+    public int[] getBestOfSampled() {
+        int[] retValue = null;
+        double best = Double.NEGATIVE_INFINITY;
+        for (int[] point : sampledPoints.values()) {
+            double value = model.getMeanEstimate(point);
+            if (retValue == null || value > best) {
+                retValue = point;
+                best = value;
+            }
+        }
+        return retValue;
+    }
+
+    // the n best distinct neighbours of the point (by UCB), from a neighbourhood of nNeighbours mutations of it
+    private List<int[]> bestNeighbours(int[] point, int nNeighbours, int n, SearchSpace searchSpace) {
+        Map<List<Integer>, int[]> neighbourhood = new LinkedHashMap<>();
+        // we may not find nNeighbours distinct points, but we don't keep trying forever
+        for (int attempt = 0; attempt < nNeighbours * 10 && neighbourhood.size() < nNeighbours; attempt++) {
+            int[] neighbour = mutate(point, searchSpace);
+            if (!Arrays.equals(neighbour, point))
+                neighbourhood.putIfAbsent(Arrays.stream(neighbour).boxed().toList(), neighbour);
+        }
+        List<int[]> candidates = new ArrayList<>(neighbourhood.values());
+        double[] ucb = new double[candidates.size()];
+        for (int i = 0; i < ucb.length; i++) {
+            int[] c = candidates.get(i);
+            ucb[i] = model.getMeanEstimate(c) + kExplore * model.getExplorationEstimate(c) + rnd.nextDouble() * epsilon;
+        }
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < ucb.length; i++)
+            order.add(i);
+        order.sort(Comparator.comparingDouble(i -> -ucb[i]));
+        List<int[]> retValue = new ArrayList<>();
+        for (int i = 0; i < Math.min(n, order.size()); i++)
+            retValue.add(candidates.get(order.get(i)));
+        return retValue;
+    }
+
+    // changes one dimension at random (to a different value), and each of the others with probability 1/nDims
+    private int[] mutate(int[] point, SearchSpace searchSpace) {
+        int[] retValue = point.clone();
+        int nDims = point.length;
+        int forced = rnd.nextInt(nDims);
+        for (int i = 0; i < nDims; i++) {
+            int nValues = searchSpace.nValues(i);
+            if (nValues > 1 && (i == forced || rnd.nextDouble() < 1.0 / nDims)) {
+                int newValue = rnd.nextInt(nValues - 1);
+                retValue[i] = newValue >= point[i] ? newValue + 1 : newValue;
+            }
+        }
+        return retValue;
+    }
+}
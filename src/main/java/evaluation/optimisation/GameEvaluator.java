@@ -11,8 +11,12 @@ import evodef.SearchSpace;
 import evodef.SolutionEvaluator;
 import games.GameType;
 import players.IAnyTimePlayer;
+import players.PlayerParameters;
 
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.stream.IntStream;
 
 import static evaluation.optimisation.NTBEAParameters.Mode.CoopNTBEA;
@@ -95,8 +99,53 @@ public class GameEvaluator implements SolutionEvaluator {
      */
     @Override
     public double evaluate(int[] settings) {
+        double retValue = evaluate(settings, rnd, nEvals, false);
+        nEvals++;
+        return retValue;
+    }
+
+    /**
+     * Evaluates each of the settings (in the same way as evaluate(int[])) on the executor's threads.
+     * The random numbers for each evaluation are taken from rnd in order before any are run, and each player is given
+     * a seed from these, so the results (which are returned in the same order as allSettings) do not depend on which
+     * thread runs which evaluation.
+     *
+     * @param executor The executor to run the evaluations on. If this is null they are run on the calling thread.
+     */
+    public double[] evaluate(List<int[]> allSettings, ExecutorService executor) {
+        List<Callable<Double>> tasks = new ArrayList<>();
+        for (int[] settings : allSettings) {
+            Random evalRnd = new Random(rnd.nextLong());
+            int evalIndex = nEvals++;
+            tasks.add(() -> evaluate(settings, evalRnd, evalIndex, true));
+        }
+        double[] retValue = new double[tasks.size()];
+        try {
+            if (executor == null) {
+                for (int i = 0; i < tasks.size(); i++)
+                    retValue[i] = tasks.get(i).call();
+            } else {
+                List<Future<Double>> results = executor.invokeAll(tasks);
+                for (int i = 0; i < results.size(); i++)
+                    retValue[i] = results.get(i).get();
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("Error evaluating settings in parallel", e);
+        }
+        return retValue;
+    }
+
+    /**
+     * Runs the evaluation game(s) for one set of settings. The game seed and opponents are taken from rnd.
+     *
+     * @param evalIndex     The number of this evaluation (this is used to cycle the position of the tuned player)
+     * @param reseedPlayers If true, the seeds of the players are also taken from rnd, so this can be run on any thread.
+     *                      This is not done when running on one thread, so that the same draws are taken from rnd
+     *                      (and hence the same results are obtained for a given seed) as before this was parallelised.
+     */
+    double evaluate(int[] settings, Random rnd, int evalIndex, boolean reseedPlayers) {
         if (debug)
-            System.out.printf("Starting evaluation %d of %s at %tT%n", nEvals,
+            System.out.printf("Starting evaluation %d of %s at %tT%n", evalIndex,
                     Arrays.toString(settings), System.currentTimeMillis());
         Object configuredThing = searchSpace.getAgent(settings);
         boolean tuningPlayer = configuredThing instanceof AbstractPlayer;
@@ -109,7 +158,7 @@ public class GameEvaluator implements SolutionEvaluator {
         // We can reduce variance here by cycling the teamIndex on each iteration
         // If we're not tuning the player, then setting index to -99 means we just use the provided opponents list
         // in setupPlayers()
-        int teamIndex = tuningPlayer ? nEvals % nTeams : -99;
+        int teamIndex = tuningPlayer ? evalIndex % nTeams : -99;
 
         // We generally one game per evaluation, unless we are in 'Stable' mode,
         // in which case we reduce variance by running one game for each position the tuned agent can be in
@@ -120,7 +169,7 @@ public class GameEvaluator implements SolutionEvaluator {
         double retValue = 0.0;
         for (int loop = 0; loop < gamesToRun; loop++) {
             int thisTeamIndex = teamIndex == -99 ? -99 : (teamIndex + loop) % nTeams;
-            List<AbstractPlayer> allPlayers = setupPlayers(thisTeamIndex, nTeams, settings);
+            List<AbstractPlayer> allPlayers = setupPlayers(thisTeamIndex, nTeams, settings, rnd, reseedPlayers);
 
             // always reset the random seed for each new game
             newGame.reset(allPlayers, seed);
@@ -138,11 +187,10 @@ public class GameEvaluator implements SolutionEvaluator {
         }
         //    System.out.println("GameEvaluator: " + retValue);
 
-        nEvals++;
         return retValue;
     }
 
-    private List<AbstractPlayer> setupPlayers(int teamIndex, int nTeams, int[] settings) {
+    private List<AbstractPlayer> setupPlayers(int teamIndex, int nTeams, int[] settings, Random rnd, boolean reseedPlayers) {
         List<AbstractPlayer> allPlayers = new ArrayList<>(nPlayers);
         // create a random permutation of opponents - this is used if we want to avoid opponent duplicates
         // if we allow duplicates, then we randomise them all independently
@@ -153,17 +201,25 @@ public class GameEvaluator implements SolutionEvaluator {
             if (params.mode != CoopNTBEA && i != teamIndex) {
                 int oppIndex = (avoidOppDupes) ? count : rnd.nextInt(opponents.size());
                 count = (count + 1) % nTeams;
-                allPlayers.add(opponents.get(oppIndex).copy());
+                AbstractPlayer opponent = opponents.get(oppIndex).copy();
+                if (reseedPlayers && opponent.parameters == opponents.get(oppIndex).parameters)
+                    opponent.parameters = (PlayerParameters) opponent.parameters.copy();  // so we can change its seed
+                allPlayers.add(opponent);
             } else {
                 AbstractPlayer tunedPlayer = (AbstractPlayer) searchSpace.getAgent(settings); // we create for each, in case this is coop
                 allPlayers.add(tunedPlayer);
             }
         }
-        if (params.budget > 0) {
-            for (AbstractPlayer player : allPlayers) {
-                if (player instanceof IAnyTimePlayer anyTime)
-                    anyTime.setBudget(params.budget);
+        for (AbstractPlayer player : allPlayers) {
+            if (reseedPlayers) {
+                // copies of players are otherwise seeded from the clock (or from the original, which may be in use
+                // on another thread)
+                long playerSeed = rnd.nextLong();
+                player.getParameters().setRandomSeed(playerSeed);
+                player.getRnd().setSeed(playerSeed);
             }
+            if (params.budget > 0 && player instanceof IAnyTimePlayer anyTime)
+                anyTime.setBudget(params.budget);
         }
         return allPlayers;
     }
@@ -28,6 +28,10 @@ import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.IntToDoubleFunction;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -52,6 +56,11 @@ public class NTBEA {
     int currentIteration = 0;
     IStateHeuristic stateHeuristic;
     IGameHeuristic gameHeuristic;
+    // When this is 0 we use NTupleBanditEA to search. Otherwise (when running with nThreads > 1) we use
+    // BatchedNTupleBanditEA, evaluating batches of this size on evaluationExecutor
+    int batchSize = 0;
+    ExecutorService evaluationExecutor;
+    BatchedNTupleBanditEA batchedSearch;
 
     public NTBEA(NTBEAParameters parameters, GameType game, int nPlayers) {
         // Now initialise the other bits and pieces needed for the NTBEA package
@@ -137,10 +146,14 @@ public class NTBEA {
      */
     public Pair<Object, int[]> run() {
 
-        for (currentIteration = 0; currentIteration < params.repeats; currentIteration++) {
-            runIteration();
-            writeAgentJSON(winnerSettings.get(winnerSettings.size() - 1),
-                    params.destDir + File.separator + "Recommended_" + currentIteration + ".json");
+        if (params.nThreads > 1 && getClass() == NTBEA.class) {
+            runInParallel();
+        } else {
+            for (currentIteration = 0; currentIteration < params.repeats; currentIteration++) {
+                runIteration();
+                writeAgentJSON(winnerSettings.get(winnerSettings.size() - 1),
+                        params.destDir + File.separator + "Recommended_" + currentIteration + ".json");
+            }
         }
 
         // After all runs are complete, if tournamentGames are specified, then we allow all the
@@ -233,9 +246,68 @@ public class NTBEA {
         return new Pair<>(params.searchSpace.getAgent(bestResult.b), bestResult.b);
     }
 
+    /**
+     * Runs the repeats of the NTBEA process on a pool of params.nThreads threads.
+     * If there are fewer repeats than threads, then the threads left over are used to evaluate batches of settings
+     * within each repeat (see BatchedNTupleBanditEA).
+     * Each repeat has its own NTBEA (and hence model and GameEvaluator), with a random seed taken in turn from
+     * params.seed, and the results are recorded in the order of the repeats. The results are therefore the same for a
+     * given seed and nThreads, provided the agents being tuned are deterministic given their random seed (which
+     * is set for each game from the GameEvaluator), and do not use a time budget.
+     */
+    protected void runInParallel() {
+        int parallelRepeats = Math.min(params.nThreads, params.repeats);
+        int threadsPerRepeat = Math.max(1, params.nThreads / parallelRepeats);
+        Random seedRnd = new Random(params.seed);
+        List<NTBEA> repeats = new ArrayList<>();
+        for (int r = 0; r < params.repeats; r++) {
+            NTBEA repeat = new NTBEA(params, game, nPlayers);
+            repeat.evaluator.opponents = evaluator.opponents;
+            repeat.evaluator.rnd = new Random(seedRnd.nextLong());
+            repeat.currentIteration = r;
+            repeat.batchSize = threadsPerRepeat;
+            repeats.add(repeat);
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(parallelRepeats);
+        List<Future<Pair<Pair<Double, Double>, int[]>>> results = new ArrayList<>();
+        for (NTBEA repeat : repeats) {
+            results.add(executor.submit(() -> {
+                if (threadsPerRepeat > 1)
+                    repeat.evaluationExecutor = Executors.newFixedThreadPool(threadsPerRepeat);
+                try {
+                    return repeat.search();
+                } finally {
+                    if (repeat.evaluationExecutor != null)
+                        repeat.evaluationExecutor.shutdown();
+                }
+            }));
+        }
+        executor.shutdown();
+        for (currentIteration = 0; currentIteration < params.repeats; currentIteration++) {
+            Pair<Pair<Double, Double>, int[]> result;
+            try {
+                result = results.get(currentIteration).get();
+            } catch (InterruptedException | ExecutionException e) {
+                executor.shutdownNow();
+                throw new RuntimeException("Error running NTBEA repeats in parallel", e);
+            }
+            NTBEA repeat = repeats.get(currentIteration);
+            if (params.verbose)
+                repeat.logResults();
+            recordResult(result);
+            writeAgentJSON(result.b, params.destDir + File.separator + "Recommended_" + currentIteration + ".json");
+        }
+    }
+
     protected void runTrials() {
         evaluator.reset();
-        searchFramework.runTrial(evaluator, params.iterationsPerRun);
+        if (batchSize > 0) {
+            batchedSearch = new BatchedNTupleBanditEA(landscapeModel, params.kExplore, params.neighbourhoodSize, batchSize,
+                    new Random(evaluator.rnd.nextLong()));
+            batchedSearch.runTrial(evaluator, params.iterationsPerRun, evaluationExecutor);
+        } else {
+            searchFramework.runTrial(evaluator, params.iterationsPerRun);
+        }
     }
 
     protected void runIteration() {
@@ -246,18 +318,36 @@ public class NTBEA {
         if (params.verbose)
             logResults();
 
-        int[] thisWinnerSettings = Arrays.stream(landscapeModel.getBestOfSampled())
-                .mapToInt(d -> (int) d)
-                .toArray();
+        recordResult(recommendation());
+    }
+
+    /**
+     * Runs the NTBEA trials, and then the evaluation games for the recommended settings
+     *
+     * @return the estimated value of the recommended settings (with its standard error), and the settings
+     */
+    private Pair<Pair<Double, Double>, int[]> search() {
+        landscapeModel.reset();
+        runTrials();
+        return recommendation();
+    }
+
+    private Pair<Pair<Double, Double>, int[]> recommendation() {
+        int[] thisWinnerSettings = batchSize > 0 ? batchedSearch.getBestOfSampled() :
+                Arrays.stream(landscapeModel.getBestOfSampled())
+                        .mapToInt(d -> (int) d)
+                        .toArray();
 
         // now run the evaluation games on the final recommendation (if any...if not we report the NTBEA landscape estimate)
         Pair<Double, Double> scoreOfBestAgent = params.evalGames == 0
-                ? new Pair<>(landscapeModel.getMeanEstimate(landscapeModel.getBestOfSampled()), 0.0)
+                ? new Pair<>(landscapeModel.getMeanEstimate(thisWinnerSettings), 0.0)
                 : evaluateWinner(thisWinnerSettings);
+        return new Pair<>(scoreOfBestAgent, thisWinnerSettings);
+    }
 
-        winnersPerRun.add(params.searchSpace.getAgent(thisWinnerSettings));
-        winnerSettings.add(thisWinnerSettings);
-        Pair<Pair<Double, Double>, int[]> resultToReport = new Pair<>(scoreOfBestAgent, thisWinnerSettings);
+    private void recordResult(Pair<Pair<Double, Double>, int[]> resultToReport) {
+        winnersPerRun.add(params.searchSpace.getAgent(resultToReport.b));
+        winnerSettings.add(resultToReport.b);
         if (params.verbose)
             printDetailsOfRun(resultToReport);
         logDetailsOfRun(resultToReport);
@@ -274,8 +364,9 @@ public class NTBEA {
 
     protected Pair<Double, Double> evaluateWinner(int[] winnerSettings) {
 
-        double[] results = IntStream.range(0, params.evalGames)
-                .mapToDouble(answer -> evaluator.evaluate(winnerSettings)).toArray();
+        double[] results = batchSize > 0
+                ? evaluator.evaluate(Collections.nCopies(params.evalGames, winnerSettings), evaluationExecutor)
+                : IntStream.range(0, params.evalGames).mapToDouble(answer -> evaluator.evaluate(winnerSettings)).toArray();
 
         double avg = Arrays.stream(results).average().orElse(0.0);
         double stdErr = Math.sqrt(Arrays.stream(results)
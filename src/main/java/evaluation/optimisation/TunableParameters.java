@@ -187,6 +187,16 @@ public abstract class TunableParameters extends AbstractParameters implements IT
         return tunable;
     }
 
+    /**
+     * A quick alternative to equals() for parameters that are copied with shallowCopy(), which share their values.
+     *
+     * @param other - parameters of the same game
+     * @return - true if this and other share their parameter values (so one is a shallow copy of the other)
+     */
+    public boolean sharesValuesWith(TunableParameters other) {
+        return currentValues == other.currentValues;
+    }
+
     /**
      * Use this to add a non-Tunable Parameter (i.e. one with a single value that does not change)
      * While this is not tuned, it means that a value for it can be defined in a JSON input file
@@ -0,0 +1,188 @@
+package evaluation.summarisers;
+
+import java.util.Arrays;
+
+/**
+ * A mergeable sketch of a stream of numbers, from which approximate quantiles can be read, using a fixed amount of
+ * memory however many numbers are added. This is a KLL sketch (Karnin, Lang and Liberty, 2016).
+ * <p>
+ * The values are kept in a stack of compactors. Each value at level h stands for 2^h of the original values. When a
+ * level is full it is sorted, and every other value (starting at the first or second, alternately) is promoted to
+ * the level above, and the rest discarded. Lower levels have smaller capacities (by a factor of 2/3 per level), so
+ * that the total size is O(k) and the rank error is O(n / k).
+ * <p>
+ * Until the first compaction all values are kept, so for fewer than k values the quantiles are exact.
+ */
+public class QuantileSketch {
+
+    public static final int DEFAULT_K = 200;
+    private static final double CAPACITY_DECAY = 2.0 / 3.0;
+
+    private final int k;
+    private double[][] levels = new double[1][];
+    private int[] sizes = new int[1];
+    // which of each pair of values is kept on the next compaction of each level
+    private boolean[] keepOdd = new boolean[1];
+    private long n;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public QuantileSketch() {
+        this(DEFAULT_K);
+    }
+
+    public QuantileSketch(int k) {
+        if (k < 8)
+            throw new IllegalArgumentException("k must be at least 8, not " + k);
+        this.k = k;
+        levels[0] = new double[k];
+    }
+
+    public void add(double value) {
+        n++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        append(0, value);
+        if (retained() > totalCapacity())
+            compress();
+    }
+
+    /**
+     * Adds all the values summarised by the other sketch (which is unchanged) to this one
+     */
+    public void merge(QuantileSketch other) {
+        if (other.n == 0)
+            return;
+        n += other.n;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        for (int h = 0; h < other.levels.length; h++) {
+            for (int i = 0; i < other.sizes[h]; i++)
+                append(h, other.levels[h][i]);
+        }
+        while (retained() > totalCapacity())
+            compress();
+    }
+
+    /**
+     * @param q between 0 and 1
+     * @return An estimate of the value at rank floor(q * n) (counting from 0) of the values added; so for q = 0.5 the
+     * upper median. NaN if no values have been added.
+     */
+    public double quantile(double q) {
+        if (q < 0.0 || q > 1.0)
+            throw new IllegalArgumentException("Quantile must be between 0 and 1, not " + q);
+        if (n == 0)
+            return Double.NaN;
+        int size = retained();
+        double[] values = new double[size];
+        long[] weights = new long[size];
+        Integer[] order = new Integer[size];
+        int index = 0;
+        for (int h = 0; h < levels.length; h++) {
+            for (int i = 0; i < sizes[h]; i++) {
+                values[index] = levels[h][i];
+                weights[index] = 1L << h;
+                order[index] = index;
+                index++;
+            }
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(values[a], values[b]));
+        // each compaction replaces pairs of values with one of twice the weight, so the weights sum to n
+        long rank = (long) Math.floor(q * n);
+        long cumulative = 0;
+        for (int i : order) {
+            cumulative += weights[i];
+            if (cumulative > rank)
+                return values[i];
+        }
+        return max;
+    }
+
+    public long n() {
+        return n;
+    }
+
+    public double min() {
+        return min;
+    }
+
+    public double max() {
+        return max;
+    }
+
+    /**
+     * @return the number of values held by the sketch
+     */
+    public int retained() {
+        int retValue = 0;
+        for (int size : sizes)
+            retValue += size;
+        return retValue;
+    }
+
+    public QuantileSketch copy() {
+        QuantileSketch retValue = new QuantileSketch(k);
+        retValue.levels = new double[levels.length][];
+        for (int h = 0; h < levels.length; h++)
+            retValue.levels[h] = levels[h].clone();
+        retValue.sizes = sizes.clone();
+        retValue.keepOdd = keepOdd.clone();
+        retValue.n = n;
+        retValue.min = min;
+        retValue.max = max;
+        return retValue;
+    }
+
+    private int capacity(int level) {
+        int depth = levels.length - 1 - level;
+        return Math.max(2, (int) Math.ceil(k * Math.pow(CAPACITY_DECAY, depth)));
+    }
+
+    private int totalCapacity() {
+        int retValue = 0;
+        for (int h = 0; h < levels.length; h++)
+            retValue += capacity(h);
+        return retValue;
+    }
+
+    private void append(int level, double value) {
+        while (level >= levels.length)
+            addLevel();
+        if (sizes[level] == levels[level].length)
+            levels[level] = Arrays.copyOf(levels[level], levels[level].length * 2);
+        levels[level][sizes[level]++] = value;
+    }
+
+    private void addLevel() {
+        int h = levels.length;
+        levels = Arrays.copyOf(levels, h + 1);
+        levels[h] = new double[k];
+        sizes = Arrays.copyOf(sizes, h + 1);
+        keepOdd = Arrays.copyOf(keepOdd, h + 1);
+    }
+
+    // compacts the lowest level that is at (or over) capacity
+    private void compress() {
+        for (int h = 0; h < levels.length; h++) {
+            if (sizes[h] >= capacity(h)) {
+                double[] level = levels[h];
+                int size = sizes[h];
+                Arrays.sort(level, 0, size);
+                // with an odd number of values, the largest stays where it is
+                int pairs = size / 2;
+                int offset = keepOdd[h] ? 1 : 0;
+                keepOdd[h] = !keepOdd[h];
+                for (int i = 0; i < pairs; i++)
+                    append(h + 1, level[2 * i + offset]);
+                if (size % 2 == 1) {
+                    level[0] = level[size - 1];
+                    sizes[h] = 1;
+                } else {
+                    sizes[h] = 0;
+                }
+                return;
+            }
+        }
+    }
+}
@@ -12,6 +12,11 @@ import static evaluation.summarisers.TAGStatSummary.StatType.Numeric;
  * This class is used to model the statistics of several numbers.  For the statistics
  * we choose here it is not necessary to store all the numbers - just keeping a running total
  * of how many, the sum and the sum of the squares is sufficient (plus max and min, for max and min).
+ * <p>
+ * By default all the values are also kept, for the median, skew and kurtosis. In streaming mode they are not, so
+ * the memory used is bounded however many values are added: the central moments (up to the fourth) are updated
+ * as each value is added, and the median is estimated from a QuantileSketch. Streaming summaries can be merged
+ * with add(TAGNumericStatSummary), for example to combine those from parallel workers.
  */
 
 public class TAGNumericStatSummary extends TAGStatSummary {
@@ -24,6 +29,13 @@ public class TAGNumericStatSummary extends TAGStatSummary {
 
     private ArrayList<Double> elements;
 
+    // Only used in streaming mode
+    private boolean streaming;
+    private double m2, m3, m4;  // sums of the 2nd, 3rd and 4th powers of the differences from the mean
+    private QuantileSketch sketch;
+    private double firstAdded, previous;  // for the Delta summary
+    private int nChanges;
+
     public TAGNumericStatSummary() {
         this("");
     }
@@ -32,6 +44,15 @@ public class TAGNumericStatSummary extends TAGStatSummary {
         super(name, Numeric);
     }
 
+    /**
+     * @param streaming if true the values are not kept (see class comment)
+     */
+    public TAGNumericStatSummary(String name, boolean streaming) {
+        super(name, Numeric);
+        this.streaming = streaming;
+        reset();
+    }
+
     public void reset() {
         super.reset();
         sum = 0;
@@ -40,7 +61,15 @@ public class TAGNumericStatSummary extends TAGStatSummary {
         min = Double.POSITIVE_INFINITY;
         max = Double.NEGATIVE_INFINITY;
         valid = false;
-        elements = new ArrayList<>();
+        mean = 0;
+        m2 = m3 = m4 = 0;
+        nChanges = 0;
+        elements = streaming ? null : new ArrayList<>();
+        sketch = streaming ? new QuantileSketch() : null;
+    }
+
+    public boolean isStreaming() {
+        return streaming;
     }
 
     public double max() {
@@ -68,18 +97,18 @@ public class TAGNumericStatSummary extends TAGStatSummary {
     }
 
     public double kurtosis() {
-        if (n < 4 || sd < 0.001) return 0.0;
         if (!valid)
             computeStats();
-        double sumQuarticDiffs = elements.stream().mapToDouble(d -> Math.pow(d - mean, 4)).sum();
+        if (n < 4 || sd < 0.001) return 0.0;
+        double sumQuarticDiffs = streaming ? m4 : elements.stream().mapToDouble(d -> Math.pow(d - mean, 4)).sum();
         return sumQuarticDiffs / Math.pow(sd, 4) * n * (n + 1) / (n - 1) / (n - 2) / (n - 3);
     }
 
     public double skew() {
-        if (n < 3 || sd < 0.001) return 0.0;
         if (!valid)
             computeStats();
-        double sumCubeDiffs = elements.stream().mapToDouble(d -> Math.pow(d - mean, 3)).sum();
+        if (n < 3 || sd < 0.001) return 0.0;
+        double sumCubeDiffs = streaming ? m3 : elements.stream().mapToDouble(d -> Math.pow(d - mean, 3)).sum();
         return sumCubeDiffs / Math.pow(sd, 3) * n / (n - 1) / (n - 2);
     }
 
@@ -87,15 +116,20 @@ public class TAGNumericStatSummary extends TAGStatSummary {
      * @return the sum of the squares of the differences between the mean and the ith values
      */
     public double sumSquareDiff() {
+        if (streaming)
+            return m2;
         return sumsq - n * mean() * mean();
     }
 
     private void computeStats() {
         if (!valid) {
-            if (!elements.isEmpty()) {
-                max = elements.stream().mapToDouble(i -> i).max().getAsDouble();
-                min = elements.stream().mapToDouble(i -> i).min().getAsDouble();
-            } else {
+            // min and max are kept up to date as values are added
+            if (n == 0)
+                return;
+            if (streaming) {
+                sd = n > 1 ? Math.sqrt(m2 / (n - 1)) : 0.0;
+                median = sketch.quantile(0.5);
+                valid = true;
                 return;
             }
             mean = sum / n;
@@ -121,22 +155,90 @@ public class TAGNumericStatSummary extends TAGStatSummary {
         return sd() / Math.sqrt(n);
     }
 
+    /**
+     * Adds all the values summarised by ss to this one. A streaming summary can add any other, but one that keeps
+     * all values can only add another that does.
+     */
     public void add(TAGNumericStatSummary ss) {
+        if (ss.n == 0)
+            return;
+        if (!streaming) {
+            if (ss.streaming)
+                throw new IllegalArgumentException("Cannot add a streaming summary to one that keeps all values : " + ss.name);
+            super.add(ss);
+            sum += ss.sum;
+            sumsq += ss.sumsq;
+            min = Math.min(min, ss.min);
+            max = Math.max(max, ss.max);
+            lastAdded = ss.lastAdded;
+            valid = false;
+            elements.addAll(ss.getElements());
+            return;
+        }
+        if (!ss.streaming) {
+            for (double d : ss.getElements())
+                add(d);
+            lastAdded = ss.lastAdded;
+            return;
+        }
+        if (n == 0) {
+            firstAdded = ss.firstAdded;
+        } else if (ss.firstAdded != previous) {
+            nChanges++;
+        }
+        nChanges += ss.nChanges;
+        previous = ss.previous;
+        mergeMoments(ss.n, ss.mean, ss.m2, ss.m3, ss.m4);
         super.add(ss);
         sum += ss.sum;
         sumsq += ss.sumsq;
+        min = Math.min(min, ss.min);
+        max = Math.max(max, ss.max);
         lastAdded = ss.lastAdded;
+        sketch.merge(ss.sketch);
         valid = false;
-        elements.addAll(ss.getElements());
     }
 
     public void add(double d) {
+        if (streaming) {
+            if (n == 0)
+                firstAdded = d;
+            else if (d != previous)
+                nChanges++;
+            previous = d;
+            mergeMoments(1, d, 0.0, 0.0, 0.0);
+            sketch.add(d);
+        } else {
+            elements.add(d);
+        }
         n++;
         sum += d;
         sumsq += d * d;
+        min = Math.min(min, d);
+        max = Math.max(max, d);
         lastAdded = d;
         valid = false;
-        elements.add(d);
+    }
+
+    /**
+     * Combines the central moments of this summary (over n values) with those of another nB values, using the
+     * pairwise update formulas of Pebay (2008); adding a single value is the case nB = 1 (Welford's algorithm,
+     * extended to the higher moments). This must be called before n is updated.
+     */
+    private void mergeMoments(int nB, double meanB, double m2B, double m3B, double m4B) {
+        double nA = n;
+        double nAB = nA + nB;
+        double delta = meanB - mean;
+        double delta2 = delta * delta;
+        double newM2 = m2 + m2B + delta2 * nA * nB / nAB;
+        double newM3 = m3 + m3B + delta2 * delta * nA * nB * (nA - nB) / (nAB * nAB)
+                + 3.0 * delta * (nA * m2B - nB * m2) / nAB;
+        m4 = m4 + m4B + delta2 * delta2 * nA * nB * (nA * nA - nA * nB + (double) nB * nB) / (nAB * nAB * nAB)
+                + 6.0 * delta2 * (nA * nA * m2B + (double) nB * nB * m2) / (nAB * nAB)
+                + 4.0 * delta * (nA * m3B - nB * m3) / nAB;
+        m3 = newM3;
+        m2 = newM2;
+        mean += delta * nB / nAB;
     }
 
     public void add(Number n) {
@@ -187,6 +289,9 @@ public class TAGNumericStatSummary extends TAGStatSummary {
                 ;
     }
 
+    /**
+     * @return all the values added, or null for a streaming summary (which does not keep them)
+     */
     public ArrayList<Double> getElements() {
         return elements;
     }
@@ -207,6 +312,17 @@ public class TAGNumericStatSummary extends TAGStatSummary {
         ss.valid = this.valid;
         ss.lastAdded = this.lastAdded;
 
+        ss.streaming = this.streaming;
+        ss.median = this.median;
+        ss.elements = this.elements == null ? null : new ArrayList<>(this.elements);
+        ss.m2 = this.m2;
+        ss.m3 = this.m3;
+        ss.m4 = this.m4;
+        ss.sketch = this.sketch == null ? null : this.sketch.copy();
+        ss.firstAdded = this.firstAdded;
+        ss.previous = this.previous;
+        ss.nChanges = this.nChanges;
+
         return ss;
     }
 
@@ -240,6 +356,10 @@ public class TAGNumericStatSummary extends TAGStatSummary {
         data.put("Skew", skew());
         data.put("Kurtosis", kurtosis());
 
+        if (streaming) {
+            data.put("Delta", n > 1 ? nChanges / (double) (n - 1) : 0.0);
+            return data;
+        }
         TAGNumericStatSummary delta = elements.size() > 1 ?
                 IntStream.range(0, elements.size() - 1)
                         .mapToObj(i -> !elements.get(i + 1).equals(elements.get(i)) ? 1.0 : 0.0)
@@ -2,9 +2,12 @@ package evaluation.tournaments;
 
 import core.AbstractParameters;
 import core.AbstractPlayer;
+import core.AbstractGameState;
+import core.Game;
 import evaluation.RunArg;
 import evaluation.listeners.IGameListener;
 import evaluation.listeners.TournamentMetricsGameListener;
+import evaluation.metrics.Event;
 import games.GameType;
 import org.apache.commons.math3.linear.EigenDecomposition;
 import org.apache.commons.math3.linear.MatrixUtils;
@@ -15,6 +18,12 @@ import utilities.*;
 import java.io.File;
 import java.io.FileWriter;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -55,6 +64,10 @@ public class RoundRobinTournament extends AbstractTournament {
     String seedFile;
     Random seedRnd;
 
+    // Number of threads used to run games; if more than 1 then games are queued in pendingGames and run in parallel
+    protected int nThreads;
+    List<PendingGame> pendingGames = new ArrayList<>();
+
     /**
      * Create a round robin tournament, which plays all agents against all others.
      *
@@ -142,6 +155,7 @@ public class RoundRobinTournament extends AbstractTournament {
         this.randomSeed = ((Number) config.getOrDefault(RunArg.seed, System.currentTimeMillis())).longValue();
         this.seedRnd = new Random(randomSeed);
         this.randomGameParams = (boolean) config.getOrDefault(RunArg.randomGameParams, false);
+        this.nThreads = Math.max(1, (int) config.getOrDefault(RunArg.nThreads, 1));
 
         this.name = String.format("Game: %s, Players: %d, Mode: %s, TotalGames: %d, GamesPerMatchup: %d",
                 gameToPlay.name(), playersPerGame, tournamentMode, actualGames, gamesPerMatchup);
@@ -183,6 +197,8 @@ public class RoundRobinTournament extends AbstractTournament {
             }
             createAndRunMatchUp(matchUp);
         }
+        if (nThreads > 1)
+            runPendingGames();
         reportResults();
 
         for (IGameListener listener : listeners)
@@ -300,12 +316,10 @@ public class RoundRobinTournament extends AbstractTournament {
             throw new AssertionError("Not enough seeds for the number of games requested");
         if (debug)
             System.out.printf("Evaluate %s at %tT%n", agentIDsInThisGame.toString(), System.currentTimeMillis());
-        LinkedList<AbstractPlayer> matchUpPlayers = new LinkedList<>();
-
-        // If we are in self-play mode, we need to create a copy of the player to avoid them sharing the same state
-        // If not in self-play mode then this is unnecessary, as the same agent will never be in the same game twice
+        // the agents themselves (each game is played by copies of them; see playersForGame())
+        Set<AbstractPlayer> matchUpPlayers = new HashSet<>();
         for (int agentID : agentIDsInThisGame)
-            matchUpPlayers.add(tournamentMode == EXHAUSTIVE_SELF_PLAY ? this.agents.get(agentID).copy() : this.agents.get(agentID));
+            matchUpPlayers.add(this.agents.get(agentID));
 
         if (verbose) {
             StringBuffer sb = new StringBuffer();
@@ -316,11 +330,20 @@ public class RoundRobinTournament extends AbstractTournament {
             System.out.println(sb);
         }
 
+        if (nThreads > 1) {
+            // In parallel mode we just queue the games (with their seeds) here; they are run by runPendingGames()
+            // and then the results are recorded in the same order as they would have been in a serial run
+            for (int i = 0; i < nGames; i++)
+                pendingGames.add(new PendingGame(new ArrayList<>(agentIDsInThisGame), seeds.get(i)));
+            totalGamesRun += nGames;
+            return;
+        }
+
         // TODO : Not sure this is the ideal place for this...ask Raluca
         Set<String> agentNames = agents.stream().map(AbstractPlayer::toString).collect(Collectors.toSet());
         for (IGameListener listener : listeners) {
             if (listener instanceof TournamentMetricsGameListener) {
-                ((TournamentMetricsGameListener) listener).tournamentInit(game, nPlayers, agentNames, new HashSet<>(matchUpPlayers));
+                ((TournamentMetricsGameListener) listener).tournamentInit(game, nPlayers, agentNames, matchUpPlayers);
             }
         }
 
@@ -328,7 +351,7 @@ public class RoundRobinTournament extends AbstractTournament {
         for (int i = 0; i < nGames; i++) {
             // if tournamentSeeds > 0, then we are running this many tournaments, each with a different random seed fixed for the whole tournament
             // so we override the standard random seeds
-            game.reset(matchUpPlayers, seeds.get(i));
+            game.reset(playersForGame(agentIDsInThisGame), seeds.get(i));
 
             // Randomize parameters
             if (randomGameParams) {
@@ -337,67 +360,76 @@ public class RoundRobinTournament extends AbstractTournament {
             }
 
             game.run();  // Always running tournaments without visuals
-            GameResult[] results = game.getGameState().getPlayerResults();
-
-            int numDraws = 0;
-            for (int j = 0; j < matchUpPlayers.size(); j++) {
-                nGamesPlayed[agentIDsInThisGame.get(j)] += 1;
-                for (int k = 0; k < matchUpPlayers.size(); k++) {
-                    if (k != j) {
-                        nGamesPlayedPerOpponent[agentIDsInThisGame.get(j)][agentIDsInThisGame.get(k)] += 1;
-                    }
+            recordResults(agentIDsInThisGame, new GameOutcome(game.getGameState()));
+        }
+        totalGamesRun += nGames;
+    }
+
+    /**
+     * Updates all the tallies of the tournament with the outcome of one game.
+     *
+     * @param agentIDsInThisGame - IDs of agents participating in the game.
+     * @param outcome            - results and ordinal positions of the players at the end of the game.
+     */
+    protected void recordResults(List<Integer> agentIDsInThisGame, GameOutcome outcome) {
+        GameResult[] results = outcome.results;
+        int numDraws = 0;
+        for (int j = 0; j < agentIDsInThisGame.size(); j++) {
+            nGamesPlayed[agentIDsInThisGame.get(j)] += 1;
+            for (int k = 0; k < agentIDsInThisGame.size(); k++) {
+                if (k != j) {
+                    nGamesPlayedPerOpponent[agentIDsInThisGame.get(j)][agentIDsInThisGame.get(k)] += 1;
                 }
+            }
 
-                // now we need to be careful if we have a team game, as the agents are indexed by Team, not player
-                if (byTeam) {
-                    for (int player = 0; player < game.getGameState().getNPlayers(); player++) {
-                        if (game.getGameState().getTeam(player) == j) {
-                            numDraws += updatePoints(results, agentIDsInThisGame, agentIDsInThisGame.get(j), player);
-                            break; // we stop after one player on the team to avoid double counting
-                        }
+            // now we need to be careful if we have a team game, as the agents are indexed by Team, not player
+            if (byTeam) {
+                for (int player = 0; player < outcome.teams.length; player++) {
+                    if (outcome.teams[player] == j) {
+                        numDraws += updatePoints(outcome, agentIDsInThisGame, agentIDsInThisGame.get(j), player);
+                        break; // we stop after one player on the team to avoid double counting
                     }
-                } else {
-                    numDraws += updatePoints(results, agentIDsInThisGame, agentIDsInThisGame.get(j), j);
                 }
+            } else {
+                numDraws += updatePoints(outcome, agentIDsInThisGame, agentIDsInThisGame.get(j), j);
             }
+        }
 
-            if (numDraws > 0) {
-                double pointsPerDraw = 1.0 / numDraws;
-                for (int j = 0; j < matchUpPlayers.size(); j++) {
-                    if (results[j] == GameResult.DRAW_GAME) pointsPerPlayer[agentIDsInThisGame.get(j)] += pointsPerDraw;
-                    if (results[j] == GameResult.DRAW_GAME)
-                        pointsPerPlayerSquared[agentIDsInThisGame.get(j)] += pointsPerDraw * pointsPerDraw;
-                }
+        if (numDraws > 0) {
+            double pointsPerDraw = 1.0 / numDraws;
+            for (int j = 0; j < agentIDsInThisGame.size(); j++) {
+                if (results[j] == GameResult.DRAW_GAME) pointsPerPlayer[agentIDsInThisGame.get(j)] += pointsPerDraw;
+                if (results[j] == GameResult.DRAW_GAME)
+                    pointsPerPlayerSquared[agentIDsInThisGame.get(j)] += pointsPerDraw * pointsPerDraw;
             }
+        }
 
-            if (verbose) {
-                StringBuffer sb = new StringBuffer();
-                sb.append("[");
-                for (int j = 0; j < matchUpPlayers.size(); j++) {
-                    for (int player = 0; player < game.getGameState().getNPlayers(); player++) {
-                        if (game.getGameState().getTeam(player) == j) {
-                            sb.append(results[player]).append(",");
-                            break; // we stop after one player on the team to avoid double counting
-                        }
+        if (verbose) {
+            StringBuffer sb = new StringBuffer();
+            sb.append("[");
+            for (int j = 0; j < agentIDsInThisGame.size(); j++) {
+                for (int player = 0; player < outcome.teams.length; player++) {
+                    if (outcome.teams[player] == j) {
+                        sb.append(results[player]).append(",");
+                        break; // we stop after one player on the team to avoid double counting
                     }
                 }
-                sb.setCharAt(sb.length() - 1, ']');
-                System.out.println(sb);
             }
-
+            sb.setCharAt(sb.length() - 1, ']');
+            System.out.println(sb);
         }
-        totalGamesRun += nGames;
     }
 
-    private int updatePoints(GameResult[] results, List<Integer> matchUpPlayers, int j, int player) {
+    private int updatePoints(GameOutcome outcome, List<Integer> matchUpPlayers, int j, int player) {
         // j is the index of the agent in the matchup; player is the corresponding player number in the game
-        int ordinalPos = game.getGameState().getOrdinalPosition(player);
+        GameResult[] results = outcome.results;
+        int ordinalPos = outcome.ordinalPositions[player];
         rankPerPlayer[j] += ordinalPos;
         rankPerPlayerSquared[j] += ordinalPos * ordinalPos;
 
-        for (int playerPos = 0; playerPos < game.getGameState().getNPlayers(); playerPos++) {
+        for (int playerPos = 0; playerPos < outcome.ordinalPositions.length; playerPos++) {
             if (playerPos != player) {
-                int ordinalOther = game.getGameState().getOrdinalPosition(playerPos);
+                int ordinalOther = outcome.ordinalPositions[playerPos];
                 ordinalDeltaPerOpponent[j][matchUpPlayers.get(playerPos)] += ordinalOther - ordinalPos;
             }
         }
@@ -417,6 +449,89 @@ public class RoundRobinTournament extends AbstractTournament {
         return 0;
     }
 
+    /**
+     * The players for one game: a copy of each agent, with the agent's name and random seed (for both its parameters
+     * and its Random). Every game, serial or parallel, is played by new copies like this, so that no game depends on
+     * what the agents did in the games before it, or on which thread it is run. So for agents whose play only depends
+     * on their random seed, the results of a tournament are the same with any number of threads. (An agent that
+     * uses another source of randomness, such as the clock, varies from run to run whatever the number of threads.)
+     *
+     * @param agentIDs - the agent in each position
+     * @return - new copies of the agents, in the same order
+     */
+    protected List<AbstractPlayer> playersForGame(List<Integer> agentIDs) {
+        List<AbstractPlayer> retValue = new ArrayList<>();
+        for (int agentID : agentIDs) {
+            AbstractPlayer original = agents.get(agentID);
+            AbstractPlayer player = original.copy();
+            // copy() gives new parameters a fresh random seed, so we reinstate the original one
+            long seed = original.getParameters().getRandomSeed();
+            player.getParameters().setRandomSeed(seed);
+            player.getRnd().setSeed(seed);
+            player.setName(original.toString());
+            retValue.add(player);
+        }
+        return retValue;
+    }
+
+    /**
+     * Runs all the games queued by evaluateMatchUp() on a pool of nThreads worker threads.
+     * Each worker has its own Game (and hence forward model), and each game is played by new copies of the agents
+     * from playersForGame(), as in a serial run. Once all games are finished the results are recorded in the order
+     * the games were queued, so that the final tallies are identical to running the same games serially.
+     */
+    protected void runPendingGames() {
+        if (pendingGames.isEmpty())
+            return;
+        GameOutcome[] outcomes = new GameOutcome[pendingGames.size()];
+        AtomicInteger nextGame = new AtomicInteger(0);
+        Set<String> agentNames = agents.stream().map(AbstractPlayer::toString).collect(Collectors.toSet());
+        int nWorkers = Math.min(nThreads, pendingGames.size());
+        // the matchup each listener was last initialised for, which is shared by the workers
+        Map<IGameListener, AtomicReference<Set<AbstractPlayer>>> initialisedMatchUps = new IdentityHashMap<>();
+        for (IGameListener listener : listeners)
+            initialisedMatchUps.put(listener, new AtomicReference<>());
+        ExecutorService executor = Executors.newFixedThreadPool(nWorkers);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int w = 0; w < nWorkers; w++) {
+            workers.add(executor.submit(() -> {
+                Game workerGame = game.getGameType().createGameInstance(nPlayers, game.getGameState().getGameParameters().copy());
+                List<WorkerListener> workerListeners = new ArrayList<>();
+                for (IGameListener listener : listeners) {
+                    WorkerListener workerListener = new WorkerListener(listener, workerGame, agentNames, initialisedMatchUps.get(listener));
+                    workerListeners.add(workerListener);
+                    workerGame.addListener(workerListener);
+                }
+                int index;
+                while ((index = nextGame.getAndIncrement()) < outcomes.length) {
+                    PendingGame pending = pendingGames.get(index);
+                    Set<AbstractPlayer> originalPlayers = new HashSet<>();
+                    for (int agentID : pending.agentIDs)
+                        originalPlayers.add(agents.get(agentID));
+                    for (WorkerListener workerListener : workerListeners)
+                        workerListener.matchUp = originalPlayers;
+                    workerGame.reset(playersForGame(pending.agentIDs), pending.seed);
+                    if (randomGameParams) {
+                        workerGame.getGameState().getGameParameters().randomize();
+                        System.out.println("Game parameters: " + workerGame.getGameState().getGameParameters());
+                    }
+                    workerGame.run();
+                    outcomes[index] = new GameOutcome(workerGame.getGameState());
+                }
+            }));
+        }
+        executor.shutdown();
+        try {
+            for (Future<?> worker : workers)
+                worker.get();
+        } catch (InterruptedException | ExecutionException e) {
+            executor.shutdownNow();
+            throw new RuntimeException("Error running tournament games in parallel", e);
+        }
+        for (int i = 0; i < outcomes.length; i++)
+            recordResults(pendingGames.get(i).agentIDs, outcomes[i]);
+        pendingGames.clear();
+    }
 
     protected void calculateFinalResults() {
         finalWinRanking = new LinkedHashMap<>();
@@ -544,14 +659,17 @@ public class RoundRobinTournament extends AbstractTournament {
         }
         // To file
         if (toFile) {
-            try {
-                FileWriter writer = new FileWriter(resultsFile, true);
-                for (String line : dataDump)
-                    writer.write(line);
-                writer.write("\n");
-                writer.close();
-            } catch (Exception e) {
-                e.printStackTrace();
+            // several tournaments may be run at once (by a TournamentScheduler) and write to the same file
+            synchronized (RoundRobinTournament.class) {
+                try {
+                    FileWriter writer = new FileWriter(resultsFile, true);
+                    for (String line : dataDump)
+                        writer.write(line);
+                    writer.write("\n");
+                    writer.close();
+                } catch (Exception e) {
+                    e.printStackTrace();
+                }
             }
         }
     }
@@ -747,4 +865,90 @@ public class RoundRobinTournament extends AbstractTournament {
     public int[] getNGamesPlayed() {
         return nGamesPlayed;
     }
+
+    /**
+     * A game queued to be run in parallel: the agents in each position, and the random seed to use.
+     */
+    static class PendingGame {
+        final List<Integer> agentIDs;
+        final int seed;
+
+        PendingGame(List<Integer> agentIDs, int seed) {
+            this.agentIDs = agentIDs;
+            this.seed = seed;
+        }
+    }
+
+    /**
+     * The information about a finished game needed to update the tournament tallies.
+     * This is extracted from the final game state so that it can be recorded after the Game has been reused.
+     */
+    protected static class GameOutcome {
+        final GameResult[] results;
+        final int[] ordinalPositions;
+        final int[] teams;
+
+        GameOutcome(AbstractGameState state) {
+            this.results = state.getPlayerResults().clone();
+            this.ordinalPositions = new int[state.getNPlayers()];
+            this.teams = new int[state.getNPlayers()];
+            for (int p = 0; p < state.getNPlayers(); p++) {
+                ordinalPositions[p] = state.getOrdinalPosition(p);
+                teams[p] = state.getTeam(p);
+            }
+        }
+    }
+
+    /**
+     * Passes events from a worker Game to one of the tournament listeners.
+     * Listeners are not thread-safe, so events from all workers are processed one at a time (locking on the listener).
+     * The listener is pointed at the worker Game before each event is processed. A TournamentMetricsGameListener
+     * records each matchup separately, so tournamentInit() is called when an event is from a different matchup to
+     * the one it was last initialised for (which is shared by the WorkerListeners of all workers); as in a serial run,
+     * this is once per matchup unless the workers are playing games of different matchups at the same time.
+     */
+    static class WorkerListener implements IGameListener {
+        final IGameListener wrapped;
+        final Game workerGame;
+        final Set<String> agentNames;
+        final AtomicReference<Set<AbstractPlayer>> initialisedMatchUp;
+        Set<AbstractPlayer> matchUp;
+
+        WorkerListener(IGameListener wrapped, Game workerGame, Set<String> agentNames,
+                       AtomicReference<Set<AbstractPlayer>> initialisedMatchUp) {
+            this.wrapped = wrapped;
+            this.workerGame = workerGame;
+            this.agentNames = agentNames;
+            this.initialisedMatchUp = initialisedMatchUp;
+        }
+
+        @Override
+        public void onEvent(Event event) {
+            synchronized (wrapped) {
+                Game originalGame = wrapped.getGame();
+                wrapped.setGame(workerGame);
+                if (wrapped instanceof TournamentMetricsGameListener && !matchUp.equals(initialisedMatchUp.get())) {
+                    ((TournamentMetricsGameListener) wrapped).tournamentInit(workerGame, workerGame.getPlayers().size(), agentNames, matchUp);
+                    initialisedMatchUp.set(matchUp);
+                }
+                wrapped.onEvent(event);
+                wrapped.setGame(originalGame);
+            }
+        }
+
+        @Override
+        public void report() {
+            // reporting is done once by the tournament on the wrapped listener
+        }
+
+        @Override
+        public void setGame(Game game) {
+            // the worker game is fixed
+        }
+
+        @Override
+        public Game getGame() {
+            return workerGame;
+        }
+    }
 }
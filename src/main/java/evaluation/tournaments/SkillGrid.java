@@ -13,6 +13,8 @@ import static evaluation.RunArg.*;
 /**
  * This is a wrapper to run one RoundRobin tournament on a ONE_VS_ALL basis between each pair
  * of agents in the given list of agents.
+ * If nThreads is not 1, then the tournaments for different pairs are run at the same time (see TournamentScheduler),
+ * each of them on a single thread.
  */
 public class SkillGrid {
 
@@ -28,6 +30,13 @@ public class SkillGrid {
         // sort in alphabetical order
         agents.sort(Comparator.comparing(AbstractPlayer::toString));
         config.put(RunArg.mode, "onevsall");
+        TournamentScheduler scheduler = new TournamentScheduler((int) config.getOrDefault(nThreads, 1), agents);
+        Map<RunArg, Object> tournamentConfig = config;
+        if (scheduler.isParallel()) {
+            // the parallelism is across the tournaments, not within them
+            tournamentConfig = new HashMap<>(config);
+            tournamentConfig.put(nThreads, 1);
+        }
 
         // We iterate through each pair of agents
         // agentTwo is the player that will have a single copy against multiple copies of agentOne
@@ -37,12 +46,13 @@ public class SkillGrid {
                 GameType gameType = GameType.valueOf((String) config.get(game));
                 AbstractParameters params = config.get(gameParams).equals("") ? null : AbstractParameters.createFromFile(gameType, (String) config.get(gameParams));
 
+                List<AbstractPlayer> pair = Arrays.asList(agents.get(agentTwoIndex), agents.get(agentOneIndex));
                 RoundRobinTournament tournament = new RoundRobinTournament(
-                        Arrays.asList(agents.get(agentTwoIndex), agents.get(agentOneIndex)),
+                        scheduler.isParallel() ? TournamentScheduler.copyAgents(pair) : pair,
                         gameType,
                         (Integer) config.get(RunArg.nPlayers),
                         params,
-                        config);
+                        tournamentConfig);
 
                 // Add listeners
                 //noinspection unchecked
@@ -57,9 +67,10 @@ public class SkillGrid {
                 }
 
                 // run tournament
-                tournament.run();
+                scheduler.submit(tournament);
             }
         }
+        scheduler.finish();
 
     }
 }
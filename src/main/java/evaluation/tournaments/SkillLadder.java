@@ -94,10 +94,18 @@ public class SkillLadder {
         allAgents.add(firstAgent);
         int matchups = (int) config.get(RunArg.matchups);
 
+        // the rungs (and the cells of the grid) are independent, so the tournaments can run at the same time
+        TournamentScheduler scheduler = new TournamentScheduler((int) config.get(RunArg.nThreads), allAgents);
+        List<int[]> tournamentBudgets = new ArrayList<>();
+        int nReported = 0;
+
         for (int i = 0; i < iterations; i++) {
             int newBudget = (int) (Math.pow(timeBudgetMultiplier, i + 1) * startingTimeBudget);
             if (runNTBEA) {
                 NTBEAParameters ntbeaParameters = constructNTBEAParameters(config, newBudget);
+                // nThreads is shared with the scheduler, so while it is running tournaments NTBEA uses just this thread
+                if (scheduler.isBusy())
+                    ntbeaParameters.nThreads = 1;
                 // ensure we have one repeat for each player position (to make the tournament easier)
                 // we will have one from the elite set, so we need nPlayers-1 more
                 NTBEA ntbea = new NTBEA(ntbeaParameters, gameType, nPlayers);
@@ -119,6 +127,8 @@ public class SkillLadder {
                 allAgents.add(PlayerFactory.createPlayer(player));
             }
             allAgents.get(i + 1).setName("Budget " + newBudget);
+            // the scheduler only saw the first agent, so it checks each new one (for a time budget)
+            scheduler.addAgents(List.of(allAgents.get(i + 1)));
             if (newBudget < startGridBudget) // we fast forward to where we want to start the grid
                 continue;
             if (matchups == 0)
@@ -132,6 +142,8 @@ public class SkillLadder {
                 if (newBudget == startGridBudget && otherBudget < startMinorGridBudget) // we fast forward to where we want to start the minor grid
                     continue;
                 List<AbstractPlayer> agents = Arrays.asList(allAgents.get(i + 1), allAgents.get(agentIndex));
+                if (scheduler.isParallel())
+                    agents = TournamentScheduler.copyAgents(agents);
                 Map<RunArg, Object> finalConfig = new HashMap<>();
                 finalConfig.put(RunArg.matchups, matchups);
                 finalConfig.put(RunArg.byTeam, true);
@@ -152,20 +164,40 @@ public class SkillLadder {
                     }
                 }
 
-                long startTime = System.currentTimeMillis();
-                RRT.run();
-                long endTime = System.currentTimeMillis();
-                System.out.printf("%d games in %3d minutes\tBudget %5d win rate: %.1f%% +/- %.1f%%, mean rank %.1f +/- %.1f\tvs Budget %5d win rate: %.1f%% +/- %.1f%%, mean rank %.1f +/- %.1f%n",
-                        (int) config.get(RunArg.matchups), (endTime - startTime) / 60000,
-                        newBudget,
-                        RRT.getWinRate(0) * 100, RRT.getWinStdErr(0) * 100 * 2,
-                        RRT.getOrdinalRank(0), RRT.getOrdinalStdErr(0) * 2,
-                        otherBudget,
-                        RRT.getWinRate(1) * 100, RRT.getWinStdErr(1) * 100 * 2,
-                        RRT.getOrdinalRank(1), RRT.getOrdinalStdErr(1) * 2
-                );
+                scheduler.submit(RRT);
+                tournamentBudgets.add(new int[]{newBudget, otherBudget});
+                nReported = reportFinished(scheduler, tournamentBudgets, matchups, nReported, false);
             }
         }
+        reportFinished(scheduler, tournamentBudgets, matchups, nReported, true);
+        scheduler.finish();
+    }
+
+    /**
+     * Prints the results of the tournaments that have finished, in the order they were started
+     *
+     * @param nReported the number of tournaments already reported
+     * @param wait      if true, then we wait for all the tournaments to finish
+     * @return the number of tournaments now reported
+     */
+    private static int reportFinished(TournamentScheduler scheduler, List<int[]> budgets, int matchups, int nReported, boolean wait) {
+        while (nReported < scheduler.submitted() && (wait || scheduler.isDone(nReported))) {
+            long duration = scheduler.durationMillis(nReported);
+            RoundRobinTournament RRT = scheduler.get(nReported);
+            int newBudget = budgets.get(nReported)[0];
+            int otherBudget = budgets.get(nReported)[1];
+            System.out.printf("%d games in %3d minutes\tBudget %5d win rate: %.1f%% +/- %.1f%%, mean rank %.1f +/- %.1f\tvs Budget %5d win rate: %.1f%% +/- %.1f%%, mean rank %.1f +/- %.1f%n",
+                    matchups, duration / 60000,
+                    newBudget,
+                    RRT.getWinRate(0) * 100, RRT.getWinStdErr(0) * 100 * 2,
+                    RRT.getOrdinalRank(0), RRT.getOrdinalStdErr(0) * 2,
+                    otherBudget,
+                    RRT.getWinRate(1) * 100, RRT.getWinStdErr(1) * 100 * 2,
+                    RRT.getOrdinalRank(1), RRT.getOrdinalStdErr(1) * 2
+            );
+            nReported++;
+        }
+        return nReported;
     }
 
     private static NTBEAParameters constructNTBEAParameters(Map<RunArg, Object> config, int budget) {
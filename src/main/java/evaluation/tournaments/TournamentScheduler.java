@@ -0,0 +1,167 @@
+package evaluation.tournaments;
+
+import core.AbstractPlayer;
+import players.PlayerConstants;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Runs independent tournaments (the rungs of a SkillLadder, or the cells of a SkillGrid) at the same time, each on
+ * one thread. Results are collected in the order the tournaments were submitted.
+ * <p>
+ * A tournament plays its games with the agents it is given, so each concurrent tournament needs its own copies of
+ * any agents that are shared with another (see copyAgents()).
+ * <p>
+ * If any agent has a time budget (BUDGET_TIME), then the number of concurrent tournaments is limited to half the
+ * available processors, so that agents are not competing for cores (and with hyperthreading each still has
+ * roughly a physical core to itself). The JVM cannot pin threads to cores, so for strictly fair time-budget
+ * comparisons run with nThreads = 1. If agents are created as the tournaments run (as in SkillLadder), then pass
+ * each new one to addAgents(), so that this limit is still applied.
+ */
+public class TournamentScheduler {
+
+    private final int nThreads;
+    private final ThreadPoolExecutor executor;
+    private final List<RoundRobinTournament> tournaments = new ArrayList<>();
+    private final List<Future<Long>> results = new ArrayList<>();  // the time each took to run, in milliseconds
+
+    /**
+     * @param nThreads the maximum number of tournaments to run at once; 0 or less for one per available processor
+     * @param agents   all the agents that will play (to check their budget types)
+     */
+    public TournamentScheduler(int nThreads, Collection<AbstractPlayer> agents) {
+        this.nThreads = nThreads;
+        int threads = threadsToUse(nThreads, agents);
+        executor = threads > 1 ? (ThreadPoolExecutor) Executors.newFixedThreadPool(threads) : null;
+    }
+
+    /**
+     * Checks agents that were not passed to the constructor, and reduces the number of tournaments run at once if
+     * they need it (see threadsToUse()). Tournaments that are already running carry on.
+     */
+    public void addAgents(Collection<AbstractPlayer> agents) {
+        if (executor == null)
+            return;
+        int threads = threadsToUse(nThreads, agents);
+        if (threads < executor.getMaximumPoolSize()) {
+            // (the core size cannot be more than the maximum)
+            executor.setCorePoolSize(threads);
+            executor.setMaximumPoolSize(threads);
+        }
+    }
+
+    /**
+     * @return the most tournaments that will be run at once
+     */
+    public int maxConcurrent() {
+        return executor == null ? 1 : executor.getMaximumPoolSize();
+    }
+
+    public static int threadsToUse(int nThreads, Collection<AbstractPlayer> agents) {
+        int processors = Runtime.getRuntime().availableProcessors();
+        int retValue = nThreads > 0 ? nThreads : processors;
+        boolean timeBudget = agents.stream()
+                .anyMatch(a -> a.getParameters() != null && a.getParameters().budgetType == PlayerConstants.BUDGET_TIME);
+        if (timeBudget && retValue > Math.max(1, processors / 2)) {
+            retValue = Math.max(1, processors / 2);
+            System.out.printf("Agents have time budgets, so running at most %d tournaments at once%n", retValue);
+        }
+        return retValue;
+    }
+
+    public boolean isParallel() {
+        return executor != null;
+    }
+
+    /**
+     * @return copies of the agents (with the same names and random seeds), for a tournament of its own
+     */
+    public static List<AbstractPlayer> copyAgents(List<AbstractPlayer> agents) {
+        List<AbstractPlayer> retValue = new ArrayList<>();
+        for (AbstractPlayer original : agents) {
+            AbstractPlayer player = original.copy();
+            // copy() gives new parameters a fresh random seed, so we reinstate the original one
+            player.getParameters().setRandomSeed(original.getParameters().getRandomSeed());
+            player.setName(original.toString());
+            retValue.add(player);
+        }
+        return retValue;
+    }
+
+    /**
+     * Runs the tournament; immediately if this is not parallel, otherwise on the next free thread
+     */
+    public void submit(RoundRobinTournament tournament) {
+        Callable<Long> task = () -> {
+            long startTime = System.currentTimeMillis();
+            tournament.run();
+            return System.currentTimeMillis() - startTime;
+        };
+        tournaments.add(tournament);
+        if (executor == null) {
+            try {
+                results.add(CompletableFuture.completedFuture(task.call()));
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        } else {
+            results.add(executor.submit(task));
+        }
+    }
+
+    /**
+     * @return the number of tournaments submitted so far
+     */
+    public int submitted() {
+        return results.size();
+    }
+
+    /**
+     * @return true if any tournament submitted has not finished yet (and so is using one of the threads)
+     */
+    public boolean isBusy() {
+        return results.stream().anyMatch(r -> !r.isDone());
+    }
+
+    public boolean isDone(int index) {
+        return results.get(index).isDone();
+    }
+
+    /**
+     * Waits for the tournament to finish
+     *
+     * @param index the tournament, in the order submitted
+     */
+    public RoundRobinTournament get(int index) {
+        durationMillis(index);
+        return tournaments.get(index);
+    }
+
+    /**
+     * Waits for the tournament to finish
+     *
+     * @return how long it took to run, in milliseconds
+     */
+    public long durationMillis(int index) {
+        try {
+            return results.get(index).get();
+        } catch (InterruptedException | ExecutionException e) {
+            if (executor != null)
+                executor.shutdownNow();
+            throw new RuntimeException("Error running tournament in parallel", e);
+        }
+    }
+
+    /**
+     * Waits for all the tournaments to finish, and shuts down the threads
+     */
+    public void finish() {
+        for (int i = 0; i < results.size(); i++)
+            get(i);
+        if (executor != null)
+            executor.shutdown();
+    }
+}
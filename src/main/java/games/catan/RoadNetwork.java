@@ -0,0 +1,219 @@
+package games.catan;
+
+import core.components.BoardNodeWithEdges;
+import core.components.Edge;
+import core.components.GraphBoardWithEdges;
+
+import java.util.*;
+
+/**
+ * Keeps track of the length of the longest road of each player, updated as roads and settlements are built.
+ * <p>
+ * The layout of the graph (which edges join which settlement spots) never changes during the game, so it is indexed
+ * once from the catan graph and shared between copies. The state copied with the game is only the edges owned by
+ * each player (as a bitset), the owner of each settlement spot, and the length of the longest road through each edge.
+ * <p>
+ * A road is a trail (no edge used twice) along the edges of a player, which may not go through a settlement of another
+ * player, but may end at one. When a road is built, only the road network it joins is searched again; when a
+ * settlement is built, only the road networks of other players that it breaks.
+ */
+public class RoadNetwork {
+
+    // Layout of the graph, shared between copies
+    private final Map<Integer, Integer> edgeIndex;  // component ID -> index of edge
+    private final Map<Integer, Integer> nodeIndex;  // component ID -> index of node
+    private final int[][] edgeNodes;  // [edge] -> the 2 nodes it joins
+    private final int[][] nodeEdges;  // [node] -> edges that meet at it
+
+    private final long[][] edgesOwned;  // [player] -> bitset of edges owned
+    private final int[] nodeOwner;  // [node] -> owner of the building on it, or -1
+    private final int[] roadLength;  // [edge] -> length of the longest road in the network of the edge, 0 if not owned
+
+    /**
+     * Indexes the graph, with owners of edges and nodes as they currently are.
+     *
+     * @param graph    - catan graph
+     * @param nPlayers - number of players
+     */
+    public RoadNetwork(GraphBoardWithEdges graph, int nPlayers) {
+        edgeIndex = new HashMap<>();
+        nodeIndex = new HashMap<>();
+        List<BoardNodeWithEdges> nodes = new ArrayList<>(graph.getBoardNodes());
+        nodes.sort(Comparator.comparingInt(BoardNodeWithEdges::getComponentID));
+        List<Edge> edges = new ArrayList<>();
+        for (BoardNodeWithEdges node : nodes) {
+            nodeIndex.put(node.getComponentID(), nodeIndex.size());
+            for (Edge e : node.getNeighbourEdgeMapping().keySet()) {
+                if (!edgeIndex.containsKey(e.getComponentID())) {
+                    edgeIndex.put(e.getComponentID(), edges.size());
+                    edges.add(e);
+                }
+            }
+        }
+
+        edgeNodes = new int[edges.size()][2];
+        nodeEdges = new int[nodes.size()][];
+        nodeOwner = new int[nodes.size()];
+        for (BoardNodeWithEdges node : nodes) {
+            int n = nodeIndex.get(node.getComponentID());
+            nodeOwner[n] = node.getOwnerId();
+            nodeEdges[n] = new int[node.getNeighbourEdgeMapping().size()];
+            int i = 0;
+            for (Map.Entry<Edge, BoardNodeWithEdges> e : node.getNeighbourEdgeMapping().entrySet()) {
+                int edge = edgeIndex.get(e.getKey().getComponentID());
+                nodeEdges[n][i++] = edge;
+                edgeNodes[edge][0] = n;
+                edgeNodes[edge][1] = nodeIndex.get(e.getValue().getComponentID());
+            }
+            Arrays.sort(nodeEdges[n]);
+        }
+
+        edgesOwned = new long[nPlayers][(edges.size() + 63) / 64];
+        roadLength = new int[edges.size()];
+        for (int edge = 0; edge < edges.size(); edge++) {
+            int owner = edges.get(edge).getOwnerId();
+            if (owner >= 0) edgesOwned[owner][edge >>> 6] |= 1L << edge;
+        }
+        for (int edge = 0; edge < edges.size(); edge++) {
+            int owner = edges.get(edge).getOwnerId();
+            if (owner >= 0 && roadLength[edge] == 0) updateNetwork(owner, edge);
+        }
+    }
+
+    private RoadNetwork(RoadNetwork other) {
+        edgeIndex = other.edgeIndex;
+        nodeIndex = other.nodeIndex;
+        edgeNodes = other.edgeNodes;
+        nodeEdges = other.nodeEdges;
+        edgesOwned = new long[other.edgesOwned.length][];
+        for (int p = 0; p < edgesOwned.length; p++) {
+            edgesOwned[p] = other.edgesOwned[p].clone();
+        }
+        nodeOwner = other.nodeOwner.clone();
+        roadLength = other.roadLength.clone();
+    }
+
+    public RoadNetwork copy() {
+        return new RoadNetwork(this);
+    }
+
+    /**
+     * Records a road built by the player.
+     *
+     * @param player - owner of the road
+     * @param edgeID - component ID of the edge the road is on
+     * @return the length of the longest road of the player
+     */
+    public int addRoad(int player, int edgeID) {
+        int edge = edgeIndex.get(edgeID);
+        edgesOwned[player][edge >>> 6] |= 1L << edge;
+        updateNetwork(player, edge);
+        return getLongestRoad(player);
+    }
+
+    /**
+     * Records a settlement built by the player, which breaks the roads of other players going through it.
+     *
+     * @param player - owner of the settlement
+     * @param nodeID - component ID of the node the settlement is on
+     * @return the players whose longest road may have changed
+     */
+    public Set<Integer> addSettlement(int player, int nodeID) {
+        int node = nodeIndex.get(nodeID);
+        nodeOwner[node] = player;
+        Set<Integer> broken = new HashSet<>();
+        for (int edge : nodeEdges[node]) {
+            for (int p = 0; p < edgesOwned.length; p++) {
+                if (p != player && owns(p, edge)) {
+                    // The road network of the edge may have been split in 2; each part is searched from one of its edges
+                    updateNetwork(p, edge);
+                    broken.add(p);
+                }
+            }
+        }
+        return broken;
+    }
+
+    /**
+     * @param player - player ID
+     * @return the length of the longest road of the player
+     */
+    public int getLongestRoad(int player) {
+        int longest = 0;
+        long[] owned = edgesOwned[player];
+        for (int w = 0; w < owned.length; w++) {
+            for (long bits = owned[w]; bits != 0; bits &= bits - 1) {
+                longest = Math.max(longest, roadLength[(w << 6) + Long.numberOfTrailingZeros(bits)]);
+            }
+        }
+        return longest;
+    }
+
+    private boolean owns(int player, int edge) {
+        return (edgesOwned[player][edge >>> 6] & 1L << edge) != 0;
+    }
+
+    // Roads can go through nodes that are empty or owned by the player, and end at the others
+    private boolean passable(int player, int node) {
+        return nodeOwner[node] == -1 || nodeOwner[node] == player;
+    }
+
+    /**
+     * Finds the road network of the player (the edges that can be reached from the given edge along a road), and sets
+     * the length of the longest road in it for all its edges.
+     */
+    private void updateNetwork(int player, int start) {
+        List<Integer> network = new ArrayList<>();
+        boolean[] inNetwork = new boolean[roadLength.length];
+        network.add(start);
+        inNetwork[start] = true;
+        for (int i = 0; i < network.size(); i++) {
+            for (int node : edgeNodes[network.get(i)]) {
+                if (!passable(player, node)) continue;
+                for (int edge : nodeEdges[node]) {
+                    if (!inNetwork[edge] && owns(player, edge)) {
+                        inNetwork[edge] = true;
+                        network.add(edge);
+                    }
+                }
+            }
+        }
+
+        // The longest road starts at a node of the network, and the search from it never leaves the network
+        int longest = 0;
+        boolean[] used = new boolean[roadLength.length];
+        for (int edge : network) {
+            for (int node : edgeNodes[edge]) {
+                longest = Math.max(longest, longestFrom(player, node, used));
+            }
+        }
+        for (int edge : network) {
+            roadLength[edge] = longest;
+        }
+    }
+
+    private int longestFrom(int player, int node, boolean[] used) {
+        int longest = 0;
+        for (int edge : nodeEdges[node]) {
+            if (used[edge] || !owns(player, edge)) continue;
+            int next = edgeNodes[edge][0] == node ? edgeNodes[edge][1] : edgeNodes[edge][0];
+            used[edge] = true;
+            longest = Math.max(longest, 1 + (passable(player, next) ? longestFrom(player, next, used) : 0));
+            used[edge] = false;
+        }
+        return longest;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof RoadNetwork)) return false;
+        RoadNetwork that = (RoadNetwork) o;
+        return Arrays.deepEquals(edgesOwned, that.edgesOwned) && Arrays.equals(nodeOwner, that.nodeOwner);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.deepHashCode(edgesOwned) + Arrays.hashCode(nodeOwner);
+    }
+}
@@ -0,0 +1,178 @@
+package games.connect4;
+
+import utilities.Pair;
+import utilities.Zobrist;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+
+/**
+ * A compact Connect4 board, used instead of the GridBoard of Tokens when Connect4GameParameters.bitboard is set.
+ * <p>
+ * Each player's tokens are a bitset over the cells, indexed column by column (x * height + y). For any board of up
+ * to 64 cells (which includes the default 8x8) this is a single long per player. Together with the number of tokens
+ * in each column this is all that is needed to play the game: a win can only be made by the token just played, so
+ * this is checked by counting the run of that player's tokens through the last cell in each of the four directions.
+ * <p>
+ * As on the GridBoard, y = 0 is the top row, and tokens are dropped in from y = height - 1.
+ */
+public class Connect4Bitboard {
+
+    private static final int[][] directions = {{0, 1}, {1, 0}, {1, 1}, {1, -1}};
+
+    final int width, height, winCount;
+    private final long[][] stones;  // [player][word]
+    private final int[] columnHeights;
+    private int nMoves;
+    private int lastX = -1, lastY = -1;
+    private long hash;
+
+    public Connect4Bitboard(int width, int height, int winCount) {
+        this.width = width;
+        this.height = height;
+        this.winCount = winCount;
+        stones = new long[2][(width * height + 63) / 64];
+        columnHeights = new int[width];
+    }
+
+    private Connect4Bitboard(Connect4Bitboard other) {
+        width = other.width;
+        height = other.height;
+        winCount = other.winCount;
+        stones = new long[][]{other.stones[0].clone(), other.stones[1].clone()};
+        columnHeights = other.columnHeights.clone();
+        nMoves = other.nMoves;
+        lastX = other.lastX;
+        lastY = other.lastY;
+        hash = other.hash;
+    }
+
+    public Connect4Bitboard copy() {
+        return new Connect4Bitboard(this);
+    }
+
+    /**
+     * @return the player whose token is at (x, y), or -1 if the cell is empty
+     */
+    public int getOwner(int x, int y) {
+        int cell = x * height + y;
+        if ((stones[0][cell >>> 6] & (1L << cell)) != 0) return 0;
+        if ((stones[1][cell >>> 6] & (1L << cell)) != 0) return 1;
+        return -1;
+    }
+
+    public boolean isColumnFull(int x) {
+        return columnHeights[x] == height;
+    }
+
+    /**
+     * @return the y co-ordinate at which a token dropped into column x would land
+     */
+    public int nextFreeRow(int x) {
+        return height - 1 - columnHeights[x];
+    }
+
+    public boolean isFull() {
+        return nMoves == width * height;
+    }
+
+    public int getMoveCount() {
+        return nMoves;
+    }
+
+    /**
+     * Drops a token for the player into column x
+     *
+     * @return the y co-ordinate at which it landed
+     */
+    public int drop(int x, int player) {
+        if (isColumnFull(x))
+            throw new IllegalArgumentException("Column " + x + " is full");
+        int y = nextFreeRow(x);
+        int cell = x * height + y;
+        stones[player][cell >>> 6] |= 1L << cell;
+        columnHeights[x]++;
+        nMoves++;
+        lastX = x;
+        lastY = y;
+        hash ^= Zobrist.key(cell, player);
+        return y;
+    }
+
+    /**
+     * @return true if the last token played completes a line of at least winCount
+     */
+    public boolean lastMoveWins() {
+        if (lastX < 0)
+            return false;
+        int player = getOwner(lastX, lastY);
+        for (int[] d : directions) {
+            if (1 + run(player, d[0], d[1]) + run(player, -d[0], -d[1]) >= winCount)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return the player who made the last move (or -1 if there has been none)
+     */
+    public int lastPlayer() {
+        return lastX < 0 ? -1 : getOwner(lastX, lastY);
+    }
+
+    /**
+     * @return winCount cells of the winning line through the last move (or an empty list if there is none)
+     */
+    public LinkedList<Pair<Integer, Integer>> winningCells() {
+        LinkedList<Pair<Integer, Integer>> retValue = new LinkedList<>();
+        if (!lastMoveWins())
+            return retValue;
+        int player = getOwner(lastX, lastY);
+        for (int[] d : directions) {
+            int back = run(player, -d[0], -d[1]);
+            if (1 + run(player, d[0], d[1]) + back >= winCount) {
+                int x = lastX - back * d[0], y = lastY - back * d[1];
+                for (int i = 0; i < winCount; i++)
+                    retValue.add(new Pair<>(x + i * d[0], y + i * d[1]));
+                return retValue;
+            }
+        }
+        return retValue;
+    }
+
+    // the number of the player's tokens in a row from the last move (not including it) in direction (dx, dy)
+    private int run(int player, int dx, int dy) {
+        int count = 0;
+        int x = lastX + dx, y = lastY + dy;
+        long[] bits = stones[player];
+        while (count < winCount - 1 && x >= 0 && x < width && y >= 0 && y < height) {
+            int cell = x * height + y;
+            if ((bits[cell >>> 6] & (1L << cell)) == 0)
+                break;
+            count++;
+            x += dx;
+            y += dy;
+        }
+        return count;
+    }
+
+    /**
+     * @return a Zobrist hash of the tokens on the board
+     */
+    public long getZobristHash() {
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Connect4Bitboard that)) return false;
+        return width == that.width && height == that.height && winCount == that.winCount &&
+                Arrays.equals(stones[0], that.stones[0]) && Arrays.equals(stones[1], that.stones[1]);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(stones[0]) + Arrays.hashCode(stones[1]);
+    }
+}
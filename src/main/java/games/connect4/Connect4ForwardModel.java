@@ -2,7 +2,6 @@ package games.connect4;
 import core.AbstractGameState;
 import core.CoreConstants;
 import core.actions.AbstractAction;
-import core.actions.SetGridValueAction;
 import core.components.GridBoard;
 import core.components.Token;
 import core.forwardModels.SequentialActionForwardModel;
@@ -23,6 +22,7 @@ public class Connect4ForwardModel extends SequentialActionForwardModel {
         Connect4GameState state = (Connect4GameState) firstState;
         state.gridBoard = new GridBoard<>(gridSize, gridSize, new Token(Connect4Constants.emptyCell));
         state.winnerCells = new LinkedList<>();
+        state.bitboard = c4gp.bitboard ? new Connect4Bitboard(gridSize, gridSize, c4gp.winCount) : null;
     }
 
     @Override
@@ -31,6 +31,16 @@ public class Connect4ForwardModel extends SequentialActionForwardModel {
         ArrayList<AbstractAction> actions = new ArrayList<>();
         int player = c4gs.getCurrentPlayer();
 
+        if (c4gs.bitboard != null) {
+            if (gameState.isNotTerminal()) {
+                for (int x = 0; x < c4gs.bitboard.width; x++) {
+                    if (!c4gs.bitboard.isColumnFull(x))
+                        actions.add(c4gs.getAction(player, x, c4gs.bitboard.nextFreeRow(x)));
+                }
+            }
+            return actions;
+        }
+
         if (gameState.isNotTerminal())
             for (int x = 0; x < c4gs.gridBoard.getWidth(); x++) {
                 int y = c4gs.gridBoard.getHeight() - 1; // this is bottom of column
@@ -39,7 +49,7 @@ public class Connect4ForwardModel extends SequentialActionForwardModel {
                 {
                     boolean newCol = false;
                     if (c4gs.gridBoard.getElement(x, y).getTokenType().equals(Connect4Constants.emptyCell)) {
-                        actions.add(new SetGridValueAction<>(c4gs.gridBoard.getComponentID(), x, y, Connect4Constants.playerMapping.get(player)));
+                        actions.add(c4gs.getAction(player, x, y));
                         newCol = true;
                     }
 
@@ -67,6 +77,8 @@ public class Connect4ForwardModel extends SequentialActionForwardModel {
      * @param gameState - game state to check game end.
      */
     private boolean checkGameEnd(Connect4GameState gameState) {
+        if (gameState.bitboard != null)
+            return checkGameEnd(gameState, gameState.bitboard);
         GridBoard<Token> gridBoard = gameState.getGridBoard();
         Connect4GameParameters c4gp = (Connect4GameParameters) gameState.getGameParameters();
         boolean gap = false;
@@ -164,6 +176,27 @@ public class Connect4ForwardModel extends SequentialActionForwardModel {
     }
 
 
+    /**
+     * Checks if the game ended, when it is played on a bitboard. Only the lines through the last token played
+     * need to be checked.
+     * The winning cells are only worked out if they are asked for.
+     */
+    private boolean checkGameEnd(Connect4GameState gameState, Connect4Bitboard bitboard) {
+        if (bitboard.lastMoveWins()) {
+            int winningPlayer = bitboard.lastPlayer();
+            gameState.setGameStatus(CoreConstants.GameResult.GAME_END);
+            gameState.setPlayerResult(CoreConstants.GameResult.WIN_GAME, winningPlayer);
+            gameState.setPlayerResult(CoreConstants.GameResult.LOSE_GAME, 1 - winningPlayer);
+            return true;
+        }
+        if (bitboard.isFull()) { //tie
+            gameState.setGameStatus(CoreConstants.GameResult.DRAW_GAME);
+            Arrays.fill(gameState.getPlayerResults(), CoreConstants.GameResult.DRAW_GAME);
+            return true;
+        }
+        return false;
+    }
+
     private boolean checkMainDiagonals(Connect4GameState gameState, int xStart, int yStart)
     {
         GridBoard<Token> gridBoard = gameState.getGridBoard();
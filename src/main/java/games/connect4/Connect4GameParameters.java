@@ -11,10 +11,13 @@ public class Connect4GameParameters extends TunableParameters {
 
     public int gridSize = 8;
     public int winCount = 4;
+    // Use a Connect4Bitboard (rather than a GridBoard of Tokens) to hold the position; this is much faster
+    public boolean bitboard = false;
 
     public Connect4GameParameters() {
         addTunableParameter("gridSize", 8, Arrays.asList(6, 8, 10, 12));
         addTunableParameter("winCount", 4, Arrays.asList(3, 4, 5, 6));
+        addTunableParameter("bitboard", false);
         _reset();
     }
 
@@ -22,6 +25,7 @@ public class Connect4GameParameters extends TunableParameters {
     public void _reset() {
         gridSize = (int) getParameterValue("gridSize");
         winCount = (int) getParameterValue("winCount");
+        bitboard = (boolean) getParameterValue("bitboard");
     }
 
     @Override
@@ -29,6 +33,7 @@ public class Connect4GameParameters extends TunableParameters {
         Connect4GameParameters gp = new Connect4GameParameters();
         gp.gridSize = gridSize;
         gp.winCount = winCount;
+        gp.bitboard = bitboard;
         return gp;
     }
 
@@ -36,14 +41,13 @@ public class Connect4GameParameters extends TunableParameters {
     public boolean _equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
-        if (!super.equals(o)) return false;
         Connect4GameParameters that = (Connect4GameParameters) o;
-        return gridSize == that.gridSize && winCount == that.winCount;
+        return gridSize == that.gridSize && winCount == that.winCount && bitboard == that.bitboard;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(super.hashCode(), gridSize, winCount);
+        return Objects.hash(super.hashCode(), gridSize, winCount, bitboard);
     }
 
     @Override
@@ -3,25 +3,36 @@ package games.connect4;
 import core.AbstractGameState;
 import core.AbstractGameStateWithTurnOrder;
 import core.AbstractParameters;
+import core.actions.GridActionCache;
+import core.actions.SetGridValueAction;
 import core.components.Component;
 import core.components.GridBoard;
 import core.components.Token;
 import core.interfaces.IGridGameState;
 import core.interfaces.IPrintable;
+import core.interfaces.IZobristHashable;
 import core.turnorders.AlternatingTurnOrder;
 import core.turnorders.TurnOrder;
 import games.GameType;
 import utilities.Pair;
+import utilities.Zobrist;
 
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Objects;
 
-public class Connect4GameState extends AbstractGameState implements IPrintable, IGridGameState<Token> {
+public class Connect4GameState extends AbstractGameState implements IPrintable, IGridGameState<Token>, IZobristHashable {
 
     GridBoard<Token> gridBoard;
     LinkedList<Pair<Integer, Integer>> winnerCells;
+    // If this is set (Connect4GameParameters.bitboard), then this holds the position, and gridBoard is only
+    // brought up to date when it is asked for (by the GUI and features); equals(), hashCode() and toString() use
+    // the bitboard directly, so that they do not change the state
+    Connect4Bitboard bitboard;
+    private int gridBoardMoves;  // the number of moves on the bitboard that gridBoard includes
+    // the actions (for either board); these are immutable, so this is shared by all copies of the state
+    GridActionCache<Token> actionCache;
 
     public Connect4GameState(AbstractParameters gameParameters, int nPlayers) {
         super(gameParameters, nPlayers);
@@ -44,7 +55,12 @@ public class Connect4GameState extends AbstractGameState implements IPrintable,
     @Override
     protected AbstractGameState _copy(int playerId) {
         Connect4GameState s = new Connect4GameState(gameParameters.copy(), getNPlayers());
-        s.gridBoard = gridBoard.copy();
+        s.gridBoard = gridBoard.copyOnWrite();
+        if (bitboard != null) {
+            s.bitboard = bitboard.copy();
+            s.gridBoardMoves = gridBoardMoves;
+        }
+        s.actionCache = actionCache;
 
         s.winnerCells.clear();
         for (Pair<Integer, Integer> wC : this.winnerCells)
@@ -53,6 +69,34 @@ public class Connect4GameState extends AbstractGameState implements IPrintable,
         return s;
     }
 
+    /**
+     * @return the (interned) action for the player to place their token at (x, y); this is a DropTokenAction, which
+     * plays on the bitboard if there is one, and otherwise on the gridBoard
+     */
+    SetGridValueAction<Token> getAction(int player, int x, int y) {
+        if (actionCache == null || actionCache.getGridBoard() != gridBoard.getComponentID())
+            actionCache = new GridActionCache<>(gridBoard.getComponentID(), getNPlayers(), gridBoard.getWidth(), gridBoard.getHeight(),
+                    (g, p, tokenX, tokenY, token) -> new DropTokenAction(g, tokenX, tokenY, p));
+        return actionCache.get(player, x, y, Connect4Constants.playerMapping.get(player));
+    }
+
+    /**
+     * @return the Zobrist hash of the board, combined with the player to move
+     */
+    @Override
+    public long getZobristHash() {
+        long boardHash = bitboard == null ? gridBoard.getZobristHash() : bitboard.getZobristHash();
+        return boardHash ^ Zobrist.key(-1, getCurrentPlayer());
+    }
+
+    /**
+     * @return a hash of the board and the player to move, like getZobristHash(), but independent of it
+     */
+    @Override
+    public long getZobristCheckHash() {
+        return 31L * (bitboard == null ? gridBoard.hashCode() : bitboard.hashCode()) + getCurrentPlayer();
+    }
+
     @Override
     protected double _getHeuristicScore(int playerId) {
         return new Connect4Heuristic().evaluateState(this, playerId);
@@ -75,8 +119,10 @@ public class Connect4GameState extends AbstractGameState implements IPrintable,
     protected boolean _equals(Object o) {
         if (this == o) return true;
         if (!(o instanceof Connect4GameState)) return false;
-        if (!super.equals(o)) return false;
+        // (the rest of the state is compared by AbstractGameState.equals(), which calls this)
         Connect4GameState that = (Connect4GameState) o;
+        if (bitboard != null || that.bitboard != null)
+            return Objects.equals(bitboard, that.bitboard);
         return Objects.equals(gridBoard, that.gridBoard);
     }
 
@@ -90,8 +136,14 @@ public class Connect4GameState extends AbstractGameState implements IPrintable,
                 if (y != 0 || x != 0) {
                     sb.append(",");
                 }
-                Token t = gridBoard.getElement(x, y);
-                sb.append("\"").append("Grid_").append(x).append('_').append(y).append("\":\"").append(t.getTokenType()).append("\"");
+                String tokenType;
+                if (bitboard == null) {
+                    tokenType = gridBoard.getElement(x, y).getTokenType();
+                } else {
+                    int owner = bitboard.getOwner(x, y);
+                    tokenType = owner == -1 ? Connect4Constants.emptyCell : Connect4Constants.playerMapping.get(owner).getTokenType();
+                }
+                sb.append("\"").append("Grid_").append(x).append('_').append(y).append("\":\"").append(tokenType).append("\"");
             }
         }
 
@@ -101,17 +153,35 @@ public class Connect4GameState extends AbstractGameState implements IPrintable,
 
     @Override
     public int hashCode() {
-        return Objects.hash(super.hashCode(), gridBoard);
+        return Objects.hash(super.hashCode(), bitboard != null ? bitboard : gridBoard);
     }
 
     @Override
     public GridBoard<Token> getGridBoard() {
+        if (bitboard != null && gridBoardMoves != bitboard.getMoveCount()) {
+            // tokens are never removed, so we only need to add those played since the last update
+            for (int x = 0; x < bitboard.width; x++) {
+                for (int y = bitboard.height - 1; y > bitboard.nextFreeRow(x); y--) {
+                    Token token = Connect4Constants.playerMapping.get(bitboard.getOwner(x, y));
+                    if (!gridBoard.getElement(x, y).getTokenType().equals(token.getTokenType()))
+                        gridBoard.setElement(x, y, token);
+                }
+            }
+            gridBoardMoves = bitboard.getMoveCount();
+        }
         return gridBoard;
     }
 
+    /**
+     * @return the bitboard (if Connect4GameParameters.bitboard is set), or null
+     */
+    public Connect4Bitboard getBitboard() {
+        return bitboard;
+    }
+
     @Override
     public void printToConsole() {
-        System.out.println(gridBoard.toString());
+        System.out.println(getGridBoard().toString());
     }
 
     void registerWinningCells(LinkedList<Pair<Integer, Integer>> winnerCells) {
@@ -119,6 +189,8 @@ public class Connect4GameState extends AbstractGameState implements IPrintable,
     }
 
     public LinkedList<Pair<Integer, Integer>> getWinningCells() {
+        if (bitboard != null && winnerCells.isEmpty() && !isNotTerminal())
+            winnerCells = bitboard.winningCells();
         return winnerCells;
     }
 }
@@ -18,7 +18,7 @@ public class Connect4StateVector implements IStateFeatureVector, IStateKey {
         Connect4GameState state = (Connect4GameState) gs;
         String playerChar = Connect4Constants.playerMapping.get(playerID).getTokenType();
 
-        return Arrays.stream(state.gridBoard.flattenGrid()).mapToDouble(c -> {
+        return Arrays.stream(state.getGridBoard().flattenGrid()).mapToDouble(c -> {
             String pos = ((Token) c).getTokenType();
             if (pos.equals(playerChar)) {
                 return 1.0;
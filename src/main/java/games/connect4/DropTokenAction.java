@@ -0,0 +1,31 @@
+package games.connect4;
+
+import core.AbstractGameState;
+import core.actions.SetGridValueAction;
+import core.components.Token;
+
+/**
+ * The action used to play a token in Connect4. This is equal to the SetGridValueAction for the same cell (so players,
+ * the GUI and any stored action sequences see no difference), but when the game is played on a Connect4Bitboard it
+ * plays the token directly on that.
+ * These are immutable, and cached by the Connect4GameState (for both kinds of board), so that
+ * computeAvailableActions() does not create new ones.
+ */
+public class DropTokenAction extends SetGridValueAction<Token> {
+
+    private final int player;
+
+    public DropTokenAction(int gridBoard, int x, int y, int player) {
+        super(gridBoard, x, y, Connect4Constants.playerMapping.get(player));
+        this.player = player;
+    }
+
+    @Override
+    public boolean execute(AbstractGameState gs) {
+        Connect4GameState state = (Connect4GameState) gs;
+        if (state.bitboard == null)
+            return super.execute(gs);
+        state.bitboard.drop(getX(), player);
+        return true;
+    }
+}
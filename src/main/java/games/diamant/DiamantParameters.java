@@ -42,7 +42,6 @@ public class DiamantParameters extends TunableParameters {
     protected boolean _equals(Object o) {
         if (this == o)                         return true;
         if (!(o instanceof DiamantParameters)) return false;
-        if (!super.equals(o))                  return false;
 
         DiamantParameters that = (DiamantParameters) o;
         return nCaves              == that.nCaves              &&
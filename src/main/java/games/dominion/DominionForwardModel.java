@@ -170,7 +170,7 @@ public class DominionForwardModel extends StandardForwardModel {
                 List<AbstractAction> options = state.cardsToBuy().stream()
                         .filter(ct -> ct.cost <= budget)
                         .sorted(Comparator.comparingInt(c -> -c.cost))
-                        .map(ct -> new BuyCard(ct, playerID))
+                        .map(ct -> BuyCard.of(ct, playerID))
                         .collect(toList());
                 options.add(new EndPhase(DominionGameState.DominionGamePhase.Buy));
                 return options;
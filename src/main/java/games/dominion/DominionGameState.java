@@ -9,11 +9,13 @@ import core.components.Deck;
 import core.components.PartialObservableDeck;
 import core.interfaces.IGamePhase;
 import core.interfaces.IPrintable;
+import core.interfaces.IZobristHashable;
 import games.GameType;
 import games.dominion.DominionConstants.DeckType;
 import games.dominion.actions.IDelayedAction;
 import games.dominion.cards.CardType;
 import games.dominion.cards.DominionCard;
+import utilities.Zobrist;
 
 import java.util.*;
 import java.util.function.Function;
@@ -23,7 +25,7 @@ import static core.CoreConstants.VisibilityMode.VISIBLE_TO_ALL;
 import static java.util.Comparator.comparingInt;
 import static java.util.stream.Collectors.toList;
 
-public class DominionGameState extends AbstractGameState implements IPrintable {
+public class DominionGameState extends AbstractGameState implements IPrintable, IZobristHashable {
 
     Map<CardType, Integer> cardsIncludedInGame = new HashMap<>();
     // Then Decks for each player - Hand, Discard and Draw
@@ -252,13 +254,25 @@ public class DominionGameState extends AbstractGameState implements IPrintable {
     @Override
     protected AbstractGameState _copy(int playerId) {
         DominionGameState retValue = new DominionGameState(((DominionParameters)gameParameters).shallowCopy(), nPlayers);
+        return copyTo(retValue, playerId);
+    }
+
+    @Override
+    protected AbstractGameState _copyInto(AbstractGameState target, int playerId) {
+        return copyTo((DominionGameState) target, playerId);
+    }
+
+    // Copies this state into retValue, which is either new or a previous copy that is being reused
+    private DominionGameState copyTo(DominionGameState retValue, int playerId) {
+        retValue.cardsIncludedInGame.clear();
         for (CardType ct : cardsIncludedInGame.keySet()) {
             retValue.cardsIncludedInGame.put(ct, cardsIncludedInGame.get(ct));
         }
         for (int p = 0; p < nPlayers; p++) {
             if (playerId == -1) {
-                retValue.playerHands[p] = playerHands[p].copy();
-                retValue.playerDrawPiles[p] = playerDrawPiles[p].copy();
+                // the decks of retValue are reused if they are from an earlier copy
+                retValue.playerHands[p] = playerHands[p].copyInto(retValue.playerHands[p]);
+                retValue.playerDrawPiles[p] = playerDrawPiles[p].copyInto(retValue.playerDrawPiles[p]);
             } else if (playerId == p) {
                 // need to shuffle drawpile separately
                 retValue.playerHands[p] = playerHands[p].copy();
@@ -291,10 +305,11 @@ public class DominionGameState extends AbstractGameState implements IPrintable {
                     }
                 }
             }
-            retValue.playerDiscards[p] = playerDiscards[p].copy();
-            retValue.playerTableaux[p] = playerTableaux[p].copy();
+            // DominionCards are immutable, so these can share their cards with the original until changed
+            retValue.playerDiscards[p] = playerDiscards[p].copyOnWrite();
+            retValue.playerTableaux[p] = playerTableaux[p].copyOnWrite();
         }
-        retValue.trashPile = trashPile.copy();
+        retValue.trashPile = trashPile.copyOnWrite();
         retValue.buysLeftForCurrentPlayer = buysLeftForCurrentPlayer;
         retValue.actionsLeftForCurrentPlayer = actionsLeftForCurrentPlayer;
         retValue.spentSoFar = spentSoFar;
@@ -412,6 +427,50 @@ public class DominionGameState extends AbstractGameState implements IPrintable {
                 delayedActions.equals(other.delayedActions);
     }
 
+    /**
+     * The Zobrist hash of each Deck is maintained as cards are moved; this combines them (with the position of each
+     * Deck) with the cards left in the supply and the rest of the turn state.
+     * Note that the Deck hashes ignore the order of the cards, so this does not distinguish between different
+     * orderings of the same draw pile (which the players cannot see anyway).
+     *
+     * @return the Zobrist hash of the game state
+     */
+    @Override
+    public long getZobristHash() {
+        long retValue = Zobrist.key(-1, getCurrentPlayer());
+        for (int p = 0; p < nPlayers; p++) {
+            retValue ^= Zobrist.key(4L * p, playerHands[p].getZobristHash());
+            retValue ^= Zobrist.key(4L * p + 1, playerDrawPiles[p].getZobristHash());
+            retValue ^= Zobrist.key(4L * p + 2, playerDiscards[p].getZobristHash());
+            retValue ^= Zobrist.key(4L * p + 3, playerTableaux[p].getZobristHash());
+        }
+        retValue ^= Zobrist.key(-2, trashPile.getZobristHash());
+        for (Map.Entry<CardType, Integer> supply : cardsIncludedInGame.entrySet())
+            retValue ^= Zobrist.key(-100 - supply.getKey().ordinal(), supply.getValue());
+        retValue ^= Zobrist.key(-3, Objects.hash(gamePhase, buysLeftForCurrentPlayer, actionsLeftForCurrentPlayer,
+                spentSoFar, additionalSpendAvailable, Arrays.hashCode(defenceStatus), actionsInProgress, delayedActions));
+        return retValue;
+    }
+
+    /**
+     * @return a hash of the same information as getZobristHash(), from the check hashes of the Decks
+     */
+    @Override
+    public long getZobristCheckHash() {
+        long retValue = getCurrentPlayer();
+        for (int p = 0; p < nPlayers; p++) {
+            retValue = 31 * retValue + playerHands[p].getZobristCheckHash();
+            retValue = 31 * retValue + playerDrawPiles[p].getZobristCheckHash();
+            retValue = 31 * retValue + playerDiscards[p].getZobristCheckHash();
+            retValue = 31 * retValue + playerTableaux[p].getZobristCheckHash();
+        }
+        retValue = 31 * retValue + trashPile.getZobristCheckHash();
+        retValue = 31 * retValue + cardsIncludedInGame.hashCode();
+        retValue = 31 * retValue + Objects.hash(delayedActions, actionsInProgress, Arrays.hashCode(defenceStatus),
+                additionalSpendAvailable, spentSoFar, actionsLeftForCurrentPlayer, buysLeftForCurrentPlayer, gamePhase);
+        return retValue;
+    }
+
     @Override
     public int hashCode() {
         int result = Objects.hash(cardsIncludedInGame, trashPile, buysLeftForCurrentPlayer, gamePhase, gameStatus,
@@ -9,10 +9,29 @@ import games.dominion.cards.*;
  */
 public class BuyCard extends GainCard {
 
+    // BuyCard is immutable, so we intern the common ones ([cardType][player])
+    private static final int MAX_INTERNED_PLAYERS = 8;
+    private static final BuyCard[][] interned = new BuyCard[CardType.values().length][MAX_INTERNED_PLAYERS];
+
     public BuyCard(CardType cardToBuy, int playerID) {
         super(cardToBuy, playerID);
     }
 
+    /**
+     * @return an action equal to new BuyCard(cardToBuy, playerID), but shared rather than created each time
+     */
+    public static BuyCard of(CardType cardToBuy, int playerID) {
+        if (playerID < 0 || playerID >= MAX_INTERNED_PLAYERS)
+            return new BuyCard(cardToBuy, playerID);
+        BuyCard retValue = interned[cardToBuy.ordinal()][playerID];
+        if (retValue == null) {
+            // a race here just creates an equal action, which is harmless
+            retValue = new BuyCard(cardToBuy, playerID);
+            interned[cardToBuy.ordinal()][playerID] = retValue;
+        }
+        return retValue;
+    }
+
     /**
      * Executes this action, applying its effect to the given game state. Can access any component IDs stored
      * through the AbstractGameState.getComponentById(int id) method.
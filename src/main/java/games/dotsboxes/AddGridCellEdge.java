@@ -3,7 +3,6 @@ package games.dotsboxes;
 import core.AbstractGameState;
 import core.actions.AbstractAction;
 
-import java.util.HashSet;
 import java.util.Objects;
 
 public class AddGridCellEdge extends AbstractAction {
@@ -18,21 +17,18 @@ public class AddGridCellEdge extends AbstractAction {
         // Find neighbouring cells
         DBGameState dbgs = (DBGameState) gs;
 
-        int nCellsCompleteBefore = dbgs.cellToOwnerMap.size();
+        int nCellsCompleteBefore = dbgs.nCellsComplete;
         // Mark this edge as complete by current player and check if connected cells are complete too
-        dbgs.edgeToOwnerMap.put(edge, gs.getCurrentPlayer());
+        int e = dbgs.grid.edgeIndex(edge);
+        dbgs.placeEdge(e, gs.getCurrentPlayer());
 
-        HashSet<DBCell> cells = dbgs.edgeToCellMap.get(edge);
-        for (DBCell c : cells) {
-            int nEdgesComplete = dbgs.countCompleteEdges(c);
-            if (nEdgesComplete == 4) {  // A cell has 4 sides
+        for (int c : dbgs.grid.edgeCells[e]) {
+            if (dbgs.cellEdgeCount[c] == 4 && dbgs.cellOwner[c] == -1) {  // A cell has 4 sides
                 // All edges complete, this box complete
-                dbgs.cellToOwnerMap.put(c, gs.getCurrentPlayer());
-                dbgs.nCellsPerPlayer[gs.getCurrentPlayer()]++;
+                dbgs.completeCell(c, gs.getCurrentPlayer());
             }
         }
-        int nCellsCompleteAfter = dbgs.cellToOwnerMap.size();
-        dbgs.setLastActionDidNotScore(nCellsCompleteAfter == nCellsCompleteBefore);
+        dbgs.setLastActionDidNotScore(dbgs.nCellsComplete == nCellsCompleteBefore);
         return true;  // Always able to execute
     }
 
@@ -1,21 +1,38 @@
 package games.dotsboxes;
 
 import core.AbstractGameState;
+import core.interfaces.IStateHash;
 import core.interfaces.IStateKey;
 
-import java.util.Arrays;
-import java.util.stream.Collectors;
-
-public class DBEdgeAndScoreKey implements IStateKey {
+/**
+ * Key of a Dots and Boxes state from the edges placed (but not who placed them), the scores and the player to move.
+ * As a String (IStateKey) this has one character for each edge of the grid; as a long (IStateHash) it is the
+ * Zobrist hash of the state, which is kept up to date as edges are placed, so it costs nothing to compute.
+ */
+public class DBEdgeAndScoreKey implements IStateKey, IStateHash {
 
     @Override
     public String getKey(AbstractGameState state) {
         DBGameState dbgs = (DBGameState) state;
-        String edgeString = dbgs.edgeToOwnerMap.keySet().stream()
-                .map(e -> 100.0 * ((e.from.getX() + e.to.getX()) / 2.0) +
-                        ((e.from.getY() + e.to.getY())/ 2.0)).mapToDouble(i -> i)
-                .sorted().mapToObj(d -> String.format("%.1f", d)).collect(Collectors.joining(","));
-        String scoreString = "Scores: " + Arrays.toString(dbgs.nCellsPerPlayer);
-        return state.getCurrentPlayer() + " " + edgeString + scoreString;
+        StringBuilder sb = new StringBuilder(dbgs.edgeOwner.length + 8 * dbgs.nCellsPerPlayer.length + 4);
+        sb.append(state.getCurrentPlayer()).append(' ');
+        for (byte owner : dbgs.edgeOwner) {
+            sb.append(owner == -1 ? '0' : '1');
+        }
+        sb.append(" Scores:");
+        for (int score : dbgs.nCellsPerPlayer) {
+            sb.append(' ').append(score);
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public long getHash(AbstractGameState state) {
+        return ((DBGameState) state).getZobristHash();
+    }
+
+    @Override
+    public long getCheckHash(AbstractGameState state) {
+        return ((DBGameState) state).getZobristCheckHash();
     }
 }
@@ -4,28 +4,27 @@ import core.AbstractGameState;
 import core.AbstractParameters;
 import core.components.Component;
 import core.interfaces.IStateHeuristic;
+import core.interfaces.IZobristHashable;
 import games.GameType;
+import utilities.Zobrist;
 
 import java.util.*;
 
-public class DBGameState extends AbstractGameState {
+public class DBGameState extends AbstractGameState implements IZobristHashable {
 
     IStateHeuristic heuristic;
 
-    // List of all edges possible
-    HashSet<DBEdge> edges;
-    // List of all cells possible
-    HashSet<DBCell> cells;
-    // Mapping from each edge to the cells it neighbours
-    HashMap<DBEdge, HashSet<DBCell>> edgeToCellMap;
-    // Mapping from each cell to its edges
-    HashMap<DBCell, HashSet<DBEdge>> cellToEdgesMap;
+    // Layout of the grid (edges and cells, indexed by int), shared between copies
+    DBGrid grid;
 
     // Mutable state:
     int[] nCellsPerPlayer;
-    HashMap<DBCell, Integer> cellToOwnerMap;  // Mapping from each cell to its owner, if complete
-    HashMap<DBEdge, Integer> edgeToOwnerMap;  // Mapping from each edge to its owner, if placed
+    int nCellsComplete;
+    byte[] cellOwner;  // Owner of each cell, if complete, or -1
+    byte[] edgeOwner;  // Owner of each edge, if placed, or -1
+    byte[] cellEdgeCount;  // Number of edges of each cell placed so far
     boolean lastActionDidNotScore;
+    long edgeHash;  // Zobrist hash of the edges placed so far (see placeEdge())
 
     /**
      * Constructor. Initialises some generic game state variables.
@@ -44,25 +43,41 @@ public class DBGameState extends AbstractGameState {
 
     @Override
     protected List<Component> _getAllComponents() {
-        return new ArrayList<Component>() {{ addAll(edges); addAll(cells); }};
+        return new ArrayList<Component>() {{ addAll(Arrays.asList(grid.edges)); addAll(Arrays.asList(grid.cells)); }};
     }
 
     @Override
     protected AbstractGameState _copy(int playerId) {
         DBGameState dbgs = new DBGameState(gameParameters, getNPlayers());
-        dbgs.edges = edges;
-        dbgs.cells = cells;
-        dbgs.edgeToCellMap = edgeToCellMap;
-        dbgs.cellToEdgesMap = cellToEdgesMap;
-        dbgs.lastActionDidNotScore = lastActionDidNotScore;
-
         dbgs.nCellsPerPlayer = nCellsPerPlayer.clone();
-        dbgs.cellToOwnerMap = (HashMap<DBCell, Integer>) cellToOwnerMap.clone();
-        dbgs.edgeToOwnerMap = (HashMap<DBEdge, Integer>) edgeToOwnerMap.clone();
-        dbgs.heuristic = heuristic;
+        dbgs.cellOwner = cellOwner.clone();
+        dbgs.edgeOwner = edgeOwner.clone();
+        dbgs.cellEdgeCount = cellEdgeCount.clone();
+        copyFieldsTo(dbgs);
         return dbgs;
     }
 
+    @Override
+    protected DBGameState _copyInto(AbstractGameState target, int playerId) {
+        DBGameState dbgs = (DBGameState) target;
+        if (dbgs.grid == null || dbgs.grid.edges.length != grid.edges.length || dbgs.grid.cells.length != grid.cells.length)
+            return (DBGameState) _copy(playerId);
+        System.arraycopy(nCellsPerPlayer, 0, dbgs.nCellsPerPlayer, 0, nCellsPerPlayer.length);
+        System.arraycopy(cellOwner, 0, dbgs.cellOwner, 0, cellOwner.length);
+        System.arraycopy(edgeOwner, 0, dbgs.edgeOwner, 0, edgeOwner.length);
+        System.arraycopy(cellEdgeCount, 0, dbgs.cellEdgeCount, 0, cellEdgeCount.length);
+        copyFieldsTo(dbgs);
+        return dbgs;
+    }
+
+    private void copyFieldsTo(DBGameState dbgs) {
+        dbgs.grid = grid;
+        dbgs.lastActionDidNotScore = lastActionDidNotScore;
+        dbgs.edgeHash = edgeHash;
+        dbgs.nCellsComplete = nCellsComplete;
+        dbgs.heuristic = heuristic;
+    }
+
     @Override
     protected double _getHeuristicScore(int playerId) {
         if (heuristic == null) { // lazy initialization
@@ -88,22 +103,21 @@ public class DBGameState extends AbstractGameState {
     public boolean _equals(Object o) {
         if (this == o) return true;
         if (!(o instanceof DBGameState)) return false;
-        if (!super.equals(o)) return false;
+        // (the rest of the state is compared by AbstractGameState.equals(), which calls this)
         DBGameState that = (DBGameState) o;
         return lastActionDidNotScore == that.lastActionDidNotScore && Objects.equals(heuristic, that.heuristic)
-                && Objects.equals(edges, that.edges) && Objects.equals(cells, that.cells) &&
-                Objects.equals(edgeToCellMap, that.edgeToCellMap) &&
-                Objects.equals(cellToEdgesMap, that.cellToEdgesMap) &&
+                && grid.width == that.grid.width && grid.height == that.grid.height &&
                 Arrays.equals(nCellsPerPlayer, that.nCellsPerPlayer) &&
-                Objects.equals(cellToOwnerMap, that.cellToOwnerMap) &&
-                Objects.equals(edgeToOwnerMap, that.edgeToOwnerMap);
+                Arrays.equals(cellOwner, that.cellOwner) &&
+                Arrays.equals(edgeOwner, that.edgeOwner);
     }
 
     @Override
     public int hashCode() {
-        int result = Objects.hash(super.hashCode(), edges, cells, edgeToCellMap, cellToEdgesMap,
-                cellToOwnerMap, edgeToOwnerMap, lastActionDidNotScore);
+        int result = Objects.hash(super.hashCode(), grid.width, grid.height, lastActionDidNotScore);
         result = 31 * result + Arrays.hashCode(nCellsPerPlayer);
+        result = 31 * result + Arrays.hashCode(cellOwner);
+        result = 31 * result + Arrays.hashCode(edgeOwner);
         return result;
     }
 
@@ -112,37 +126,21 @@ public class DBGameState extends AbstractGameState {
         StringBuilder sb = new StringBuilder();
         sb.append("{");
 
-        int i = 0;
-
-        for (DBEdge e: edges) {
-            if (i++ != 0) {
+        for (int i = 0; i < grid.edges.length; i++) {
+            if (i != 0) {
                 sb.append(",");
             }
-            int owner = -1;
-            if (edgeToOwnerMap.get(e) != null) {
-                owner = edgeToOwnerMap.get(e);
-            }
+            DBEdge e = grid.edges[i];
             sb.append("\"").append("Edge_Owner_").append(e.from.getX()).append("_").append(e.from.getY()).
-                    append(e.to.getX()).append(e.to.getY()).append("\":").append(owner);
+                    append(e.to.getX()).append(e.to.getY()).append("\":").append(edgeOwner[i]);
         }
 
-        for (DBCell c: cells) {
+        for (int i = 0; i < grid.cells.length; i++) {
             sb.append(",");
-            int owner = -1;
-            if (cellToOwnerMap.get(c) != null) {
-                owner = cellToOwnerMap.get(c);
-            }
-            sb.append("\"").append("Cell_Owner_").append(c.position.getX()).append("_").append(c.position.getY()).append("\":").append(owner);
+            DBCell c = grid.cells[i];
+            sb.append("\"").append("Cell_Owner_").append(c.position.getX()).append("_").append(c.position.getY()).append("\":").append(cellOwner[i]);
             sb.append(",");
-
-            int edgeCount = 0;
-
-            for (DBEdge e : cellToEdgesMap.get(c)) {
-                if (edgeToOwnerMap.get(e) != null) {
-                    edgeCount++;
-                }
-            }
-            sb.append("\"").append("Cell_Edge_Count_").append(c.position.getX()).append("_").append(c.position.getY()).append("\":").append(edgeCount);
+            sb.append("\"").append("Cell_Edge_Count_").append(c.position.getX()).append("_").append(c.position.getY()).append("\":").append(cellEdgeCount[i]);
         }
 
         sb.append("}");
@@ -150,15 +148,63 @@ public class DBGameState extends AbstractGameState {
     }
 
 
-    public int countCompleteEdges(DBCell c) {
-        int retValue = 0;
-        for (DBEdge e: cellToEdgesMap.get(c)) {
-            if (edgeToOwnerMap.containsKey(e)) {
-                retValue++;
-            }
+    /**
+     * Marks the edge as placed by the given player, and updates the edge counts of its cells and the Zobrist hash
+     */
+    void placeEdge(int edge, int player) {
+        if (edgeOwner[edge] != -1) return;
+        edgeOwner[edge] = (byte) player;
+        for (int c : grid.edgeCells[edge]) {
+            cellEdgeCount[c]++;
+        }
+        edgeHash ^= Zobrist.key(edge, 1);
+    }
+
+    /**
+     * Marks the cell as complete by the given player
+     */
+    void completeCell(int cell, int player) {
+        cellOwner[cell] = (byte) player;
+        nCellsPerPlayer[player]++;
+        nCellsComplete++;
+    }
+
+    /**
+     * @return the Zobrist hash of the edges placed, the score of each player and the player to move. The owner of
+     * each edge is not included, as this has no effect on the rest of the game.
+     */
+    @Override
+    public long getZobristHash() {
+        long retValue = edgeHash ^ Zobrist.key(-1, getCurrentPlayer());
+        for (int p = 0; p < nCellsPerPlayer.length; p++)
+            retValue ^= Zobrist.key(-2 - p, nCellsPerPlayer[p]);
+        return retValue;
+    }
+
+    /**
+     * @return a hash of the same information as getZobristHash(), which is computed from the edges placed when
+     * it is needed rather than kept up to date
+     */
+    @Override
+    public long getZobristCheckHash() {
+        long retValue = getCurrentPlayer();
+        for (byte owner : edgeOwner) {
+            retValue = 31 * retValue + (owner == -1 ? 0 : 1);
+        }
+        for (int score : nCellsPerPlayer) {
+            retValue = 31 * retValue + score;
         }
         return retValue;
     }
+
+    public int countCompleteEdges(DBCell c) {
+        return cellEdgeCount[grid.cellIndex(c)];
+    }
+
+    public boolean allCellsComplete() {
+        return nCellsComplete == grid.cells.length;
+    }
+
     public boolean getLastActionDidNotScore(){return lastActionDidNotScore;}
     public void setLastActionDidNotScore(boolean value){
         lastActionDidNotScore = value;}
@@ -0,0 +1,85 @@
+package games.dotsboxes;
+
+import utilities.Vector2D;
+
+/**
+ * The layout of the grid: all edges and cells, indexed by int, which edges are around each cell, and the action to
+ * place each edge. This never changes during a game, so it is created at setup and shared by all copies of the game
+ * state.
+ * <p>
+ * Horizontal edges come first, row by row ((x, y) -> (x + 1, y) has index y * width + x), then vertical edges, row by
+ * row ((x, y) -> (x, y + 1) has index (height + 1) * width + y * (width + 1) + x). Cell (x, y) has index y * width + x.
+ */
+final class DBGrid {
+
+    final int width, height;
+    final DBEdge[] edges;
+    final DBCell[] cells;
+    final int[][] edgeCells;  // [edge] -> the 1 or 2 cells it is a side of
+    final int[][] cellEdges;  // [cell] -> its 4 sides
+    final AddGridCellEdge[] actions;  // [edge] -> action to place it (these are immutable, so shared)
+
+    DBGrid(int width, int height) {
+        this.width = width;
+        this.height = height;
+        int nHorizontal = (height + 1) * width;
+        edges = new DBEdge[nHorizontal + height * (width + 1)];
+        for (int y = 0; y <= height; y++) {
+            for (int x = 0; x < width; x++) {
+                edges[y * width + x] = new DBEdge(new Vector2D(x, y), new Vector2D(x + 1, y));
+            }
+        }
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x <= width; x++) {
+                edges[nHorizontal + y * (width + 1) + x] = new DBEdge(new Vector2D(x, y), new Vector2D(x, y + 1));
+            }
+        }
+
+        actions = new AddGridCellEdge[edges.length];
+        for (int e = 0; e < edges.length; e++) {
+            actions[e] = new AddGridCellEdge(edges[e]);
+        }
+
+        cells = new DBCell[width * height];
+        cellEdges = new int[cells.length][];
+        int[] nCells = new int[edges.length];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                cells[y * width + x] = new DBCell(x, y);
+                int[] sides = new int[]{y * width + x, (y + 1) * width + x,
+                        nHorizontal + y * (width + 1) + x, nHorizontal + y * (width + 1) + x + 1};
+                cellEdges[y * width + x] = sides;
+                for (int e : sides) nCells[e]++;
+            }
+        }
+        edgeCells = new int[edges.length][];
+        for (int e = 0; e < edges.length; e++) {
+            edgeCells[e] = new int[nCells[e]];
+            nCells[e] = 0;
+        }
+        for (int c = 0; c < cells.length; c++) {
+            for (int e : cellEdges[c]) {
+                edgeCells[e][nCells[e]++] = c;
+            }
+        }
+    }
+
+    /**
+     * @return the index of the edge, or -1 if it is not an edge of the grid
+     */
+    int edgeIndex(DBEdge edge) {
+        int x = Math.min(edge.from.getX(), edge.to.getX());
+        int y = Math.min(edge.from.getY(), edge.to.getY());
+        int dx = Math.abs(edge.from.getX() - edge.to.getX());
+        int dy = Math.abs(edge.from.getY() - edge.to.getY());
+        if (dx == 1 && dy == 0 && x >= 0 && x < width && y >= 0 && y <= height)
+            return y * width + x;
+        if (dx == 0 && dy == 1 && x >= 0 && x <= width && y >= 0 && y < height)
+            return (height + 1) * width + y * (width + 1) + x;
+        return -1;
+    }
+
+    int cellIndex(DBCell cell) {
+        return cell.position.getY() * width + cell.position.getX();
+    }
+}
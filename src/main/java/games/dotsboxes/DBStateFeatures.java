@@ -29,8 +29,7 @@ public class DBStateFeatures extends AbstractStateFeature {
 
         // CELLS
         int[] cellCountByEdges = new int[5];
-        for (DBCell cell : state.cells) {
-            int edges = state.countCompleteEdges(cell);
+        for (byte edges : state.cellEdgeCount) {
             cellCountByEdges[edges]++;
         }
 
@@ -6,6 +6,7 @@ import core.CoreConstants;
 import core.components.Component;
 import core.components.Deck;
 import core.components.PartialObservableDeck;
+import core.interfaces.IDeterminisableState;
 import core.interfaces.IPrintable;
 import evaluation.metrics.Event;
 import games.GameType;
@@ -14,7 +15,7 @@ import games.loveletter.cards.LoveLetterCard;
 import java.util.*;
 
 
-public class LoveLetterGameState extends AbstractGameState implements IPrintable {
+public class LoveLetterGameState extends AbstractGameState implements IPrintable, IDeterminisableState<LoveLetterCard> {
 
     // List of cards in player hands
     List<PartialObservableDeck<LoveLetterCard>> playerHandCards;
@@ -110,6 +111,17 @@ public class LoveLetterGameState extends AbstractGameState implements IPrintable
         return llgs;
     }
 
+    /**
+     * The cards hidden by _copy(playerId) are those in the draw pile and the hidden cards in other players' hands
+     */
+    @Override
+    public List<Deck<LoveLetterCard>> getDeterminisableDecks(int playerId) {
+        List<Deck<LoveLetterCard>> retValue = new ArrayList<>(playerHandCards.size() + 1);
+        retValue.add(drawPile);
+        retValue.addAll(playerHandCards);
+        return retValue;
+    }
+
     @Override
     protected double _getHeuristicScore(int playerId) {
         return new LoveLetterHeuristic().evaluateState(this, playerId);
@@ -10,7 +10,6 @@ import core.components.FrenchCard;
 import games.poker.actions.*;
 import games.poker.actions.Fold;
 import games.poker.components.MoneyPot;
-import utilities.Pair;
 
 import java.util.*;
 
@@ -189,13 +188,11 @@ public class PokerForwardModel extends StandardForwardModel {
     private void roundEnd(PokerGameState pgs) {
         // Calculate winner of round for each of the pots, they earn the money. Ties split money equally.
 
-        Pair<Map<Integer, Integer>, Map<Integer, Set<Integer>>> translated = translatePokerHands(pgs);
-        Map<Integer, Integer> ranks = translated.a;
-        Map<Integer, Set<Integer>> hands = translated.b;
+        int[] handStrengths = evaluatePokerHands(pgs);
 
         for (MoneyPot pot : pgs.moneyPots) {
             // Calculate winners separately for each money pot
-            Set<Integer> winners = getWinner(pgs, pot, ranks, hands);
+            Set<Integer> winners = getWinner(pgs, pot, handStrengths);
             if (winners.isEmpty()) {
                 // then we return to the participants their personal contribution
                 for (int i : pot.getPlayerContribution().keySet()) {
@@ -245,64 +242,41 @@ public class PokerForwardModel extends StandardForwardModel {
         }
     }
 
-    public Pair<Map<Integer, Integer>, Map<Integer, Set<Integer>>> translatePokerHands(PokerGameState pgs) {
-        Map<Integer, Integer> ranks = new HashMap<>();
-        Map<Integer, Set<Integer>> hands = new HashMap<>();
+    /**
+     * @param pgs - current game state
+     * @return the strength (from PokerHandEvaluator) of the best hand of each player, using their own cards and the
+     * community cards; or -1 for players who folded or are out of the game
+     */
+    public int[] evaluatePokerHands(PokerGameState pgs) {
+        int[] handStrengths = new int[pgs.getNPlayers()];
+        List<FrenchCard> communityCards = pgs.communityCards.getComponents();
         for (int i = 0; i < pgs.getNPlayers(); i++) {
             if (!pgs.playerFold[i] && pgs.getPlayerResults()[i] != LOSE_GAME) {
-                Deck<FrenchCard> cardsToEvaluate = pgs.playerDecks.get(i).copy();
-                cardsToEvaluate.add(pgs.communityCards.copy());
-                Pair<PokerGameState.PokerHand, HashSet<Integer>> hand = PokerGameState.PokerHand.translateHand(cardsToEvaluate);
-                if (hand != null) {
-                    ranks.put(i, hand.a.rank);
-                    hands.put(i, hand.b);
-                }
+                handStrengths[i] = PokerHandEvaluator.evaluate(pgs.playerDecks.get(i).getComponents(), communityCards);
+            } else {
+                handStrengths[i] = -1;
             }
         }
-        return new Pair<>(ranks, hands);
+        return handStrengths;
     }
 
-    @SuppressWarnings("unchecked")
-    public Set<Integer> getWinner(PokerGameState pgs, MoneyPot pot,
-                                  Map<Integer, Integer> ranks, Map<Integer, Set<Integer>> hands) {
+    /**
+     * @param pgs           - current game state
+     * @param pot           - money pot to find the winners of
+     * @param handStrengths - strength of the hand of each player, from evaluatePokerHands()
+     * @return the players in the pot with the best hand (more than one if tied), or an empty set if no
+     * player in the pot is still in the round
+     */
+    public Set<Integer> getWinner(PokerGameState pgs, MoneyPot pot, int[] handStrengths) {
         // Calculate winners separately for each money pot
-        Set<Integer> playersInPot = new HashSet<>(pot.getPlayerContribution().keySet());
-
-        int smallestRank = 11;
-        for (int i : playersInPot) {
-            if (!pgs.playerFold[i] && pgs.getPlayerResults()[i] != LOSE_GAME && ranks.containsKey(i) && ranks.get(i) < smallestRank) {
-                smallestRank = ranks.get(i);
-            }
+        int bestStrength = -1;
+        for (int i : pot.getPlayerContribution().keySet()) {
+            if (handStrengths[i] > bestStrength) bestStrength = handStrengths[i];
         }
         Set<Integer> winners = new HashSet<>();
-        for (int i : playersInPot) {
-            if (!pgs.playerFold[i] && pgs.getPlayerResults()[i] != LOSE_GAME) {
-                if (ranks.get(i) == smallestRank) winners.add(i);
-            }
-        }
-        if (winners.size() > 1) {
-            // A tie in rank, check card values
-            ArrayList<Integer>[] cardValues = new ArrayList[pgs.getNPlayers()];
-            int nCards = 0;
-            for (int i : winners) {
-                cardValues[i] = new ArrayList<>(hands.get(i));
-                cardValues[i].sort(Collections.reverseOrder());
-                nCards = cardValues[i].size();
-            }
-            for (int j = 0; j < nCards; j++) {
-                // Checking card by card, once one player is found the winner we break; could still be a tie
-                int maxValue = 0;
-                for (int i : winners) {
-                    if (cardValues[i].get(j) > maxValue) maxValue = cardValues[i].get(j);
-                }
-                HashSet<Integer> actualWinners = new HashSet<>();
-                for (int i : winners) {
-                    if (cardValues[i].get(j) == maxValue) actualWinners.add(i);
-                }
-                if (actualWinners.size() == 1 || j == nCards - 1) {
-                    return actualWinners;
-                }
-            }
+        if (bestStrength < 0) return winners;
+        for (int i : pot.getPlayerContribution().keySet()) {
+            if (handStrengths[i] == bestStrength) winners.add(i);
         }
         return winners;
     }
@@ -0,0 +1,192 @@
+package games.poker;
+
+import core.components.FrenchCard;
+
+import java.util.List;
+
+/**
+ * Evaluates poker hands of up to 7 cards (hole cards plus community cards), with no allocation.
+ * <p>
+ * Cards are encoded as ints: suit.ordinal() * 16 + (number - 2), so that a set of cards is a long with one bit per card,
+ * and 13 bits (one for each number) in each 16-bit lane for a suit. All hands of that set are then evaluated together
+ * from the bitmasks of the numbers held once, twice, three times and four times, with the straights and the highest
+ * numbers in a mask looked up in tables indexed by the 13-bit mask, instead of looking at each 5-card combination.
+ * <p>
+ * The strength returned is a single int, where a higher value is a better hand and equal values are a tie. The hand
+ * type is in the top bits, followed by the numbers that break ties between hands of the same type (kickers
+ * included), 4 bits each, in order of importance.
+ */
+public final class PokerHandEvaluator {
+
+    // Hand types, in increasing order of strength
+    public static final int HIGH_CARD = 0;
+    public static final int ONE_PAIR = 1;
+    public static final int TWO_PAIR = 2;
+    public static final int THREE_OF_A_KIND = 3;
+    public static final int STRAIGHT = 4;
+    public static final int FLUSH = 5;
+    public static final int FULL_HOUSE = 6;
+    public static final int FOUR_OF_A_KIND = 7;
+    public static final int STRAIGHT_FLUSH = 8;
+
+    static final int nNumbers = 13;
+    static final int handSize = 5;
+    static final int typeShift = 4 * handSize;
+    static final int numberMask = (1 << nNumbers) - 1;
+    static final int maxStrength = (STRAIGHT_FLUSH << typeShift) | (FrenchCard.FrenchCardType.Ace.getNumber() << 16);
+
+    // Highest number (2 - 14) of a straight in the numbers of the mask, or 0 if there is none; 5 for A-2-3-4-5
+    private static final byte[] straightHigh = new byte[1 << nNumbers];
+    // The (up to) 5 highest numbers in the mask, 4 bits each, with the highest in the top 4 of the 20 bits
+    private static final int[] highestNumbers = new int[1 << nNumbers];
+
+    static {
+        int wheel = (1 << 12) | 0b1111;  // Ace, 2, 3, 4, 5
+        for (int mask = 0; mask < (1 << nNumbers); mask++) {
+            for (int high = nNumbers - 1; high >= 4; high--) {
+                int straight = 0b11111 << (high - 4);
+                if ((mask & straight) == straight) {
+                    straightHigh[mask] = (byte) (high + 2);
+                    break;
+                }
+            }
+            if (straightHigh[mask] == 0 && (mask & wheel) == wheel)
+                straightHigh[mask] = 5;
+
+            int packed = 0, n = 0;
+            for (int i = nNumbers - 1; i >= 0 && n < handSize; i--) {
+                if ((mask & (1 << i)) != 0) {
+                    packed |= (i + 2) << (4 * (handSize - 1 - n));
+                    n++;
+                }
+            }
+            highestNumbers[mask] = packed;
+        }
+    }
+
+    private PokerHandEvaluator() {
+    }
+
+    /**
+     * @param card - card to encode
+     * @return the int code of the card, from 0 to 63 (for the bit of the card in a long set of cards)
+     */
+    public static int encode(FrenchCard card) {
+        return card.suite.ordinal() * 16 + card.number - 2;
+    }
+
+    /**
+     * @param cards - cards encoded with encode(); must all be different
+     * @return the strength of the best hand that can be made with the cards
+     */
+    public static int evaluate(int... cards) {
+        long set = 0;
+        for (int c : cards)
+            set |= 1L << c;
+        return evaluate(set);
+    }
+
+    /**
+     * @param hand      - the hole cards of a player
+     * @param community - the community cards
+     * @return the strength of the best hand that can be made with the cards
+     */
+    public static int evaluate(List<FrenchCard> hand, List<FrenchCard> community) {
+        long set = 0;
+        for (int i = 0; i < hand.size(); i++)
+            set |= 1L << encode(hand.get(i));
+        for (int i = 0; i < community.size(); i++)
+            set |= 1L << encode(community.get(i));
+        return evaluate(set);
+    }
+
+    /**
+     * @param cards - set of cards, with the bit encode(card) set for each card
+     * @return the strength of the best hand that can be made with the cards
+     */
+    public static int evaluate(long cards) {
+        int d = (int) cards & numberMask;
+        int h = (int) (cards >>> 16) & numberMask;
+        int c = (int) (cards >>> 32) & numberMask;
+        int s = (int) (cards >>> 48) & numberMask;
+
+        // Numbers held at least once, twice, three times and four times
+        int m1 = d | h | c | s;
+        int m2 = (d & h) | (d & c) | (d & s) | (h & c) | (h & s) | (c & s);
+        int m3 = (d & h & c) | (d & h & s) | (d & c & s) | (h & c & s);
+        int m4 = d & h & c & s;
+
+        int flush = Integer.bitCount(d) >= handSize ? d : Integer.bitCount(h) >= handSize ? h :
+                Integer.bitCount(c) >= handSize ? c : Integer.bitCount(s) >= handSize ? s : 0;
+        if (flush != 0 && straightHigh[flush] != 0)
+            return strength(STRAIGHT_FLUSH, straightHigh[flush] << 16);
+        if (m4 != 0) {
+            int quad = Integer.highestOneBit(m4);
+            return strength(FOUR_OF_A_KIND, number(quad) << 16 | highest(m1 & ~quad, 1, 1));
+        }
+        if (m3 != 0) {
+            int trips = Integer.highestOneBit(m3);
+            int pair = Integer.highestOneBit(m2 & ~trips);
+            if (pair != 0)
+                return strength(FULL_HOUSE, number(trips) << 16 | number(pair) << 12);
+        }
+        if (flush != 0)
+            return strength(FLUSH, highestNumbers[flush]);
+        if (straightHigh[m1] != 0)
+            return strength(STRAIGHT, straightHigh[m1] << 16);
+        if (m3 != 0) {
+            int trips = Integer.highestOneBit(m3);
+            return strength(THREE_OF_A_KIND, number(trips) << 16 | highest(m1 & ~trips, 2, 1));
+        }
+        if (m2 != 0) {
+            int pair = Integer.highestOneBit(m2);
+            int second = Integer.highestOneBit(m2 & ~pair);
+            if (second != 0)
+                return strength(TWO_PAIR, number(pair) << 16 | number(second) << 12 |
+                        highest(m1 & ~(pair | second), 1, 2));
+            return strength(ONE_PAIR, number(pair) << 16 | highest(m1 & ~pair, 3, 1));
+        }
+        return strength(HIGH_CARD, highestNumbers[m1]);
+    }
+
+    /**
+     * @param strength - strength of a hand, from evaluate()
+     * @return the type of the hand, from HIGH_CARD to STRAIGHT_FLUSH
+     */
+    public static int handType(int strength) {
+        return strength >>> typeShift;
+    }
+
+    /**
+     * @param strength - strength of a hand, from evaluate()
+     * @return the strength scaled to be between 0 (no cards) and 1 (a royal flush)
+     */
+    public static double normalise(int strength) {
+        return strength / (double) maxStrength;
+    }
+
+    static PokerGameState.PokerHand pokerHand(int strength) {
+        int type = handType(strength);
+        if (type == STRAIGHT_FLUSH && (strength >>> 16 & 0xF) == FrenchCard.FrenchCardType.Ace.getNumber())
+            return PokerGameState.PokerHand.RoyalFlush;
+        return PokerGameState.PokerHand.values()[STRAIGHT_FLUSH + 1 - type];
+    }
+
+    private static int strength(int type, int numbers) {
+        return type << typeShift | numbers;
+    }
+
+    private static int number(int bit) {
+        return Integer.numberOfTrailingZeros(bit) + 2;
+    }
+
+    /**
+     * @param mask - numbers to choose from
+     * @param n    - how many of the highest numbers to take
+     * @param used - how many of the 5 positions for tie-break numbers are already used
+     * @return the n highest numbers in the mask, in the positions after the first 'used' ones
+     */
+    private static int highest(int mask, int n, int used) {
+        return (highestNumbers[mask] >>> (4 * (handSize - n))) << (4 * (handSize - used - n));
+    }
+}
@@ -2,14 +2,9 @@ package games.poker;
 
 import core.AbstractGameState;
 import core.CoreConstants;
-import core.components.FrenchCard;
 import core.interfaces.*;
 import evaluation.optimisation.TunableParameters;
 
-import java.util.*;
-
-import static core.components.FrenchCard.Suite.*;
-
 public class PokerHeuristic extends TunableParameters implements IStateHeuristic {
 
     double FACTOR_MONEY = 0.8;
@@ -85,79 +80,11 @@ public class PokerHeuristic extends TunableParameters implements IStateHeuristic
         // given the nature of Poker, we do not return Win/Lose, but the amount of money at the end of the game
         // as a fraction of the total the player could have won
 
-        List<FrenchCard> localPlayerHand = pgs.getPlayerDecks().get(playerId).getComponents();
-        int value = 0;
-
-        for (FrenchCard frenchCard : localPlayerHand) {
-            switch (frenchCard.type) { //should be the player's card instead instead of card.type, replace with the actual card from the player
-                case Number:
-                    value += frenchCard.number;
-                    break;
-                case Jack:
-                    if (frenchCard.suite == Spades) {
-                        value += 10;
-                        break;
-                    } else if (frenchCard.suite == Diamonds) {
-                        value += 11;
-                        break;
-                    } else if (frenchCard.suite == Hearts) {
-                        value += 12;
-                        break;
-                    } else if (frenchCard.suite == Clubs) {
-                        value += 13;
-                        break;
-                    }
-                    break;
-
-                case Queen:
-                    if (frenchCard.suite == Spades) {
-                        value += 14;
-                        break;
-                    } else if (frenchCard.suite == Diamonds) {
-                        value += 15;
-                        break;
-                    } else if (frenchCard.suite == Hearts) {
-                        value += 16;
-                        break;
-                    } else if (frenchCard.suite == Clubs) {
-                        value += 17;
-                        break;
-                    }
-                    break;
-                case King:
-                    if (frenchCard.suite == Spades) {
-                        value += 18;
-                        break;
-                    } else if (frenchCard.suite == Diamonds) {
-                        value += 19;
-                        break;
-                    } else if (frenchCard.suite == Hearts) {
-                        value += 20;
-                        break;
-                    } else if (frenchCard.suite == Clubs) {
-                        value += 21;
-                        break;
-                    }
-                    break;
-                case Ace:
-                    if (frenchCard.suite == Spades) {
-                        value += 22;
-                        break;
-                    } else if (frenchCard.suite == Diamonds) {
-                        value += 23;
-                        break;
-                    } else if (frenchCard.suite == Hearts) {
-                        value += 24;
-                        break;
-                    } else if (frenchCard.suite == Clubs) {
-                        value += 25;
-                        break;
-                    }
-                    break;
-            }
-        }
-        return value * FACTOR_HAND / 100.0 + pgs.playerMoney[playerId].getValue() / maxMoney * FACTOR_MONEY +
-                value * 1.0 / (pgs.playerMoney[playerId].getValue() + 1) * FACTOR_HAND_OVER_MONEY;
+        // strength of the best hand the player can make with the cards seen so far
+        double value = PokerHandEvaluator.normalise(PokerHandEvaluator.evaluate(
+                pgs.getPlayerDecks().get(playerId).getComponents(), pgs.getCommunityCards().getComponents()));
+        return value * FACTOR_HAND + pgs.playerMoney[playerId].getValue() / maxMoney * FACTOR_MONEY +
+                value / (pgs.playerMoney[playerId].getValue() + 1) * FACTOR_HAND_OVER_MONEY;
         // FACTOR_HAND_OVER_MONEY is purely for backwards compatibility with the original heuristic
     }
 
@@ -12,6 +12,7 @@ import games.terraformingmars.components.Award;
 import games.terraformingmars.components.Milestone;
 import games.terraformingmars.components.TMCard;
 import games.terraformingmars.components.TMMapTile;
+import games.terraformingmars.components.TMPlayerCounters;
 import games.terraformingmars.rules.requirements.TagOnCardRequirement;
 import utilities.Vector2D;
 
@@ -30,28 +31,28 @@ public class TMForwardModel extends StandardForwardModelWithTurnOrder {
         TMGameState gs = (TMGameState) firstState;
         TMGameParameters params = (TMGameParameters) firstState.getGameParameters();
 
-        gs.playerResources = new HashMap[gs.getNPlayers()];
-        gs.playerProduction = new HashMap[gs.getNPlayers()];
+        gs.playerResources = new TMPlayerCounters<>(TMTypes.Resource.class, gs.getNPlayers());
+        gs.playerProduction = new TMPlayerCounters<>(TMTypes.Resource.class, gs.getNPlayers());
         gs.playerResourceMap = new HashSet[gs.getNPlayers()];
         gs.playerDiscountEffects = new HashMap[gs.getNPlayers()];
         gs.playerResourceIncreaseGen = new HashMap[gs.getNPlayers()];
 
+        for (TMTypes.Resource res : TMTypes.Resource.values()) {
+            int startingRes = params.startingResources.get(res);
+            if (res == TR && gs.getNPlayers() == 1) {
+                startingRes = params.soloTR;
+            }
+            gs.playerResources.add(res, startingRes, 0, params.maxPoints, res + "-%d");
+            if (params.startingProduction.containsKey(res)) {
+                int startingProduction = params.startingProduction.get(res);
+                if (params.expansions.contains(TMTypes.Expansion.CorporateEra))
+                    startingProduction = 0;  // No production in corporate era
+                gs.playerProduction.add(res, startingProduction, params.minimumProduction.get(res), params.maxPoints, res + "-prod-%d");
+            }
+        }
         for (int i = 0; i < gs.getNPlayers(); i++) {
-            gs.playerResources[i] = new HashMap<>();
-            gs.playerProduction[i] = new HashMap<>();
             gs.playerResourceIncreaseGen[i] = new HashMap<>();
             for (TMTypes.Resource res : TMTypes.Resource.values()) {
-                int startingRes = params.startingResources.get(res);
-                if (res == TR && gs.getNPlayers() == 1) {
-                    startingRes = params.soloTR;
-                }
-                gs.playerResources[i].put(res, new Counter(startingRes, 0, params.maxPoints, res.toString() + "-" + i));
-                if (params.startingProduction.containsKey(res)) {
-                    int startingProduction = params.startingProduction.get(res);
-                    if (params.expansions.contains(TMTypes.Expansion.CorporateEra))
-                        startingProduction = 0;  // No production in corporate era
-                    gs.playerProduction[i].put(res, new Counter(startingProduction, params.minimumProduction.get(res), params.maxPoints, res + "-prod-" + i));
-                }
                 gs.playerResourceIncreaseGen[i].put(res, false);
             }
             gs.playerResourceMap[i] = new HashSet<>();
@@ -135,12 +136,6 @@ public class TMForwardModel extends StandardForwardModelWithTurnOrder {
         gs.projectCards.shuffle(gs.getRnd());
         gs.corpCards.shuffle(gs.getRnd());
 
-        HashMap<TMTypes.Tag, Counter>[] playerCardsPlayedTags;
-        HashSet<AbstractAction>[] playerCardsPlayedEffects;
-        HashSet<AbstractAction>[] playerCardsPlayedActions;
-        HashMap<TMTypes.CardType, Counter>[] playerCardsPlayedTypes;
-        HashMap<TMTypes.Tile, Counter>[] tilesPlaced;
-
         gs.playerCorporations = new TMCard[gs.getNPlayers()];
         gs.playerCardChoice = new Deck[gs.getNPlayers()];
         gs.playerHands = new Deck[gs.getNPlayers()];
@@ -155,24 +150,21 @@ public class TMForwardModel extends StandardForwardModelWithTurnOrder {
             gs.playerCardPoints[i] = new Counter(0, 0, params.maxPoints, "Points of p" + i);
         }
 
-        gs.playerTilesPlaced = new HashMap[gs.getNPlayers()];
-        gs.playerCardsPlayedTypes = new HashMap[gs.getNPlayers()];
-        gs.playerCardsPlayedTags = new HashMap[gs.getNPlayers()];
+        gs.playerTilesPlaced = new TMPlayerCounters<>(TMTypes.Tile.class, gs.getNPlayers());
+        for (TMTypes.Tile t : TMTypes.Tile.values()) {
+            gs.playerTilesPlaced.add(t, 0, 0, params.maxPoints, t.name() + " tiles placed player %d");
+        }
+        gs.playerCardsPlayedTypes = new TMPlayerCounters<>(TMTypes.CardType.class, gs.getNPlayers());
+        for (TMTypes.CardType t : TMTypes.CardType.values()) {
+            gs.playerCardsPlayedTypes.add(t, 0, 0, params.maxPoints, t.name() + " cards played player %d");
+        }
+        gs.playerCardsPlayedTags = new TMPlayerCounters<>(TMTypes.Tag.class, gs.getNPlayers());
+        for (TMTypes.Tag t : TMTypes.Tag.values()) {
+            gs.playerCardsPlayedTags.add(t, 0, 0, params.maxPoints, t.name() + " cards played player %d");
+        }
         gs.playerExtraActions = new HashSet[gs.getNPlayers()];
         gs.playerPersistingEffects = new HashSet[gs.getNPlayers()];
         for (int i = 0; i < gs.getNPlayers(); i++) {
-            gs.playerTilesPlaced[i] = new HashMap<>();
-            for (TMTypes.Tile t : TMTypes.Tile.values()) {
-                gs.playerTilesPlaced[i].put(t, new Counter(0, 0, params.maxPoints, t.name() + " tiles placed player " + i));
-            }
-            gs.playerCardsPlayedTypes[i] = new HashMap<>();
-            for (TMTypes.CardType t : TMTypes.CardType.values()) {
-                gs.playerCardsPlayedTypes[i].put(t, new Counter(0, 0, params.maxPoints, t.name() + " cards played player " + i));
-            }
-            gs.playerCardsPlayedTags[i] = new HashMap<>();
-            for (TMTypes.Tag t : TMTypes.Tag.values()) {
-                gs.playerCardsPlayedTags[i].put(t, new Counter(0, 0, params.maxPoints, t.name() + " cards played player " + i));
-            }
             gs.playerExtraActions[i] = new HashSet<>();
             gs.playerPersistingEffects[i] = new HashSet<>();
         }
@@ -271,16 +263,16 @@ public class TMForwardModel extends StandardForwardModelWithTurnOrder {
                 // Production
                 for (int i = 0; i < gs.getNPlayers(); i++) {
                     // First, energy turns to heat
-                    gs.getPlayerResources()[i].get(TMTypes.Resource.Heat).increment(gs.getPlayerResources()[i].get(TMTypes.Resource.Energy).getValue());
-                    gs.getPlayerResources()[i].get(TMTypes.Resource.Energy).setValue(0);
+                    gs.getPlayerResourceCounters().increment(i, TMTypes.Resource.Heat, gs.getPlayerResourceCounters().get(i, TMTypes.Resource.Energy));
+                    gs.getPlayerResourceCounters().set(i, TMTypes.Resource.Energy, 0);
                     // Then, all production values are added to resources
                     for (TMTypes.Resource res : TMTypes.Resource.values()) {
                         if (res.isPlayerBoardRes()) {
-                            gs.getPlayerResources()[i].get(res).increment(gs.getPlayerProduction()[i].get(res).getValue());
+                            gs.getPlayerResourceCounters().increment(i, res, gs.getPlayerProductionCounters().get(i, res));
                         }
                     }
                     // TR also adds to mega credits
-                    gs.getPlayerResources()[i].get(TMTypes.Resource.MegaCredit).increment(gs.playerResources[i].get(TR).getValue());
+                    gs.getPlayerResourceCounters().increment(i, TMTypes.Resource.MegaCredit, gs.playerResources.get(i, TR));
                 }
 
                 // Check game end before next research phase
@@ -47,12 +47,12 @@ public class TMGameState extends AbstractGameStateWithTurnOrder {
     HashSet<Effect>[] playerPersistingEffects;
 
     // Player-specific counters
-    HashMap<TMTypes.Resource, Counter>[] playerResources;
+    TMPlayerCounters<TMTypes.Resource> playerResources;
     HashMap<TMTypes.Resource, Boolean>[] playerResourceIncreaseGen;  // True if this resource was increased this gen
-    HashMap<TMTypes.Resource, Counter>[] playerProduction;
-    HashMap<TMTypes.Tag, Counter>[] playerCardsPlayedTags;
-    HashMap<TMTypes.CardType, Counter>[] playerCardsPlayedTypes;
-    HashMap<TMTypes.Tile, Counter>[] playerTilesPlaced;
+    TMPlayerCounters<TMTypes.Resource> playerProduction;
+    TMPlayerCounters<TMTypes.Tag> playerCardsPlayedTags;
+    TMPlayerCounters<TMTypes.CardType> playerCardsPlayedTypes;
+    TMPlayerCounters<TMTypes.Tile> playerTilesPlaced;
     Counter[] playerCardPoints;  // Points gathered by playing cards
 
     // Player cards
@@ -105,11 +105,11 @@ public class TMGameState extends AbstractGameStateWithTurnOrder {
             addAll(Arrays.asList(playedCards));
             addAll(Arrays.asList(playerCardPoints));
             for (int i = 0; i < getNPlayers(); i++) {
-                addAll(playerResources[i].values());
-                addAll(playerProduction[i].values());
-                addAll(playerCardsPlayedTags[i].values());
-                addAll(playerTilesPlaced[i].values());
-                addAll(playerCardsPlayedTypes[i].values());
+                addAll(playerResources.counters(i));
+                addAll(playerProduction.counters(i));
+                addAll(playerCardsPlayedTags.counters(i));
+                addAll(playerTilesPlaced.counters(i));
+                addAll(playerCardsPlayedTypes.counters(i));
                 if (playerCorporations[i] != null) {
                     add(playerCorporations[i]);
                 }
@@ -166,12 +166,12 @@ public class TMGameState extends AbstractGameStateWithTurnOrder {
         copy.playerResourceMap = new HashSet[getNPlayers()];
         copy.playerPersistingEffects = new HashSet[getNPlayers()];
         copy.playerDiscountEffects = new HashMap[getNPlayers()];
-        copy.playerResources = new HashMap[getNPlayers()];
+        copy.playerResources = playerResources.copy();
         copy.playerResourceIncreaseGen = new HashMap[getNPlayers()];
-        copy.playerProduction = new HashMap[getNPlayers()];
-        copy.playerCardsPlayedTags = new HashMap[getNPlayers()];
-        copy.playerCardsPlayedTypes = new HashMap[getNPlayers()];
-        copy.playerTilesPlaced = new HashMap[getNPlayers()];
+        copy.playerProduction = playerProduction.copy();
+        copy.playerCardsPlayedTags = playerCardsPlayedTags.copy();
+        copy.playerCardsPlayedTypes = playerCardsPlayedTypes.copy();
+        copy.playerTilesPlaced = playerTilesPlaced.copy();
         copy.playerCardPoints = new Counter[getNPlayers()];
         copy.playerComplicatedPointCards = new Deck[getNPlayers()];
         copy.playedCards = new Deck[getNPlayers()];
@@ -181,12 +181,7 @@ public class TMGameState extends AbstractGameStateWithTurnOrder {
             copy.playerResourceMap[i] = new HashSet<>();
             copy.playerPersistingEffects[i] = new HashSet<>();
             copy.playerDiscountEffects[i] = new HashMap<>();
-            copy.playerResources[i] = new HashMap<>();
-            copy.playerResourceIncreaseGen[i] = new HashMap<>();
-            copy.playerProduction[i] = new HashMap<>();
-            copy.playerCardsPlayedTags[i] = new HashMap<>();
-            copy.playerCardsPlayedTypes[i] = new HashMap<>();
-            copy.playerTilesPlaced[i] = new HashMap<>();
+            copy.playerResourceIncreaseGen[i] = new HashMap<>(playerResourceIncreaseGen[i]);
             copy.playerCardPoints[i] = playerCardPoints[i].copy();
             copy.playerComplicatedPointCards[i] = playerComplicatedPointCards[i].copy();
             copy.playedCards[i] = playedCards[i].copy();
@@ -205,22 +200,6 @@ public class TMGameState extends AbstractGameStateWithTurnOrder {
             for (Effect e : playerPersistingEffects[i]) {
                 copy.playerPersistingEffects[i].add(e.copy());
             }
-            for (TMTypes.Resource r : playerResources[i].keySet()) {
-                copy.playerResources[i].put(r, playerResources[i].get(r).copy());
-                copy.playerResourceIncreaseGen[i].put(r, playerResourceIncreaseGen[i].get(r));
-            }
-            for (TMTypes.Resource r : playerProduction[i].keySet()) {
-                copy.playerProduction[i].put(r, playerProduction[i].get(r).copy());
-            }
-            for (TMTypes.Tag t : playerCardsPlayedTags[i].keySet()) {
-                copy.playerCardsPlayedTags[i].put(t, playerCardsPlayedTags[i].get(t).copy());
-            }
-            for (TMTypes.CardType t : playerCardsPlayedTypes[i].keySet()) {
-                copy.playerCardsPlayedTypes[i].put(t, playerCardsPlayedTypes[i].get(t).copy());
-            }
-            for (TMTypes.Tile t : playerTilesPlaced[i].keySet()) {
-                copy.playerTilesPlaced[i].put(t, playerTilesPlaced[i].get(t).copy());
-            }
         }
 
         // Player-specific hidden info
@@ -282,7 +261,7 @@ public class TMGameState extends AbstractGameStateWithTurnOrder {
 
     @Override
     public double getGameScore(int playerId) {
-        return playerResources[playerId].get(TMTypes.Resource.TR).getValue();
+        return playerResources.get(playerId, TMTypes.Resource.TR);
 //        return countPoints(playerId);
     }
 
@@ -303,12 +282,12 @@ public class TMGameState extends AbstractGameStateWithTurnOrder {
                 && Arrays.equals(playerResourceMap, that.playerResourceMap)
                 && Arrays.equals(playerDiscountEffects, that.playerDiscountEffects)
                 && Arrays.equals(playerPersistingEffects, that.playerPersistingEffects)
-                && Arrays.equals(playerResources, that.playerResources)
+                && Objects.equals(playerResources, that.playerResources)
                 && Arrays.equals(playerResourceIncreaseGen, that.playerResourceIncreaseGen)
-                && Arrays.equals(playerProduction, that.playerProduction)
-                && Arrays.equals(playerCardsPlayedTags, that.playerCardsPlayedTags)
-                && Arrays.equals(playerCardsPlayedTypes, that.playerCardsPlayedTypes)
-                && Arrays.equals(playerTilesPlaced, that.playerTilesPlaced)
+                && Objects.equals(playerProduction, that.playerProduction)
+                && Objects.equals(playerCardsPlayedTags, that.playerCardsPlayedTags)
+                && Objects.equals(playerCardsPlayedTypes, that.playerCardsPlayedTypes)
+                && Objects.equals(playerTilesPlaced, that.playerTilesPlaced)
                 && Arrays.equals(playerCardPoints, that.playerCardPoints)
                 && Arrays.equals(playerHands, that.playerHands)
                 && Arrays.equals(playerComplicatedPointCards, that.playerComplicatedPointCards)
@@ -328,12 +307,12 @@ public class TMGameState extends AbstractGameStateWithTurnOrder {
         result = 31 * result + Arrays.hashCode(playerResourceMap);
         result = 31 * result + Arrays.hashCode(playerDiscountEffects);
         result = 31 * result + Arrays.hashCode(playerPersistingEffects);
-        result = 31 * result + Arrays.hashCode(playerResources);
+        result = 31 * result + Objects.hashCode(playerResources);
         result = 31 * result + Arrays.hashCode(playerResourceIncreaseGen);
-        result = 31 * result + Arrays.hashCode(playerProduction);
-        result = 31 * result + Arrays.hashCode(playerCardsPlayedTags);
-        result = 31 * result + Arrays.hashCode(playerCardsPlayedTypes);
-        result = 31 * result + Arrays.hashCode(playerTilesPlaced);
+        result = 31 * result + Objects.hashCode(playerProduction);
+        result = 31 * result + Objects.hashCode(playerCardsPlayedTags);
+        result = 31 * result + Objects.hashCode(playerCardsPlayedTypes);
+        result = 31 * result + Objects.hashCode(playerTilesPlaced);
         result = 31 * result + Arrays.hashCode(playerCardPoints);
         result = 31 * result + Arrays.hashCode(playerHands);
         result = 31 * result + Arrays.hashCode(playerComplicatedPointCards);
@@ -383,16 +362,16 @@ public class TMGameState extends AbstractGameStateWithTurnOrder {
         result = 31 * result + Arrays.hashCode(playerResourceMap);
         result = 31 * result + Arrays.hashCode(playerDiscountEffects);
         result = 31 * result + Arrays.hashCode(playerPersistingEffects);
-        result = 31 * result + Arrays.hashCode(playerResources);
+        result = 31 * result + Objects.hashCode(playerResources);
         result = 31 * result + Arrays.hashCode(playerResourceIncreaseGen);
         sb.append(result).append("|9|");
-        result = Arrays.hashCode(playerProduction);
+        result = Objects.hashCode(playerProduction);
         sb.append(result).append("|10|");
-        result = Arrays.hashCode(playerCardsPlayedTags);
+        result = Objects.hashCode(playerCardsPlayedTags);
         sb.append(result).append("|10|");
-        result = Arrays.hashCode(playerCardsPlayedTypes);
+        result = Objects.hashCode(playerCardsPlayedTypes);
         sb.append(result).append("|12|");
-        result = Arrays.hashCode(playerTilesPlaced);
+        result = Objects.hashCode(playerTilesPlaced);
         sb.append(result).append("|13|");
         result = Arrays.hashCode(playerCardPoints);
         sb.append(result).append("|14|");
@@ -411,14 +390,28 @@ public class TMGameState extends AbstractGameStateWithTurnOrder {
      * Public API
      */
 
-    public HashMap<TMTypes.Resource, Counter>[] getPlayerProduction() {
+    public TMPlayerCounters<TMTypes.Resource> getPlayerProductionCounters() {
         return playerProduction;
     }
 
-    public HashMap<TMTypes.Resource, Counter>[] getPlayerResources() {
+    public TMPlayerCounters<TMTypes.Resource> getPlayerResourceCounters() {
         return playerResources;
     }
 
+    /**
+     * @return a map for each player of Counters that read and write the production in getPlayerProductionCounters()
+     */
+    public HashMap<TMTypes.Resource, Counter>[] getPlayerProduction() {
+        return playerProduction.toMaps();
+    }
+
+    /**
+     * @return a map for each player of Counters that read and write the resources in getPlayerResourceCounters()
+     */
+    public HashMap<TMTypes.Resource, Counter>[] getPlayerResources() {
+        return playerResources.toMaps();
+    }
+
     public GridBoard<TMMapTile> getBoard() {
         return board;
     }
@@ -439,22 +432,34 @@ public class TMGameState extends AbstractGameStateWithTurnOrder {
         return playerHands;
     }
 
-    public HashMap<TMTypes.Tag, Counter>[] getPlayerCardsPlayedTags() {
+    public TMPlayerCounters<TMTypes.Tag> getPlayerCardsPlayedTagCounters() {
         return playerCardsPlayedTags;
     }
 
-    public HashMap<TMTypes.CardType, Counter>[] getPlayerCardsPlayedTypes() {
+    public HashMap<TMTypes.Tag, Counter>[] getPlayerCardsPlayedTags() {
+        return playerCardsPlayedTags.toMaps();
+    }
+
+    public TMPlayerCounters<TMTypes.CardType> getPlayerCardsPlayedTypeCounters() {
         return playerCardsPlayedTypes;
     }
 
+    public HashMap<TMTypes.CardType, Counter>[] getPlayerCardsPlayedTypes() {
+        return playerCardsPlayedTypes.toMaps();
+    }
+
     public HashSet<TMAction>[] getPlayerExtraActions() {
         return playerExtraActions;
     }
 
-    public HashMap<TMTypes.Tile, Counter>[] getPlayerTilesPlaced() {
+    public TMPlayerCounters<TMTypes.Tile> getPlayerTilesPlacedCounters() {
         return playerTilesPlaced;
     }
 
+    public HashMap<TMTypes.Tile, Counter>[] getPlayerTilesPlaced() {
+        return playerTilesPlaced.toMaps();
+    }
+
     public HashSet<Milestone> getMilestones() {
         return milestones;
     }
@@ -589,9 +594,9 @@ public class TMGameState extends AbstractGameStateWithTurnOrder {
             // A resource or production instead
             TMTypes.Resource res = TMTypes.Resource.valueOf(s.split("prod")[0]);
             if (s.contains("prod")) {
-                which = playerProduction[player].get(res);
+                which = playerProduction.counter(player, res);
             } else {
-                which = playerResources[player].get(res);
+                which = playerResources.counter(player, res);
             }
         }
         return which;
@@ -614,7 +619,7 @@ public class TMGameState extends AbstractGameStateWithTurnOrder {
         if (player == -3) return true;  // In solo play, this is the neutral player
 
         if (production) {
-            Counter c = playerProduction[player].get(to);
+            Counter c = playerProduction.counter(player, to);
             if (c.getMinimum() < 0) return c.getValue() + Math.abs(c.getMinimum()) >= amount;
             return c.getValue() >= amount;
         }
@@ -627,14 +632,14 @@ public class TMGameState extends AbstractGameStateWithTurnOrder {
         if (from == null || from.size() > 0) {
             int sum = 0;
             if (itself || from != null && from.contains(to))
-                sum = playerResources[player].get(to).getValue();  // All resources can be exchanged for themselves at rate 1.0
+                sum = playerResources.get(player, to);  // All resources can be exchanged for themselves at rate 1.0
 
             // Add resources that this player can use as the "to" resource for this action
             for (ResourceMapping resMap : playerResourceMap[player]) {
                 if ((from == null || from.contains(resMap.from))
                         && resMap.to == to
                         && (resMap.requirement == null || resMap.requirement.testCondition(card))) {
-                    int n = playerResources[player].get(resMap.from).getValue();
+                    int n = playerResources.get(player, resMap.from);
                     sum += n * resMap.rate;
                 }
             }
@@ -655,7 +660,7 @@ public class TMGameState extends AbstractGameStateWithTurnOrder {
         HashSet<TMTypes.Resource> resources = new HashSet<>();
         for (ResourceMapping resMap : playerResourceMap[player]) {
             if ((from == null || resMap.from == from) && resMap.to == to && (resMap.requirement == null || resMap.requirement.testCondition(card))) {
-                if (playerResources[player].get(resMap.from).getValue() > 0) {
+                if (playerResources.get(player, resMap.from) > 0) {
                     resources.add(resMap.from);
                 }
             }
@@ -664,7 +669,7 @@ public class TMGameState extends AbstractGameStateWithTurnOrder {
     }
 
     public void playerPay(int player, TMTypes.Resource resource, int amount) {
-        playerResources[player].get(resource).decrement(Math.abs(amount));
+        playerResources.decrement(player, resource, Math.abs(amount));
     }
 
     public double getResourceMapRate(TMTypes.Resource from, TMTypes.Resource to) {
@@ -723,16 +728,16 @@ public class TMGameState extends AbstractGameStateWithTurnOrder {
     }
 
     public boolean hasPlacedTile(int player) {
-        for (TMTypes.Tile t : playerTilesPlaced[player].keySet()) {
-            if (t.canBeOwned() && playerTilesPlaced[player].get(t).getValue() > 0) return true;
+        for (TMTypes.Tile t : TMTypes.Tile.values()) {
+            if (t.canBeOwned() && playerTilesPlaced.get(player, t) > 0) return true;
         }
         return false;
     }
 
     public boolean anyTilesPlaced() {
         for (int i = 0; i < getNPlayers(); i++) {
-            for (Counter c : playerTilesPlaced[i].values()) {
-                if (c.getValue() > 0) return true;
+            for (TMTypes.Tile t : TMTypes.Tile.values()) {
+                if (playerTilesPlaced.get(i, t) > 0) return true;
             }
         }
         return getNPlayers() == 1;
@@ -740,14 +745,14 @@ public class TMGameState extends AbstractGameStateWithTurnOrder {
 
     public boolean anyTilesPlaced(TMTypes.Tile type) {
         for (int i = 0; i < getNPlayers(); i++) {
-            if (playerTilesPlaced[i].get(type).getValue() > 0) return true;
+            if (playerTilesPlaced.get(i, type) > 0) return true;
         }
         return getNPlayers() == 1 && (type == TMTypes.Tile.City || type == TMTypes.Tile.Greenery);
     }
 
     public int countPoints(int player) {
         // Add TR
-        int points = playerResources[player].get(TMTypes.Resource.TR).getValue();
+        int points = playerResources.get(player, TMTypes.Resource.TR);
         // Add milestones
         points += countPointsMilestones(player);
         // Add awards
@@ -824,7 +829,7 @@ public class TMGameState extends AbstractGameStateWithTurnOrder {
     public int countPointsBoard(int player) {
         int points = 0;
         // Greeneries
-        points += playerTilesPlaced[player].get(TMTypes.Tile.Greenery).getValue();
+        points += playerTilesPlaced.get(player, TMTypes.Tile.Greenery);
         // Add cities on board
         for (int i = 0; i < board.getHeight(); i++) {
             for (int j = 0; j < board.getWidth(); j++) {
@@ -858,7 +863,7 @@ public class TMGameState extends AbstractGameStateWithTurnOrder {
                 if (card.pointsResource != null) {
                     points += card.nPoints * card.nResourcesOnCard;
                 } else if (card.pointsTag != null) {
-                    points += card.nPoints * playerCardsPlayedTags[player].get(card.pointsTag).getValue();
+                    points += card.nPoints * playerCardsPlayedTags.get(player, card.pointsTag);
                 } else if (card.pointsTile != null) {
                     if (card.pointsTileAdjacent && card.mapTileIDTilePlaced >= 0) {  // TODO: mapTileIDPlaced should have been set in this case, bug
                         // only adjacent tiles count
@@ -871,7 +876,7 @@ public class TMGameState extends AbstractGameStateWithTurnOrder {
                             }
                         }
                     } else {
-                        points += card.nPoints * playerTilesPlaced[player].get(card.pointsTile).getValue();
+                        points += card.nPoints * playerTilesPlaced.get(player, card.pointsTile);
                     }
                 } else if (card.getComponentName().equalsIgnoreCase("capital")) {
                     // x VP per Ocean adjacent
@@ -132,13 +132,13 @@ public class TMHeuristic extends TunableParameters implements IStateHeuristic {
 
         double score = (gs.countPoints(playerId)*1.0 / params.maxPoints) * pointsWeight;
 
-        int nAutomatedCardsPlayed = gs.playerCardsPlayedTypes[playerId].get(TMTypes.CardType.Automated).getValue();
-        int nActiveCardsPlayed = gs.playerCardsPlayedTypes[playerId].get(TMTypes.CardType.Active).getValue();
-        int nEventsPlayed = gs.playerCardsPlayedTypes[playerId].get(TMTypes.CardType.Event).getValue();
+        int nAutomatedCardsPlayed = gs.playerCardsPlayedTypes.get(playerId, TMTypes.CardType.Automated);
+        int nActiveCardsPlayed = gs.playerCardsPlayedTypes.get(playerId, TMTypes.CardType.Active);
+        int nEventsPlayed = gs.playerCardsPlayedTypes.get(playerId, TMTypes.CardType.Event);
 
         boolean shouldTerraform = false;
         for (int i = 0; i < gs.getNPlayers(); i++) {
-            if (i != playerId && gs.playerCardsPlayedTypes[i].get(TMTypes.CardType.Active).getValue() >= nActiveCardsPlayed + nActiveCardsDiffForTerraform) {
+            if (i != playerId && gs.playerCardsPlayedTypes.get(i, TMTypes.CardType.Active) >= nActiveCardsPlayed + nActiveCardsDiffForTerraform) {
                 shouldTerraform = true;
                 break;
             }
@@ -197,7 +197,7 @@ public class TMHeuristic extends TunableParameters implements IStateHeuristic {
             // Evaluate current production (prioritize money)
             double production = 0;
             for (TMTypes.Resource r: TMTypes.Resource.values()) {
-                if (r.playerBoardRes) production += resourceProductionWeight.get(r) * gs.playerProduction[playerId].get(r).getValue() / maxProduction;
+                if (r.playerBoardRes) production += resourceProductionWeight.get(r) * gs.playerProduction.get(playerId, r) / maxProduction;
             }
             score += production * productionWeight;
 
@@ -51,8 +51,8 @@ public class BuyCard extends TMAction {
 
             // If solo and Tharsis Republic chosen, player gets the X extra money production from initial neutral cities placed
             if (gs.getNPlayers() == 1 && card.getComponentName().equals("Tharsis Republic")) {
-                int current = gs.getPlayerProduction()[player].get(TMTypes.Resource.MegaCredit).getValue();
-                gs.getPlayerProduction()[player].get(TMTypes.Resource.MegaCredit).setValue(current + ((TMGameParameters)gs.getGameParameters()).getSoloCities());
+                int current = gs.getPlayerProductionCounters().get(player, TMTypes.Resource.MegaCredit);
+                gs.getPlayerProductionCounters().set(player, TMTypes.Resource.MegaCredit, current + ((TMGameParameters)gs.getGameParameters()).getSoloCities());
             }
         } else {
             gs.getPlayerHands()[player].add(card);
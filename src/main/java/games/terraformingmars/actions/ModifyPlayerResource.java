@@ -113,20 +113,20 @@ public class ModifyPlayerResource extends TMModifyCounter implements IExtendedSe
                 return super._execute(gs);
             }
             if (production) {
-                counterID = gs.getPlayerProduction()[targetPlayer].get(resource).getComponentID();
+                counterID = gs.getPlayerProductionCounters().counter(targetPlayer, resource).getComponentID();
             } else {
-                counterID = gs.getPlayerResources()[targetPlayer].get(resource).getComponentID();
+                counterID = gs.getPlayerResourceCounters().counter(targetPlayer, resource).getComponentID();
             }
             if (tagToCount != null) {
                 if (any || opponents) {
                     int count = 0;
                     for (int i = 0; i < gs.getNPlayers(); i++) {
                         if (opponents && i == player) continue;
-                        count += gs.getPlayerCardsPlayedTags()[i].get(tagToCount).getValue();
+                        count += gs.getPlayerCardsPlayedTagCounters().get(i, tagToCount);
                     }
                     change *= count;
                 } else {
-                    change *= gs.getPlayerCardsPlayedTags()[player].get(tagToCount).getValue();
+                    change *= gs.getPlayerCardsPlayedTagCounters().get(player, tagToCount);
                 }
             } else if (tileToCount != null) {
                 if (onMars) {
@@ -146,11 +146,11 @@ public class ModifyPlayerResource extends TMModifyCounter implements IExtendedSe
                         int count = 0;
                         for (int i = 0; i < gs.getNPlayers(); i++) {
                             if (opponents && i == player) continue;
-                            count += gs.getPlayerTilesPlaced()[i].get(tileToCount).getValue();
+                            count += gs.getPlayerTilesPlacedCounters().get(i, tileToCount);
                         }
                         change *= count;
                     } else {
-                        change *= gs.getPlayerTilesPlaced()[player].get(tileToCount).getValue();
+                        change *= gs.getPlayerTilesPlacedCounters().get(player, tileToCount);
                     }
                 }
             }
@@ -158,9 +158,9 @@ public class ModifyPlayerResource extends TMModifyCounter implements IExtendedSe
                 // Increase by abs change
                 Counter c;
                 if (counterResourceProduction) {
-                    c = gs.getPlayerProduction()[targetPlayer].get(counterResource);
+                    c = gs.getPlayerProductionCounters().counter(targetPlayer, counterResource);
                 } else {
-                    c = gs.getPlayerResources()[targetPlayer].get(counterResource);
+                    c = gs.getPlayerResourceCounters().counter(targetPlayer, counterResource);
                 }
                 c.increment((int)(-1 * change));
                 if (-1 * change > 0 && !counterResourceProduction) {
@@ -241,7 +241,7 @@ public class ModifyPlayerResource extends TMModifyCounter implements IExtendedSe
         ArrayList<AbstractAction> actions = new ArrayList<>();
 
         if (targetPlayer == -2) {
-            Counter c = gs.getPlayerResources()[player].get(resource);
+            Counter c = gs.getPlayerResourceCounters().counter(player, resource);
             double max = -1*Math.min(Math.abs(change),(c.getMinimum() < 0? c.getValue() + Math.abs(c.getMinimum()) : c.getValue()));
             // Choose a player
             if (targetPlayerOptions != null) {
@@ -282,9 +282,9 @@ public class ModifyPlayerResource extends TMModifyCounter implements IExtendedSe
             // Choose amount
             Counter c;
             if (production) {
-                c = gs.getPlayerProduction()[player].get(resource);
+                c = gs.getPlayerProductionCounters().counter(player, resource);
             } else {
-                c = gs.getPlayerResources()[player].get(resource);
+                c = gs.getPlayerResourceCounters().counter(player, resource);
             }
             int max = (c.getMinimum() < 0? c.getValue() + Math.abs(c.getMinimum()) : c.getValue());
             for (int i = 0; i <= max; i++) {
@@ -96,7 +96,7 @@ public class PayForAction extends TMAction implements IExtendedSequence {
         int sum = gs.playerResourceSum(player, card, resourcesRemaining, getCostResource(), false);
         int remaining = getCost() - costPaid - sum;
         int min = Math.max(0, (int)(Math.ceil(remaining/rate)));
-        int max = Math.min(gs.getPlayerResources()[player].get(res).getValue(), (int)(Math.ceil((getCost() - costPaid)/rate)));
+        int max = Math.min(gs.getPlayerResourceCounters().get(player, res), (int)(Math.ceil((getCost() - costPaid)/rate)));
 
         // Can pay between min and max of this resource
         for (int i = min; i <= max; i++) {
@@ -139,7 +139,7 @@ public class PlaceTile extends TMAction implements IExtendedSequence {
 
                 // Add money earned from adjacent oceans
                 int nOceans = nAdjacentTiles(gs, mt, TMTypes.Tile.Ocean);
-                gs.getPlayerResources()[player].get(TMTypes.Resource.MegaCredit).increment(nOceans * ((TMGameParameters) gs.getGameParameters()).getnMCGainedOcean());
+                gs.getPlayerResourceCounters().increment(player, TMTypes.Resource.MegaCredit, nOceans * ((TMGameParameters) gs.getGameParameters()).getnMCGainedOcean());
 
                 if (resourcesGainedRestriction != null) {
                     // Production of each resource type gained increased by 1
@@ -147,7 +147,7 @@ public class PlaceTile extends TMAction implements IExtendedSequence {
                     HashSet<TMTypes.Resource> typesAdded = new HashSet<>();
                     for (TMTypes.Resource r : gained) {
                         if (contains(resourcesGainedRestriction, r) && !typesAdded.contains(r)) {
-                            gs.getPlayerProduction()[player].get(r).increment(1);
+                            gs.getPlayerProductionCounters().increment(player, r, 1);
                             typesAdded.add(r);
                         }
                     }
@@ -43,13 +43,13 @@ public class PlayCard extends TMAction {
         // Add info to played cards stats
         if (card.cardType != TMTypes.CardType.Event) {  // Event tags don't count for regular tag counts
             for (TMTypes.Tag t : card.tags) {
-                gs.getPlayerCardsPlayedTags()[player].get(t).increment(1);
+                gs.getPlayerCardsPlayedTagCounters().increment(player, t, 1);
             }
         } else {
-            gs.getPlayerCardsPlayedTags()[player].get(TMTypes.Tag.Event).increment(1);
+            gs.getPlayerCardsPlayedTagCounters().increment(player, TMTypes.Tag.Event, 1);
         }
 
-        gs.getPlayerCardsPlayedTypes()[player].get(card.cardType).increment(1);
+        gs.getPlayerCardsPlayedTypeCounters().increment(player, card.cardType, 1);
         if (card.shouldSaveCard()) {
             gs.getPlayerComplicatedPointCards()[player].add(card);
             gs.getPlayedCards()[player].add(card);
@@ -34,13 +34,13 @@ public class SellProjects extends TMAction implements IExtendedSequence {
     public boolean _execute(TMGameState gs) {
         if (getCardID() != -1) {
             TMGameParameters gp = (TMGameParameters) gs.getGameParameters();
-            int currentMC = gs.getPlayerResources()[player].get(TMTypes.Resource.MegaCredit).getValue();
+            int currentMC = gs.getPlayerResourceCounters().get(player, TMTypes.Resource.MegaCredit);
             TMCard card = (TMCard) gs.getComponentById(getCardID());
             if (card != null) {
                 gs.getDiscardCards().add(card);
                 gs.getPlayerHands()[player].remove(card);
             }
-            gs.getPlayerResources()[player].get(TMTypes.Resource.MegaCredit).setValue(currentMC + 1);
+            gs.getPlayerResourceCounters().set(player, TMTypes.Resource.MegaCredit, currentMC + 1);
             return true;
         }
         gs.setActionInProgress(this);
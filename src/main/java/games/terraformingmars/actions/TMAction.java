@@ -175,7 +175,7 @@ public class TMAction extends AbstractAction {
         }
 
         // Check if player has Card resources, transform those to cards into hand
-        Counter c = gs.getPlayerResources()[player].get(TMTypes.Resource.Card);
+        Counter c = gs.getPlayerResourceCounters().counter(player, TMTypes.Resource.Card);
         int nCards = c.getValue();
         if (nCards > 0) {
             for (int i = 0; i < nCards; i++) {
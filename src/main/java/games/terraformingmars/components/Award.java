@@ -44,7 +44,7 @@ public class Award extends Token {
             // Try tile
             TMTypes.Tile t = Utils.searchEnum(TMTypes.Tile.class, s);
             if (t != null) {
-                sum += gs.getPlayerTilesPlaced()[player].get(t).getValue();
+                sum += gs.getPlayerTilesPlacedCounters().get(player, t);
                 // TODO  if (counterID.contains("adjacent")), then tiles adjacent to this type
             } else {
                 // Try resource
@@ -54,16 +54,16 @@ public class Award extends Token {
                         sum += gs.getPlayerHands()[player].getSize();
                     } else {
                         if (s.contains("prod")) {
-                            sum += gs.getPlayerProduction()[player].get(r).getValue();
+                            sum += gs.getPlayerProductionCounters().get(player, r);
                         } else {
-                            sum += gs.getPlayerResources()[player].get(r).getValue();
+                            sum += gs.getPlayerResourceCounters().get(player, r);
                         }
                     }
                 } else {
                     // Try tag
                     TMTypes.Tag tag = Utils.searchEnum(TMTypes.Tag.class, s);
                     if (tag != null) {
-                        sum += gs.getPlayerCardsPlayedTags()[player].get(tag).getValue();
+                        sum += gs.getPlayerCardsPlayedTagCounters().get(player, tag);
                     } else {
                         // todo:
                         // - "x-prod" (X productions at minimum value given)
@@ -43,7 +43,7 @@ public class GlobalParameter extends Counter {
                 increases.add(new Pair<>(gs.getGeneration(), player));
 
                 // Player gets TR
-                gs.getPlayerResources()[player].get(TMTypes.Resource.TR).increment(1);
+                gs.getPlayerResourceCounters().increment(player, TMTypes.Resource.TR, 1);
                 gs.getPlayerResourceIncreaseGen()[player].put(TMTypes.Resource.TR, true);
 
                 // Params increase, check bonuses
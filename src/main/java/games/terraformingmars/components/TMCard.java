@@ -564,13 +564,15 @@ public class TMCard extends Card {
         copy.actionPlayed = actionPlayed;
         copy.annotation = annotation;
         copy.cost = cost;
+        // Requirements (including those of discounts) are copied, as CounterRequirement resolves its counter lazily
         if (requirements != null) {
             copy.requirements = new HashSet<>();
             for (Requirement r: requirements) {
                 copy.requirements.add(r.copy());
             }
         }
-        copy.tags = tags.clone();
+        // Tags are part of the card definition, and are never changed once loaded, so copies share them
+        copy.tags = tags;
         if (discountEffects != null) {
             copy.discountEffects = new LinkedList<>();
             for (Discount discountEffect : discountEffects) {
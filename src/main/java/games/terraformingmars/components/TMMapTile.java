@@ -91,11 +91,11 @@ public class TMMapTile extends Component {
         }
 
         if (player >= 0 && player < gs.getNPlayers()) {
-            gs.getPlayerTilesPlaced()[player].get(which).increment(1);
+            gs.getPlayerTilesPlacedCounters().increment(player, which, 1);
 
             // Current player gets resources
             for (TMTypes.Resource res : resources) {
-                gs.getPlayerResources()[player].get(res).increment(1);
+                gs.getPlayerResourceCounters().increment(player, res, 1);
                 gs.getPlayerResourceIncreaseGen()[player].put(res, true);
             }
         }
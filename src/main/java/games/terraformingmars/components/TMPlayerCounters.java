@@ -0,0 +1,283 @@
+package games.terraformingmars.components;
+
+import core.components.ComponentIDAllocator;
+import core.components.Counter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Per-player quantities indexed by an enum (resources, production, tags played, tiles placed...), stored in an
+ * int[player][ordinal] array. Copying this copies only that array; the keys, bounds, names and component IDs of the
+ * counters are fixed at setup and shared by all copies.
+ * <p>
+ * get(), set(), increment() and decrement() work directly on the array. Code that needs a Counter (e.g. to refer to
+ * it by component ID, as ModifyCounter does) can get one with counter(), which is a view of the same entry in the
+ * array; these are only created when first asked for.
+ */
+public class TMPlayerCounters<E extends Enum<E>> {
+
+    // Fixed at setup, and shared between copies
+    private final E[] keys;  // all values of the enum; only those with present[ordinal] have counters
+    private final boolean[] present;
+    private final int[] minimum, maximum;  // bounds (inclusive) for each key
+    private final String[][] names;  // [player][ordinal]
+    private final int[][] ids;  // component IDs of the counters, [player][ordinal]
+
+    private final int[][] values;  // [player][ordinal]
+    private PlayerCounter[][] counters;  // views, created when first needed
+
+    /**
+     * Creates counters for all players, but only for the keys with a starting value (others are not present).
+     *
+     * @param keyClass - enum class of the keys
+     * @param nPlayers - number of players
+     */
+    public TMPlayerCounters(Class<E> keyClass, int nPlayers) {
+        keys = keyClass.getEnumConstants();
+        present = new boolean[keys.length];
+        minimum = new int[keys.length];
+        maximum = new int[keys.length];
+        names = new String[nPlayers][keys.length];
+        ids = new int[nPlayers][keys.length];
+        values = new int[nPlayers][keys.length];
+    }
+
+    private TMPlayerCounters(TMPlayerCounters<E> other) {
+        keys = other.keys;
+        present = other.present;
+        minimum = other.minimum;
+        maximum = other.maximum;
+        names = other.names;
+        ids = other.ids;
+        values = new int[other.values.length][];
+        for (int p = 0; p < values.length; p++) {
+            values[p] = other.values[p].clone();
+        }
+    }
+
+    /**
+     * Adds a counter for the key to each player, as part of setup.
+     *
+     * @param key      - key to add
+     * @param value    - starting value, for all players
+     * @param minimum  - minimum value (inclusive)
+     * @param maximum  - maximum value (inclusive)
+     * @param nameForm - name of the counter, with %d replaced by the player ID
+     */
+    public void add(E key, int value, int minimum, int maximum, String nameForm) {
+        int k = key.ordinal();
+        present[k] = true;
+        this.minimum[k] = minimum;
+        this.maximum[k] = maximum;
+        for (int p = 0; p < values.length; p++) {
+            values[p][k] = value;
+            names[p][k] = String.format(nameForm, p);
+            ids[p][k] = ComponentIDAllocator.nextID();
+        }
+        counters = null;
+    }
+
+    public TMPlayerCounters<E> copy() {
+        return new TMPlayerCounters<>(this);
+    }
+
+    public boolean contains(E key) {
+        return present[key.ordinal()];
+    }
+
+    public int get(int player, E key) {
+        return values[player][key.ordinal()];
+    }
+
+    /**
+     * Sets the value, as Counter.setValue() (which does not check the bounds).
+     */
+    public void set(int player, E key, int value) {
+        values[player][key.ordinal()] = value;
+    }
+
+    /**
+     * @return true if succeeded, false if capped at the maximum (as Counter.increment())
+     */
+    public boolean increment(int player, E key, int amount) {
+        return clamp(values[player], key.ordinal(), values[player][key.ordinal()] + amount);
+    }
+
+    /**
+     * @return true if succeeded, false if capped at the minimum (as Counter.decrement())
+     */
+    public boolean decrement(int player, E key, int amount) {
+        return clamp(values[player], key.ordinal(), values[player][key.ordinal()] - amount);
+    }
+
+    private boolean clamp(int[] row, int k, int value) {
+        if (value > maximum[k]) {
+            row[k] = maximum[k];
+            return false;
+        }
+        if (value < minimum[k]) {
+            row[k] = minimum[k];
+            return false;
+        }
+        row[k] = value;
+        return true;
+    }
+
+    public int getMinimum(E key) {
+        return minimum[key.ordinal()];
+    }
+
+    public int getMaximum(E key) {
+        return maximum[key.ordinal()];
+    }
+
+    /**
+     * @return a Counter that reads and writes the value for this player and key, or null if the key is not present
+     */
+    public Counter counter(int player, E key) {
+        int k = key.ordinal();
+        if (!present[k]) return null;
+        if (counters == null) {
+            counters = new PlayerCounter[values.length][];
+        }
+        if (counters[player] == null) {
+            counters[player] = new PlayerCounter[keys.length];
+        }
+        if (counters[player][k] == null) {
+            counters[player][k] = new PlayerCounter(values[player], k, minimum[k], maximum[k], names[player][k], ids[player][k]);
+        }
+        return counters[player][k];
+    }
+
+    /**
+     * @return the counters of all keys present for the player
+     */
+    public List<Counter> counters(int player) {
+        List<Counter> retValue = new ArrayList<>();
+        for (E key : keys) {
+            if (present[key.ordinal()]) retValue.add(counter(player, key));
+        }
+        return retValue;
+    }
+
+    /**
+     * @return for each player, a map from each key present to its counter(); this is the form in which these were
+     * held before they were stored in an array, and changes to the counters change the values here
+     */
+    @SuppressWarnings("unchecked")
+    public HashMap<E, Counter>[] toMaps() {
+        HashMap<E, Counter>[] retValue = new HashMap[values.length];
+        for (int p = 0; p < values.length; p++) {
+            retValue[p] = new HashMap<>();
+            for (E key : keys) {
+                if (present[key.ordinal()]) retValue[p].put(key, counter(p, key));
+            }
+        }
+        return retValue;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TMPlayerCounters)) return false;
+        TMPlayerCounters<?> that = (TMPlayerCounters<?>) o;
+        return Arrays.equals(keys, that.keys) && Arrays.equals(present, that.present) && Arrays.deepEquals(values, that.values);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(Arrays.hashCode(present), Arrays.deepHashCode(values));
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.deepToString(values);
+    }
+
+    /**
+     * A Counter for one entry of the array. Copies of it are independent counters with the same ID and value.
+     */
+    static class PlayerCounter extends Counter {
+        private final int[] row;
+        private final int index;
+
+        PlayerCounter(int[] row, int index, int minimum, int maximum, String name, int ID) {
+            super(null, 0, minimum, maximum, name, ID);
+            this.row = row;
+            this.index = index;
+        }
+
+        @Override
+        public PlayerCounter copy() {
+            PlayerCounter copy = new PlayerCounter(new int[]{getValue()}, 0, minimum, maximum, componentName, componentID);
+            copyComponentTo(copy);
+            return copy;
+        }
+
+        @Override
+        public boolean increment(int amount) {
+            return setClamped(row[index] + amount);
+        }
+
+        @Override
+        public boolean decrement(int amount) {
+            return setClamped(row[index] - amount);
+        }
+
+        private boolean setClamped(int value) {
+            if (value > maximum) {
+                row[index] = maximum;
+                return false;
+            }
+            if (value < minimum) {
+                row[index] = minimum;
+                return false;
+            }
+            row[index] = value;
+            return true;
+        }
+
+        @Override
+        public Boolean isMinimum() {
+            return row[index] <= minimum;
+        }
+
+        @Override
+        public Boolean isMaximum() {
+            return row[index] >= maximum;
+        }
+
+        @Override
+        public int getValueIdx() {
+            return row[index];
+        }
+
+        @Override
+        public int getValue() {
+            return row[index];
+        }
+
+        @Override
+        public void setValue(int i) {
+            row[index] = i;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Counter)) return false;
+            Counter counter = (Counter) o;
+            return componentID == counter.getComponentID() && getValue() == counter.getValue()
+                    && minimum == counter.getMinimum() && maximum == counter.getMaximum();
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(componentID, getValue(), minimum, maximum);
+        }
+    }
+}
@@ -112,7 +112,7 @@ public class TMBoardView extends ComponentView implements IScreenHighlight {
         int trWidth = 0;
         for (int i = 0; i < gs.getNPlayers(); i++) {
             Rectangle r = drawImage(g, tr, offsetX + i*defaultItemSize*3, offsetY, defaultItemSize);
-            drawShadowStringCentered(g, "p" + i + ": " +gs.getPlayerResources()[i].get(TMTypes.Resource.TR).getValue(),
+            drawShadowStringCentered(g, "p" + i + ": " +gs.getPlayerResourceCounters().get(i, TMTypes.Resource.TR),
                     new Rectangle(offsetX + i*defaultItemSize*3 + defaultItemSize, offsetY, defaultItemSize*2, r.height),
                     playerColors[i], TMGUI.darkGrayColor);
             if (i == 0) {
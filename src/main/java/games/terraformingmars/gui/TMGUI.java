@@ -518,7 +518,7 @@ public class TMGUI extends AbstractGUIManager {
                 for (int i = 0; i < gameState.getNPlayers(); i++) {
                     if (gameState.getPlayerResults()[i] == CoreConstants.GameResult.WIN_GAME) win = i;
 
-                    int tr = gs.getPlayerResources()[i].get(TMTypes.Resource.TR).getValue();
+                    int tr = gs.getPlayerResourceCounters().get(i, TMTypes.Resource.TR);
                     int milestones = gs.countPointsMilestones(i);
                     int awards = gs.countPointsAwards(i);
                     int board = gs.countPointsBoard(i);
@@ -76,10 +76,10 @@ public class TMPlayerView extends ComponentView {
                 // Rect containing resource image, count next to it. Next line: prod background with prod count
                 Image resImg = ImageIO.GetInstance().getImage(res.getImagePath());
                 drawImage(g, resImg, offsetX + spacing / 5 + k * defaultItemSize * 2, offsetX + spacing / 5, defaultItemSize, defaultItemSize);
-                drawShadowStringCentered(g, "" + gs.getPlayerResources()[focusPlayer].get(res).getValue(),
+                drawShadowStringCentered(g, "" + gs.getPlayerResourceCounters().get(focusPlayer, res),
                         new Rectangle(offsetX + spacing / 5 + defaultItemSize + k * defaultItemSize * 2, offsetX + spacing / 5, defaultItemSize, defaultItemSize));
                 drawImage(g, production, offsetX + spacing / 5 + defaultItemSize / 2 + k * defaultItemSize * 2, offsetX + spacing / 5 + defaultItemSize, defaultItemSize, defaultItemSize);
-                drawShadowStringCentered(g, "" + gs.getPlayerProduction()[focusPlayer].get(res).getValue(),
+                drawShadowStringCentered(g, "" + gs.getPlayerProductionCounters().get(focusPlayer, res),
                         new Rectangle(offsetX + spacing / 5 + defaultItemSize / 2 + k * defaultItemSize * 2, offsetX + spacing / 5 + defaultItemSize, defaultItemSize, defaultItemSize),
                         Color.white, Color.black);
 
@@ -96,7 +96,7 @@ public class TMPlayerView extends ComponentView {
         drawShadowStringCentered(g, "Tags played:", new Rectangle(startX, startY, defaultItemSize*2, defaultItemSize/3), null, null, 12);
         startX += defaultItemSize*2;
         for (TMTypes.Tag t: TMTypes.Tag.values()) {
-            int nCards = gs.getPlayerCardsPlayedTags()[focusPlayer].get(t).getValue();
+            int nCards = gs.getPlayerCardsPlayedTagCounters().get(focusPlayer, t);
             Image img = ImageIO.GetInstance().getImage(t.getImagePath());
             drawImage(g, img, startX + k*spacing/2 + k*2*defaultItemSize/3, startY, defaultItemSize/3, defaultItemSize/3);
             drawShadowStringCentered(g, "" + nCards,
@@ -116,7 +116,7 @@ public class TMPlayerView extends ComponentView {
         startX += metrics.stringWidth(text) + spacing*2;
         for (TMTypes.CardType t: TMTypes.CardType.values()) {
             if (t.isPlayableStandard()) {
-                int nCards = gs.getPlayerCardsPlayedTypes()[focusPlayer].get(t).getValue();
+                int nCards = gs.getPlayerCardsPlayedTypeCounters().get(focusPlayer, t);
                 text = t.name() + ": " + nCards;
                 drawShadowStringCentered(g, text,
                         new Rectangle(startX, startY, metrics.stringWidth(text), defaultItemSize / 3), t.getColor(), null, 12);
@@ -132,7 +132,7 @@ public class TMPlayerView extends ComponentView {
         drawShadowStringCentered(g, "Tiles placed:", new Rectangle(startX, startY, defaultItemSize*2, defaultItemSize/3), null, null, 12);
         startX += defaultItemSize*2;
         for (TMTypes.Tile t: TMTypes.Tile.values()) {
-            int nTiles = gs.getPlayerTilesPlaced()[focusPlayer].get(t).getValue();
+            int nTiles = gs.getPlayerTilesPlacedCounters().get(focusPlayer, t);
             Image img = ImageIO.GetInstance().getImage(t.getImagePath());
             drawImage(g, img, startX + k*spacing/2 + k*2*defaultItemSize/3, startY, defaultItemSize/3, defaultItemSize/3);
             drawShadowStringCentered(g, "" + nTiles,
@@ -30,7 +30,7 @@ public class TagsPlayedRequirement implements Requirement<TMGameState> {
     public boolean testCondition(TMGameState gs) {
         for (int i = 0; i < nMin.length; i++) {
             TMTypes.Tag tag = tags[i];
-            if (gs.getPlayerCardsPlayedTags()[gs.getCurrentPlayer()].get(tag).getValue() < nMin[i]) return false;
+            if (gs.getPlayerCardsPlayedTagCounters().get(gs.getCurrentPlayer(), tag) < nMin[i]) return false;
         }
         return true;
     }
@@ -56,7 +56,7 @@ public class TagsPlayedRequirement implements Requirement<TMGameState> {
         String reasons = "";
         for (int i = 0; i < nMin.length; i++) {
             TMTypes.Tag tag = tags[i];
-            if (gs.getPlayerCardsPlayedTags()[gs.getCurrentPlayer()].get(tag).getValue() < nMin[i]) {
+            if (gs.getPlayerCardsPlayedTagCounters().get(gs.getCurrentPlayer(), tag) < nMin[i]) {
                 reasons += "Need " + nMin[i] + " " + tag + " tags. ";
             } else {
                 reasons += "Enough " + tag + " tags. ";
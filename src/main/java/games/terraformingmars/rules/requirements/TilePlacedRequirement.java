@@ -33,10 +33,10 @@ public class TilePlacedRequirement implements Requirement<TMGameState> {
         int player = gs.getCurrentPlayer();
         int nPlaced = 0;
         if (!any) {
-            nPlaced = gs.getPlayerTilesPlaced()[player].get(tile).getValue();
+            nPlaced = gs.getPlayerTilesPlacedCounters().get(player, tile);
         } else {
             for (int i = 0; i < gs.getNPlayers(); i++) {
-                nPlaced = gs.getPlayerTilesPlaced()[i].get(tile).getValue();
+                nPlaced = gs.getPlayerTilesPlacedCounters().get(i, tile);
             }
             if (gs.getNPlayers() == 1) {
                 if (tile == TMTypes.Tile.City || tile == TMTypes.Tile.Greenery) {
@@ -106,7 +106,7 @@ import java.util.*;
 //            int c = 0;
 //            TMGameState tmgs = (TMGameState) e.state;
 //            for (int i = 0; i < tmgs.getNPlayers(); i++) {
-//                c += tmgs.getPlayerResources()[i].get(TMTypes.Resource.TR).getValue();
+//                c += tmgs.getPlayerResourceCounters().get(i, TMTypes.Resource.TR);
 //                c += tmgs.countPointsMilestones(i);
 //                c += tmgs.countPointsAwards(i);
 //                c += tmgs.countPointsBoard(i);
@@ -298,8 +298,8 @@ import java.util.*;
 //        public Object run(MetricsGameListener listener, Event e) {
 //            StringBuilder ss = new StringBuilder();
 //            TMGameState tmgs = (TMGameState) e.state;
-//            for (TMTypes.Resource r: tmgs.getPlayerProduction()[e.playerID].keySet()) {
-//                ss.append(r.name()).append(":").append(tmgs.getPlayerProduction()[e.playerID].get(r).getValue()).append(",");
+//            for (TMTypes.Resource r: tmgs.getPlayerProductionCounters()[e.playerID].keySet()) {
+//                ss.append(r.name()).append(":").append(tmgs.getPlayerProductionCounters().get(e.playerID, r)).append(",");
 //            }
 //            return ss.toString();
 //        }
@@ -314,7 +314,7 @@ import java.util.*;
 //        public Object run(MetricsGameListener listener, Event e) {
 //            TMGameState s = ((TMGameState) e.state);
 //            int x = e.state.getRoundCounter();
-//            return new TimeStamp(x, s.getPlayerResources()[e.playerID].get(TMTypes.Resource.TR).getValue());
+//            return new TimeStamp(x, s.getPlayerResourceCounters().get(e.playerID, TMTypes.Resource.TR));
 //        }
 //        @Override
 //        public Set<Event.GameEvent> getDefaultEventTypes() {
@@ -583,7 +583,7 @@ import java.util.*;
 //    public static class PlayerPointsTR extends AbstractMetric {
 //        @Override
 //        public Object run(MetricsGameListener listener, Event e) {
-//            return ((TMGameState)e.state).getPlayerResources()[e.playerID].get(TMTypes.Resource.TR).getValue();
+//            return ((TMGameState)e.state).getPlayerResourceCounters().get(e.playerID, TMTypes.Resource.TR);
 //        }
 //        @Override
 //        public Set<Event.GameEvent> getDefaultEventTypes() {
@@ -860,7 +860,7 @@ import java.util.*;
 //        @Override
 //        public Object run(MetricsGameListener listener, Event e) {
 //            TMTypes.Resource type = (TMTypes.Resource) getParameterValue("type");
-//            return ((TMGameState)e.state).getPlayerProduction()[e.playerID].get(type).getValue();
+//            return ((TMGameState)e.state).getPlayerProductionCounters().get(e.playerID, type);
 //        }
 //        @Override
 //        public Set<Event.GameEvent> getDefaultEventTypes() {
@@ -881,7 +881,7 @@ import java.util.*;
 //        @Override
 //        public Object run(MetricsGameListener listener, Event e) {
 //            TMTypes.Resource type = (TMTypes.Resource) getParameterValue("type");
-//            return ((TMGameState)e.state).getPlayerResources()[e.playerID].get(type).getValue();
+//            return ((TMGameState)e.state).getPlayerResourceCounters().get(e.playerID, type);
 //        }
 //        @Override
 //        public Set<Event.GameEvent> getDefaultEventTypes() {
@@ -5,7 +5,7 @@ import core.CoreConstants;
 import core.StandardForwardModel;
 import core.actions.AbstractAction;
 import core.actions.ActionSpace;
-import core.actions.SetGridValueAction;
+import core.actions.GridActionCache;
 import core.components.GridBoard;
 import core.components.Token;
 import core.interfaces.ITreeActionSpace;
@@ -24,6 +24,7 @@ public class TicTacToeForwardModel extends StandardForwardModel implements ITree
         int gridSize = tttgp.gridSize;
         TicTacToeGameState state = (TicTacToeGameState) firstState;
         state.gridBoard = new GridBoard<>(gridSize, gridSize, new Token(TicTacToeConstants.emptyCell));
+        state.actionCache = new GridActionCache<>(state.gridBoard.getComponentID(), state.getNPlayers(), gridSize, gridSize);
     }
 
 
@@ -42,7 +43,7 @@ public class TicTacToeForwardModel extends StandardForwardModel implements ITree
             for (int x = 0; x < tttgs.gridBoard.getWidth(); x++) {
                 for (int y = 0; y < tttgs.gridBoard.getHeight(); y++) {
                     if (tttgs.gridBoard.getElement(x, y).getTokenType().equals(TicTacToeConstants.emptyCell)) {
-                        actions.add(new SetGridValueAction<>(tttgs.gridBoard.getComponentID(), x, y, TicTacToeConstants.playerMapping.get(player)));
+                        actions.add(tttgs.getAction(player, x, y));
                     }
                 }
             }
@@ -180,7 +181,7 @@ public class TicTacToeForwardModel extends StandardForwardModel implements ITree
                 ActionTreeNode yNode = xNode.findChildrenByName("Y" + y);
                 if (tttgs.gridBoard.getElement(x, y).getTokenType().equals(TicTacToeConstants.emptyCell)) {
                     xNode.setValue(1); // make sure that we set parent available
-                    yNode.setAction(new SetGridValueAction<>(tttgs.gridBoard.getComponentID(), x, y, TicTacToeConstants.playerMapping.get(player)));
+                    yNode.setAction(tttgs.getAction(player, x, y));
                 }
             }
         }
@@ -2,23 +2,29 @@ package games.tictactoe;
 
 import core.AbstractGameState;
 import core.AbstractParameters;
+import core.actions.GridActionCache;
+import core.actions.SetGridValueAction;
 import core.components.Component;
 import core.components.GridBoard;
 import core.components.Token;
 import core.interfaces.IGridGameState;
 import core.interfaces.IPrintable;
+import core.interfaces.IZobristHashable;
 import core.interfaces.IStateFeatureJSON;
 import games.GameType;
 import org.json.simple.JSONObject;
+import utilities.Zobrist;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 
 
-public class TicTacToeGameState extends AbstractGameState implements IPrintable, IGridGameState<Token> {
+public class TicTacToeGameState extends AbstractGameState implements IPrintable, IGridGameState<Token>, IZobristHashable {
 
     GridBoard<Token> gridBoard;
+    // the actions are immutable, so this is shared by all copies of the state
+    GridActionCache<Token> actionCache;
 
     public TicTacToeGameState(AbstractParameters gameParameters, int nPlayers) {
         super(gameParameters, nPlayers);
@@ -38,11 +44,45 @@ public class TicTacToeGameState extends AbstractGameState implements IPrintable,
 
     @Override
     protected TicTacToeGameState _copy(int playerId) {
-        TicTacToeGameState s = new TicTacToeGameState(gameParameters.copy(), getNPlayers());
-        s.gridBoard = gridBoard.copy();
+        TicTacToeGameState s = new TicTacToeGameState(((TicTacToeGameParameters) gameParameters).shallowCopy(), getNPlayers());
+        s.gridBoard = gridBoard.copyOnWrite();
+        s.actionCache = actionCache;
         return s;
     }
 
+    @Override
+    protected TicTacToeGameState _copyInto(AbstractGameState target, int playerId) {
+        TicTacToeGameState s = (TicTacToeGameState) target;
+        s.gridBoard = gridBoard.copyInto(s.gridBoard);
+        s.actionCache = actionCache;
+        return s;
+    }
+
+    /**
+     * @return the (interned) action for the player to place their token at (x, y)
+     */
+    SetGridValueAction<Token> getAction(int player, int x, int y) {
+        if (actionCache == null || actionCache.getGridBoard() != gridBoard.getComponentID())
+            actionCache = new GridActionCache<>(gridBoard.getComponentID(), getNPlayers(), gridBoard.getWidth(), gridBoard.getHeight());
+        return actionCache.get(player, x, y, TicTacToeConstants.playerMapping.get(player));
+    }
+
+    /**
+     * @return the Zobrist hash of the board, combined with the player to move
+     */
+    @Override
+    public long getZobristHash() {
+        return gridBoard.getZobristHash() ^ Zobrist.key(-1, getCurrentPlayer());
+    }
+
+    /**
+     * @return a hash of the board and the player to move, like getZobristHash(), but independent of it
+     */
+    @Override
+    public long getZobristCheckHash() {
+        return 31L * gridBoard.hashCode() + getCurrentPlayer();
+    }
+
     @Override
     protected double _getHeuristicScore(int playerId) {
         return new TicTacToeHeuristic().evaluateState(this, playerId);
@@ -1,23 +1,11 @@
 package players.heuristics;
 
-import com.globalmentor.apache.hadoop.fs.BareLocalFileSystem;
-import org.apache.hadoop.fs.FileSystem;
 import org.apache.spark.ml.regression.DecisionTreeRegressionModel;
-import org.apache.spark.sql.SparkSession;
 
 public abstract class AbstractDecisionTreeHeuristic {
 
-    static SparkSession spark = SparkSession
-            .builder()
-            .appName("Java Spark SQL basic example")
-            //     .config("spark.driver.memory", "1g")
-            .master("local").getOrCreate();
-    static {
-        // And the hack to get this to work on Windows (without the Winutils.exe and hadoop.dll nightmare)
-        spark.sparkContext().hadoopConfiguration().setClass("fs.file.impl", BareLocalFileSystem.class, FileSystem.class);
-    }
-
-    protected DecisionTreeRegressionModel drModel;
+    // This is read directly from the files Spark writes, so no SparkSession is needed to use the heuristic
+    protected CompiledDecisionTree drModel;
 
     public AbstractDecisionTreeHeuristic(String directory) {
         // load in the Decision Tree model from the directory
@@ -25,7 +13,7 @@ public abstract class AbstractDecisionTreeHeuristic {
             System.out.println("No directory specified for Decision Tree model");
             return;
         }
-        drModel = DecisionTreeRegressionModel.load(directory);
+        drModel = CompiledDecisionTree.load(directory);
     }
 
     public static String prettifyDecisionTreeDescription(DecisionTreeRegressionModel model, String[] featureNames) {
@@ -0,0 +1,174 @@
+package players.heuristics;
+
+import com.globalmentor.apache.hadoop.fs.BareLocalFileSystem;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.hadoop.ParquetReader;
+import org.apache.parquet.hadoop.example.GroupReadSupport;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * A regression tree held as flat arrays (one entry per node), which can be evaluated directly on a double[] of
+ * features without any Spark machinery.
+ * <p>
+ * This is loaded from the directory that Spark writes a DecisionTreeRegressionModel to (the node data in the
+ * parquet files under 'data'), so the models written by DecisionTreeLearner can be used as they are.
+ * <p>
+ * Node i is a leaf if feature[i] is -1, in which case value[i] is the prediction. Otherwise it splits on
+ * feature[i], and we go to the left child if that feature is <= threshold[i] (or, for a categorical split, if it is
+ * one of leftCategories[i]), and the right child otherwise.
+ */
+public class CompiledDecisionTree {
+
+    final int[] feature;
+    final double[] threshold;
+    final double[][] leftCategories;
+    final int[] leftChild;
+    final int[] rightChild;
+    final double[] value;
+
+    public CompiledDecisionTree(int[] feature, double[] threshold, double[][] leftCategories,
+                                int[] leftChild, int[] rightChild, double[] value) {
+        int n = feature.length;
+        if (threshold.length != n || leftCategories.length != n || leftChild.length != n || rightChild.length != n || value.length != n)
+            throw new IllegalArgumentException("All node arrays must have the same length");
+        if (n == 0)
+            throw new IllegalArgumentException("A tree must have at least one node");
+        this.feature = feature;
+        this.threshold = threshold;
+        this.leftCategories = leftCategories;
+        this.leftChild = leftChild;
+        this.rightChild = rightChild;
+        this.value = value;
+    }
+
+    public double predict(double[] features) {
+        int node = 0;
+        while (feature[node] >= 0) {
+            double x = features[feature[node]];
+            boolean left;
+            if (leftCategories[node] == null) {
+                left = x <= threshold[node];
+            } else {
+                left = false;
+                for (double c : leftCategories[node]) {
+                    if (c == x) {
+                        left = true;
+                        break;
+                    }
+                }
+            }
+            node = left ? leftChild[node] : rightChild[node];
+        }
+        return value[node];
+    }
+
+    public int size() {
+        return feature.length;
+    }
+
+    /**
+     * @return the depth of the tree (0 for a single leaf)
+     */
+    public int depth() {
+        return depth(0);
+    }
+
+    private int depth(int node) {
+        if (feature[node] < 0)
+            return 0;
+        return 1 + Math.max(depth(leftChild[node]), depth(rightChild[node]));
+    }
+
+    /**
+     * Loads a tree from a directory written by DecisionTreeRegressionModel.save() (or write().save())
+     */
+    public static CompiledDecisionTree load(String directory) {
+        File dataDir = new File(directory, "data");
+        File[] parts = dataDir.listFiles((dir, name) -> name.endsWith(".parquet"));
+        if (parts == null || parts.length == 0)
+            throw new IllegalArgumentException("No decision tree data found in " + dataDir.getAbsolutePath());
+
+        Configuration conf = new Configuration();
+        // the same hack as for Spark, to avoid needing Winutils.exe on Windows
+        conf.setClass("fs.file.impl", BareLocalFileSystem.class, FileSystem.class);
+
+        // Spark numbers the nodes in pre-order from 0, so the root is node 0
+        SortedMap<Integer, Group> nodes = new TreeMap<>();
+        try {
+            for (File part : parts) {
+                try (ParquetReader<Group> reader = ParquetReader.builder(new GroupReadSupport(), new Path(part.getAbsolutePath()))
+                        .withConf(conf).build()) {
+                    for (Group row = reader.read(); row != null; row = reader.read())
+                        nodes.put(row.getInteger("id", 0), row);
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read decision tree from " + directory, e);
+        }
+        if (nodes.isEmpty() || nodes.firstKey() != 0 || nodes.lastKey() != nodes.size() - 1)
+            throw new IllegalArgumentException("Decision tree nodes in " + directory + " are not numbered 0 to n-1");
+
+        int n = nodes.size();
+        int[] feature = new int[n];
+        double[] threshold = new double[n];
+        double[][] leftCategories = new double[n][];
+        int[] leftChild = new int[n];
+        int[] rightChild = new int[n];
+        double[] value = new double[n];
+        for (Group row : nodes.values()) {
+            int id = row.getInteger("id", 0);
+            value[id] = row.getDouble("prediction", 0);
+            leftChild[id] = row.getInteger("leftChild", 0);
+            rightChild[id] = row.getInteger("rightChild", 0);
+            if (leftChild[id] < 0) {
+                feature[id] = -1;
+                continue;
+            }
+            Group split = row.getGroup("split", 0);
+            feature[id] = split.getInteger("featureIndex", 0);
+            double[] splitValues = listOfDoubles(split.getGroup("leftCategoriesOrThreshold", 0));
+            if (split.getInteger("numCategories", 0) < 0)
+                threshold[id] = splitValues[0];  // a continuous split
+            else
+                leftCategories[id] = splitValues;
+        }
+        return new CompiledDecisionTree(feature, threshold, leftCategories, leftChild, rightChild, value);
+    }
+
+    // A parquet list is a group with a single repeated group, each of which has the element as its only field
+    private static double[] listOfDoubles(Group list) {
+        int n = list.getFieldRepetitionCount(0);
+        double[] retValue = new double[n];
+        for (int i = 0; i < n; i++)
+            retValue[i] = list.getGroup(0, i).getDouble(0, 0);
+        return retValue;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        toString(sb, 0, 0);
+        return sb.toString();
+    }
+
+    private void toString(StringBuilder sb, int node, int indent) {
+        String pad = "  ".repeat(indent);
+        if (feature[node] < 0) {
+            sb.append(pad).append("Predict: ").append(value[node]).append("\n");
+            return;
+        }
+        String condition = leftCategories[node] == null ?
+                "feature " + feature[node] + " <= " + threshold[node] :
+                "feature " + feature[node] + " in " + Arrays.toString(leftCategories[node]);
+        sb.append(pad).append("If (").append(condition).append(")\n");
+        toString(sb, leftChild[node], indent + 1);
+        sb.append(pad).append("Else\n");
+        toString(sb, rightChild[node], indent + 1);
+    }
+}
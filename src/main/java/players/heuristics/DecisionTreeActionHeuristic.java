@@ -5,7 +5,6 @@ import core.actions.AbstractAction;
 import core.interfaces.IActionFeatureVector;
 import core.interfaces.IActionHeuristic;
 import core.interfaces.IStateFeatureVector;
-import org.apache.spark.ml.linalg.Vectors;
 
 import java.util.List;
 
@@ -31,7 +30,7 @@ public class DecisionTreeActionHeuristic extends AbstractDecisionTreeHeuristic i
         System.arraycopy(actionFeatures, 0, features, stateFeatures.length, actionFeatures.length);
         // return the prediction from the model
 
-        return drModel.predict(Vectors.dense(features));
+        return drModel.predict(features);
     }
 
     @Override
@@ -54,7 +53,7 @@ public class DecisionTreeActionHeuristic extends AbstractDecisionTreeHeuristic i
         // Then we return the predictions from the model
         double[] predictions = new double[actions.size()];
         for (int i = 0; i < actions.size(); i++) {
-            predictions[i] = drModel.predict(Vectors.dense(features[i]));
+            predictions[i] = drModel.predict(features[i]);
         }
         return predictions;
     }
@@ -1,6 +1,8 @@
 package players.learners;
 
 import core.interfaces.ILearner;
+import evaluation.loggers.BinaryStatsLogger;
+import evaluation.loggers.BinaryStatsReader;
 
 import java.io.BufferedReader;
 import java.io.FileReader;
@@ -60,6 +62,19 @@ public abstract class AbstractLearner implements ILearner {
     protected void loadData(String... files) {
         List<double[]> data = new ArrayList<>();
         for (String file : files) {
+            if (BinaryStatsLogger.isBinaryStatsFile(file)) {
+                // written by BinaryStatsLogger; this reads the rows directly from the memory-mapped columns
+                try (BinaryStatsReader reader = new BinaryStatsReader(file)) {
+                    header = reader.columns();
+                    descriptions = new String[header.length - 11];
+                    System.arraycopy(header, 5, descriptions, 0, descriptions.length);
+                    data.addAll(Arrays.asList(reader.readRows()));
+                } catch (IOException e) {
+                    e.printStackTrace();
+                    throw new AssertionError("Problem reading file " + file);
+                }
+                continue;
+            }
             try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
                 header = reader.readLine().split("\\t");
                 descriptions = new String[header.length - 11];
@@ -21,14 +21,23 @@ public abstract class ApacheLearner extends AbstractLearner {
     Dataset<Row> apacheData;
     boolean debug = false;
 
-    static SparkSession spark = SparkSession
-            .builder()
-            .appName("Java Spark SQL basic example")
-            //     .config("spark.driver.memory", "1g")
-            .master("local").getOrCreate();
-    static {
-        // And the hack to get this to work on Windows (without the Winutils.exe and hadoop.dll nightmare)
-        spark.sparkContext().hadoopConfiguration().setClass("fs.file.impl", BareLocalFileSystem.class, FileSystem.class);
+    private static SparkSession spark;
+
+    /**
+     * The SparkSession is only started when it is first needed (which is when we learn something), as this is slow
+     * and takes a lot of memory
+     */
+    static synchronized SparkSession spark() {
+        if (spark == null) {
+            spark = SparkSession
+                    .builder()
+                    .appName("Java Spark SQL basic example")
+                    //     .config("spark.driver.memory", "1g")
+                    .master("local").getOrCreate();
+            // And the hack to get this to work on Windows (without the Winutils.exe and hadoop.dll nightmare)
+            spark.sparkContext().hadoopConfiguration().setClass("fs.file.impl", BareLocalFileSystem.class, FileSystem.class);
+        }
+        return spark;
     }
     public ApacheLearner(double gamma, Target target) {
         super(gamma, target);
@@ -60,7 +69,7 @@ public abstract class ApacheLearner extends AbstractLearner {
         );
 
         // and convert to an apache Dataset
-        apacheData = spark.createDataFrame(rowList, schema);
+        apacheData = spark().createDataFrame(rowList, schema);
 
         if (debug)
             apacheData.show(10);
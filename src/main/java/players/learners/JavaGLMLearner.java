@@ -0,0 +1,177 @@
+package players.learners;
+
+import java.io.FileWriter;
+import java.util.Arrays;
+
+import static java.util.stream.Collectors.joining;
+
+/**
+ * The shared machinery for the learners that fit linear models in-process (without Spark), using primitive arrays.
+ * <p>
+ * Models are fitted from the weighted sufficient statistics of the data (X'WX and X'Wz, with the bias as column 0 of
+ * X), so that a fit with the same L2 regularisation as Spark's WeightedLeastSquares (which both LinearRegression and
+ * GeneralizedLinearRegression use) can be calculated exactly without keeping the data. The intercept is never
+ * penalised, and features that are constant get a coefficient of zero.
+ * <p>
+ * If incremental is true, then each call of learnFrom() adds the new data to all the data seen before (and starts
+ * from the previous coefficients, where the fit is iterative), instead of starting again.
+ */
+public abstract class JavaGLMLearner extends AbstractLearner {
+
+    double[] coefficients;
+    double regParam = 0.1;
+    boolean incremental;
+
+    public JavaGLMLearner(double gamma, Target target, boolean incremental) {
+        super(gamma, target);
+        this.incremental = incremental;
+    }
+
+    public double[] getCoefficients() {
+        return coefficients;
+    }
+
+    public void setRegParam(double regParam) {
+        this.regParam = regParam;
+    }
+
+    /**
+     * The weighted sums of products of the columns of X (with bias in column 0), and of each column with the
+     * target, from which a weighted least squares fit can be calculated
+     */
+    static class SufficientStatistics {
+        final double[][] xtx;
+        final double[] xtz;
+        double ztz;
+
+        SufficientStatistics(int nColumns) {
+            xtx = new double[nColumns][nColumns];
+            xtz = new double[nColumns];
+        }
+
+        void add(double[] x, double z, double weight) {
+            for (int j = 0; j < x.length; j++) {
+                double wx = weight * x[j];
+                // we only need the upper triangle
+                for (int k = j; k < x.length; k++)
+                    xtx[j][k] += wx * x[k];
+                xtz[j] += wx * z;
+            }
+            ztz += weight * z * z;
+        }
+
+        /**
+         * The penalty on each coefficient is regParam * beta_j^2 / 2, with beta_j scaled by the standard deviation
+         * of its feature if standardiseFeatures, and divided by the standard deviation of the target if
+         * standardiseTarget (the same options as Spark's WeightedLeastSquares).
+         *
+         * @return The coefficients (the first is the intercept) that minimise
+         * 1/(2W) * sum(w * (z - x.beta)^2) + the penalty
+         */
+        double[] solve(double regParam, boolean standardiseFeatures, boolean standardiseTarget) {
+            int n = xtz.length;
+            double totalWeight = xtx[0][0];
+            if (totalWeight <= 0.0)
+                throw new IllegalArgumentException("No data to fit");
+            double[] mean = new double[n];
+            for (int j = 1; j < n; j++)
+                mean[j] = xtx[0][j] / totalWeight;
+            double zMean = xtz[0] / totalWeight;
+            double zSD = Math.sqrt(Math.max(ztz / totalWeight - zMean * zMean, 0.0));
+            double[] retValue = new double[n];
+            retValue[0] = zMean;
+            if (zSD == 0.0)
+                return retValue; // a constant target is fitted by the intercept alone
+            double penalty = standardiseTarget ? regParam / zSD : regParam;
+
+            // the covariance matrix of the features (excluding the bias), plus the penalty on the diagonal
+            int p = n - 1;
+            double[][] a = new double[p][p];
+            double[] b = new double[p];
+            boolean[] constant = new boolean[p];
+            for (int j = 0; j < p; j++) {
+                for (int k = j; k < p; k++) {
+                    a[j][k] = xtx[j + 1][k + 1] / totalWeight - mean[j + 1] * mean[k + 1];
+                    a[k][j] = a[j][k];
+                }
+                b[j] = xtz[j + 1] / totalWeight - mean[j + 1] * zMean;
+            }
+            for (int j = 0; j < p; j++) {
+                double variance = a[j][j];
+                constant[j] = variance <= 1e-12 * Math.max(1.0, mean[j + 1] * mean[j + 1]);
+                if (constant[j]) {
+                    Arrays.fill(a[j], 0.0);
+                    for (int k = 0; k < p; k++)
+                        a[k][j] = 0.0;
+                    a[j][j] = 1.0;
+                    b[j] = 0.0;
+                } else {
+                    a[j][j] += standardiseFeatures ? penalty * variance : penalty;
+                }
+            }
+            double[] beta = choleskySolve(a, b);
+
+            for (int j = 0; j < p; j++) {
+                retValue[j + 1] = constant[j] ? 0.0 : beta[j];
+                retValue[0] -= retValue[j + 1] * mean[j + 1];
+            }
+            return retValue;
+        }
+    }
+
+    /**
+     * Solves a * x = b for a symmetric positive definite matrix a (which is overwritten by its Cholesky factor)
+     */
+    static double[] choleskySolve(double[][] a, double[] b) {
+        int n = b.length;
+        for (int j = 0; j < n; j++) {
+            double diagonal = a[j][j];
+            for (int k = 0; k < j; k++)
+                diagonal -= a[j][k] * a[j][k];
+            if (diagonal <= 0.0)
+                throw new IllegalArgumentException("Matrix is not positive definite (the features may be collinear)");
+            a[j][j] = Math.sqrt(diagonal);
+            for (int i = j + 1; i < n; i++) {
+                double sum = a[i][j];
+                for (int k = 0; k < j; k++)
+                    sum -= a[i][k] * a[j][k];
+                a[i][j] = sum / a[j][j];
+            }
+        }
+        // forward substitution with L, and then back substitution with L'
+        double[] y = new double[n];
+        for (int i = 0; i < n; i++) {
+            double sum = b[i];
+            for (int k = 0; k < i; k++)
+                sum -= a[i][k] * y[k];
+            y[i] = sum / a[i][i];
+        }
+        double[] x = new double[n];
+        for (int i = n - 1; i >= 0; i--) {
+            double sum = y[i];
+            for (int k = i + 1; k < n; k++)
+                sum -= a[k][i] * x[k];
+            x[i] = sum / a[i][i];
+        }
+        return x;
+    }
+
+    /**
+     * Checks that the data just loaded has the same features as any loaded before (for incremental learning)
+     */
+    void checkSameFeatures(String[] previousDescriptions) {
+        if (previousDescriptions != null && !Arrays.equals(previousDescriptions, descriptions))
+            throw new IllegalArgumentException("Data for incremental learning must have the same features each time : "
+                    + String.join(", ", previousDescriptions) + " vs " + String.join(", ", descriptions));
+    }
+
+    void writeCoefficients(String file, String format) {
+        try (FileWriter writer = new FileWriter(file, false)) {
+            writer.write("BIAS\t" + String.join("\t", descriptions) + "\n");
+            writer.write(Arrays.stream(coefficients).mapToObj(d -> String.format(format, d)).collect(joining("\t")));
+            writer.write("\n");
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+}
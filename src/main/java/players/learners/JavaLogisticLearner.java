@@ -0,0 +1,98 @@
+package players.learners;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Logistic regression with the same model (and output file) as LogisticLearner, but fitted by iteratively
+ * reweighted least squares (IRLS) without needing Spark. As in Spark's GeneralizedLinearRegression, the first
+ * fit is to the logit of (y + 0.5) / 2, and then up to maxIter IRLS steps are taken, stopping once no
+ * coefficient changes by more than tolerance.
+ * <p>
+ * IRLS needs the data on every iteration, so if incremental is true then the data from all previous calls of
+ * learnFrom() is kept and used again, with the fit starting from the previous coefficients.
+ */
+public class JavaLogisticLearner extends JavaGLMLearner {
+
+    static final double EPSILON = 1e-16;
+
+    int maxIter = 10;
+    double tolerance = 1e-6;
+    List<double[]> allData = new ArrayList<>();
+    List<Double> allTargets = new ArrayList<>();
+    String[] previousDescriptions;
+
+    public JavaLogisticLearner(double gamma, Target target) {
+        this(gamma, target, false);
+    }
+
+    public JavaLogisticLearner(double gamma, Target target, boolean incremental) {
+        super(gamma, target, incremental);
+    }
+
+    public void setMaxIter(int maxIter) {
+        this.maxIter = maxIter;
+    }
+
+    @Override
+    public void learnFrom(String... files) {
+        loadData(files);
+        boolean warmStart = incremental && coefficients != null;
+        if (warmStart) {
+            checkSameFeatures(previousDescriptions);
+        } else {
+            allData.clear();
+            allTargets.clear();
+        }
+        previousDescriptions = descriptions;
+        for (int i = 0; i < dataArray.length; i++) {
+            double y = target[i][0];
+            if (y < 0.0 || y > 1.0)
+                throw new IllegalArgumentException("Target for logistic regression must be in [0, 1], not " + y);
+            allData.add(dataArray[i]);
+            allTargets.add(y);
+        }
+
+        int nColumns = descriptions.length + 1;
+        if (!warmStart) {
+            SufficientStatistics initial = new SufficientStatistics(nColumns);
+            for (int i = 0; i < allData.size(); i++) {
+                double mu = (allTargets.get(i) + 0.5) / 2.0;
+                initial.add(allData.get(i), Math.log(mu / (1.0 - mu)), 1.0);
+            }
+            coefficients = initial.solve(regParam, true, true);
+        }
+
+        for (int iter = 0; iter < maxIter; iter++) {
+            SufficientStatistics statistics = new SufficientStatistics(nColumns);
+            for (int i = 0; i < allData.size(); i++) {
+                double[] x = allData.get(i);
+                double eta = 0.0;
+                for (int j = 0; j < nColumns; j++)
+                    eta += coefficients[j] * x[j];
+                // mu is kept away from 0 and 1 (as in Spark) so that the weight is never zero
+                double mu = Math.min(Math.max(1.0 / (1.0 + Math.exp(-eta)), EPSILON), 1.0 - EPSILON);
+                double weight = mu * (1.0 - mu);
+                // the working response; d(eta)/d(mu) = 1 / weight for the logit link
+                statistics.add(x, eta + (allTargets.get(i) - mu) / weight, weight);
+            }
+            double[] newCoefficients = statistics.solve(regParam, false, false);
+            double maxChange = 0.0;
+            for (int j = 0; j < nColumns; j++)
+                maxChange = Math.max(maxChange, Math.abs(newCoefficients[j] - coefficients[j]));
+            coefficients = newCoefficients;
+            if (maxChange < tolerance)
+                break;
+        }
+    }
+
+    @Override
+    public void writeToFile(String file) {
+        writeCoefficients(file, "%.4f");
+    }
+
+    @Override
+    public String name() {
+        return "Logistic";
+    }
+}
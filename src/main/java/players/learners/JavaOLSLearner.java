@@ -0,0 +1,49 @@
+package players.learners;
+
+/**
+ * Linear regression with the same model (and output file) as OLSLearner, but fitted directly from the normal
+ * equations without needing Spark. This is much faster for the small data sets of each iteration of
+ * ProgressiveLearner.
+ * <p>
+ * If incremental is true then the sufficient statistics of all the data seen so far are kept, so that each call
+ * of learnFrom() fits the model to all the data from previous calls as well, without loading it again.
+ */
+public class JavaOLSLearner extends JavaGLMLearner {
+
+    SufficientStatistics statistics;
+    String[] previousDescriptions;
+
+    public JavaOLSLearner(double gamma, Target target) {
+        this(gamma, target, false);
+    }
+
+    public JavaOLSLearner(double gamma, Target target, boolean incremental) {
+        super(gamma, target, incremental);
+    }
+
+    @Override
+    public void learnFrom(String... files) {
+        loadData(files);
+        if (incremental && statistics != null) {
+            checkSameFeatures(previousDescriptions);
+        } else {
+            statistics = new SufficientStatistics(descriptions.length + 1);
+        }
+        previousDescriptions = descriptions;
+        for (int i = 0; i < dataArray.length; i++)
+            statistics.add(dataArray[i], target[i][0], 1.0);
+
+        // as for LinearRegression (with standardization), the penalty is on the standardised coefficients
+        coefficients = statistics.solve(regParam, true, true);
+    }
+
+    @Override
+    public void writeToFile(String prefix) {
+        writeCoefficients(prefix + ".txt", "%.4g");
+    }
+
+    @Override
+    public String name() {
+        return "OLS";
+    }
+}
@@ -22,7 +22,7 @@ public class LogisticLearner extends ApacheLearner {
 
     public static void main(String[] args) {
 
-        Dataset<Row> df = spark.read()
+        Dataset<Row> df = spark().read()
                 .option("delimiter", "\t")
                 .option("header", "true")
                 .option("inferSchema", "true")
@@ -42,7 +42,7 @@ public class LogisticLearner extends ApacheLearner {
             e.printStackTrace();
         }
         // for 4 players
-        df = spark.sql(String.format("select %s, (1 - (Ordinal13 - 1) / 3) as Ordinal From data", String.join(", ", regressors)));
+        df = spark().sql(String.format("select %s, (1 - (Ordinal13 - 1) / 3) as Ordinal From data", String.join(", ", regressors)));
 
         df.show(10);
 
@@ -11,6 +11,8 @@ public class ActionStats {
     // Number of visits
     public int nVisits;
     public int validVisits;
+    // Number of virtual losses currently applied (only used with tree parallelisation)
+    public int virtualLoss;
 
     public ActionStats(int nPlayers) {
         totValue = new double[nPlayers];
@@ -26,4 +28,39 @@ public class ActionStats {
         nVisits++;
     }
 
+    /**
+     * Adds in the statistics from another set of ActionStats (e.g. from the same action in a different tree)
+     */
+    public void add(ActionStats other) {
+        for (int i = 0; i < totValue.length; i++) {
+            totValue[i] += other.totValue[i];
+            squaredTotValue[i] += other.squaredTotValue[i];
+        }
+        nVisits += other.nVisits;
+        validVisits += other.validVisits;
+    }
+
+    /**
+     * Used with tree parallelisation while an iteration that has taken this action is still in progress.
+     * This counts as n visits that all returned the specified (low) value for the acting player, so that
+     * other threads are discouraged from following exactly the same path until the real result is backed up.
+     * (validVisits is also incremented, as the exploration term in UCB requires validVisits >= nVisits.)
+     */
+    public void addVirtualLoss(int player, int n, double value) {
+        virtualLoss += n;
+        nVisits += n;
+        validVisits += n;
+        totValue[player] += n * value;
+    }
+
+    /**
+     * Reverses a call to addVirtualLoss() with the same arguments
+     */
+    public void removeVirtualLoss(int player, int n, double value) {
+        virtualLoss -= n;
+        nVisits -= n;
+        validVisits -= n;
+        totValue[player] -= n * value;
+    }
+
 }
@@ -0,0 +1,312 @@
+package players.mcts;
+
+import core.actions.AbstractAction;
+
+import java.util.*;
+
+/**
+ * An alternative layout for SingleTreeNode, used if MCTSParams.compactNodes is set.
+ * <p>
+ * Instead of a Map of ActionStats (each with two double[] arrays), all the statistics for the node are held in a few
+ * contiguous primitive arrays (struct-of-arrays). Each action is given a slot the first time it is seen at this node,
+ * and all its statistics (and its children) are at that position in the arrays (with the values for player p in slot s
+ * at [s * nPlayers + p]).
+ * <p>
+ * The slot of each action in actionsFromOpenLoopState is recorded by its position in that list, once each time the
+ * list changes. The tree policy (ucbValue, exp3Value, rmValue etc.) and backUpSingleNode go through the actions in
+ * list order, so they find the slot at the next position without calling hashCode/equals. Any other action is looked
+ * up in a small open-addressing table of slots keyed by action hashCode.
+ * <p>
+ * The children and actionValues Maps are not used at all; getChildren() returns a snapshot. Everything else is
+ * unchanged, so this can be used with any of the tree or backup policies; getActionStats() returns a snapshot of
+ * the statistics for an action.
+ */
+public class CompactTreeNode extends SingleTreeNode {
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    private int nPlayers;
+    private int nActions;
+    private AbstractAction[] actions;
+    private int[] hashes;  // hashCode of the action in each slot
+    private int[] visits;
+    private int[] validVisits;
+    private int[] virtualLosses;
+    private double[] totValues;
+    private double[] squaredTotValues;
+    private SingleTreeNode[][] childrenBySlot;
+    // Open-addressing table of slot + 1 (0 for empty), by action hashCode
+    private int[] table;
+
+    // The slot of the action at each position of cachedActions (-1 if it has none yet)
+    private List<AbstractAction> cachedActions;
+    private int[] slotAtPosition = new int[0];
+    private int nextPosition;  // the position after the last one looked up
+    private int lastPosition = -1;  // the position of the last action looked up, if it was in cachedActions
+
+    private int slotOf(AbstractAction action) {
+        if (cachedActions != actionsFromOpenLoopState) {
+            cachedActions = actionsFromOpenLoopState;
+            if (slotAtPosition.length < cachedActions.size())
+                slotAtPosition = new int[cachedActions.size()];
+            for (int p = 0; p < cachedActions.size(); p++)
+                slotAtPosition[p] = lookup(cachedActions.get(p));
+            nextPosition = 0;
+        }
+        int size = cachedActions.size();
+        int p = nextPosition < size && cachedActions.get(nextPosition) == action ? nextPosition :
+                size > 0 && cachedActions.get(0) == action ? 0 : -1;
+        lastPosition = p;
+        if (p < 0)
+            return lookup(action);  // for example an action from a different list, or a copy
+        nextPosition = p + 1;
+        return slotAtPosition[p];
+    }
+
+    private int lookup(AbstractAction action) {
+        if (table == null)
+            return -1;
+        int h = action.hashCode();
+        int mask = table.length - 1;
+        for (int i = spread(h) & mask; table[i] != 0; i = (i + 1) & mask) {
+            int slot = table[i] - 1;
+            if (hashes[slot] == h && actions[slot].equals(action))
+                return slot;
+        }
+        return -1;
+    }
+
+    private void insert(int slot) {
+        int mask = table.length - 1;
+        int i = spread(hashes[slot]) & mask;
+        while (table[i] != 0)
+            i = (i + 1) & mask;
+        table[i] = slot + 1;
+    }
+
+    private static int spread(int h) {
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private int newSlot(AbstractAction action, int nPlayers) {
+        if (actions == null) {
+            this.nPlayers = nPlayers;
+            actions = new AbstractAction[INITIAL_CAPACITY];
+            hashes = new int[INITIAL_CAPACITY];
+            visits = new int[INITIAL_CAPACITY];
+            validVisits = new int[INITIAL_CAPACITY];
+            virtualLosses = new int[INITIAL_CAPACITY];
+            totValues = new double[INITIAL_CAPACITY * nPlayers];
+            squaredTotValues = new double[INITIAL_CAPACITY * nPlayers];
+            childrenBySlot = new SingleTreeNode[INITIAL_CAPACITY][];
+            table = new int[INITIAL_CAPACITY * 2];
+        } else if (nActions == actions.length) {
+            int capacity = actions.length * 2;
+            actions = Arrays.copyOf(actions, capacity);
+            hashes = Arrays.copyOf(hashes, capacity);
+            visits = Arrays.copyOf(visits, capacity);
+            validVisits = Arrays.copyOf(validVisits, capacity);
+            virtualLosses = Arrays.copyOf(virtualLosses, capacity);
+            totValues = Arrays.copyOf(totValues, capacity * this.nPlayers);
+            squaredTotValues = Arrays.copyOf(squaredTotValues, capacity * this.nPlayers);
+            childrenBySlot = Arrays.copyOf(childrenBySlot, capacity);
+            table = new int[capacity * 2];
+            for (int slot = 0; slot < nActions; slot++)
+                insert(slot);
+        }
+        int slot = nActions++;
+        actions[slot] = action;
+        hashes[slot] = action.hashCode();
+        insert(slot);
+        if (lastPosition >= 0 && cachedActions == actionsFromOpenLoopState && cachedActions.get(lastPosition) == action)
+            slotAtPosition[lastPosition] = slot;
+        else
+            cachedActions = null;  // the action may be in the list as an equal object, so the positions are found again
+        return slot;
+    }
+
+    private int slotOrThrow(AbstractAction action) {
+        int slot = slotOf(action);
+        if (slot < 0)
+            throw new AssertionError("No statistics for action " + action);
+        return slot;
+    }
+
+    @Override
+    protected boolean addActionIfNew(AbstractAction action, int nPlayers) {
+        if (slotOf(action) >= 0)
+            return false;
+        newSlot(action, nPlayers);
+        return true;
+    }
+
+    @Override
+    protected void initialiseActionStats(AbstractAction action, int visits, int validVisits, double[] totValue, double[] squaredTotValue) {
+        int slot = slotOrThrow(action);
+        this.visits[slot] = visits;
+        this.validVisits[slot] = validVisits;
+        System.arraycopy(totValue, 0, totValues, slot * nPlayers, nPlayers);
+        System.arraycopy(squaredTotValue, 0, squaredTotValues, slot * nPlayers, nPlayers);
+    }
+
+    @Override
+    public boolean hasStatsFor(AbstractAction action) {
+        return slotOf(action) >= 0;
+    }
+
+    @Override
+    public int actionStatsCount() {
+        return nActions;
+    }
+
+    @Override
+    public Collection<AbstractAction> actionsWithStats() {
+        if (actions == null)
+            return Collections.emptyList();
+        return Collections.unmodifiableList(Arrays.asList(actions).subList(0, nActions));
+    }
+
+    @Override
+    public ActionStats getActionStats(AbstractAction action) {
+        int slot = slotOf(action);
+        if (slot < 0)
+            return null;
+        ActionStats retValue = new ActionStats(nPlayers);
+        retValue.nVisits = visits[slot];
+        retValue.validVisits = validVisits[slot];
+        retValue.virtualLoss = virtualLosses[slot];
+        System.arraycopy(totValues, slot * nPlayers, retValue.totValue, 0, nPlayers);
+        System.arraycopy(squaredTotValues, slot * nPlayers, retValue.squaredTotValue, 0, nPlayers);
+        return retValue;
+    }
+
+    @Override
+    public int actionVisits(AbstractAction action) {
+        int slot = slotOf(action);
+        return slot < 0 ? 0 : visits[slot];
+    }
+
+    @Override
+    protected int actionValidVisits(AbstractAction action) {
+        int slot = slotOf(action);
+        return slot < 0 ? 0 : validVisits[slot];
+    }
+
+    @Override
+    public double actionTotValue(AbstractAction action, int playerId) {
+        int slot = slotOf(action);
+        return slot < 0 ? 0.0 : totValues[slot * nPlayers + playerId];
+    }
+
+    @Override
+    protected double actionSquaredValue(AbstractAction action, int playerId) {
+        int slot = slotOf(action);
+        return slot < 0 ? 0.0 : squaredTotValues[slot * nPlayers + playerId];
+    }
+
+    @Override
+    public double nodeValue(int playerId) {
+        if (nVisits == 0) return 0.0;
+        double total = 0.0;
+        for (int slot = 0; slot < nActions; slot++)
+            total += totValues[slot * nPlayers + playerId];
+        return total / nVisits;
+    }
+
+    @Override
+    int[] actionVisits() {
+        return visits == null ? new int[0] : Arrays.copyOf(visits, nActions);
+    }
+
+    @Override
+    protected void incrementValidVisits(AbstractAction action, int nPlayers) {
+        int slot = slotOf(action);
+        if (slot < 0)
+            slot = newSlot(action, nPlayers);
+        validVisits[slot]++;
+    }
+
+    @Override
+    protected void incrementAllValidVisits() {
+        for (int slot = 0; slot < nActions; slot++)
+            validVisits[slot]++;
+    }
+
+    @Override
+    protected void updateActionStats(AbstractAction action, double[] result) {
+        int slot = slotOrThrow(action);
+        int offset = slot * nPlayers;
+        for (int i = 0; i < result.length; i++) {
+            totValues[offset + i] += result[i];
+            squaredTotValues[offset + i] += result[i] * result[i];
+        }
+        visits[slot]++;
+    }
+
+    @Override
+    protected void addActionStats(AbstractAction action, ActionStats other) {
+        int slot = slotOf(action);
+        if (slot < 0)
+            slot = newSlot(action, other.totValue.length);
+        int offset = slot * nPlayers;
+        for (int i = 0; i < nPlayers; i++) {
+            totValues[offset + i] += other.totValue[i];
+            squaredTotValues[offset + i] += other.squaredTotValue[i];
+        }
+        visits[slot] += other.nVisits;
+        validVisits[slot] += other.validVisits;
+    }
+
+    @Override
+    protected void addVirtualLoss(AbstractAction action, int player, int n, double value) {
+        int slot = slotOrThrow(action);
+        virtualLosses[slot] += n;
+        visits[slot] += n;
+        validVisits[slot] += n;
+        totValues[slot * nPlayers + player] += n * value;
+    }
+
+    @Override
+    protected void removeVirtualLoss(AbstractAction action, int player, int n, double value) {
+        int slot = slotOrThrow(action);
+        virtualLosses[slot] -= n;
+        visits[slot] -= n;
+        validVisits[slot] -= n;
+        totValues[slot * nPlayers + player] -= n * value;
+    }
+
+    @Override
+    protected void addChildPlaceholder(AbstractAction action) {
+        // the slot added for the action has no children until they are set
+    }
+
+    @Override
+    protected SingleTreeNode[] childrenFor(AbstractAction action) {
+        int slot = slotOf(action);
+        return slot < 0 ? null : childrenBySlot[slot];
+    }
+
+    @Override
+    protected void setChildren(AbstractAction action, SingleTreeNode[] nodes) {
+        int slot = slotOf(action);
+        if (slot < 0)
+            slot = newSlot(action, nodes.length);
+        childrenBySlot[slot] = nodes;
+    }
+
+    @Override
+    protected Collection<SingleTreeNode[]> childArrays() {
+        if (childrenBySlot == null)
+            return Collections.emptyList();
+        return Arrays.asList(childrenBySlot).subList(0, nActions);
+    }
+
+    @Override
+    public Map<AbstractAction, SingleTreeNode[]> getChildren() {
+        Map<AbstractAction, SingleTreeNode[]> retValue = new LinkedHashMap<>();
+        for (int slot = 0; slot < nActions; slot++)
+            retValue.put(actions[slot], childrenBySlot[slot]);
+        return retValue;
+    }
+}
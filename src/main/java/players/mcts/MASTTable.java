@@ -0,0 +1,269 @@
+package players.mcts;
+
+import core.actions.AbstractAction;
+import core.interfaces.IActionKey;
+
+import java.util.Arrays;
+
+/**
+ * The MAST statistics (visits and total value of each action, for each player).
+ * <p>
+ * Actions are keyed by IActionKey.hash() (or the action's own hashCode() if there is no IActionKey), and for each
+ * player these are held in an open-addressing hash table of primitive arrays, so that neither looking up an action
+ * (on the rollout hot path) nor updating one creates any objects. Two actions with the same hash share statistics.
+ * <p>
+ * decay() is applied lazily: it just records the discount, and each entry catches up with any decays it has not
+ * yet had when it is next updated (reads calculate the decayed values without changing the entry).
+ * The decay itself is the same as Utils.decay(): the count is multiplied by gamma and rounded down, and the total
+ * value scaled to keep the same mean.
+ */
+public class MASTTable {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final PlayerTable[] tables;
+    // the gamma of each decay() so far; an entry with epoch e has had the first e of these applied
+    private double[] decays = new double[4];
+    private int epoch;
+
+    public MASTTable(int nPlayers) {
+        tables = new PlayerTable[nPlayers];
+        for (int p = 0; p < nPlayers; p++)
+            tables[p] = new PlayerTable(INITIAL_CAPACITY);
+    }
+
+    /**
+     * @return the key to use for the action: actionKey.hash(action), or action.hashCode() if actionKey is null
+     */
+    public static int key(IActionKey actionKey, AbstractAction action) {
+        return actionKey == null ? action.hashCode() : actionKey.hash(action);
+    }
+
+    public int nPlayers() {
+        return tables.length;
+    }
+
+    /**
+     * Adds one visit with the given value to the statistics for the key
+     */
+    public void update(int player, int key, double value) {
+        PlayerTable table = tables[player];
+        int slot = table.findOrInsert(key, epoch);
+        catchUp(table, slot);
+        table.counts[slot]++;
+        table.totals[slot] += value;
+    }
+
+    /**
+     * @return the mean value for the key, or defaultValue if it has no visits
+     */
+    public double value(int player, int key, double defaultValue) {
+        PlayerTable table = tables[player];
+        int slot = table.find(key);
+        if (slot < 0)
+            return defaultValue;
+        int count = table.counts[slot];
+        double total = table.totals[slot];
+        for (int e = table.epochs[slot]; e < epoch && count > 0; e++) {
+            int newCount = decayedCount(count, decays[e]);
+            total = total * newCount / count;
+            count = newCount;
+        }
+        return count > 0 ? total / count : defaultValue;
+    }
+
+    /**
+     * @return the number of visits for the key (0 if it has none)
+     */
+    public int count(int player, int key) {
+        PlayerTable table = tables[player];
+        int slot = table.find(key);
+        if (slot < 0)
+            return 0;
+        int count = table.counts[slot];
+        for (int e = table.epochs[slot]; e < epoch && count > 0; e++)
+            count = decayedCount(count, decays[e]);
+        return count;
+    }
+
+    /**
+     * @return the total value for the key (0.0 if it has no visits)
+     */
+    public double total(int player, int key) {
+        PlayerTable table = tables[player];
+        int slot = table.find(key);
+        if (slot < 0)
+            return 0.0;
+        int count = table.counts[slot];
+        double total = table.totals[slot];
+        for (int e = table.epochs[slot]; e < epoch && count > 0; e++) {
+            int newCount = decayedCount(count, decays[e]);
+            total = total * newCount / count;
+            count = newCount;
+        }
+        return count > 0 ? total : 0.0;
+    }
+
+    public boolean contains(int player, int key) {
+        return tables[player].find(key) >= 0;
+    }
+
+    /**
+     * @return the number of keys with statistics for the player
+     */
+    public int size(int player) {
+        return tables[player].size;
+    }
+
+    /**
+     * Discounts all the statistics by gamma (if it is between 0 and 1; otherwise this does nothing)
+     */
+    public void decay(double gamma) {
+        if (gamma < 0.0 || gamma >= 1.0)
+            return;
+        if (epoch == decays.length)
+            decays = Arrays.copyOf(decays, epoch * 2);
+        decays[epoch++] = gamma;
+    }
+
+    /**
+     * Adds all the statistics in other (after any decay) to this table
+     */
+    public void merge(MASTTable other) {
+        for (int p = 0; p < tables.length; p++) {
+            PlayerTable source = other.tables[p];
+            PlayerTable target = tables[p];
+            for (int i = 0; i < source.keys.length; i++) {
+                if (!source.occupied[i])
+                    continue;
+                int key = source.keys[i];
+                int count = other.count(p, key);
+                double total = other.total(p, key);
+                int slot = target.findOrInsert(key, epoch);
+                catchUp(target, slot);
+                target.counts[slot] += count;
+                target.totals[slot] += total;
+            }
+        }
+    }
+
+    public MASTTable copy() {
+        PlayerTable[] tableCopies = new PlayerTable[tables.length];
+        for (int p = 0; p < tables.length; p++)
+            tableCopies[p] = tables[p].copy();
+        return new MASTTable(tableCopies, decays.clone(), epoch);
+    }
+
+    private MASTTable(PlayerTable[] tables, double[] decays, int epoch) {
+        this.tables = tables;
+        this.decays = decays;
+        this.epoch = epoch;
+    }
+
+    private static int decayedCount(int count, double gamma) {
+        return (int) (count * gamma);
+    }
+
+    // applies any decays the entry has not yet had
+    private void catchUp(PlayerTable table, int slot) {
+        int count = table.counts[slot];
+        double total = table.totals[slot];
+        for (int e = table.epochs[slot]; e < epoch; e++) {
+            if (count == 0) {
+                total = 0.0;
+                break;
+            }
+            int newCount = decayedCount(count, decays[e]);
+            total = total * newCount / count;
+            count = newCount;
+        }
+        table.counts[slot] = count;
+        table.totals[slot] = total;
+        table.epochs[slot] = epoch;
+    }
+
+    /**
+     * Linear probing hash table from an int key to (count, total, epoch), for one player
+     */
+    private static class PlayerTable {
+        int[] keys;
+        boolean[] occupied;
+        int[] counts;
+        double[] totals;
+        int[] epochs;
+        int size;
+
+        PlayerTable(int capacity) {
+            keys = new int[capacity];
+            occupied = new boolean[capacity];
+            counts = new int[capacity];
+            totals = new double[capacity];
+            epochs = new int[capacity];
+        }
+
+        private static int slotFor(int key, int mask) {
+            int h = key * 0x9E3779B9;
+            return (h ^ (h >>> 16)) & mask;
+        }
+
+        int find(int key) {
+            int mask = keys.length - 1;
+            for (int slot = slotFor(key, mask); occupied[slot]; slot = (slot + 1) & mask) {
+                if (keys[slot] == key)
+                    return slot;
+            }
+            return -1;
+        }
+
+        // a new entry starts at the current epoch, as there is nothing to decay
+        int findOrInsert(int key, int epoch) {
+            if ((size + 1) * 2 > keys.length)
+                resize(keys.length * 2);
+            int mask = keys.length - 1;
+            int slot = slotFor(key, mask);
+            while (occupied[slot]) {
+                if (keys[slot] == key)
+                    return slot;
+                slot = (slot + 1) & mask;
+            }
+            occupied[slot] = true;
+            keys[slot] = key;
+            epochs[slot] = epoch;
+            size++;
+            return slot;
+        }
+
+        private void resize(int capacity) {
+            PlayerTable bigger = new PlayerTable(capacity);
+            int mask = capacity - 1;
+            for (int i = 0; i < keys.length; i++) {
+                if (!occupied[i])
+                    continue;
+                int slot = slotFor(keys[i], mask);
+                while (bigger.occupied[slot])
+                    slot = (slot + 1) & mask;
+                bigger.occupied[slot] = true;
+                bigger.keys[slot] = keys[i];
+                bigger.counts[slot] = counts[i];
+                bigger.totals[slot] = totals[i];
+                bigger.epochs[slot] = epochs[i];
+            }
+            keys = bigger.keys;
+            occupied = bigger.occupied;
+            counts = bigger.counts;
+            totals = bigger.totals;
+            epochs = bigger.epochs;
+        }
+
+        PlayerTable copy() {
+            PlayerTable retValue = new PlayerTable(0);
+            retValue.keys = keys.clone();
+            retValue.occupied = occupied.clone();
+            retValue.counts = counts.clone();
+            retValue.totals = totals.clone();
+            retValue.epochs = epochs.clone();
+            retValue.size = size;
+            return retValue;
+        }
+    }
+}
@@ -2,13 +2,38 @@ package players.mcts;
 
 import core.AbstractGameState;
 import core.actions.AbstractAction;
+import utilities.LongObjectMap;
 
 import java.util.*;
 
+/**
+ * Monte Carlo Graph Search. Nodes are held in a transposition table on the root, so that the same state reached by
+ * different routes maps to the same node.
+ * <p>
+ * The table is keyed by MCTSParams.MCGSStateKey (a String) by default. If MCTSParams.MCGSStateHash is set, then
+ * this is used instead, with a primitive long-keyed table (which avoids building and hashing a String for every
+ * lookup). Each node then also records IStateHash.getCheckHash() of its state, and a state found by its hash is only
+ * given that node if this matches too; so two different states with the same 64-bit hash get separate nodes (which
+ * are chained from the table entry for the hash), and this is counted in getHashCollisions().
+ * If MCTSParams.MCGSCheckKeys is set as well as MCGSStateKey, then the String key is also compared for every state
+ * found by its hash, to check the IStateHash; this is slow, and is only for debugging.
+ */
 public class MCGSNode extends SingleTreeNode {
 
+    // Only used if MCGSStateHash is not set
     private Map<String, MCGSNode> transpositionMap = new HashMap<>();
     public List<String> trajectory = new ArrayList<>();
+    // Used instead of transpositionMap and trajectory if MCGSStateHash is set; these are only created on the root
+    private LongObjectMap<MCGSNode> hashTable;
+    private MCGSNode[] nodeTrajectory;
+    private int nodeTrajectorySize;
+    private int hashCollisions;
+    // The key of this node in the table (whichever is in use); if MCGSStateHash is set, key is only used by MCGSCheckKeys
+    private String key;
+    private long hash;
+    private long checkHash;
+    // The next node with the same hash (but a different check hash) as this one
+    private MCGSNode nextWithSameHash;
 
     protected MCGSNode() {
     }
@@ -21,16 +46,105 @@ public class MCGSNode extends SingleTreeNode {
         addToTranspositionTable(this, state);
     }
 
+    private boolean useHash() {
+        return params.MCGSStateHash != null;
+    }
+
+    private boolean checkKeys() {
+        return params.MCGSCheckKeys && params.MCGSStateKey != null;
+    }
+
     private void addToTranspositionTable(MCGSNode node, AbstractGameState keyState) {
-        String key = params.MCGSStateKey.getKey(keyState);
         MCGSNode graphRoot = (MCGSNode) root;
+        if (useHash()) {
+            node.hash = params.MCGSStateHash.getHash(keyState);
+            node.checkHash = params.MCGSStateHash.getCheckHash(keyState);
+            if (checkKeys())
+                node.key = params.MCGSStateKey.getKey(keyState);
+            if (graphRoot.hashTable == null)
+                graphRoot.hashTable = new LongObjectMap<>();
+            MCGSNode first = graphRoot.hashTable.get(node.hash);
+            if (first != null) {
+                // a different state has this hash (else getGraphNode() would have found it)
+                graphRoot.hashCollisions++;
+                node.nextWithSameHash = first;
+            }
+            graphRoot.hashTable.put(node.hash, node);
+            return;
+        }
+        String key = params.MCGSStateKey.getKey(keyState);
         if (graphRoot.transpositionMap.containsKey(key)) {
             throw new AssertionError("Unexpected?");
         }
         graphRoot.transpositionMap.put(key, node);
+        node.key = key;
         //   System.out.println("Adding to transposition table: " + key);
     }
 
+    /**
+     * @return the node in the graph for this state (or null if there is none)
+     */
+    public MCGSNode getGraphNode(AbstractGameState state) {
+        MCGSNode graphRoot = (MCGSNode) root;
+        if (useHash()) {
+            MCGSNode node = graphRoot.hashTable == null ? null : graphRoot.hashTable.get(params.MCGSStateHash.getHash(state));
+            if (node == null)
+                return null;
+            // we check this is the same state, and not a different one with the same hash
+            long checkHash = params.MCGSStateHash.getCheckHash(state);
+            while (node != null && node.checkHash != checkHash)
+                node = node.nextWithSameHash;
+            if (node != null && checkKeys() && !node.key.equals(params.MCGSStateKey.getKey(state)))
+                throw new AssertionError("Different states with the same hash and check hash: " + node.key +
+                        " and " + params.MCGSStateKey.getKey(state));
+            return node;
+        }
+        return graphRoot.transpositionMap.get(params.MCGSStateKey.getKey(state));
+    }
+
+    /**
+     * @return all the nodes in the graph
+     */
+    public Collection<MCGSNode> graphNodes() {
+        MCGSNode graphRoot = (MCGSNode) root;
+        if (useHash()) {
+            if (graphRoot.hashTable == null)
+                return Collections.emptyList();
+            if (graphRoot.hashCollisions == 0)
+                return graphRoot.hashTable.values();
+            List<MCGSNode> retValue = new ArrayList<>();
+            for (MCGSNode first : graphRoot.hashTable.values())
+                for (MCGSNode node = first; node != null; node = node.nextWithSameHash)
+                    retValue.add(node);
+            return retValue;
+        }
+        return graphRoot.transpositionMap.values();
+    }
+
+    /**
+     * Removes a node from the graph (this is used to prune the graph when it is reused for the next decision)
+     */
+    public void removeFromGraph(MCGSNode node) {
+        MCGSNode graphRoot = (MCGSNode) root;
+        if (useHash()) {
+            MCGSNode first = graphRoot.hashTable.get(node.hash);
+            if (first == node) {
+                if (node.nextWithSameHash == null)
+                    graphRoot.hashTable.remove(node.hash);
+                else
+                    graphRoot.hashTable.put(node.hash, node.nextWithSameHash);
+            } else {
+                MCGSNode previous = first;
+                while (previous != null && previous.nextWithSameHash != node)
+                    previous = previous.nextWithSameHash;
+                if (previous != null)
+                    previous.nextWithSameHash = node.nextWithSameHash;
+            }
+            node.nextWithSameHash = null;
+        } else
+            graphRoot.transpositionMap.remove(node.key);
+    }
+
     /**
      * Expands the node by creating a new child node for the action taken and adding to the tree.
      *
@@ -42,13 +156,11 @@ public class MCGSNode extends SingleTreeNode {
 
         // we create the new node here; so that the backup does not create new nodes (which is in line with the main MCTS algorithm).
         // this enforces (for the moment) the rule that each iteration adds one new node.
-        MCGSNode graphRoot = (MCGSNode) root;
-        String key = params.MCGSStateKey.getKey(nextState);
-        if (graphRoot.transpositionMap.containsKey(key)) {
+        MCGSNode retValue = getGraphNode(nextState);
+        if (retValue != null) {
             if (params.MCGSExpandAfterClash) {
                 throw new AssertionError("Unexpected?");
             } else {
-                MCGSNode retValue = graphRoot.transpositionMap.get(key);
                 retValue.setActionsFromOpenLoopState(openLoopState);
                 return retValue;
             }
@@ -59,11 +171,10 @@ public class MCGSNode extends SingleTreeNode {
     @Override
     protected SingleTreeNode nextNodeInTree(AbstractAction actionChosen) {
         // we look up the node in the transposition table using the feature vector for the openLoopState
-        String key = params.MCGSStateKey.getKey(openLoopState);
-        MCGSNode nextNode = ((MCGSNode) root).transpositionMap.get(key);
+        MCGSNode nextNode = getGraphNode(openLoopState);
 
         if (nextNode != null) {
-            if (actionValues.get(actionChosen).nVisits == 0) {
+            if (actionVisits(actionChosen) == 0) {
                 root.nodeClash++;
                 if (!params.MCGSExpandAfterClash) {
                     // we then return null so we rollout from this point
@@ -83,8 +194,17 @@ public class MCGSNode extends SingleTreeNode {
             // We only track this while in the tree (we could do the rollout as well, but at the overhead
             // of featureVector calculations
             MCGSNode mcgsRoot = (MCGSNode) root;
-            String key = params.MCGSStateKey.getKey(gs);
-            mcgsRoot.trajectory.add(key);
+            if (useHash()) {
+                // gs is the state of this node, so we record the node itself (which also copes with hash collisions)
+                if (mcgsRoot.nodeTrajectory == null)
+                    mcgsRoot.nodeTrajectory = new MCGSNode[16];
+                else if (mcgsRoot.nodeTrajectorySize == mcgsRoot.nodeTrajectory.length)
+                    mcgsRoot.nodeTrajectory = Arrays.copyOf(mcgsRoot.nodeTrajectory, mcgsRoot.nodeTrajectorySize * 2);
+                mcgsRoot.nodeTrajectory[mcgsRoot.nodeTrajectorySize++] = this;
+            } else {
+                String key = params.MCGSStateKey.getKey(gs);
+                mcgsRoot.trajectory.add(key);
+            }
 //            System.out.println("Adding to trajectory: " + key);
         }
         super.advanceState(gs, act, inRollout);
@@ -95,7 +215,7 @@ public class MCGSNode extends SingleTreeNode {
         int depthDelta = depth;
         root = this;
         depth = 0;
-        for (MCGSNode node : transpositionMap.values()) {
+        for (MCGSNode node : graphNodes()) {
             node.depth -= depthDelta;
             node.root = this;
         }
@@ -111,14 +231,14 @@ public class MCGSNode extends SingleTreeNode {
         double[] result = processResultsForParanoidOrSelfOnly(delta);
         MCGSNode nRoot = (MCGSNode) root;
         // trajectory is the sequence of state representations that we have passed through
-        if (nRoot.trajectory.size() != nRoot.actionsInTree.size()) {
+        int trajectorySize = useHash() ? nRoot.nodeTrajectorySize : nRoot.trajectory.size();
+        if (trajectorySize != nRoot.actionsInTree.size()) {
             throw new AssertionError("Trajectory and actionsInTree should be the same size " +
-                    nRoot.trajectory.size() + " != " + nRoot.actionsInTree.size());
+                    trajectorySize + " != " + nRoot.actionsInTree.size());
         }
 
-        for (int i = nRoot.trajectory.size() - 1; i >= 0; i--) {
-            String key = nRoot.trajectory.get(i);
-            MCGSNode node = nRoot.transpositionMap.get(key);
+        for (int i = trajectorySize - 1; i >= 0; i--) {
+            MCGSNode node = useHash() ? nRoot.nodeTrajectory[i] : nRoot.transpositionMap.get(nRoot.trajectory.get(i));
             AbstractAction action = nRoot.actionsInTree.get(i).b;
             if (node == null) {
                 throw new AssertionError("Node should not be null");
@@ -126,14 +246,31 @@ public class MCGSNode extends SingleTreeNode {
             result = node.backUpSingleNode(action, result);
         }
         nRoot.trajectory.clear();
+        if (nRoot.nodeTrajectory != null) {
+            Arrays.fill(nRoot.nodeTrajectory, 0, nRoot.nodeTrajectorySize, null);
+            nRoot.nodeTrajectorySize = 0;
+        }
+    }
+
+    /**
+     * @return the number of states added to the graph with the same MCGSStateHash as a different state already in it
+     * (that is, with a different check hash)
+     */
+    public int getHashCollisions() {
+        return ((MCGSNode) root).hashCollisions;
     }
 
     public Map<String, MCGSNode> getTranspositionMap() {
         return transpositionMap;
     }
 
-    public void setTranspositionMap(Map<String, MCGSNode> transposition) {
-        transpositionMap = transposition;
+    /**
+     * Takes over the graph of another node (when this becomes the new root)
+     */
+    public void setTranspositionTable(MCGSNode oldRoot) {
+        transpositionMap = oldRoot.transpositionMap;
+        hashTable = oldRoot.hashTable;
+        hashCollisions = oldRoot.hashCollisions;
     }
 
 }
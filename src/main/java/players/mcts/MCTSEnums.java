@@ -41,6 +41,15 @@ public class MCTSEnums {
         // END_TURN|ROUND is triggered when the game round/turn changes
     }
 
+    public enum Parallelism {
+        None, Root, Tree
+        // None runs the search on a single thread
+        // Root runs nThreads independent searches (each with its own tree) and merges the statistics at the root before choosing an action
+        // Tree has nThreads threads working on a single shared tree. Selection, expansion and backup are done under a lock
+        // with rollouts run in parallel; virtual loss is used to spread the threads over different parts of the tree.
+        // In both cases the budget applies to the search as a whole, not to each thread
+    }
+
     public enum OpponentTreePolicy {
         SelfOnly(true), OneTree(false),
         MultiTree(true),
@@ -56,6 +56,8 @@ public class MCTSParams extends PlayerParameters {
     public IStateHeuristic heuristic = AbstractGameState::getHeuristicScore;
     public IActionKey MASTActionKey;
     public IStateKey MCGSStateKey;
+    public IStateHash MCGSStateHash;  // if set, this is used instead of MCGSStateKey
+    public boolean MCGSCheckKeys = false;  // for debugging an MCGSStateHash: also compare MCGSStateKey (slow)
     public boolean MCGSExpandAfterClash = true;
     public double firstPlayUrgency = 1000000000.0;
     @NotNull public IActionHeuristic actionHeuristic = IActionHeuristic.nullReturn;
@@ -71,6 +73,10 @@ public class MCTSParams extends PlayerParameters {
     public MCTSEnums.BackupPolicy backupPolicy = MCTSEnums.BackupPolicy.MonteCarlo;
     public double backupLambda = 1.0;
     public int maxBackupThreshold = 1000000;
+    public MCTSEnums.Parallelism parallelism = MCTSEnums.Parallelism.None;
+    public int nThreads = 1;  // only used if parallelism is not None
+    public int virtualLoss = 1;  // the number of losses added to each action on the path of an in-progress iteration (Tree parallelism only)
+    public boolean compactNodes = false;  // if true then nodes store their statistics in primitive arrays (see CompactTreeNode)
 
 
     public MCTSParams() {
@@ -108,6 +114,8 @@ public class MCTSParams extends PlayerParameters {
         addTunableParameter("MASTActionKey", IActionKey.class);
         addTunableParameter("MASTDefaultValue", 0.0);
         addTunableParameter("MCGSStateKey", IStateKey.class);
+        addTunableParameter("MCGSStateHash", IStateHash.class);
+        addTunableParameter("MCGSCheckKeys", false);
         addTunableParameter("MCGSExpandAfterClash", true);
         addTunableParameter("FPU", 1000000000.0);
         addTunableParameter("actionHeuristic",  IActionHeuristic.nullReturn);
@@ -120,6 +128,10 @@ public class MCTSParams extends PlayerParameters {
         addTunableParameter("backupPolicy", MCTSEnums.BackupPolicy.MonteCarlo, Arrays.asList(MCTSEnums.BackupPolicy.values()));
         addTunableParameter("backupLambda", 1.0);
         addTunableParameter("maxBackupThreshold", 1000000);
+        addTunableParameter("parallelism", MCTSEnums.Parallelism.None, Arrays.asList(MCTSEnums.Parallelism.values()));
+        addTunableParameter("nThreads", 1);
+        addTunableParameter("virtualLoss", 1);
+        addTunableParameter("compactNodes", false);
     }
 
     @Override
@@ -163,6 +175,8 @@ public class MCTSParams extends PlayerParameters {
         actionHeuristic = (IActionHeuristic) getParameterValue("actionHeuristic");
         heuristic = (IStateHeuristic) getParameterValue("heuristic");
         MCGSStateKey = (IStateKey) getParameterValue("MCGSStateKey");
+        MCGSStateHash = (IStateHash) getParameterValue("MCGSStateHash");
+        MCGSCheckKeys = (boolean) getParameterValue("MCGSCheckKeys");
         MCGSExpandAfterClash = (boolean) getParameterValue("MCGSExpandAfterClash");
         rolloutPolicyParams = (TunableParameters) getParameterValue("rolloutPolicyParams");
         opponentModelParams = (TunableParameters) getParameterValue("opponentModelParams");
@@ -174,6 +188,10 @@ public class MCTSParams extends PlayerParameters {
         backupPolicy = (MCTSEnums.BackupPolicy) getParameterValue("backupPolicy");
         backupLambda = (double) getParameterValue("backupLambda");
         maxBackupThreshold = (int) getParameterValue("maxBackupThreshold");
+        parallelism = (MCTSEnums.Parallelism) getParameterValue("parallelism");
+        nThreads = (int) getParameterValue("nThreads");
+        virtualLoss = (int) getParameterValue("virtualLoss");
+        compactNodes = (boolean) getParameterValue("compactNodes");
         opponentModel = null;
         rolloutPolicy = null;
         useMASTAsActionHeuristic = (boolean) getParameterValue("useMASTAsActionHeuristic");
@@ -10,7 +10,6 @@ import core.interfaces.IStateHeuristic;
 import evaluation.metrics.Event;
 import players.IAnyTimePlayer;
 import utilities.Pair;
-import utilities.Utils;
 
 import java.util.*;
 import java.util.function.BiFunction;
@@ -27,8 +26,8 @@ public class MCTSPlayer extends AbstractPlayer implements IAnyTimePlayer {
     protected boolean debug = false;
     protected SingleTreeNode root;
     protected AbstractAction lastAction;
-    List<Map<Object, Pair<Integer, Double>>> MASTStats;
-    Map<String, Integer> oldGraphKeys = new HashMap<>();
+    MASTTable MASTStats;
+    Map<MCGSNode, Integer> oldGraphVisits = new HashMap<>();
 
     public MCTSPlayer() {
         this(new MCTSParams());
@@ -62,7 +61,7 @@ public class MCTSPlayer extends AbstractPlayer implements IAnyTimePlayer {
             ((AbstractPlayer) getParameters().actionHeuristic).initializePlayer(state);
         MASTStats = null;
         root = null;
-        oldGraphKeys = new HashMap<>();
+        oldGraphVisits = new HashMap<>();
         getParameters().getRolloutStrategy().initializePlayer(state);
         getParameters().getOpponentModel().initializePlayer(state);
     }
@@ -78,6 +77,8 @@ public class MCTSPlayer extends AbstractPlayer implements IAnyTimePlayer {
                 return new OMATreeNode();
             else if (getParameters().opponentTreePolicy == MCGS || getParameters().opponentTreePolicy == MCGSSelfOnly)
                 return new MCGSNode();
+            else if (getParameters().compactNodes)
+                return new CompactTreeNode();
             else
                 return new SingleTreeNode();
         };
@@ -120,33 +121,33 @@ public class MCTSPlayer extends AbstractPlayer implements IAnyTimePlayer {
         if (params.reuseTree && (params.opponentTreePolicy == MCGS || params.opponentTreePolicy == MCGSSelfOnly)) {
             // In this case we remove any nodes from the graph that were not present before the last action was taken
             MCGSNode mcgsRoot = (MCGSNode) root;
-            for (String key : oldGraphKeys.keySet()) {
-                int oldVisits = oldGraphKeys.get(key);
-                int newVisits = mcgsRoot.getTranspositionMap().get(key) != null ? mcgsRoot.getTranspositionMap().get(key).nVisits : 0;
+            for (MCGSNode node : oldGraphVisits.keySet()) {
+                int oldVisits = oldGraphVisits.get(node);
+                int newVisits = node.nVisits;
                 if (newVisits == oldVisits) {
                     // no change, so remove
-                    mcgsRoot.getTranspositionMap().remove(key);
+                    mcgsRoot.removeFromGraph(node);
                 } else if (newVisits < oldVisits) {
                     throw new AssertionError("Unexpectedly fewer visits to a state than before");
                 }
             }
             // then reset the old keys
             if (mcgsRoot == null) {
-                oldGraphKeys = new HashMap<>();
+                oldGraphVisits = new HashMap<>();
                 return null;
             }
 
-            oldGraphKeys = mcgsRoot.getTranspositionMap().entrySet().stream()
-                    .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().nVisits));
+            oldGraphVisits = mcgsRoot.graphNodes().stream()
+                    .collect(Collectors.toMap(n -> n, n -> n.nVisits));
             // we create the root node as we would have done normally; and then override the transposition map
-            MCGSNode retValue = ((MCGSNode) root).getTranspositionMap().get(params.MCGSStateKey.getKey(gameState));
+            MCGSNode retValue = mcgsRoot.getGraphNode(gameState);
             if (retValue == null) {
                 // have left graph; start from scratch
-                oldGraphKeys = new HashMap<>();
+                oldGraphVisits = new HashMap<>();
                 return null;
             }
             retValue.instantiate(null, null, gameState);
-            retValue.setTranspositionMap(mcgsRoot.getTranspositionMap());
+            retValue.setTranspositionTable(mcgsRoot);
             retValue.rootify(root);
             return retValue;
         }
@@ -210,10 +211,8 @@ public class MCTSPlayer extends AbstractPlayer implements IAnyTimePlayer {
                     nextActionPlayer = selfOnly ? rootPlayer : nextActionPlayer;
                     if (debug)
                         System.out.println("\tAction: " + action.toString() + "\t Next Player: " + nextActionPlayer);
-                    if (newRoot.children != null && newRoot.children.get(action) != null)
-                        newRoot = newRoot.children.get(action)[nextActionPlayer];
-                    else
-                        newRoot = null;
+                    SingleTreeNode[] nextNodes = newRoot.childrenFor(action);
+                    newRoot = nextNodes == null ? null : nextNodes[nextActionPlayer];
                     if (newRoot == null)
                         break;
                 }
@@ -235,10 +234,11 @@ public class MCTSPlayer extends AbstractPlayer implements IAnyTimePlayer {
         } else {
             root = newRoot;
         }
-        if (MASTStats != null && getParameters().MASTGamma > 0.0)
-            root.MASTStatistics = MASTStats.stream()
-                    .map(m -> Utils.decay(m, getParameters().MASTGamma))
-                    .collect(Collectors.toList());
+        if (MASTStats != null && getParameters().MASTGamma > 0.0) {
+            // the old root is discarded, so we can decay its statistics in place
+            MASTStats.decay(getParameters().MASTGamma);
+            root.MASTStatistics = MASTStats;
+        }
 
         if (getParameters().getRolloutStrategy() instanceof IMASTUser) {
             ((IMASTUser) getParameters().getRolloutStrategy()).setStats(root.MASTStatistics);
@@ -255,7 +255,10 @@ public class MCTSPlayer extends AbstractPlayer implements IAnyTimePlayer {
         createRootNode(gameState);
         long timeTaken = System.nanoTime() - currentTimeNano;
 
-        root.mctsSearch(timeTaken / 1000000);
+        if (getParameters().parallelism != MCTSEnums.Parallelism.None && getParameters().nThreads > 1)
+            new ParallelSearch(this, root).search(timeTaken / 1000000);
+        else
+            root.mctsSearch(timeTaken / 1000000);
 
         if (getParameters().actionHeuristic instanceof ITreeProcessor)
             ((ITreeProcessor) getParameters().actionHeuristic).process(root);
@@ -274,8 +277,8 @@ public class MCTSPlayer extends AbstractPlayer implements IAnyTimePlayer {
         }
         MASTStats = root.MASTStatistics;
 
-        if (root.children.size() > 2 * actions.size() && !(root instanceof MCGSNode) && !getParameters().reuseTree && !getParameters().actionSpace.equals(gameState.getCoreGameParameters().actionSpace))
-            throw new AssertionError(String.format("Unexpectedly large number of children: %d with action size of %d", root.children.size(), actions.size()));
+        if (root.childArrays().size() > 2 * actions.size() && !(root instanceof MCGSNode) && !getParameters().reuseTree && !getParameters().actionSpace.equals(gameState.getCoreGameParameters().actionSpace))
+            throw new AssertionError(String.format("Unexpectedly large number of children: %d with action size of %d", root.childArrays().size(), actions.size()));
         lastAction = root.bestAction();
         return lastAction.copy();
     }
@@ -313,8 +316,8 @@ public class MCTSPlayer extends AbstractPlayer implements IAnyTimePlayer {
         Map<AbstractAction, Map<String, Object>> retValue = new LinkedHashMap<>();
 
         if (root != null && root.getVisits() > 1) {
-            for (AbstractAction action : root.actionValues.keySet()) {
-                ActionStats stats = root.actionValues.get(action);
+            for (AbstractAction action : root.actionsWithStats()) {
+                ActionStats stats = root.getActionStats(action);
                 int visits = stats == null ? 0 : stats.nVisits;
                 double visitProportion = visits / (double) root.getVisits();
                 double meanValue = stats == null || visits == 0 ? 0.0 : stats.totValue[root.decisionPlayer] / visits;
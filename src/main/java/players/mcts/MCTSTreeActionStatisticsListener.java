@@ -88,7 +88,7 @@ public class MCTSTreeActionStatisticsListener extends ActionFeatureListener {
                 actionTargets.get("ACTION_VISITS").put(action, (double) node.actionVisits(action));
                 actionTargets.get("ACTIONS_TOTAL").put(action, (double) actionsFromState.size());
                 actionTargets.get("PLAYER").put(action, (double) player);
-                if (node.actionValues.get(action) == null) {
+                if (!node.hasStatsFor(action)) {
                     actionTargets.get("CHOSEN").put(action, 0.0);  // we have no data for this action
                     actionTargets.get("VISIT_PROPORTION").put(action, 0.0);  // we have no data for this action
                     actionTargets.get("ADVANTAGE").put(action, 0.0);  // we have no data for this action
@@ -115,7 +115,7 @@ public class MCTSTreeActionStatisticsListener extends ActionFeatureListener {
                 processStateWithTargets(node.state, bestAction, actionTargets);
 
             // add children of current node to queue if they meet the criteria
-            for (SingleTreeNode child : node.children.values().stream()
+            for (SingleTreeNode child : node.childArrays().stream()
                     .filter(Objects::nonNull)
                     .flatMap(Arrays::stream)
                     .filter(Objects::nonNull)
@@ -0,0 +1,301 @@
+package players.mcts;
+
+import core.AbstractGameState;
+import core.actions.AbstractAction;
+import players.PlayerConstants;
+import utilities.Pair;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
+
+import static players.PlayerConstants.*;
+import static players.mcts.MCTSEnums.OpponentTreePolicy.*;
+
+/**
+ * Runs the MCTS search for a decision on several threads, as specified by MCTSParams.parallelism and nThreads.
+ * <p>
+ * With Root parallelisation each thread builds its own independent tree (with its own random seed, forward model,
+ * rollout policy and opponent model). Once they have all finished, the statistics at the root of each tree are added
+ * to those of the main root, from which bestAction() then chooses as usual.
+ * <p>
+ * With Tree parallelisation all threads work on the single main tree. Selection/expansion and backup are done while
+ * holding a lock on the root (as is any copy of a state in the tree); the rollouts (usually the most expensive part of an iteration) run concurrently
+ * from detached nodes. Virtual loss is applied to every action on the path of an iteration that is still in progress,
+ * so that other threads are pushed to explore elsewhere. This is only supported for the simple SingleTreeNode trees
+ * (OneTree and SelfOnly opponentTreePolicy), and not with MAST rollouts.
+ * <p>
+ * In both cases the budget is for the search as a whole. A time budget is a wall-clock limit shared by all threads.
+ * Iteration and FM/copy call budgets are split evenly between the trees with Root parallelisation (so that, for a given
+ * seed, the result is reproducible as long as the game does not draw random numbers during the search), and are a
+ * single shared counter with Tree parallelisation (when a few calls may be made over budget by the iterations in
+ * progress on other threads when it runs out).
+ */
+public class ParallelSearch {
+
+    private final MCTSPlayer player;
+    private final SingleTreeNode root;
+    private final MCTSParams params;
+    private final int nThreads;
+
+    public ParallelSearch(MCTSPlayer player, SingleTreeNode root) {
+        this.player = player;
+        this.root = root;
+        this.params = player.getParameters();
+        this.nThreads = params.nThreads;
+    }
+
+    /**
+     * Runs the search, after which bestAction() can be called on the root in the usual way.
+     *
+     * @param initialisationTime - time already taken (in ms) from the budget in creating the root
+     */
+    public void search(long initialisationTime) {
+        root.initialiseRootMetrics();
+        root.initialisationTimeTaken = initialisationTime;
+        long startTime = System.nanoTime();
+        long deadline = startTime + (params.budget - initialisationTime) * 1000000L;
+        switch (params.parallelism) {
+            case Root -> rootParallelSearch(deadline);
+            case Tree -> treeParallelSearch(deadline);
+            default -> throw new AssertionError("Unexpected parallelism " + params.parallelism);
+        }
+        root.timeTaken = (System.nanoTime() - startTime) / 1e6;
+    }
+
+    private void rootParallelSearch(long deadline) {
+        List<MCTSPlayer> workers = new ArrayList<>();
+        List<SearchBudget> budgets = new ArrayList<>();
+        for (int i = 0; i < nThreads; i++) {
+            MCTSPlayer worker = createWorker(root.rnd.nextLong());
+            // copying a state can change it (for example Deck.copyOnWrite() marks the decks of both as shared), so
+            // each tree is given its own copy of the root state here, before the threads start
+            worker.createRootNode(root.state.copy());
+            workers.add(worker);
+            // we split the budget between the trees, so that the search is reproducible
+            int share = params.budget / nThreads + (i < params.budget % nThreads ? 1 : 0);
+            budgets.add(new SearchBudget(params, share, deadline));
+        }
+        runOnThreads(workerIndex -> {
+            SingleTreeNode tree = workers.get(workerIndex).root;
+            SearchBudget budget = budgets.get(workerIndex);
+            tree.initialiseRootMetrics();
+            long startTime = System.nanoTime();
+            int iterations = 0;
+            AbstractGameState iterationState = null;
+            while (budget.startIteration(startTime, iterations)) {
+                int fmCalls = tree.fmCallsCount;
+                int copies = tree.copyCount;
+                iterationState = tree.stateForIteration(iterationState);
+                if (iterationState != tree.state)
+                    tree.copyCount++;
+                tree.setActionsFromOpenLoopState(iterationState);
+                tree.oneSearchIteration();
+                iterations++;
+                budget.endIteration(tree.fmCallsCount - fmCalls, tree.copyCount - copies);
+            }
+        });
+        // then merge in the results from each tree (in a fixed order)
+        for (MCTSPlayer worker : workers) {
+            decisionRoot(root).mergeRootStatistics(decisionRoot(worker.root));
+            root.MASTStatistics.merge(worker.root.MASTStatistics);
+        }
+    }
+
+    private static SingleTreeNode decisionRoot(SingleTreeNode node) {
+        // with MultiTree search, the statistics for our decision are on the tree for the deciding player
+        if (node instanceof MultiTreeNode multiTree)
+            return multiTree.roots[multiTree.decisionPlayer];
+        return node;
+    }
+
+    private void treeParallelSearch(long deadline) {
+        if (params.opponentTreePolicy != OneTree && params.opponentTreePolicy != SelfOnly)
+            throw new AssertionError("Tree parallelisation is only supported with OneTree or SelfOnly opponentTreePolicy, not " + params.opponentTreePolicy);
+        if (params.rolloutType == MCTSEnums.Strategies.MAST || params.oppModelType == MCTSEnums.Strategies.MAST)
+            throw new AssertionError("Tree parallelisation does not support MAST rollouts");
+        List<MCTSPlayer> workers = new ArrayList<>();
+        for (int i = 0; i < nThreads; i++)
+            workers.add(createWorker(root.rnd.nextLong()));
+        SearchBudget budget = new SearchBudget(params, params.budget, deadline);
+        runOnThreads(workerIndex -> {
+            MCTSPlayer worker = workers.get(workerIndex);
+            long startTime = System.nanoTime();
+            int iterations = 0;
+            while (budget.startIteration(startTime, iterations)) {
+                AbstractGameState iterationState;
+                Iteration iteration;
+                synchronized (root) {
+                    // copying the root state can change it (for example Deck.copyOnWrite() marks the decks of both
+                    // as shared), so this also needs the lock
+                    iterationState = root.stateForIteration();
+                    iteration = select(iterationState, worker);
+                }
+                double[] delta = iteration.rollout.rollout(iteration.lastActorInTree);
+                synchronized (root) {
+                    backUp(iteration, delta, iterationState != root.state ? 1 : 0);
+                }
+                iterations++;
+                budget.endIteration(iteration.fmCalls + iteration.rollout.fmCallsCount,
+                        (iterationState != root.state ? 1 : 0) + iteration.rollout.copyCount);
+            }
+        });
+    }
+
+    /**
+     * The tree part of one iteration (selection and expansion). This must be called while holding the lock on the root.
+     */
+    private Iteration select(AbstractGameState iterationState, MCTSPlayer worker) {
+        Iteration retValue = new Iteration();
+        int fmCalls = root.fmCallsCount;
+        root.setActionsFromOpenLoopState(iterationState);
+        root.actionsInTree = new ArrayList<>();
+        root.currentNodeTrajectory = new ArrayList<>();
+        root.actionsInRollout = new ArrayList<>();
+        retValue.selected = root.treePolicy();
+        retValue.trajectory = root.currentNodeTrajectory;
+        retValue.actionsInTree = root.actionsInTree;
+        // other threads will overwrite the actions available at each node as they pass through, so we keep a record
+        // of the ones from this iteration to restore for the backup
+        retValue.availableActions = new ArrayList<>();
+        for (SingleTreeNode node : retValue.trajectory)
+            retValue.availableActions.add(node.actionsFromOpenLoopState);
+        retValue.lastActorInTree = retValue.actionsInTree.isEmpty() ? root.decisionPlayer :
+                retValue.actionsInTree.get(retValue.actionsInTree.size() - 1).a;
+        retValue.rollout = retValue.selected.detachedForRollout(worker.getParameters(), worker.getForwardModel(), worker.getRnd());
+        retValue.fmCalls = root.fmCallsCount - fmCalls;
+        // a virtual loss is the worst result seen so far in the search (so we cannot apply one until there is a result)
+        retValue.virtualLoss = Double.isInfinite(root.lowReward) ? 0 : params.virtualLoss;
+        retValue.lossValue = root.lowReward;
+        for (int i = 0; i < retValue.trajectory.size() && retValue.virtualLoss > 0; i++) {
+            Pair<Integer, AbstractAction> step = retValue.actionsInTree.get(i);
+            retValue.trajectory.get(i).addVirtualLoss(step.b, step.a, retValue.virtualLoss, retValue.lossValue);
+        }
+        return retValue;
+    }
+
+    /**
+     * Removes the virtual loss, and backs up the actual result of the iteration. This must be called while holding the
+     * lock on the root.
+     */
+    private void backUp(Iteration iteration, double[] delta, int copies) {
+        for (int i = 0; i < iteration.trajectory.size(); i++) {
+            Pair<Integer, AbstractAction> step = iteration.actionsInTree.get(i);
+            SingleTreeNode node = iteration.trajectory.get(i);
+            if (iteration.virtualLoss > 0)
+                node.removeVirtualLoss(step.b, step.a, iteration.virtualLoss, iteration.lossValue);
+            node.actionsFromOpenLoopState = iteration.availableActions.get(i);
+        }
+        root.actionsInTree = iteration.actionsInTree;
+        root.currentNodeTrajectory = iteration.trajectory;
+        root.actionsInRollout = iteration.rollout.actionsInRollout;
+        root.fmCallsCount += iteration.rollout.fmCallsCount;
+        root.copyCount += copies + iteration.rollout.copyCount;
+        root.rolloutActionsTaken += root.actionsInRollout.size();
+        iteration.selected.backUp(delta);
+        root.updateMASTStatistics(root.actionsInTree, root.actionsInRollout, delta);
+    }
+
+    /**
+     * A worker is a copy of the player, with its own random seed and forward model. With Tree parallelisation only
+     * the parameters (for the rollout policy and opponent model) and forward model are used.
+     */
+    private MCTSPlayer createWorker(long seed) {
+        // Note that as for any copy of MCTSParams, only parameters registered with setParameterValue() are copied
+        MCTSParams workerParams = (MCTSParams) params.copy();
+        workerParams.setRandomSeed(seed);
+        MCTSPlayer retValue = new MCTSPlayer(workerParams, player.toString());
+        retValue.setForwardModel(player.getForwardModel().copy());
+        workerParams.getRolloutStrategy().initializePlayer(root.state);
+        workerParams.getOpponentModel().initializePlayer(root.state);
+        return retValue;
+    }
+
+    private void runOnThreads(IntConsumer task) {
+        ExecutorService executor = Executors.newFixedThreadPool(nThreads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < nThreads; i++) {
+                int workerIndex = i;
+                futures.add(executor.submit(() -> task.accept(workerIndex)));
+            }
+            for (Future<?> future : futures)
+                future.get();
+        } catch (InterruptedException | ExecutionException e) {
+            throw new RuntimeException("Error in parallel MCTS search", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * The data from one iteration with tree parallelisation, held between the selection and the backup
+     */
+    private static class Iteration {
+        SingleTreeNode selected;
+        SingleTreeNode rollout;
+        List<SingleTreeNode> trajectory;
+        List<Pair<Integer, AbstractAction>> actionsInTree;
+        List<List<AbstractAction>> availableActions;
+        int lastActorInTree;
+        int fmCalls;
+        int virtualLoss;
+        double lossValue;
+    }
+
+    /**
+     * Keeps track of the budget used by one or more threads. This is safe to share between threads.
+     */
+    private static class SearchBudget {
+        final PlayerConstants budgetType;
+        final int budget;
+        final int breakMS;
+        final long deadline;
+        final AtomicInteger iterations = new AtomicInteger();
+        final AtomicLong fmCalls = new AtomicLong();
+        final AtomicLong copies = new AtomicLong();
+
+        SearchBudget(MCTSParams params, int budget, long deadline) {
+            this.budgetType = params.budgetType;
+            this.budget = budget;
+            this.breakMS = params.breakMS;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Checks if there is enough budget left for another iteration, and if so claims it
+         *
+         * @param startTime  - the time the calling thread started searching
+         * @param iterations - the number of iterations the calling thread has completed
+         */
+        boolean startIteration(long startTime, int iterations) {
+            if (budgetType == BUDGET_TIME) {
+                // as for a single thread, we always run at least one iteration
+                if (this.iterations.compareAndSet(0, 1))
+                    return true;
+                long now = System.nanoTime();
+                double remaining = (deadline - now) / 1e6;
+                double avgTimeTaken = iterations == 0 ? 0.0 : (now - startTime) / 1e6 / iterations;
+                if (remaining <= 2 * avgTimeTaken || remaining <= breakMS)
+                    return false;
+                this.iterations.incrementAndGet();
+                return true;
+            }
+            if (this.iterations.incrementAndGet() > budget)
+                return false;
+            return switch (budgetType) {
+                case BUDGET_FM_CALLS -> fmCalls.get() <= budget;
+                case BUDGET_COPY_CALLS -> copies.get() <= budget;
+                case BUDGET_FMANDCOPY_CALLS -> fmCalls.get() + copies.get() <= budget;
+                default -> true;
+            };
+        }
+
+        void endIteration(int fmCallsUsed, int copiesUsed) {
+            fmCalls.addAndGet(fmCallsUsed);
+            copies.addAndGet(copiesUsed);
+        }
+    }
+}
@@ -27,6 +27,10 @@ public class SingleTreeNode {
     protected AbstractGameState state;
     // State in this node (open loop - this is updated by onward trajectory....be very careful about using)
     protected AbstractGameState openLoopState;
+    // Makes the determinisations of state for Information_Set search (see stateForIteration())
+    private volatile Determiniser determiniser;
+    // If not null, state is shared with a tree searched by other threads, and is only copied while holding this lock
+    private Object stateLock;
     // Parameters guiding the search
     protected MCTSParams params;
     protected AbstractForwardModel forwardModel;
@@ -69,7 +73,7 @@ public class SingleTreeNode {
     // only ever have one position in the array populated: and similarly if we are using a SelfOnly tree).
     Map<AbstractAction, SingleTreeNode[]> children = new LinkedHashMap<>();
     Map<AbstractAction, ActionStats> actionValues = new HashMap<>();
-    List<Map<Object, Pair<Integer, Double>>> MASTStatistics; // a list of one Map per player. Action -> (visits, totValue)
+    MASTTable MASTStatistics; // Action -> (visits, totValue) for each player
     // ToDoubleBiFunction<AbstractAction, AbstractGameState> MASTFunction;
     // The total value of all trajectories through this node (one element per player)
     private Supplier<? extends SingleTreeNode> factory;
@@ -90,9 +94,7 @@ public class SingleTreeNode {
         retValue.forwardModel = player.getForwardModel();
         retValue.rnd = rnd;
         // only root node maintains MAST statistics
-        retValue.MASTStatistics = new ArrayList<>();
-        for (int i = 0; i < state.getNPlayers(); i++)
-            retValue.MASTStatistics.add(new HashMap<>());
+        retValue.MASTStatistics = new MASTTable(state.getNPlayers());
         if (retValue.params.useMASTAsActionHeuristic)
             retValue.params.actionHeuristic = new MASTActionHeuristic(retValue.MASTStatistics, retValue.params.MASTActionKey, retValue.params.MASTDefaultValue);
         retValue.instantiate(null, null, state);
@@ -152,15 +154,13 @@ public class SingleTreeNode {
         highReward = template.highReward;
         lowReward = template.lowReward;
         inheritedVisits = nVisits;
-        MASTStatistics = new ArrayList<>();
-        for (int i = 0; i < template.state.getNPlayers(); i++)
-            MASTStatistics.add(new HashMap<>());
+        MASTStatistics = new MASTTable(template.state.getNPlayers());
     }
 
     protected void resetDepth(SingleTreeNode newRoot) {
         depth = parent == null ? 0 : parent.depth + 1;
         root = newRoot;
-        for (SingleTreeNode[] childArray : children.values()) {
+        for (SingleTreeNode[] childArray : childArrays()) {
             if (childArray == null) continue;
             for (SingleTreeNode child : childArray) {
                 if (child != null) child.resetDepth(newRoot);
@@ -251,33 +251,29 @@ public class SingleTreeNode {
                 }
             }
             for (AbstractAction action : actionsFromOpenLoopState) {
-                if (!actionValues.containsKey(action)) {
-                    actionValues.put(action, new ActionStats(actionState.getNPlayers()));
-                    children.put(action.copy(), null); // mark a new node to be expanded
-                    // This *does* rely on a good equals method being implemented for Actions
-                    if (!children.containsKey(action))
-                        throw new AssertionError("We have an action that does not obey the equals/hashcode contract" + action);
+                if (addActionIfNew(action, actionState.getNPlayers())) {
+                    addChildPlaceholder(action);
                     // Then we seed the statistics with heuristic biases (if so parameterised)
                     // This assumes that we have had params.initialiseVisits trials of each action before we start
                     if (params.initialiseVisits > 0) {
                         // This also ignores Progressive widening and initialises all possible actions
                         // As with pUCT, this won't cause any major issues, but will mean that the effective node visits
                         // will be higher than the visits of the considered actions.
-                        ActionStats stats = actionValues.get(action);
                         double actionEstimate = actionValueEstimates.getOrDefault(action, 0.0);
                         if (params.normaliseRewards) {
                             if (actionEstimate > root.highReward) root.highReward = actionEstimate;
                             if (actionEstimate < root.lowReward) root.lowReward = actionEstimate;
                         }
-                        int nActions = Math.max(actionValues.size(), actionsFromOpenLoopState.size());
-                        stats.nVisits = params.initialiseVisits;
-                        stats.validVisits = params.initialiseVisits * nActions;
-                        stats.totValue[decisionPlayer] = actionEstimate * params.initialiseVisits;
-                        stats.squaredTotValue[decisionPlayer] = actionEstimate * actionEstimate * params.initialiseVisits;
+                        int nActions = Math.max(actionStatsCount(), actionsFromOpenLoopState.size());
+                        double[] totValue = new double[actionState.getNPlayers()];
+                        double[] squaredTotValue = new double[actionState.getNPlayers()];
+                        totValue[decisionPlayer] = actionEstimate * params.initialiseVisits;
+                        squaredTotValue[decisionPlayer] = actionEstimate * actionEstimate * params.initialiseVisits;
                         if (params.paranoid) // default to zero for other players, unless we're paranoid
                             for (int i = 0; i < actionState.getNPlayers(); i++)
                                 if (i != decisionPlayer)
-                                    stats.totValue[i] = -stats.totValue[decisionPlayer];
+                                    totValue[i] = -totValue[decisionPlayer];
+                        initialiseActionStats(action, params.initialiseVisits, params.initialiseVisits * nActions, totValue, squaredTotValue);
                         if (nVisits < params.initialiseVisits * nActions) {
                             nVisits = params.initialiseVisits * nActions;
                         }
@@ -315,20 +311,13 @@ public class SingleTreeNode {
         // Tracking number of iterations for iteration budget
         int numIters = 0;
         boolean stop = false;
+        AbstractGameState iterationState = null;
         while (!stop) {
-            switch (params.information) {
-                case Closed_Loop:
-                    setActionsFromOpenLoopState(state);
-                    break;
-                case Open_Loop:
-                    setActionsFromOpenLoopState(state.copy());
-                    copyCount++;
-                    break;
-                case Information_Set:
-                    setActionsFromOpenLoopState(state.copy(decisionPlayer));
-                    copyCount++;
-                    break;
-            }
+            // the state from the last iteration is no longer needed, so it can be reused for the next determinisation
+            iterationState = stateForIteration(iterationState);
+            if (iterationState != state)
+                copyCount++;
+            setActionsFromOpenLoopState(iterationState);
 
             // New timer for this iteration
             //      ElapsedCpuTimer elapsedTimerIteration = new ElapsedCpuTimer();
@@ -363,6 +352,41 @@ public class SingleTreeNode {
         timeTaken = elapsedTimer.elapsedMillis();
     }
 
+    /**
+     * The state from which the next search iteration starts. With Closed_Loop this is the root state itself; otherwise
+     * it is a fresh copy (or a fresh determinisation with Information_Set).
+     * Copying the root state can change it (for example Deck.copyOnWrite() marks the decks of both as shared), so this
+     * must not be called from several threads at once.
+     */
+    protected AbstractGameState stateForIteration() {
+        return stateForIteration(null);
+    }
+
+    /**
+     * As stateForIteration(), but with Information_Set the previous iteration state (if not null) may be overwritten
+     * with the new determinisation. It must not be used by anything else.
+     */
+    protected AbstractGameState stateForIteration(AbstractGameState previous) {
+        return switch (params.information) {
+            case Closed_Loop -> state;
+            case Open_Loop -> state.copy();
+            case Information_Set -> {
+                Determiniser d = determiniser();
+                yield d == null ? state.copy(decisionPlayer) : d.determinise(previous == state ? null : previous);
+            }
+        };
+    }
+
+    // The Determiniser for the root state, which is built once for each decision (null if the game does not support it)
+    private Determiniser determiniser() {
+        Determiniser retValue = determiniser;
+        if (retValue == null || retValue.getState() != state || retValue.getPlayer() != decisionPlayer) {
+            retValue = Determiniser.of(state, decisionPlayer);
+            determiniser = retValue;
+        }
+        return retValue;
+    }
+
     /**
      * oneSearchIteration() implements the strategy for tree search (plus expansion, rollouts, backup and so on)
      * Its result is purely stored in the tree generated from root
@@ -389,6 +413,49 @@ public class SingleTreeNode {
         updateMASTStatistics(actionsInTree, actionsInRollout, delta);
     }
 
+    /**
+     * Creates a node, outside the tree, that will run a rollout from the current openLoopState of this node.
+     * The new node is its own root, with the specified parameters (and hence its own rollout policy and opponent model),
+     * forward model and trajectory lists. This means that rollouts on different threads do not share any mutable data
+     * with each other or with the tree, and is used by tree parallelisation (see ParallelSearch).
+     * With Closed_Loop the rollout copies the state of this node, which is still part of the tree, so this is done
+     * while holding the lock on the root of the tree.
+     */
+    protected SingleTreeNode detachedForRollout(MCTSParams params, AbstractForwardModel forwardModel, Random rnd) {
+        SingleTreeNode retValue = new SingleTreeNode();
+        retValue.root = retValue;
+        retValue.params = params;
+        retValue.forwardModel = forwardModel;
+        retValue.rnd = rnd;
+        retValue.depth = depth;
+        retValue.decisionPlayer = root.decisionPlayer;
+        retValue.state = state;
+        retValue.stateLock = root;
+        retValue.openLoopState = openLoopState;
+        retValue.actionsInTree = new ArrayList<>();
+        retValue.currentNodeTrajectory = new ArrayList<>();
+        retValue.actionsInRollout = new ArrayList<>();
+        return retValue;
+    }
+
+    /**
+     * Adds the root statistics from another search (from the same state) to this one. This is used by root
+     * parallelisation to combine the results of independent trees before bestAction() is called.
+     */
+    protected void mergeRootStatistics(SingleTreeNode other) {
+        nVisits += other.nVisits;
+        fmCallsCount += other.fmCallsCount;
+        copyCount += other.copyCount;
+        rolloutActionsTaken += other.rolloutActionsTaken;
+        highReward = Math.max(highReward, other.highReward);
+        lowReward = Math.min(lowReward, other.lowReward);
+        // (with Information_Set the other tree may have actions that this one does not, from different determinisations)
+        for (AbstractAction action : other.actionsWithStats())
+            addActionStats(action, other.getActionStats(action));
+        for (Map.Entry<AbstractAction, Double> entry : other.regretMatchingAverage.entrySet())
+            regretMatchingAverage.merge(entry.getKey(), entry.getValue(), Double::sum);
+    }
+
     protected void updateMASTStatistics
             (List<Pair<Integer, AbstractAction>> tree, List<Pair<Integer, AbstractAction>> rollout, double[] value) {
         if (params.useMAST) {
@@ -409,6 +476,58 @@ public class SingleTreeNode {
         }
     }
 
+    // The methods below are the only ones that access the action statistics directly (in actionValues).
+    // CompactTreeNode overrides them to store the statistics in primitive arrays instead.
+
+    /**
+     * Adds statistics for the action if it does not have any yet
+     *
+     * @return true if the action is new to this node
+     */
+    protected boolean addActionIfNew(AbstractAction action, int nPlayers) {
+        if (actionValues.containsKey(action))
+            return false;
+        actionValues.put(action, new ActionStats(nPlayers));
+        return true;
+    }
+
+    /**
+     * Overwrites the statistics for the action; used to seed new actions with heuristic values
+     */
+    protected void initialiseActionStats(AbstractAction action, int visits, int validVisits, double[] totValue, double[] squaredTotValue) {
+        ActionStats stats = actionValues.get(action);
+        stats.nVisits = visits;
+        stats.validVisits = validVisits;
+        System.arraycopy(totValue, 0, stats.totValue, 0, totValue.length);
+        System.arraycopy(squaredTotValue, 0, stats.squaredTotValue, 0, squaredTotValue.length);
+    }
+
+    public boolean hasStatsFor(AbstractAction action) {
+        return actionValues.containsKey(action);
+    }
+
+    /**
+     * @return the number of actions with statistics at this node
+     */
+    public int actionStatsCount() {
+        return actionValues.size();
+    }
+
+    /**
+     * @return all actions with statistics at this node
+     */
+    public Collection<AbstractAction> actionsWithStats() {
+        return actionValues.keySet();
+    }
+
+    /**
+     * The statistics for the action (or null if there are none). For CompactTreeNode this is a snapshot, and changes
+     * to it will not affect the node.
+     */
+    public ActionStats getActionStats(AbstractAction action) {
+        return actionValues.get(action);
+    }
+
     /**
      * Uses plain java loop instead of streams for performance
      * (this is called often enough it can make a measurable difference)
@@ -418,11 +537,9 @@ public class SingleTreeNode {
         return stats == null ? 0 : stats.nVisits;
     }
 
-    private int validVisitsFor(AbstractAction action) {
-        if (params.information == Closed_Loop)
-            return nVisits;
+    protected int actionValidVisits(AbstractAction action) {
         ActionStats stats = actionValues.get(action);
-        return stats == null ? 1 : stats.validVisits;
+        return stats == null ? 0 : stats.validVisits;
     }
 
     /**
@@ -439,7 +556,7 @@ public class SingleTreeNode {
         return actionValues.values().stream().mapToDouble(s -> s.totValue[playerId]).sum() / nVisits;
     }
 
-    private double actionSquaredValue(AbstractAction action, int playerId) {
+    protected double actionSquaredValue(AbstractAction action, int playerId) {
         ActionStats stats = actionValues.get(action);
         return stats == null ? 0.0 : stats.squaredTotValue[playerId];
     }
@@ -454,6 +571,71 @@ public class SingleTreeNode {
                 .toArray();
     }
 
+    protected void incrementValidVisits(AbstractAction action, int nPlayers) {
+        addActionIfNew(action, nPlayers);
+        actionValues.get(action).validVisits++;
+    }
+
+    protected void incrementAllValidVisits() {
+        for (ActionStats stats : actionValues.values()) {
+            stats.validVisits++;
+        }
+    }
+
+    protected void updateActionStats(AbstractAction action, double[] result) {
+        actionValues.get(action).update(result);
+    }
+
+    /**
+     * Adds the statistics from another node (see mergeRootStatistics)
+     */
+    protected void addActionStats(AbstractAction action, ActionStats other) {
+        addActionIfNew(action, other.totValue.length);
+        actionValues.get(action).add(other);
+    }
+
+    protected void addVirtualLoss(AbstractAction action, int player, int n, double value) {
+        actionValues.get(action).addVirtualLoss(player, n, value);
+    }
+
+    protected void removeVirtualLoss(AbstractAction action, int player, int n, double value) {
+        actionValues.get(action).removeVirtualLoss(player, n, value);
+    }
+
+    /**
+     * @return the child nodes reached by taking the action (indexed by the next player to act), or null if there are none
+     */
+    protected SingleTreeNode[] childrenFor(AbstractAction action) {
+        return children.get(action);
+    }
+
+    protected void setChildren(AbstractAction action, SingleTreeNode[] nodes) {
+        children.put(action, nodes);
+    }
+
+    /**
+     * Marks a new action as having no children yet (to be expanded)
+     */
+    protected void addChildPlaceholder(AbstractAction action) {
+        children.put(action.copy(), null);
+        // This *does* rely on a good equals method being implemented for Actions
+        if (!children.containsKey(action))
+            throw new AssertionError("We have an action that does not obey the equals/hashcode contract" + action);
+    }
+
+    /**
+     * @return the arrays of child nodes for all actions (some of which may be null)
+     */
+    protected Collection<SingleTreeNode[]> childArrays() {
+        return children.values();
+    }
+
+    private int validVisitsFor(AbstractAction action) {
+        if (params.information == Closed_Loop)
+            return nVisits;
+        return hasStatsFor(action) ? actionValidVisits(action) : 1;
+    }
+
     /**
      * Selection + expansion steps.
      * - Tree is traversed until a node not fully expanded is found.
@@ -511,7 +693,7 @@ public class SingleTreeNode {
             // However, we do break ties in favour of already expanded actions
             List<AbstractAction> sortedActions = new ArrayList<>(allAvailable);
             sortedActions.sort(Comparator.comparingDouble(a -> -actionValueEstimates.getOrDefault(a, 0.0) -
-                    actionValues.getOrDefault(a, new ActionStats(1)).nVisits * 1e-6));
+                    actionVisits(a) * 1e-6));
             return new ArrayList<>(sortedActions.subList(0, actionsToConsider));
         }
         return new ArrayList<>(allAvailable);
@@ -523,11 +705,11 @@ public class SingleTreeNode {
         int nextPlayer = params.opponentTreePolicy.selfOnlyTree ? decisionPlayer : nextState.getCurrentPlayer();
         SingleTreeNode tn = createChildNode(actionCopy, nextState);
         // It is possible that we are expanding a node because a different player is the next to act
-        SingleTreeNode[] newNodeArray = children.get(actionCopy);
+        SingleTreeNode[] newNodeArray = childrenFor(actionCopy);
         if (newNodeArray == null)
             newNodeArray = new SingleTreeNode[nextState.getNPlayers()];
         newNodeArray[nextPlayer] = tn; // we store this by id of the player who will take their turn next
-        children.put(actionCopy, newNodeArray);
+        setChildren(actionCopy, newNodeArray);
         return tn;
     }
 
@@ -672,7 +854,7 @@ public class SingleTreeNode {
         // We check to see if we have finished. This is true if the gameState is terminal; or if
         // this is a selfOnly tree and it is terminal for the root decision player
 
-        SingleTreeNode[] nodeArray = children.get(actionChosen);
+        SingleTreeNode[] nodeArray = childrenFor(actionChosen);
         if (nodeArray == null) return null;
         if (params.information == Closed_Loop) {
             // in this case we have determinism...there should just be a single child node in the array...so we get that
@@ -887,7 +1069,14 @@ public class SingleTreeNode {
                 // the thinking here is that in openLoop we copy the state right at the root, and then use the forward
                 // model at each action. Hence the current state on the node is the one we have been using up to now.
                 /// Hence we do not need to copy it.
-                rolloutState = state.copy();
+                // this copy is discarded after the rollout, so we reuse a previous one
+                if (stateLock == null) {
+                    rolloutState = GameStatePool.copy(state);
+                } else {
+                    synchronized (stateLock) {
+                        rolloutState = GameStatePool.copy(state);
+                    }
+                }
                 root.copyCount++;
             }
 
@@ -911,6 +1100,8 @@ public class SingleTreeNode {
             if (Double.isNaN(retValue[i]))
                 throw new AssertionError("Illegal heuristic value - should be a number");
         }
+        if (rolloutState != openLoopState)
+            GameStatePool.release(rolloutState);
         return retValue;
     }
 
@@ -1023,23 +1214,18 @@ public class SingleTreeNode {
             // If MCGS, then this is possible if we have looped in the graph, so that OpenLoopState refers
             // to a different state than the one for which the action was taken. This is awkward.
             // In the absence of any good information, we just increment the valid visits of all actions
-            for (ActionStats stats : actionValues.values()) {
-                stats.validVisits++;
-            }
+            incrementAllValidVisits();
         } else {
             for (AbstractAction action : actionsToConsider) {
-                if (!actionValues.containsKey(action))
-                    actionValues.put(action, new ActionStats(result.length));
-                actionValues.get(action).validVisits++;
+                incrementValidVisits(action, result.length);
             }
         }
-        ActionStats stats = actionValues.get(actionTaken);
-        if (stats == null)
+        if (!hasStatsFor(actionTaken))
             throw new AssertionError("We have somehow failed to find the action taken in the list of actions");
-        if (stats.validVisits == 0)
+        if (actionValidVisits(actionTaken) == 0)
             throw new AssertionError("We have somehow failed to find the action taken in the list of valid actions");
 
-        stats.update(result);
+        updateActionStats(actionTaken, result);
 
         if (params.treePolicy == RegretMatching && this == root && nVisits >= actionsToConsider.size() && nVisits % Math.max(actionsToConsider.size(), 10) == 0) {
             // we update the average policy each time we have had the opportunity to take each action once (or every 10 visits, if that is greater)
@@ -1056,9 +1242,9 @@ public class SingleTreeNode {
         // otherwise we do some more complex backup
         double resultToPropagateUpwards[] = result.clone();
         AbstractAction bestAction = bestAction(actionsToConsider);
-        double[] maxValue = actionValues.get(bestAction).totValue.clone();
+        double[] maxValue = new double[result.length];
         for (int i = 0; i < maxValue.length; i++) {
-            maxValue[i] /= actionValues.get(bestAction).nVisits;
+            maxValue[i] = actionTotValue(bestAction, i) / actionVisits(bestAction);
         }
         return switch (params.backupPolicy) {
             case MonteCarlo:
@@ -1066,7 +1252,7 @@ public class SingleTreeNode {
             case Lambda:
                 // SARSA-style on-policy update. We weight the action average by 1 - lambda
                 for (int i = 0; i < result.length; i++) {
-                    resultToPropagateUpwards[i] = params.backupLambda * result[i] + (1.0 - params.backupLambda) * stats.totValue[i] / stats.nVisits;
+                    resultToPropagateUpwards[i] = params.backupLambda * result[i] + (1.0 - params.backupLambda) * actionTotValue(actionTaken, i) / actionVisits(actionTaken);
                 }
                 yield resultToPropagateUpwards;
             case MaxLambda:
@@ -1103,9 +1289,9 @@ public class SingleTreeNode {
         AbstractAction bestAction = null;
         double maxValue = -Double.MAX_VALUE;
         for (AbstractAction action : actionsToConsider) {
-            ActionStats temp = actionValues.get(action);
-            double value = temp.nVisits == 0 ? -Double.MAX_VALUE :
-                    temp.totValue[decisionPlayer] / temp.nVisits;
+            int visits = actionVisits(action);
+            double value = visits == 0 ? -Double.MAX_VALUE :
+                    actionTotValue(action, decisionPlayer) / visits;
             if (value > maxValue) {
                 maxValue = value;
                 bestAction = action;
@@ -1119,11 +1305,7 @@ public class SingleTreeNode {
         for (Pair<Integer, AbstractAction> pair : rolloutActions) {
             AbstractAction action = pair.b;
             int player = pair.a;
-            Object actionKey = params.MASTActionKey == null ? action.copy() : params.MASTActionKey.key(action);
-            Pair<Integer, Double> stats = MASTStatistics.get(player).getOrDefault(actionKey, new Pair<>(0, 0.0));
-            stats.a++;  // visits
-            stats.b += delta[player];   // value
-            MASTStatistics.get(player).put(actionKey, stats);
+            MASTStatistics.update(player, MASTTable.key(params.MASTActionKey, action), delta[player]);
         }
     }
 
@@ -1154,23 +1336,21 @@ public class SingleTreeNode {
             // We iterate through all actions valid in the original root state
             // as openLoopState may be different if using MCGS (not an issue with SingleTreeNode or MultiTreeNode)
             for (AbstractAction action : forwardModel.computeAvailableActions(state, params.actionSpace)) {
-                if (!actionValues.containsKey(action)) {
+                if (!hasStatsFor(action)) {
                     throw new AssertionError("Hashcode / equals contract issue for " + action);
                 }
-                if (actionValues.get(action) != null) {
-                    ActionStats stats = actionValues.get(action);
-                    double childValue = stats.nVisits; // if ROBUST
-                    if (policy == SIMPLE)
-                        childValue = stats.totValue[decisionPlayer] / (stats.nVisits + params.noiseEpsilon);
-
-                    // Apply small noise to break ties randomly
-                    childValue = noise(childValue, params.noiseEpsilon, rnd.nextDouble());
-
-                    // Save best value
-                    if (childValue > bestValue) {
-                        bestValue = childValue;
-                        bestAction = action;
-                    }
+                int visits = actionVisits(action);
+                double childValue = visits; // if ROBUST
+                if (policy == SIMPLE)
+                    childValue = actionTotValue(action, decisionPlayer) / (visits + params.noiseEpsilon);
+
+                // Apply small noise to break ties randomly
+                childValue = noise(childValue, params.noiseEpsilon, rnd.nextDouble());
+
+                // Save best value
+                if (childValue > bestValue) {
+                    bestValue = childValue;
+                    bestAction = action;
                 }
             }
         }
@@ -1178,7 +1358,7 @@ public class SingleTreeNode {
         if (bestAction == null) {
             if (nVisits == 1) {
 //                System.out.println("Only one visit to root node - insufficient information - hopefully due to JVM warming up");
-                bestAction = actionValues.keySet().stream().findFirst().orElseThrow(() -> new AssertionError("No children"));
+                bestAction = actionsWithStats().stream().findFirst().orElseThrow(() -> new AssertionError("No children"));
             } else
                 throw new AssertionError("Unexpected - no selection made.");
         }
@@ -1267,7 +1447,7 @@ public class SingleTreeNode {
         while (!nodeQueue.isEmpty()) {
             SingleTreeNode node = nodeQueue.poll();
             retValue.add(node);
-            nodeQueue.addAll(node.getChildren().values().stream()
+            nodeQueue.addAll(node.childArrays().stream()
                     .filter(Objects::nonNull)
                     .flatMap(Arrays::stream)
                     .filter(Objects::nonNull)
@@ -1290,9 +1470,9 @@ public class SingleTreeNode {
                     .collect(joining(", "));
         }
         retValue.append(String.format("%d total visits, value %s, with %d children, %d actions, depth %d, FMCalls %d: \n",
-                nVisits, valueString, children.size(), actionValues.size(), depth, fmCallsCount));
+                nVisits, valueString, childArrays().size(), actionStatsCount(), depth, fmCallsCount));
         // sort all actions by visit count
-        List<AbstractAction> sortedActions = actionValues.keySet().stream()
+        List<AbstractAction> sortedActions = actionsWithStats().stream()
                 .filter(Objects::nonNull)
                 .sorted(Comparator.comparingInt(a -> -actionVisits(a)))
                 .collect(toList());
@@ -27,31 +27,31 @@ public class TreeStatistics {
 
 
     public void mcgsStats(MCGSNode root) {
-        Map<String, MCGSNode> transpositionMap = root.getTranspositionMap();
-        totalNodes = transpositionMap.size();
-        Map<Integer, List<MCGSNode>> byDepth = transpositionMap.values().stream()
+        Collection<MCGSNode> graphNodes = root.graphNodes();
+        totalNodes = graphNodes.size();
+        Map<Integer, List<MCGSNode>> byDepth = graphNodes.stream()
                 .collect(Collectors.groupingBy(MCGSNode::getDepth));
         depthReached = byDepth.keySet().stream().max(Integer::compareTo).orElse(0);
         nodeDistribution = IntStream.range(0, depthReached + 1)
                 .mapToDouble(i -> byDepth.getOrDefault(i, new ArrayList<>()).size() / (double) totalNodes)
                 .toArray();
-        totalLeaves = (int) transpositionMap.values().stream().filter(n -> n.nVisits <= root.params.initialiseVisits).count();
-        meanActionsAtNode = transpositionMap.values().stream().mapToInt(n -> n.actionValues.size()).sum() / (double) totalNodes;
-        meanActionsExpanded = transpositionMap.values().stream()
+        totalLeaves = (int) graphNodes.stream().filter(n -> n.nVisits <= root.params.initialiseVisits).count();
+        meanActionsAtNode = graphNodes.stream().mapToInt(SingleTreeNode::actionStatsCount).sum() / (double) totalNodes;
+        meanActionsExpanded = graphNodes.stream()
                 .mapToInt(
-                        n -> (int) n.actionValues.values().stream()
-                                .filter(stats -> stats.nVisits > root.params.initialiseVisits)
+                        n -> (int) n.actionsWithStats().stream()
+                                .filter(a -> n.actionVisits(a) > root.params.initialiseVisits)
                                 .count()
                 ).sum() / (double) Math.max(totalNodes - totalLeaves, 1);
-        maxActionsAtNode = transpositionMap.values().stream().mapToInt(n -> n.actionValues.size()).max().orElse(0);
+        maxActionsAtNode = graphNodes.stream().mapToInt(SingleTreeNode::actionStatsCount).max().orElse(0);
 
-        // totalTerminalNodes = (int) transpositionMap.values().stream().filter(n -> !n.state.isNotTerminal()).count();
+        // totalTerminalNodes = (int) graphNodes.stream().filter(n -> !n.state.isNotTerminal()).count();
         leafDistribution = IntStream.range(0, depthReached + 1)
                 .mapToDouble(i -> byDepth.getOrDefault(i, new ArrayList<>()).stream().filter(n -> n.nVisits == 0).count() / (double) totalLeaves)
                 .toArray();
         meanLeafDepth = totalLeaves > 0 ? IntStream.range(0, depthReached + 1).mapToDouble(i -> i * leafDistribution[i]).sum() : 0;
         meanNodeDepth = IntStream.range(0, depthReached + 1).mapToDouble(i -> i * nodeDistribution[i]).sum();
-        oneActionNodes = (int) transpositionMap.values().stream().filter(n -> n.actionValues.size() == 1).count();
+        oneActionNodes = (int) graphNodes.stream().filter(n -> n.actionStatsCount() == 1).count();
     }
 
     public TreeStatistics(SingleTreeNode root) {
@@ -84,14 +84,14 @@ public class TreeStatistics {
                 nodesAtDepth[node.depth]++;
                 if (node.terminalNode)
                     gameTerminalNodesAtDepth[node.depth]++;
-                totalActions += node.actionValues.size();
+                totalActions += node.actionStatsCount();
                 // We have expanded an action if it has been visited more often than initialiseVisits
-                expandedActions += (int) node.actionValues.values().stream().filter(stats -> stats.nVisits > root.params.initialiseVisits).count();
-                if (node.actionValues.size() == 1)
+                expandedActions += (int) node.actionsWithStats().stream().filter(a -> node.actionVisits(a) > root.params.initialiseVisits).count();
+                if (node.actionStatsCount() == 1)
                     oneAction++;
-                if (node.actionValues.size() > maxActions)
-                    maxActions = node.actionValues.size();
-                for (SingleTreeNode child : node.children.values().stream()
+                if (node.actionStatsCount() > maxActions)
+                    maxActions = node.actionStatsCount();
+                for (SingleTreeNode child : node.childArrays().stream()
                         .filter(Objects::nonNull)
                         .flatMap(Arrays::stream)
                         .filter(Objects::nonNull)
@@ -99,7 +99,7 @@ public class TreeStatistics {
                     if (child != null)
                         nodeQueue.add(child);
                 }
-                if (node.actionValues.values().stream().allMatch(stats -> stats.nVisits <= root.params.initialiseVisits))
+                if (node.actionsWithStats().stream().allMatch(a -> node.actionVisits(a) <= root.params.initialiseVisits))
                     leavesAtDepth[node.depth]++;
             }
             if (node.depth > greatestDepth)
@@ -103,7 +103,8 @@ public class RHEAIndividual implements Comparable<RHEAIndividual> {
         double delta = 0;
         double previousScore = 0;
         int fmCalls = 0, copyCalls = 0;
-        AbstractGameState gs = gameStates[startIndex].copy();
+        // gs is never changed (we copy it before each step), so we do not need to copy it here
+        AbstractGameState gs = gameStates[startIndex];
 
         // This lot are a local record for use in debugging; Very useful, with no compute overhead for keeping a local copy
         AbstractGameState[] oldGameStates = new AbstractGameState[gameStates.length];
@@ -159,6 +160,8 @@ public class RHEAIndividual implements Comparable<RHEAIndividual> {
                     fm.next(gsCopy, moves.get(gen.nextInt(moves.size())));
                     fmCalls++;
                 }
+                // The state replaced here is not given back to GameStatePool, as individuals copied from this one
+                // (and crossover children) share their gameStates with it, and may still use it
                 oldGameStates[i+1] = gameStates[i+1];
                 gameStates[i + 1] = gsCopy;
                 // Individual length increased
@@ -4,6 +4,7 @@ import core.AbstractForwardModel;
 import core.AbstractGameState;
 import core.AbstractGameStateWithTurnOrder;
 import core.AbstractPlayer;
+import core.GameStatePool;
 import core.actions.AbstractAction;
 import core.interfaces.IStateHeuristic;
 import core.turnorders.StandardTurnOrder;
@@ -46,7 +47,8 @@ public class OSLAPlayer extends AbstractPlayer {
 
         for (int actionIndex = 0; actionIndex < actions.size(); actionIndex++) {
             AbstractAction action = actions.get(actionIndex);
-            AbstractGameState gsCopy = gs.copy();
+            // each copy is discarded once evaluated, so it is reused for the next action
+            AbstractGameState gsCopy = GameStatePool.copy(gs);
             getForwardModel().next(gsCopy, action);
 
             if (gs instanceof AbstractGameStateWithTurnOrder && ((AbstractGameStateWithTurnOrder)gsCopy).getTurnOrder() instanceof StandardTurnOrder) {
@@ -58,6 +60,7 @@ public class OSLAPlayer extends AbstractPlayer {
             } else {
                 valState[actionIndex] = gsCopy.getHeuristicScore(playerID);
             }
+            GameStatePool.release(gsCopy);
 
             double Q = noise(valState[actionIndex], getParameters().noiseEpsilon, rnd.nextDouble());
             //     System.out.println(Arrays.stream(valState).mapToObj(v -> String.format("%1.3f", v)).collect(Collectors.joining("\t")));
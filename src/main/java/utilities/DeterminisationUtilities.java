@@ -5,6 +5,7 @@ import core.components.Component;
 import core.components.Deck;
 import core.components.PartialObservableDeck;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
 import java.util.function.Predicate;
@@ -13,6 +14,53 @@ import static java.util.stream.Collectors.toList;
 
 public class DeterminisationUtilities {
 
+    /**
+     * Finds the positions in each deck of the cards that reshuffle() would shuffle (those not visible to player
+     * that meet the lambda predicate).
+     *
+     * @return for each deck (in the same order), the positions of its hidden cards in increasing order
+     */
+    public static <C extends Component> int[][] hiddenPositions(int player, List<? extends Deck<C>> decks, Predicate<C> lambda) {
+        int[][] retValue = new int[decks.size()][];
+        for (int d = 0; d < decks.size(); d++) {
+            Deck<C> deck = decks.get(d);
+            int length = deck.getSize();
+            int[] positions = new int[length];
+            int count = 0;
+            int from = 0, to = length;
+            if (!(deck instanceof PartialObservableDeck)) {
+                switch (deck.getVisibilityMode()) {
+                    case VISIBLE_TO_ALL:
+                        to = 0;
+                        break;
+                    case VISIBLE_TO_OWNER:
+                        if (deck.getOwnerId() == player)
+                            to = 0;
+                        break;
+                    case HIDDEN_TO_ALL:
+                        break;
+                    case TOP_VISIBLE_TO_ALL:
+                        from = 1;
+                        break;
+                    case BOTTOM_VISIBLE_TO_ALL:
+                        to = length - 1;
+                        break;
+                    case MIXED_VISIBILITY:
+                        throw new AssertionError("Not supported : MIXED_VISIBILITTY");
+                }
+            }
+            int i = 0;
+            for (C c : deck) {
+                if (i >= from && i < to && lambda.test(c) &&
+                        !(deck instanceof PartialObservableDeck<C> pod && pod.getVisibilityForPlayer(i, player)))
+                    positions[count++] = i;
+                i++;
+            }
+            retValue[d] = Arrays.copyOf(positions, count);
+        }
+        return retValue;
+    }
+
     /**
      *  Reshuffles all cards across the list of decks that meet the lambda predicate, and are not visible to player.
      *
@@ -0,0 +1,120 @@
+package utilities;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An append-only list that can be copied in constant time.
+ * <p>
+ * This is used for the history of a game state, which is copied every time the state is copied, but (almost) only
+ * ever added to. On copy() everything added so far is frozen into an immutable segment that is then shared by both
+ * the original and the copy; each of them then adds new items to its own private tail. Repeated copies of the same
+ * list (as in MCTS, which copies the root state on every iteration) share exactly the same segments.
+ * <p>
+ * Each copy taken after something has been added adds one segment to the chain, so once this gets longer than
+ * MAX_DEPTH the chain is collapsed into a single segment. This keeps get() cheap.
+ * <p>
+ * This is not thread-safe. Note that copy() also changes this list (it freezes the tail), so it counts as a write.
+ */
+public final class SharedPrefixList<T> {
+
+    private static final int MAX_DEPTH = 16;
+
+    private static final class Segment<T> {
+        final Segment<T> parent;
+        final int start;  // the index of the first item in this segment
+        final List<T> items;
+        final int depth;
+
+        Segment(Segment<T> parent, int start, List<T> items) {
+            this.parent = parent;
+            this.start = start;
+            this.items = items;
+            this.depth = parent == null ? 1 : parent.depth + 1;
+        }
+    }
+
+    private Segment<T> prefix;  // frozen, and possibly shared with other lists
+    private int prefixSize;
+    private ArrayList<T> tail = new ArrayList<>();
+
+    public void add(T item) {
+        tail.add(item);
+    }
+
+    public int size() {
+        return prefixSize + tail.size();
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public T get(int index) {
+        if (index < 0 || index >= size())
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size());
+        if (index >= prefixSize)
+            return tail.get(index - prefixSize);
+        Segment<T> segment = prefix;
+        while (index < segment.start)
+            segment = segment.parent;
+        return segment.items.get(index - segment.start);
+    }
+
+    /**
+     * Replaces the item at the given index. If this is in the shared prefix, then this list first takes
+     * a private copy of all its contents (so that no other list is affected).
+     */
+    public void set(int index, T item) {
+        if (index < 0 || index >= size())
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size());
+        if (index < prefixSize) {
+            tail = toArrayList();
+            prefix = null;
+            prefixSize = 0;
+        }
+        tail.set(index - prefixSize, item);
+    }
+
+    /**
+     * @return a new (and independent) List with all the items in order
+     */
+    public List<T> toList() {
+        return toArrayList();
+    }
+
+    /**
+     * @return a copy of this list. This is O(1), except when the chain of shared segments needs to be collapsed.
+     */
+    public SharedPrefixList<T> copy() {
+        freeze();
+        SharedPrefixList<T> retValue = new SharedPrefixList<>();
+        retValue.prefix = prefix;
+        retValue.prefixSize = prefixSize;
+        return retValue;
+    }
+
+    private void freeze() {
+        if (tail.isEmpty())
+            return;
+        if (prefix != null && prefix.depth >= MAX_DEPTH)
+            prefix = new Segment<>(null, 0, toArrayList());
+        else
+            prefix = new Segment<>(prefix, prefixSize, tail);
+        prefixSize = prefix.start + prefix.items.size();
+        tail = new ArrayList<>();
+    }
+
+    private ArrayList<T> toArrayList() {
+        ArrayList<T> retValue = new ArrayList<>(size());
+        if (prefix != null) {
+            List<Segment<T>> segments = new ArrayList<>(prefix.depth);
+            for (Segment<T> s = prefix; s != null; s = s.parent)
+                segments.add(s);
+            for (int i = segments.size() - 1; i >= 0; i--)
+                retValue.addAll(segments.get(i).items);
+        }
+        retValue.addAll(tail);
+        return retValue;
+    }
+}
@@ -0,0 +1,57 @@
+package utilities;
+
+import core.components.Component;
+
+/**
+ * Helpers for Zobrist-style hashing of game states (see IZobristHashable).
+ * <p>
+ * A Zobrist hash is the XOR (or sum) of one random 64-bit key for each (position, content) pair in the state, so
+ * that it can be updated incrementally when something changes: remove the key for the old content, and add the key
+ * for the new. Rather than a table of random numbers, the keys here are generated on demand by a mixing function;
+ * this gives the same keys in every run (and every copy of the state), and needs no table sized for every game.
+ */
+public final class Zobrist {
+
+    private Zobrist() {
+    }
+
+    /**
+     * The SplitMix64 finaliser. This maps any input to a well-distributed 64-bit value.
+     */
+    public static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * @return the key for the given value at the given position (equivalent to an entry in a table of random keys)
+     */
+    public static long key(long position, long value) {
+        return mix(mix(position) + value);
+    }
+
+    /**
+     * The key for the content of a component. This depends only on its type and name, so that identical components
+     * (for example a card and its copy, or two cards of the same type) have the same key.
+     *
+     * @return the key, or 0 for null
+     */
+    public static long componentKey(Component component) {
+        if (component == null)
+            return 0L;
+        return mix(component.getComponentName().hashCode() * 31L + component.getType().ordinal());
+    }
+
+    /**
+     * A second key for the content of a component, which is independent of componentKey(), for the check hashes
+     * of IZobristHashable.getZobristCheckHash().
+     *
+     * @return the key, or 0 for null
+     */
+    public static long componentCheckKey(Component component) {
+        if (component == null)
+            return 0L;
+        return mix(componentKey(component) ^ 0x9E3779B97F4A7C15L);
+    }
+}
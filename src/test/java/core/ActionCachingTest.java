@@ -0,0 +1,234 @@
+package core;
+
+import core.actions.AbstractAction;
+import core.actions.SetGridValueAction;
+import core.components.Component;
+import core.interfaces.IZobristHashable;
+import games.GameType;
+import games.dominion.actions.BuyCard;
+import games.dominion.cards.CardType;
+import org.junit.Test;
+import players.simple.RandomPlayer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class ActionCachingTest {
+
+    @Test
+    public void cachedActionsSameAsComputed() {
+        for (GameType gameType : List.of(GameType.TicTacToe, GameType.Connect4, GameType.Dominion)) {
+            // two copies of the same game, one with caching and one without
+            Game game = gameType.createGameInstance(2, 42);
+            game.reset(List.of(new RandomPlayer(new Random(1)), new RandomPlayer(new Random(2))));
+            Game cachedGame = gameType.createGameInstance(2, 42);
+            cachedGame.reset(List.of(new RandomPlayer(new Random(1)), new RandomPlayer(new Random(2))));
+            AbstractForwardModel cached = cachedGame.getForwardModel();
+            cached.setActionCaching(8);
+            assertTrue(gameType.name(), cached.isActionCaching());
+            AbstractForwardModel uncached = game.getForwardModel();
+            AbstractGameState state = game.getGameState();
+            AbstractGameState cachedState = cachedGame.getGameState();
+            Random rnd = new Random(3);
+            while (state.isNotTerminal()) {
+                List<AbstractAction> expected = uncached.computeAvailableActions(state);
+                // the second call (on a copy) comes from the cache
+                List<AbstractAction> first = cached.computeAvailableActions(cachedState);
+                List<AbstractAction> second = cached.computeAvailableActions(cachedState.copy());
+                assertEquals(expected, first);
+                assertEquals(expected, second);
+                assertNotSame(first, second);
+                // changing the list we are given does not change the cache
+                second.clear();
+                assertEquals(expected, cached.computeAvailableActions(cachedState));
+                int choice = rnd.nextInt(expected.size());
+                uncached.next(state, expected.get(choice));
+                cached.next(cachedState, first.get(choice));
+            }
+            assertFalse(gameType.name(), uncached.isActionCaching());
+        }
+    }
+
+    @Test
+    public void gridActionsAreInterned() {
+        Game game = GameType.TicTacToe.createGameInstance(2, 42);
+        game.reset(List.of(new RandomPlayer(new Random(1)), new RandomPlayer(new Random(2))));
+        AbstractGameState state = game.getGameState();
+        List<AbstractAction> actions = game.getForwardModel().computeAvailableActions(state);
+        List<AbstractAction> fromCopy = game.getForwardModel().computeAvailableActions(state.copy());
+        for (int i = 0; i < actions.size(); i++) {
+            assertTrue(actions.get(i) instanceof SetGridValueAction);
+            assertSame(actions.get(i), fromCopy.get(i));
+        }
+    }
+
+    @Test
+    public void buyCardIsInterned() {
+        assertSame(BuyCard.of(CardType.SILVER, 1), BuyCard.of(CardType.SILVER, 1));
+        assertEquals(new BuyCard(CardType.SILVER, 1), BuyCard.of(CardType.SILVER, 1));
+        assertNotEquals(BuyCard.of(CardType.SILVER, 0), BuyCard.of(CardType.SILVER, 1));
+        // outside the interned range we still get an equal action
+        assertEquals(new BuyCard(CardType.GOLD, 20), BuyCard.of(CardType.GOLD, 20));
+    }
+
+    @Test
+    public void statesWithTheSameHashAreToldApart() {
+        // two different states at the same tick, for the same player, with the same hashCode()...
+        checkStatesWithTheSameHash(new CollidingState(1), new CollidingState(2));
+        // ...or the same Zobrist hash (but not the same check hash)
+        checkStatesWithTheSameHash(new CollidingZobristState(1), new CollidingZobristState(2));
+    }
+
+    private void checkStatesWithTheSameHash(CollidingState one, CollidingState two) {
+        CollidingForwardModel fm = new CollidingForwardModel();
+        fm.setup(one);
+        fm.setup(two);
+        assertEquals(one.hashCode(), two.hashCode());
+        assertNotEquals(one, two);
+        fm.setActionCaching(8);
+        assertEquals(List.of(new ValueAction(1)), fm.computeAvailableActions(one));
+        assertEquals(List.of(new ValueAction(2)), fm.computeAvailableActions(two));
+        assertEquals(List.of(new ValueAction(1)), fm.computeAvailableActions(one));
+        assertEquals(List.of(new ValueAction(2)), fm.computeAvailableActions(two));
+        // with Zobrist hashes both are cached; otherwise each replaces the other (as they have the same key)
+        boolean zobrist = one instanceof IZobristHashable;
+        assertEquals(zobrist ? 2 : 4, fm.computed);
+        // but a copy of the last state is still found
+        assertEquals(List.of(new ValueAction(2)), fm.computeAvailableActions(two.copy()));
+        assertEquals(zobrist ? 2 : 4, fm.computed);
+    }
+
+    // A game state with just a value, and a hashCode() that is the same for all of them
+    static class CollidingState extends AbstractGameState {
+        final int value;
+
+        CollidingState(int value) {
+            super(new CollidingParameters(), 1);
+            this.value = value;
+        }
+
+        @Override
+        protected GameType _getGameType() {
+            return GameType.TicTacToe; // Not really
+        }
+
+        @Override
+        protected List<Component> _getAllComponents() {
+            return new ArrayList<>();
+        }
+
+        @Override
+        protected AbstractGameState _copy(int playerId) {
+            return new CollidingState(value);
+        }
+
+        @Override
+        protected double _getHeuristicScore(int playerId) {
+            return 0;
+        }
+
+        @Override
+        public double getGameScore(int playerId) {
+            return 0;
+        }
+
+        @Override
+        protected boolean _equals(Object o) {
+            return o instanceof CollidingState && ((CollidingState) o).value == value;
+        }
+
+        @Override
+        public int hashCode() {
+            return 0;
+        }
+    }
+
+    static class CollidingZobristState extends CollidingState implements IZobristHashable {
+        CollidingZobristState(int value) {
+            super(value);
+        }
+
+        @Override
+        protected AbstractGameState _copy(int playerId) {
+            return new CollidingZobristState(value);
+        }
+
+        @Override
+        public long getZobristHash() {
+            return 0;
+        }
+
+        @Override
+        public long getZobristCheckHash() {
+            return value;
+        }
+    }
+
+    static class CollidingParameters extends AbstractParameters {
+        @Override
+        protected AbstractParameters _copy() {
+            return this;
+        }
+
+        @Override
+        public boolean _equals(Object o) {
+            return o instanceof CollidingParameters;
+        }
+
+        @Override
+        public int hashCode() {
+            return 0;
+        }
+    }
+
+    // The only action available is to 'play' the value of the state; counts how often the actions are computed
+    static class CollidingForwardModel extends StandardForwardModel {
+        int computed;
+
+        @Override
+        protected void _setup(AbstractGameState firstState) {
+        }
+
+        @Override
+        protected List<AbstractAction> _computeAvailableActions(AbstractGameState gameState) {
+            computed++;
+            return List.of(new ValueAction(((CollidingState) gameState).value));
+        }
+    }
+
+    static class ValueAction extends AbstractAction {
+        final int value;
+
+        ValueAction(int value) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean execute(AbstractGameState gameState) {
+            return true;
+        }
+
+        @Override
+        public AbstractAction copy() {
+            return this;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof ValueAction && ((ValueAction) obj).value == value;
+        }
+
+        @Override
+        public int hashCode() {
+            return value;
+        }
+
+        @Override
+        public String getString(AbstractGameState gameState) {
+            return String.valueOf(value);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package core;
+
+import core.actions.AbstractAction;
+import core.components.Component;
+import core.components.ComponentIDAllocator;
+import games.GameType;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.Assert.*;
+
+public class ComponentIDs {
+
+    private Game runGame(long seed, int maxTicks) {
+        Game game = GameType.Dominion.createGameInstance(3, seed);
+        AbstractGameState state = game.getGameState();
+        AbstractForwardModel fm = game.getForwardModel();
+        while (state.isNotTerminal() && state.getGameTick() < maxTicks) {
+            List<AbstractAction> actions = fm.computeAvailableActions(state);
+            fm.next(state, actions.get(new Random(seed + state.getGameTick()).nextInt(actions.size())));
+        }
+        return game;
+    }
+
+    @Test
+    public void copiesShareAllocatorAndKeepIDs() {
+        AbstractGameState state = runGame(42, 100).getGameState();
+        AbstractGameState copy = state.copy();
+        assertSame(state.getComponentIDAllocator(), copy.getComponentIDAllocator());
+        for (Component c : state.getAllComponents().getComponents()) {
+            Component copied = copy.getComponentById(c.getComponentID());
+            assertNotNull(copied);
+            assertEquals(c.getComponentName(), copied.getComponentName());
+        }
+    }
+
+    @Test
+    public void componentsCreatedInGameUseGameAllocator() {
+        AbstractGameState state = runGame(42, 0).getGameState();
+        assertTrue(state.getComponentIDAllocator().allocated() > 0);
+        long gameScoped = state.getAllComponents().getComponentsMap().keySet().stream()
+                .filter(id -> id >= ComponentIDAllocator.GAME_ID_OFFSET).count();
+        assertTrue(gameScoped > 0);
+    }
+
+    @Test
+    public void eachGameStartsFromTheSameIDs() {
+        AbstractGameState first = runGame(42, 50).getGameState();
+        AbstractGameState second = runGame(42, 50).getGameState();
+        assertEquals(first.getComponentIDAllocator().allocated(), second.getComponentIDAllocator().allocated());
+    }
+
+    @Test
+    public void concurrentGamesDoNotInterfere() throws Exception {
+        // the same game run on several threads at once allocates exactly the same IDs as when run alone
+        int expected = runGame(7, 200).getGameState().getComponentIDAllocator().allocated();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++)
+            results.add(executor.submit(() -> runGame(7, 200).getGameState().getComponentIDAllocator().allocated()));
+        for (Future<Integer> result : results)
+            assertEquals(expected, (int) result.get());
+        executor.shutdown();
+    }
+}
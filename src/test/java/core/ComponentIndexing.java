@@ -0,0 +1,97 @@
+package core;
+
+import core.actions.AbstractAction;
+import core.components.*;
+import games.GameType;
+import games.dominion.DominionConstants.DeckType;
+import games.dominion.DominionGameState;
+import games.dominion.cards.CardType;
+import games.dominion.cards.DominionCard;
+import org.junit.Test;
+
+import java.util.*;
+
+import static core.CoreConstants.VisibilityMode.VISIBLE_TO_ALL;
+import static org.junit.Assert.*;
+
+public class ComponentIndexing {
+
+    @Test
+    public void indexFindsEverything() {
+        ComponentIndex index = new ComponentIndex();
+        List<Card> cards = new ArrayList<>();
+        for (int i = 0; i < 1000; i++)
+            cards.add(new Card("Card " + i));
+        index.putAll(cards);
+        assertEquals(1000, index.size());
+        for (Card c : cards)
+            assertSame(c, index.get(c.getComponentID()));
+        assertNull(index.get(-1));
+
+        // a component with the same ID replaces the old one
+        Card copy = cards.get(10).copy();
+        index.put(copy);
+        assertEquals(1000, index.size());
+        assertSame(copy, index.get(copy.getComponentID()));
+
+        index.clear();
+        assertEquals(0, index.size());
+        assertNull(index.get(cards.get(0).getComponentID()));
+    }
+
+    @Test
+    public void indexDoesNotChangeComponents() {
+        ComponentIndex index = new ComponentIndex();
+        Deck<Card> deck = new Deck<>("Test", VISIBLE_TO_ALL);
+        deck.add(new Card("First"));
+        GridBoard<Token> board = new GridBoard<>(3, 3);
+        index.put(deck);
+        index.put(board);
+        assertEquals(3, index.size());  // the deck, the board and the card
+
+        // the index is a snapshot, and the state rebuilds it when needed
+        Card added = new Card("Added");
+        deck.add(added);
+        board.setElement(1, 1, new Token("x"));
+        assertNull(index.get(added.getComponentID()));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    public void missRebuildsTheIndex() {
+        Game game = GameType.Dominion.createGameInstance(3, 42);
+        DominionGameState state = (DominionGameState) game.getGameState();
+        Deck<DominionCard> hand = state.getDeck(DeckType.HAND, 0);
+        assertSame(hand, state.getComponentById(hand.getComponentID()));
+
+        // a card created after the index was built is found by rebuilding it
+        state.addCard(CardType.GOLD, 0, DeckType.HAND);
+        DominionCard gold = hand.peek();
+        assertEquals(CardType.GOLD, gold.cardType());
+        assertSame(gold, state.getComponentById(gold.getComponentID()));
+        assertSame(hand, state.getComponentById(hand.getComponentID()));
+        assertNull(state.getComponentById(-1));
+    }
+
+    @Test
+    public void stateLookupsMatchAllComponents() {
+        Game game = GameType.Dominion.createGameInstance(3, 42);
+        AbstractGameState state = game.getGameState();
+        AbstractForwardModel fm = game.getForwardModel();
+        Random rnd = new Random(1);
+        for (int i = 0; i < 200 && state.isNotTerminal(); i++) {
+            List<AbstractAction> actions = fm.computeAvailableActions(state);
+            fm.next(state, actions.get(rnd.nextInt(actions.size())));
+            // the index of the state itself is kept from one action to the next
+            Area expected = new Area(-1, "Expected");
+            expected.putComponents(state.getAllTopLevelComponents());
+            for (Map.Entry<Integer, Component> e : expected.getComponentsMap().entrySet())
+                assertSame(e.getValue(), state.getComponentById(e.getKey()));
+            AbstractGameState copy = state.copy();
+            if (i % 20 == 0) {
+                for (Map.Entry<Integer, Component> e : copy.getAllComponents().getComponentsMap().entrySet())
+                    assertSame(e.getValue(), copy.getComponentById(e.getKey()));
+            }
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package core;
+
+import core.actions.AbstractAction;
+import core.components.Component;
+import core.components.Deck;
+import core.components.PartialObservableDeck;
+import core.components.Token;
+import core.interfaces.IDeterminisableState;
+import games.GameType;
+import org.junit.Test;
+import players.PlayerConstants;
+import players.mcts.MCTSEnums;
+import players.mcts.MCTSParams;
+import players.mcts.MCTSPlayer;
+import players.simple.RandomPlayer;
+import utilities.DeterminisationUtilities;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class DeterminiserTest {
+
+    private AbstractGameState playedState(GameType gameType, int nPlayers, int moves) {
+        Game game = gameType.createGameInstance(nPlayers, 42);
+        List<AbstractPlayer> players = new ArrayList<>();
+        for (int p = 0; p < nPlayers; p++)
+            players.add(new RandomPlayer(new Random(p)));
+        game.reset(players);
+        AbstractForwardModel fm = game.getForwardModel();
+        AbstractGameState state = game.getGameState();
+        Random rnd = new Random(3);
+        for (int i = 0; i < moves && state.isNotTerminal(); i++) {
+            List<AbstractAction> actions = fm.computeAvailableActions(state);
+            fm.next(state, actions.get(rnd.nextInt(actions.size())));
+        }
+        return state;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Deck<Component>> decks(AbstractGameState state, int player) {
+        return ((IDeterminisableState<Component>) state).getDeterminisableDecks(player);
+    }
+
+    private List<String> contents(List<Deck<Component>> decks) {
+        List<String> retValue = new ArrayList<>();
+        for (Deck<Component> deck : decks)
+            for (Component c : deck)
+                retValue.add(c.toString());
+        Collections.sort(retValue);
+        return retValue;
+    }
+
+    @Test
+    public void determinisationsShuffleOnlyHiddenCards() {
+        for (GameType gameType : List.of(GameType.LoveLetter, GameType.Poker)) {
+            AbstractGameState state = playedState(gameType, 3, 4);
+            int player = state.getCurrentPlayer();
+            Determiniser determiniser = Determiniser.of(state, player);
+            assertNotNull(gameType.name(), determiniser);
+            assertTrue(gameType.name(), determiniser.getHiddenCount() > 2);
+
+            List<Deck<Component>> original = decks(state, player);
+            int[][] hidden = DeterminisationUtilities.hiddenPositions(player, original, c -> true);
+            Set<List<String>> hiddenArrangements = new HashSet<>();
+            AbstractGameState previous = null;
+            for (int i = 0; i < 20; i++) {
+                AbstractGameState determinisation = determiniser.determinise(previous);
+                assertNotSame(state, determinisation);
+                List<Deck<Component>> decks = decks(determinisation, player);
+                // the same cards are in play, and the same as in copy(player)
+                assertEquals(contents(original), contents(decks));
+                assertEquals(contents(decks(state.copy(player), player)), contents(decks));
+                List<String> arrangement = new ArrayList<>();
+                for (int d = 0; d < decks.size(); d++) {
+                    assertEquals(original.get(d).getSize(), decks.get(d).getSize());
+                    Set<Integer> hiddenInDeck = new HashSet<>();
+                    for (int position : hidden[d])
+                        hiddenInDeck.add(position);
+                    for (int position = 0; position < decks.get(d).getSize(); position++) {
+                        String card = decks.get(d).get(position).toString();
+                        if (hiddenInDeck.contains(position))
+                            arrangement.add(card);
+                        else  // cards that the player can see do not move
+                            assertEquals(original.get(d).get(position).toString(), card);
+                    }
+                }
+                hiddenArrangements.add(arrangement);
+                previous = determinisation;
+            }
+            assertTrue(gameType.name(), hiddenArrangements.size() > 1);
+        }
+    }
+
+    @Test
+    public void unsupportedGameHasNoDeterminiser() {
+        assertNull(Determiniser.of(playedState(GameType.TicTacToe, 2, 1), 0));
+    }
+
+    @Test
+    public void hiddenPositionsFollowVisibility() {
+        Deck<Token> topVisible = new Deck<>("Top", -1, CoreConstants.VisibilityMode.TOP_VISIBLE_TO_ALL);
+        Deck<Token> own = new Deck<>("Own", 1, CoreConstants.VisibilityMode.VISIBLE_TO_OWNER);
+        PartialObservableDeck<Token> partial = new PartialObservableDeck<>("Partial", 0, new boolean[]{false, false});
+        for (int i = 0; i < 3; i++) {
+            topVisible.add(new Token("T" + i));
+            own.add(new Token("O" + i));
+            partial.add(new Token("P" + i), new boolean[]{i == 1, i == 1});
+        }
+        int[][] forPlayerOne = DeterminisationUtilities.hiddenPositions(1, List.of(topVisible, own, partial), c -> true);
+        assertArrayEquals(new int[]{1, 2}, forPlayerOne[0]);
+        assertArrayEquals(new int[0], forPlayerOne[1]);
+        assertArrayEquals(new int[]{0, 2}, forPlayerOne[2]);
+        int[][] forPlayerZero = DeterminisationUtilities.hiddenPositions(0, List.of(own), c -> !c.getComponentName().equals("O0"));
+        assertArrayEquals(new int[]{0, 1}, forPlayerZero[0]);
+    }
+
+    @Test
+    public void informationSetSearchUsesDeterminiser() {
+        AbstractGameState state = playedState(GameType.LoveLetter, 2, 2);
+        MCTSParams params = new MCTSParams();
+        params.information = MCTSEnums.Information.Information_Set;
+        params.budgetType = PlayerConstants.BUDGET_ITERATIONS;
+        params.budget = 200;
+        MCTSPlayer player = new MCTSPlayer(params);
+        player.setForwardModel(GameType.LoveLetter.createGameInstance(2, 42).getForwardModel());
+        AbstractGameState before = state.copy();
+        List<AbstractAction> actions = player.getForwardModel().computeAvailableActions(state);
+        AbstractAction action = player.getAction(state, actions);
+        assertTrue(actions.contains(action));
+        // the search does not change the state it is given
+        assertEquals(contents(decks(before, 0)), contents(decks(state, 0)));
+        assertEquals(before.getCurrentPlayer(), state.getCurrentPlayer());
+    }
+}
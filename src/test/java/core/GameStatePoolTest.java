@@ -0,0 +1,141 @@
+package core;
+
+import core.actions.AbstractAction;
+import core.components.*;
+import games.GameType;
+import games.cantstop.CantStopGameState;
+import games.dominion.DominionGameState;
+import games.tictactoe.TicTacToeGameState;
+import org.junit.After;
+import org.junit.Test;
+import players.simple.RandomPlayer;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class GameStatePoolTest {
+
+    @After
+    public void tearDown() {
+        GameStatePool.clear();
+    }
+
+    @Test
+    public void pooledCopiesSameAsCopy() {
+        // CantStop does not override _copyInto(), so its copies are new states, and are not kept in the pool
+        for (GameType gameType : List.of(GameType.TicTacToe, GameType.Dominion, GameType.CantStop)) {
+            Game game = gameType.createGameInstance(2, 42);
+            game.reset(List.of(new RandomPlayer(new Random(1)), new RandomPlayer(new Random(2))));
+            AbstractForwardModel fm = game.getForwardModel();
+            AbstractGameState state = game.getGameState();
+            Random rnd = new Random(3);
+            AbstractGameState previous = null;
+            while (state.isNotTerminal()) {
+                AbstractGameState expected = state.copy();
+                AbstractGameState pooled = GameStatePool.copy(state);
+                assertNotSame(state, pooled);
+                assertEquals(gameType.name(), expected, pooled);
+                assertEquals(gameType.name(), expected.hashCode(), pooled.hashCode());
+                if (previous != null && gameType != GameType.CantStop)
+                    assertSame(gameType.name(), previous, pooled);
+
+                // changing the pooled copy (as a rollout does) does not change the original
+                List<AbstractAction> pooledActions = fm.computeAvailableActions(pooled);
+                fm.next(pooled, pooledActions.get(rnd.nextInt(pooledActions.size())));
+                assertEquals(gameType.name(), expected, state);
+                GameStatePool.release(pooled);
+                assertEquals(gameType == GameType.CantStop ? 0 : 1, GameStatePool.size(state.getClass()));
+                previous = pooled;
+
+                List<AbstractAction> actions = fm.computeAvailableActions(state);
+                fm.next(state, actions.get(rnd.nextInt(actions.size())));
+            }
+        }
+    }
+
+    @Test
+    public void onlyGamesWithCopyIntoArePooled() {
+        assertTrue(GameStatePool.isReusable(TicTacToeGameState.class));
+        assertTrue(GameStatePool.isReusable(DominionGameState.class));
+        assertFalse(GameStatePool.isReusable(CantStopGameState.class));
+    }
+
+    @Test
+    public void differentGameNotReused() {
+        Game game = GameType.TicTacToe.createGameInstance(2, 42);
+        game.reset(List.of(new RandomPlayer(new Random(1)), new RandomPlayer(new Random(2))));
+        Game threePlayers = GameType.Dominion.createGameInstance(3, 42);
+        AbstractGameState state = game.getGameState();
+        assertNotSame(state, state.copyInto(state, -1));
+        AbstractGameState other = threePlayers.getGameState().copy();
+        AbstractGameState copy = state.copyInto(other, -1);
+        assertNotSame(other, copy);
+        assertEquals(state.copy(), copy);
+    }
+
+    @Test
+    public void componentsCopiedInto() {
+        Deck<Token> deck = new Deck<>("Deck", CoreConstants.VisibilityMode.VISIBLE_TO_ALL);
+        for (int i = 0; i < 5; i++)
+            deck.add(new Token("Token " + i));
+        Deck<Token> target = deck.copy();
+        target.draw();
+        target.add(new Token("Extra"));
+        assertSame(target, deck.copyInto(target));
+        assertEquals(deck, target);
+        assertEquals(deck.getZobristHash(), target.getZobristHash());
+        // a deck with another ID is not reused
+        Deck<Token> otherDeck = new Deck<>("Deck", CoreConstants.VisibilityMode.VISIBLE_TO_ALL);
+        assertNotSame(otherDeck, deck.copyInto(otherDeck));
+        // nor is a deck that shares its components
+        Deck<Token> shared = deck.copyOnWrite();
+        assertSame(shared, deck.copyInto(shared));
+        shared.draw();
+        assertEquals(5, deck.getSize());
+
+        PartialObservableDeck<Token> hidden = new PartialObservableDeck<>("Hidden", 0, new boolean[]{true, false});
+        hidden.add(new Token("A"), new boolean[]{true, true});
+        hidden.add(new Token("B"));
+        PartialObservableDeck<Token> hiddenTarget = hidden.copy();
+        hiddenTarget.draw();
+        assertSame(hiddenTarget, hidden.copyInto(hiddenTarget));
+        assertEquals(hidden, hiddenTarget);
+        assertTrue(hiddenTarget.getVisibilityForPlayer(1, 1));
+        assertFalse(hiddenTarget.getVisibilityForPlayer(0, 1));
+
+        Counter counter = new Counter(new int[]{1, 2, 3}, "Counter");
+        counter.increment(1);
+        Counter counterTarget = counter.copy();
+        counterTarget.decrement(1);
+        assertSame(counterTarget, counter.copyInto(counterTarget));
+        assertEquals(counter, counterTarget);
+        assertEquals(2, counterTarget.getValue());
+
+        GridBoard<Token> grid = new GridBoard<>(3, 2);
+        grid.setElement(1, 1, new Token("X"));
+        GridBoard<Token> gridTarget = grid.copy();
+        gridTarget.setElement(0, 0, new Token("O"));
+        assertSame(gridTarget, grid.copyInto(gridTarget));
+        assertEquals(grid, gridTarget);
+        assertEquals(grid.getZobristHash(), gridTarget.getZobristHash());
+        gridTarget.setElement(2, 1, new Token("O"));
+        assertNull(grid.getElement(2, 1));
+
+        GraphBoard board = new GraphBoard("Board");
+        BoardNode a = new BoardNode(-1, "A");
+        BoardNode b = new BoardNode(-1, "B");
+        a.addNeighbour(b);
+        b.addNeighbour(a);
+        board.addBoardNode(a);
+        board.addBoardNode(b);
+        GraphBoard boardTarget = board.copy();
+        BoardNode targetA = boardTarget.getNodeByID(a.getComponentID());
+        targetA.getNeighbours().clear();
+        assertSame(boardTarget, board.copyInto(boardTarget));
+        assertSame(targetA, boardTarget.getNodeByID(a.getComponentID()));
+        assertEquals(1, targetA.getNeighbours().size());
+        assertSame(boardTarget.getNodeByID(b.getComponentID()), targetA.getNeighbours().iterator().next());
+    }
+}
@@ -1,8 +1,14 @@
 package core;
 
+import games.connect4.Connect4GameParameters;
+import games.diamant.DiamantParameters;
+import games.explodingkittens.ExplodingKittensParameters;
 import games.puertorico.PuertoRicoParameters;
+import games.uno.UnoGameParameters;
 import org.junit.Test;
 
+import java.util.List;
+
 import static org.junit.Assert.*;
 
 public class ParameterCopy {
@@ -16,4 +22,12 @@ public class ParameterCopy {
         assertNotEquals(params.getRandomSeed(), paramsCopy.getRandomSeed());
         assertEquals(params.hashCode(), paramsCopy.hashCode());
     }
+
+    @Test
+    public void copiesOfParametersAreEqual() {
+        for (AbstractParameters params : List.of(new Connect4GameParameters(), new DiamantParameters(),
+                new ExplodingKittensParameters(), new UnoGameParameters())) {
+            assertEquals(params, params.copy());
+        }
+    }
 }
@@ -0,0 +1,87 @@
+package core;
+
+import games.GameType;
+import org.junit.Test;
+import players.python.PythonAgent;
+import players.simple.RandomPlayer;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class PyTAGVectorEnvTest {
+
+    private PyTAGVectorEnv createEnv(int nThreads) throws Exception {
+        List<AbstractPlayer> players = List.of(new PythonAgent(), new RandomPlayer(new Random(5)));
+        return new PyTAGVectorEnv(GameType.TicTacToe, null, players, 6, 42, true, nThreads);
+    }
+
+    // picks a random valid action for each environment from the masks
+    private int[] randomActions(int[] masks, int actionSpace, Random rnd) {
+        int[] retValue = new int[masks.length / actionSpace];
+        for (int i = 0; i < retValue.length; i++) {
+            int action;
+            do {
+                action = rnd.nextInt(actionSpace);
+            } while (masks[i * actionSpace + action] != 1);
+            retValue[i] = action;
+        }
+        return retValue;
+    }
+
+    @Test
+    public void batchOfGames() throws Exception {
+        try (PyTAGVectorEnv env = createEnv(1)) {
+            env.reset();
+            assertEquals(6, env.getNumEnvs());
+            assertEquals(9, env.getObservationSpace());
+            assertEquals(9, env.getActionSpace());
+            Random rnd = new Random(1);
+            int finished = 0;
+            for (int step = 0; step < 50; step++) {
+                int[] masks = env.getActionMasks();
+                assertEquals(6 * 9, masks.length);
+                double[] observations = env.getObservations();
+                assertEquals(6 * 9, observations.length);
+                for (int i = 0; i < 6; i++) {
+                    assertArrayEquals(env.getEnv(i).getObservationVector(), Arrays.copyOfRange(observations, i * 9, i * 9 + 9), 0.0);
+                    assertEquals(0, env.getPlayerIDs()[i]);
+                }
+                env.step(randomActions(masks, 9, rnd));
+                for (int i = 0; i < 6; i++) {
+                    if (env.getDones()[i]) {
+                        finished++;
+                        assertNotNull(env.getPlayerResults(i));
+                        // and the environment has been reset for the next game
+                        assertFalse(env.getEnv(i).isDone());
+                    }
+                }
+            }
+            assertTrue(finished > 6);
+        }
+    }
+
+    @Test
+    public void parallelSameAsSerial() throws Exception {
+        try (PyTAGVectorEnv serial = createEnv(1); PyTAGVectorEnv parallel = createEnv(3)) {
+            serial.reset();
+            parallel.reset();
+            Random rnd = new Random(2);
+            for (int step = 0; step < 30; step++) {
+                int[] masks = serial.getActionMasks();
+                assertArrayEquals(masks, parallel.getActionMasks());
+                assertArrayEquals(serial.getObservations(), parallel.getObservations(), 0.0);
+                ByteBuffer buffer = parallel.getObservationBuffer();
+                assertTrue(buffer.isDirect());
+                for (int i = 0; i < serial.getObservations().length; i++)
+                    assertEquals(serial.getObservations()[i], buffer.asDoubleBuffer().get(i), 0.0);
+                int[] actions = randomActions(masks, serial.getActionSpace(), rnd);
+                assertArrayEquals(serial.step(actions), parallel.step(actions), 0.0);
+                assertArrayEquals(serial.getDones(), parallel.getDones());
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package core;
+
+import core.actions.AbstractAction;
+import core.components.Card;
+import core.components.Component;
+import core.components.Deck;
+import core.properties.PropertyString;
+import games.GameType;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class SharedCardProperties {
+
+    @Test
+    public void copiesShareUntilChanged() {
+        Card card = new Card("Test");
+        card.setProperty(new PropertyString("colour", "red"));
+        Card copy = card.copy();
+        assertSame(card.getProperty(new PropertyString("colour", "").getHashKey()),
+                copy.getProperty(new PropertyString("colour", "").getHashKey()));
+
+        copy.setProperty(new PropertyString("colour", "blue"));
+        int key = new PropertyString("colour", "").getHashKey();
+        assertEquals("red", ((PropertyString) card.getProperty(key)).value);
+        assertEquals("blue", ((PropertyString) copy.getProperty(key)).value);
+
+        card.setProperty(new PropertyString("size", "big"));
+        assertEquals(2, card.getNumProperties());
+        assertEquals(1, copy.getNumProperties());
+    }
+
+    @Test
+    public void copyIntoASharedCardKeepsOthersIntact() {
+        Card card = new Card("Test");
+        card.setProperty(new PropertyString("colour", "red"));
+        Card copy = card.copy();
+        Card other = new Card("Other");
+        other.setProperty(new PropertyString("shape", "round"));
+        // overwriting the properties of the copy does not touch those of the original
+        new Card("Blank").copyComponentTo(copy);
+        assertEquals(1, card.getNumProperties());
+        assertEquals(0, copy.getNumProperties());
+        other.copyComponentTo(card);
+        assertEquals(1, card.getNumProperties());
+        assertEquals("Other", card.getComponentName());
+    }
+
+    @Test
+    public void pandemicCopiesDoNotChangeOriginal() {
+        Game game = GameType.Pandemic.createGameInstance(4, 42);
+        AbstractGameState state = game.getGameState();
+        AbstractForwardModel fm = game.getForwardModel();
+        Random rnd = new Random(42);
+        for (int i = 0; i < 50 && state.isNotTerminal(); i++) {
+            Map<Integer, String> before = cardProperties(state);
+            AbstractGameState copy = state.copy();
+            // moving the copy forward changes none of the properties of the cards in the original
+            for (int j = 0; j < 3 && copy.isNotTerminal(); j++) {
+                List<AbstractAction> actions = fm.computeAvailableActions(copy);
+                fm.next(copy, actions.get(rnd.nextInt(actions.size())));
+            }
+            assertEquals(before, cardProperties(state));
+            List<AbstractAction> actions = fm.computeAvailableActions(state);
+            fm.next(state, actions.get(rnd.nextInt(actions.size())));
+        }
+    }
+
+    private Map<Integer, String> cardProperties(AbstractGameState state) {
+        Map<Integer, String> retValue = new HashMap<>();
+        for (Component c : state.getAllComponents().getComponents()) {
+            if (c instanceof Card)
+                retValue.put(c.getComponentID(), new TreeMap<>(c.getProperties()).toString());
+            if (c instanceof Deck<?>) {
+                for (Component card : ((Deck<?>) c).getComponents())
+                    if (card instanceof Card)
+                        retValue.put(card.getComponentID(), new TreeMap<>(card.getProperties()).toString());
+            }
+        }
+        return retValue;
+    }
+}
@@ -0,0 +1,154 @@
+package core;
+
+import core.actions.AbstractAction;
+import core.components.Card;
+import core.components.Component;
+import core.components.Deck;
+import core.components.GridBoard;
+import core.components.Token;
+import games.GameType;
+import org.junit.Test;
+import utilities.Pair;
+import utilities.SharedPrefixList;
+
+import java.util.*;
+
+import static core.CoreConstants.VisibilityMode.VISIBLE_TO_ALL;
+import static org.junit.Assert.*;
+
+public class StateCopying {
+
+    private void advance(AbstractGameState state, AbstractForwardModel fm, Random rnd, int ticks) {
+        for (int i = 0; i < ticks && state.isNotTerminal(); i++) {
+            List<AbstractAction> actions = fm.computeAvailableActions(state);
+            fm.next(state, actions.get(rnd.nextInt(actions.size())));
+        }
+    }
+
+    @Test
+    public void historyIsSharedUpToTheCopy() {
+        Game game = GameType.Dominion.createGameInstance(3, 42);
+        AbstractGameState state = game.getGameState();
+        AbstractForwardModel fm = game.getForwardModel();
+        advance(state, fm, new Random(1), 50);
+        List<Pair<Integer, AbstractAction>> before = state.getHistory();
+        List<String> beforeText = state.getHistoryAsText();
+
+        AbstractGameState copy = state.copy();
+        assertEquals(before, copy.getHistory());
+        assertEquals(beforeText, copy.getHistoryAsText());
+
+        advance(state, fm, new Random(2), 20);
+        advance(copy, fm, new Random(3), 30);
+        List<Pair<Integer, AbstractAction>> afterOriginal = state.getHistory();
+        List<Pair<Integer, AbstractAction>> afterCopy = copy.getHistory();
+        assertEquals(before.size() + 20, afterOriginal.size());
+        assertEquals(before.size() + 30, afterCopy.size());
+        assertEquals(before, afterOriginal.subList(0, before.size()));
+        assertEquals(before, afterCopy.subList(0, before.size()));
+        assertEquals(beforeText, state.getHistoryAsText().subList(0, beforeText.size()));
+    }
+
+    @Test
+    public void sharedPrefixListCopies() {
+        SharedPrefixList<Integer> list = new SharedPrefixList<>();
+        List<Integer> expected = new ArrayList<>();
+        List<SharedPrefixList<Integer>> copies = new ArrayList<>();
+        List<List<Integer>> expectedCopies = new ArrayList<>();
+        // more copies than the maximum depth of the chain of segments
+        for (int i = 0; i < 100; i++) {
+            list.add(i);
+            expected.add(i);
+            copies.add(list.copy());
+            expectedCopies.add(new ArrayList<>(expected));
+        }
+        for (int i = 0; i < copies.size(); i++) {
+            copies.get(i).add(-i);
+            expectedCopies.get(i).add(-i);
+        }
+        assertEquals(expected, list.toList());
+        for (int i = 0; i < expected.size(); i++)
+            assertEquals(expected.get(i), list.get(i));
+        for (int i = 0; i < copies.size(); i++) {
+            assertEquals(expectedCopies.get(i), copies.get(i).toList());
+            assertEquals(expectedCopies.get(i).size(), copies.get(i).size());
+            assertEquals(-i, (int) copies.get(i).get(i + 1));
+        }
+
+        // changing the shared part of one list does not affect any other
+        copies.get(50).set(10, 1000);
+        assertEquals(1000, (int) copies.get(50).get(10));
+        assertEquals(10, (int) list.get(10));
+        assertEquals(10, (int) copies.get(51).get(10));
+    }
+
+    @Test
+    public void componentsCanBeFoundInCopies() {
+        Game game = GameType.Dominion.createGameInstance(3, 42);
+        AbstractGameState state = game.getGameState();
+        advance(state, game.getForwardModel(), new Random(1), 50);
+        AbstractGameState copy = state.copy();
+        for (Component c : state.getAllComponents().getComponents()) {
+            Component found = copy.getComponentById(c.getComponentID());
+            assertNotNull(found);
+            assertEquals(c.getComponentName(), found.getComponentName());
+        }
+    }
+
+    @Test
+    public void copyOnWriteDeck() {
+        Deck<Card> deck = new Deck<>("Test", VISIBLE_TO_ALL);
+        for (int i = 0; i < 10; i++)
+            deck.add(new Card("Card " + i));
+        List<Card> original = new ArrayList<>(deck.getComponents());
+
+        Deck<Card> copy = deck.copyOnWrite();
+        assertEquals(deck, copy);
+        assertEquals(10, copy.getSize());
+
+        Card drawn = copy.draw();
+        copy.shuffle(new Random(3));
+        assertEquals(original, deck.getComponents());
+        assertEquals(9, copy.getSize());
+        assertFalse(copy.contains(drawn));
+
+        // and in the other direction
+        Deck<Card> secondCopy = deck.copyOnWrite();
+        deck.add(drawn);
+        deck.add(new Card("Extra"));
+        assertEquals(original, secondCopy.getComponents());
+        assertEquals(12, deck.getSize());
+
+        // and through getComponents(), including its iterator
+        Deck<Card> thirdCopy = deck.copyOnWrite();
+        Iterator<Card> it = deck.getComponents().iterator();
+        it.next();
+        it.next();
+        it.remove();
+        assertEquals(11, deck.getSize());
+        assertEquals(12, thirdCopy.getSize());
+        assertSame(thirdCopy.getComponents().get(2), deck.getComponents().get(1));
+        Deck<Card> fourthCopy = deck.copyOnWrite();
+        deck.getComponents().remove(drawn);
+        assertTrue(fourthCopy.contains(drawn));
+        assertFalse(deck.contains(drawn));
+    }
+
+    @Test
+    public void copyOnWriteGridBoard() {
+        GridBoard<Token> board = new GridBoard<>(3, 3, new Token("Empty"));
+        Token x = new Token("x");
+        board.setElement(1, 1, x);
+
+        GridBoard<Token> copy = board.copyOnWrite();
+        assertEquals(board, copy);
+        copy.setElement(0, 0, new Token("o"));
+        assertEquals("Empty", board.getElement(0, 0).getComponentName());
+        assertEquals("o", copy.getElement(0, 0).getComponentName());
+
+        GridBoard<Token> secondCopy = board.copyOnWrite();
+        board.setElement(2, 2, new Token("o"));
+        assertEquals("Empty", secondCopy.getElement(2, 2).getComponentName());
+        assertSame(x, secondCopy.getElement(1, 1));
+    }
+}
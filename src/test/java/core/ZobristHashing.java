@@ -0,0 +1,153 @@
+package core;
+
+import core.actions.AbstractAction;
+import core.actions.SetGridValueAction;
+import core.components.Card;
+import core.components.Deck;
+import core.components.GridBoard;
+import core.components.Token;
+import core.interfaces.IGridGameState;
+import core.interfaces.IZobristHashable;
+import games.GameType;
+import games.dotsboxes.DBEdgeAndScoreKey;
+import org.junit.Test;
+import utilities.LongObjectMap;
+
+import java.util.*;
+
+import static core.CoreConstants.VisibilityMode.VISIBLE_TO_ALL;
+import static org.junit.Assert.*;
+
+public class ZobristHashing {
+
+    private Deck<Card> deckOf(List<Card> cards) {
+        Deck<Card> retValue = new Deck<>("Test", VISIBLE_TO_ALL);
+        for (Card c : cards)
+            retValue.addToBottom(c);
+        return retValue;
+    }
+
+    @Test
+    public void deckHashIsUpdatedIncrementally() {
+        Random rnd = new Random(42);
+        Deck<Card> deck = new Deck<>("Test", VISIBLE_TO_ALL);
+        for (int i = 0; i < 20; i++)
+            deck.add(new Card("Card " + (i % 7)));
+        long initial = deck.getZobristHash();
+        assertEquals(initial, deckOf(new ArrayList<>(deck.getComponents())).getZobristHash());
+
+        for (int i = 0; i < 200; i++) {
+            switch (rnd.nextInt(4)) {
+                case 0 -> deck.add(new Card("Card " + rnd.nextInt(7)));
+                case 1 -> deck.draw();
+                case 2 -> deck.shuffle(rnd);
+                case 3 -> deck.copy().add(new Card("Not in deck"));
+            }
+            // the same cards (by name) give the same hash, in any order
+            List<Card> sameCards = new ArrayList<>();
+            for (Card c : deck)
+                sameCards.add(new Card(c.getComponentName()));
+            Collections.shuffle(sameCards, rnd);
+            assertEquals(deckOf(sameCards).getZobristHash(), deck.getZobristHash());
+            assertEquals(deckOf(sameCards).getZobristCheckHash(), deck.getZobristCheckHash());
+            assertEquals(deck.getZobristHash(), deck.copy().getZobristHash());
+            assertEquals(deck.getZobristCheckHash(), deck.copy().getZobristCheckHash());
+        }
+        deck.clear();
+        assertEquals(0L, deck.getZobristHash());
+        assertEquals(0L, deck.getZobristCheckHash());
+    }
+
+    @Test
+    public void gridBoardHashIsUpdatedIncrementally() {
+        Random rnd = new Random(42);
+        GridBoard<Token> board = new GridBoard<>(4, 5, new Token("."));
+        long empty = board.getZobristHash();
+        for (int i = 0; i < 200; i++) {
+            board.setElement(rnd.nextInt(4), rnd.nextInt(5), new Token(rnd.nextBoolean() ? "x" : "o"));
+            GridBoard<Token> fresh = new GridBoard<>(4, 5);
+            for (int x = 0; x < 4; x++)
+                for (int y = 0; y < 5; y++)
+                    fresh.setElement(x, y, new Token(board.getElement(x, y).getComponentName()));
+            assertEquals(fresh.getZobristHash(), board.getZobristHash());
+            assertEquals(board.getZobristHash(), board.copyOnWrite().getZobristHash());
+        }
+        for (int x = 0; x < 4; x++)
+            for (int y = 0; y < 5; y++)
+                board.setElement(x, y, new Token("."));
+        assertEquals(empty, board.getZobristHash());
+    }
+
+    @Test
+    public void transpositionsHaveTheSameHash() {
+        // the same TicTacToe position reached by two different move orders
+        int[][] firstOrder = {{0, 0}, {1, 1}, {2, 2}};
+        int[][] secondOrder = {{2, 2}, {1, 1}, {0, 0}};
+        long[] hashes = new long[2];
+        for (int run = 0; run < 2; run++) {
+            Game game = GameType.TicTacToe.createGameInstance(2, 42);
+            AbstractGameState state = game.getGameState();
+            AbstractForwardModel fm = game.getForwardModel();
+            long initial = ((IZobristHashable) state).getZobristHash();
+            for (int[] move : run == 0 ? firstOrder : secondOrder) {
+                AbstractAction action = fm.computeAvailableActions(state).stream()
+                        .filter(a -> a instanceof SetGridValueAction sgv && sgv.getX() == move[0] && sgv.getY() == move[1])
+                        .findFirst().orElseThrow();
+                fm.next(state, action);
+                assertNotEquals(initial, ((IZobristHashable) state).getZobristHash());
+            }
+            hashes[run] = ((IZobristHashable) state).getZobristHash();
+        }
+        assertEquals(hashes[0], hashes[1]);
+    }
+
+    @Test
+    public void distinctStatesHaveDistinctHashes() {
+        for (GameType gameType : List.of(GameType.TicTacToe, GameType.Connect4, GameType.DotsAndBoxes, GameType.Dominion)) {
+            Map<Long, String> seen = new HashMap<>();
+            for (int seed = 0; seed < 20; seed++) {
+                Game game = gameType.createGameInstance(2, 42);
+                AbstractGameState state = game.getGameState();
+                AbstractForwardModel fm = game.getForwardModel();
+                Random rnd = new Random(seed);
+                for (int i = 0; i < 30 && state.isNotTerminal(); i++) {
+                    List<AbstractAction> actions = fm.computeAvailableActions(state);
+                    fm.next(state, actions.get(rnd.nextInt(actions.size())));
+                    long hash = ((IZobristHashable) state).getZobristHash();
+                    // a copy has the same hash as the original
+                    assertEquals(hash, ((IZobristHashable) state.copy()).getZobristHash());
+                    // and different positions (as far as the hash is concerned) have different hashes
+                    if (gameType != GameType.Dominion) {
+                        String description = state instanceof IGridGameState<?> grid ?
+                                state.getCurrentPlayer() + grid.getGridBoard().toString() :
+                                new DBEdgeAndScoreKey().getKey(state);
+                        String previous = seen.putIfAbsent(hash, description);
+                        if (previous != null)
+                            assertEquals(gameType + " collision", previous, description);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void longObjectMap() {
+        LongObjectMap<String> map = new LongObjectMap<>();
+        Map<Long, String> expected = new HashMap<>();
+        Random rnd = new Random(42);
+        for (int i = 0; i < 20000; i++) {
+            long key = rnd.nextInt(500) * 0x1000000001L;
+            if (rnd.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                String value = "V" + i;
+                assertEquals(expected.put(key, value), map.put(key, value));
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        for (Map.Entry<Long, String> e : expected.entrySet())
+            assertEquals(e.getValue(), map.get(e.getKey()));
+        assertEquals(new HashSet<>(expected.values()), new HashSet<>(map.values()));
+        assertEquals(expected.keySet(), Arrays.stream(map.keys()).boxed().collect(java.util.stream.Collectors.toSet()));
+    }
+}
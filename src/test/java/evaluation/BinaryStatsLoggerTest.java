@@ -0,0 +1,223 @@
+package evaluation;
+
+import evaluation.loggers.BinaryStatsLogger;
+import evaluation.loggers.BinaryStatsReader;
+import evaluation.loggers.FileStatsLogger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import players.learners.AbstractLearner;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.DoubleBuffer;
+import java.nio.file.Files;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class BinaryStatsLoggerTest {
+
+    File directory;
+
+    @Before
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("BinaryStatsLoggerTest").toFile();
+    }
+
+    @After
+    public void tearDown() {
+        for (File file : Objects.requireNonNull(directory.listFiles()))
+            file.delete();
+        directory.delete();
+    }
+
+    private String file(String name) {
+        return new File(directory, name).getPath();
+    }
+
+    // the columns that AbstractLearner.loadData() expects
+    private Map<String, Object> featureRow(int row) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("GameID", (double) (row / 10));
+        data.put("Player", (double) (row % 2));
+        data.put("Round", (double) (row % 10));
+        data.put("Turn", (double) (row % 10));
+        data.put("CurrentScore", row % 7 * 0.5);
+        data.put("FeatureA", row % 3 * 0.25);
+        data.put("FeatureB", (double) (row % 5));
+        data.put("PlayerCount", 2.0);
+        data.put("TotalRounds", 10.0);
+        data.put("ActionScore", 0.0);
+        data.put("Win", (double) (row / 10 % 2));
+        data.put("Ordinal", (double) (2 - row / 10 % 2));
+        data.put("FinalScore", row / 10 * 1.5);
+        return data;
+    }
+
+    @Test
+    public void roundTripAcrossBlocks() throws IOException {
+        String fileName = file("data.bin");
+        BinaryStatsLogger logger = new BinaryStatsLogger(fileName, false);
+        int nRows = BinaryStatsLogger.BLOCK_SIZE * 2 + 17;
+        for (int i = 0; i < nRows; i++) {
+            Map<String, Object> data = new LinkedHashMap<>();
+            data.put("Index", i);
+            data.put("Value", i * 0.1);
+            // a nested map is flattened, as with FileStatsLogger
+            data.put("Nested", Map.of("Flag", i % 2 == 0));
+            if (i % 100 != 3)
+                data.put("Sometimes", -i);
+            logger.record(data);
+        }
+        logger.processDataAndFinish();
+        assertTrue(BinaryStatsLogger.isBinaryStatsFile(fileName));
+
+        try (BinaryStatsReader reader = new BinaryStatsReader(fileName)) {
+            assertArrayEquals(new String[]{"Index", "Value", "Flag", "Sometimes"}, reader.columns());
+            assertEquals(BinaryStatsLogger.TYPE_INT, reader.type(0));
+            assertEquals(BinaryStatsLogger.TYPE_DOUBLE, reader.type(1));
+            assertEquals(BinaryStatsLogger.TYPE_INT, reader.type(2));
+            assertEquals(nRows, reader.nRows());
+            assertEquals(3, reader.nBlocks());
+            assertEquals(17, reader.blockRows(2));
+            DoubleBuffer values = reader.doubleColumn(1, 1);
+            assertEquals(BinaryStatsLogger.BLOCK_SIZE, values.remaining());
+            assertEquals(BinaryStatsLogger.BLOCK_SIZE * 0.1, values.get(0), 0.0);
+            assertEquals(BinaryStatsLogger.MISSING_INT, reader.intColumn(0, 3).get(3));
+
+            double[][] rows = reader.readRows();
+            for (int i = 0; i < nRows; i++) {
+                assertEquals(i, rows[i][0], 0.0);
+                assertEquals(i * 0.1, rows[i][1], 0.0);
+                assertEquals(i % 2 == 0 ? 1.0 : 0.0, rows[i][2], 0.0);
+                if (i % 100 == 3)
+                    assertTrue(Double.isNaN(rows[i][3]));
+                else
+                    assertEquals(-i, rows[i][3], 0.0);
+            }
+        }
+    }
+
+    @Test
+    public void appendsToExistingFile() throws IOException {
+        String fileName = file("append.bin");
+        BinaryStatsLogger first = new BinaryStatsLogger(fileName, true);
+        first.record(Map.of("x", 1.0));
+        first.processDataAndNotFinish();
+        first.record(Map.of("x", 2.0));
+        first.processDataAndFinish();
+        // recording after the file is closed re-opens it
+        first.record(Map.of("x", 3.0));
+        first.processDataAndFinish();
+        BinaryStatsLogger second = new BinaryStatsLogger(fileName, true);
+        second.record(Map.of("x", 4.0));
+        second.processDataAndFinish();
+        try (BinaryStatsReader reader = new BinaryStatsReader(fileName)) {
+            assertEquals(4, reader.nRows());
+            assertEquals(4, reader.nBlocks());
+            double[][] rows = reader.readRows();
+            for (int i = 0; i < 4; i++)
+                assertEquals(i + 1.0, rows[i][0], 0.0);
+        }
+    }
+
+    @Test
+    public void appendingDifferentColumnsIsRejected() throws IOException {
+        String fileName = file("columns.bin");
+        BinaryStatsLogger first = new BinaryStatsLogger(fileName, true);
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("x", 1.0);
+        data.put("n", 1);
+        first.record(data);
+        first.processDataAndFinish();
+        // a new column
+        BinaryStatsLogger second = new BinaryStatsLogger(fileName, true);
+        assertThrows(IllegalArgumentException.class, () -> second.record(Map.of("x", 2.0, "n", 2, "y", 3.0)));
+        // a double for an int column
+        BinaryStatsLogger third = new BinaryStatsLogger(fileName, true);
+        assertThrows(IllegalArgumentException.class, () -> third.record(Map.of("x", 2.0, "n", 2.5)));
+        // the same columns, in a different order, are fine
+        BinaryStatsLogger fourth = new BinaryStatsLogger(fileName, true);
+        data = new LinkedHashMap<>();
+        data.put("n", 2);
+        data.put("x", 2.0);
+        fourth.record(data);
+        fourth.processDataAndFinish();
+        try (BinaryStatsReader reader = new BinaryStatsReader(fileName)) {
+            assertArrayEquals(new String[]{"x", "n"}, reader.columns());
+            assertEquals(2, reader.nRows());
+            assertArrayEquals(new double[]{2.0, 2.0}, reader.readRows()[1], 0.0);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nonNumericDataIsRejected() {
+        BinaryStatsLogger logger = new BinaryStatsLogger(file("text.bin"), false);
+        try {
+            logger.record(Map.of("name", "text"));
+        } finally {
+            logger.processDataAndFinish();
+        }
+    }
+
+    static class TestLearner extends AbstractLearner {
+        @Override
+        public void learnFrom(String... files) {
+            loadData(files);
+        }
+
+        @Override
+        public void writeToFile(String prefix) {
+        }
+
+        @Override
+        public String name() {
+            return "Test";
+        }
+
+        double[][] data() {
+            return dataArray;
+        }
+
+        double[][] targets() {
+            return target;
+        }
+
+        String[] header() {
+            return header;
+        }
+    }
+
+    @Test
+    public void learnerLoadsBinaryAndTextTheSame() {
+        String textFile = file("features.txt");
+        String binaryFile = file("features.bin");
+        FileStatsLogger textLogger = new FileStatsLogger(textFile, "\t", false);
+        BinaryStatsLogger binaryLogger = new BinaryStatsLogger(binaryFile, false);
+        for (int i = 0; i < 200; i++) {
+            textLogger.record(featureRow(i));
+            binaryLogger.record(featureRow(i));
+        }
+        textLogger.processDataAndFinish();
+        binaryLogger.processDataAndFinish();
+        assertFalse(BinaryStatsLogger.isBinaryStatsFile(textFile));
+
+        for (AbstractLearner.Target target : List.of(AbstractLearner.Target.WIN, AbstractLearner.Target.ORD_MEAN)) {
+            TestLearner fromText = new TestLearner();
+            fromText.setTarget(target);
+            fromText.setGamma(0.9);
+            fromText.learnFrom(textFile);
+            TestLearner fromBinary = new TestLearner();
+            fromBinary.setTarget(target);
+            fromBinary.setGamma(0.9);
+            fromBinary.learnFrom(binaryFile);
+            assertEquals(200, fromBinary.data().length);
+            assertArrayEquals(fromText.header(), fromBinary.header());
+            for (int i = 0; i < 200; i++) {
+                assertArrayEquals(fromText.data()[i], fromBinary.data()[i], 0.0);
+                assertArrayEquals(fromText.targets()[i], fromBinary.targets()[i], 0.0);
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package evaluation;
+
+import evaluation.optimisation.NTBEA;
+import evaluation.optimisation.NTBEAParameters;
+import games.GameType;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class ParallelNTBEATest {
+
+    private File runNTBEA(int nThreads, long seed) throws Exception {
+        File destDir = Files.createTempDirectory("NTBEA").toFile();
+        String[] args = {"game=TicTacToe", "nPlayers=2", "searchSpace=src/test/java/evaluation/NTBEASearch_TicTacToe.json",
+                "iterations=30", "repeats=3", "evalGames=6", "matchups=0", "seed=" + seed,
+                "nThreads=" + nThreads, "destDir=" + destDir.getAbsolutePath()};
+        Map<RunArg, Object> config = RunArg.parseConfig(args, List.of(RunArg.Usage.ParameterSearch));
+        NTBEAParameters params = new NTBEAParameters(config);
+        assertEquals(nThreads, params.nThreads);
+        NTBEA ntbea = new NTBEA(params, GameType.TicTacToe, 2);
+        ntbea.run();
+        return destDir;
+    }
+
+    @Test
+    public void sameResultsForTheSameSeedAndThreads() throws Exception {
+        // with fewer threads than repeats, and with spare threads used to evaluate batches
+        for (int nThreads : new int[]{2, 6}) {
+            File first = runNTBEA(nThreads, 42);
+            File second = runNTBEA(nThreads, 42);
+            // the log has the recommended settings and their estimated values from each repeat
+            for (String file : List.of("NTBEA.log", "Recommended_0.json", "Recommended_1.json", "Recommended_2.json", "Recommended_Final.json"))
+                assertEquals(file, Files.readAllLines(new File(first, file).toPath()), Files.readAllLines(new File(second, file).toPath()));
+            assertEquals(4, Files.readAllLines(new File(first, "NTBEA.log").toPath()).size());
+        }
+    }
+}
@@ -5,6 +5,9 @@ import evaluation.tournaments.AbstractTournament;
 import evaluation.tournaments.RoundRobinTournament;
 import games.GameType;
 import org.junit.*;
+import players.PlayerConstants;
+import players.mcts.MCTSParams;
+import players.mcts.MCTSPlayer;
 import players.simple.RandomPlayer;
 
 import java.io.File;
@@ -132,4 +135,43 @@ public class RunGamesTest {
         assertEquals(66, tournament.getNGamesPlayed()[3], 15);
     }
 
+    @Test
+    public void parallelModeMatchesSerial() {
+        parallelModeMatchesSerial(true);
+    }
+
+    @Test
+    public void parallelModeMatchesSerialWithoutResettingSeeds() {
+        // each game is played by new copies of the agents, so they do not need to reset their own seeds
+        parallelModeMatchesSerial(false);
+    }
+
+    private void parallelModeMatchesSerial(boolean resetSeedEachGame) {
+        // with agents whose play depends only on their seed, the results must not depend on the number of threads
+        double[][] results = new double[2][];
+        int[] threads = new int[]{1, 3};
+        for (int t = 0; t < threads.length; t++) {
+            agents = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                MCTSParams params = new MCTSParams();
+                params.setParameterValue("budgetType", PlayerConstants.BUDGET_ITERATIONS);
+                params.setParameterValue("budget", 10 + 20 * i);
+                params.setParameterValue("resetSeedEachGame", resetSeedEachGame);
+                params.setRandomSeed(42 + i);
+                agents.add(new MCTSPlayer(params, "MCTS-" + i));
+            }
+            config.put(RunArg.mode, "random");
+            config.put(RunArg.matchups, 30);
+            config.put(RunArg.seed, 1234L);
+            config.put(RunArg.nThreads, threads[t]);
+            tournament = new RoundRobinTournament(agents, GameType.TicTacToe, 2, null, config);
+            tournament.run();
+            results[t] = new double[agents.size() * 2];
+            for (int i = 0; i < agents.size(); i++) {
+                results[t][i * 2] = tournament.getWinRate(i);
+                results[t][i * 2 + 1] = tournament.getOrdinalRank(i);
+            }
+        }
+        assertArrayEquals(results[0], results[1], 0.0);
+    }
 }
@@ -0,0 +1,133 @@
+package evaluation;
+
+import evaluation.summarisers.QuantileSketch;
+import evaluation.summarisers.TAGNumericStatSummary;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class StreamingSummaryTest {
+
+    private double[] sample(int n, long seed) {
+        Random rnd = new Random(seed);
+        double[] retValue = new double[n];
+        for (int i = 0; i < n; i++) {
+            // skewed, with some repeats, so that all the summary statistics are non-trivial
+            retValue[i] = rnd.nextInt(10) == 0 ? retValue[Math.max(i - 1, 0)] : Math.exp(rnd.nextGaussian());
+        }
+        return retValue;
+    }
+
+    private void assertSameSummary(TAGNumericStatSummary expected, TAGNumericStatSummary actual, double medianTolerance) {
+        assertEquals(expected.n(), actual.n());
+        assertEquals(expected.min(), actual.min(), 0.0);
+        assertEquals(expected.max(), actual.max(), 0.0);
+        assertEquals(expected.mean(), actual.mean(), 1e-9);
+        assertEquals(expected.sd(), actual.sd(), 1e-9);
+        assertEquals(expected.skew(), actual.skew(), 1e-6);
+        assertEquals(expected.kurtosis(), actual.kurtosis(), 1e-6);
+        assertEquals(expected.median(), actual.median(), medianTolerance);
+        Map<String, Object> expectedSummary = expected.getSummary();
+        Map<String, Object> actualSummary = actual.getSummary();
+        assertEquals((double) expectedSummary.get("Delta"), (double) actualSummary.get("Delta"), 1e-9);
+        assertEquals((double) expectedSummary.get("VarCoeff"), (double) actualSummary.get("VarCoeff"), 1e-9);
+    }
+
+    @Test
+    public void streamingMatchesExactForSmallSamples() {
+        double[] data = sample(150, 1);
+        TAGNumericStatSummary exact = new TAGNumericStatSummary("exact");
+        TAGNumericStatSummary streaming = new TAGNumericStatSummary("streaming", true);
+        exact.add(data);
+        streaming.add(data);
+        assertTrue(streaming.isStreaming());
+        assertNull(streaming.getElements());
+        // fewer values than the sketch holds, so the median is exact too
+        assertSameSummary(exact, streaming, 0.0);
+    }
+
+    @Test
+    public void streamingMatchesExactForLargeSamples() {
+        double[] data = sample(200000, 2);
+        TAGNumericStatSummary exact = new TAGNumericStatSummary("exact");
+        TAGNumericStatSummary streaming = new TAGNumericStatSummary("streaming", true);
+        exact.add(data);
+        streaming.add(data);
+        assertSameSummary(exact, streaming, 0.05);
+    }
+
+    @Test
+    public void mergedWorkersMatchSingleSummary() {
+        double[] data = sample(50000, 3);
+        TAGNumericStatSummary exact = new TAGNumericStatSummary("exact");
+        exact.add(data);
+        // the data split unevenly across workers, as they would be with games of different lengths
+        int[] splits = {0, 7, 1000, 1001, 23456, 50000};
+        TAGNumericStatSummary merged = new TAGNumericStatSummary("merged", true);
+        for (int i = 0; i < splits.length - 1; i++) {
+            TAGNumericStatSummary worker = new TAGNumericStatSummary("worker", true);
+            worker.add(Arrays.copyOfRange(data, splits[i], splits[i + 1]));
+            merged.add(worker);
+        }
+        assertSameSummary(exact, merged, 0.05);
+
+        // and an exact summary can be merged into a streaming one
+        TAGNumericStatSummary mixed = new TAGNumericStatSummary("mixed", true);
+        TAGNumericStatSummary firstHalf = new TAGNumericStatSummary("first");
+        firstHalf.add(Arrays.copyOfRange(data, 0, 25000));
+        mixed.add(firstHalf);
+        TAGNumericStatSummary secondHalf = new TAGNumericStatSummary("second", true);
+        secondHalf.add(Arrays.copyOfRange(data, 25000, 50000));
+        mixed.add(secondHalf);
+        assertSameSummary(exact, mixed, 0.05);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void cannotAddStreamingToExact() {
+        TAGNumericStatSummary streaming = new TAGNumericStatSummary("streaming", true);
+        streaming.add(1.0);
+        new TAGNumericStatSummary("exact").add(streaming);
+    }
+
+    @Test
+    public void copyIsIndependent() {
+        TAGNumericStatSummary streaming = new TAGNumericStatSummary("streaming", true);
+        streaming.add(sample(1000, 4));
+        TAGNumericStatSummary copy = streaming.copy();
+        assertSameSummary(streaming, copy, 0.0);
+        copy.add(1000.0);
+        assertEquals(1000, streaming.n());
+        assertNotEquals(streaming.max(), copy.max(), 0.0);
+    }
+
+    @Test
+    public void sketchQuantilesHaveBoundedRankError() {
+        int n = 1000000;
+        QuantileSketch sketch = new QuantileSketch();
+        Random rnd = new Random(5);
+        // a permutation of 0 .. n-1, so the rank of each value is the value
+        int[] values = new int[n];
+        for (int i = 0; i < n; i++)
+            values[i] = i;
+        for (int i = n - 1; i > 0; i--) {
+            int j = rnd.nextInt(i + 1);
+            int tmp = values[i];
+            values[i] = values[j];
+            values[j] = tmp;
+        }
+        for (int v : values)
+            sketch.add(v);
+        assertEquals(n, sketch.n());
+        assertTrue(sketch.retained() < 1000);
+        for (double q = 0.0; q <= 1.0; q += 0.05) {
+            double rankError = Math.abs(sketch.quantile(q) - Math.min(Math.floor(q * n), n - 1)) / n;
+            assertEquals("Quantile " + q, 0.0, rankError, 0.02);
+        }
+        assertEquals(0.0, sketch.min(), 0.0);
+        assertEquals(n - 1, sketch.max(), 0.0);
+    }
+}
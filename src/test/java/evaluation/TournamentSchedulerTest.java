@@ -0,0 +1,111 @@
+package evaluation;
+
+import core.AbstractPlayer;
+import evaluation.tournaments.RoundRobinTournament;
+import evaluation.tournaments.SkillGrid;
+import evaluation.tournaments.TournamentScheduler;
+import games.GameType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import players.PlayerConstants;
+import players.mcts.MCTSParams;
+import players.mcts.MCTSPlayer;
+import players.simple.RandomPlayer;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class TournamentSchedulerTest {
+
+    File directory;
+    Map<RunArg, Object> config;
+
+    @Before
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("TournamentSchedulerTest").toFile();
+        config = RunArg.parseConfig(new String[]{}, Collections.singletonList(RunArg.Usage.RunGames));
+        config.put(RunArg.game, "TicTacToe");
+        config.put(RunArg.nPlayers, 2);
+        config.put(RunArg.matchups, 20);
+        config.put(RunArg.verbose, false);
+        config.put(RunArg.destDir, directory.getPath());
+        config.put(RunArg.listener, new ArrayList<String>());
+    }
+
+    @After
+    public void tearDown() {
+        for (File file : Objects.requireNonNull(directory.listFiles()))
+            file.delete();
+        directory.delete();
+    }
+
+    private List<AbstractPlayer> agents(int n) {
+        List<AbstractPlayer> retValue = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            AbstractPlayer agent = new RandomPlayer(new Random(i));
+            agent.setName("Random " + i);
+            retValue.add(agent);
+        }
+        return retValue;
+    }
+
+    @Test
+    public void tournamentsAreReturnedInOrder() {
+        List<AbstractPlayer> agents = agents(4);
+        TournamentScheduler scheduler = new TournamentScheduler(3, agents);
+        assertTrue(scheduler.isParallel());
+        config.put(RunArg.mode, "onevsall");
+        for (int i = 1; i < agents.size(); i++) {
+            config.put(RunArg.matchups, 10 * i);
+            List<AbstractPlayer> pair = TournamentScheduler.copyAgents(List.of(agents.get(0), agents.get(i)));
+            assertEquals(agents.get(i).toString(), pair.get(1).toString());
+            scheduler.submit(new RoundRobinTournament(pair, GameType.TicTacToe, 2, null, config));
+        }
+        scheduler.finish();
+        assertEquals(3, scheduler.submitted());
+        for (int i = 0; i < 3; i++) {
+            RoundRobinTournament tournament = scheduler.get(i);
+            assertTrue(scheduler.isDone(i));
+            assertEquals(10 * (i + 1), tournament.getNGamesPlayed()[0]);
+        }
+    }
+
+    @Test
+    public void skillGridInParallel() throws IOException {
+        config.put(RunArg.nThreads, 3);
+        new SkillGrid(agents(3), config).run();
+        // one tournament for each pair, all reported to the same file
+        List<String> lines = Files.readAllLines(new File(directory, "TournamentResults.txt").toPath());
+        assertEquals(3, lines.stream().filter(l -> l.startsWith("Game: TicTacToe")).count());
+    }
+
+    @Test
+    public void timeBudgetsLimitConcurrency() {
+        int processors = Runtime.getRuntime().availableProcessors();
+        MCTSParams params = new MCTSParams();
+        params.budgetType = PlayerConstants.BUDGET_TIME;
+        List<AbstractPlayer> agents = List.of(new MCTSPlayer(params), new RandomPlayer());
+        assertEquals(Math.max(1, processors / 2), TournamentScheduler.threadsToUse(processors * 2, agents));
+        assertEquals(processors * 2, TournamentScheduler.threadsToUse(processors * 2, agents(2)));
+        assertEquals(processors, TournamentScheduler.threadsToUse(0, agents(2)));
+    }
+
+    @Test
+    public void agentsAddedLaterLimitConcurrency() {
+        int processors = Runtime.getRuntime().availableProcessors();
+        TournamentScheduler scheduler = new TournamentScheduler(processors * 2, agents(2));
+        assertEquals(processors * 2, scheduler.maxConcurrent());
+        scheduler.addAgents(agents(1));
+        assertEquals(processors * 2, scheduler.maxConcurrent());
+        MCTSParams params = new MCTSParams();
+        params.budgetType = PlayerConstants.BUDGET_TIME;
+        scheduler.addAgents(List.of(new MCTSPlayer(params)));
+        assertEquals(Math.max(1, processors / 2), scheduler.maxConcurrent());
+        scheduler.finish();
+    }
+}
@@ -0,0 +1,78 @@
+package games.catan;
+
+import core.components.Edge;
+import core.components.GraphBoardWithEdges;
+import games.catan.components.Building;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class RoadNetworkTest {
+
+    // Nodes 0 - 1 - 2 - 3 - 4 in a line, with a branch 2 - 5 - 6 and a loop 3 - 7 - 4
+    private Building[] nodes;
+    private Edge[] edges;
+    private GraphBoardWithEdges graph;
+    private final int[][] layout = {{0, 1}, {1, 2}, {2, 3}, {3, 4}, {2, 5}, {5, 6}, {3, 7}, {7, 4}};
+
+    @Before
+    public void setup() {
+        graph = new GraphBoardWithEdges();
+        nodes = new Building[8];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = new Building();
+            graph.addBoardNode(nodes[i]);
+        }
+        edges = new Edge[layout.length];
+        for (int i = 0; i < layout.length; i++) {
+            edges[i] = graph.addConnection(nodes[layout[i][0]], nodes[layout[i][1]]);
+        }
+    }
+
+    private int build(RoadNetwork network, int player, int... roads) {
+        int length = 0;
+        for (int road : roads) {
+            edges[road].setOwnerId(player);
+            length = network.addRoad(player, edges[road].getComponentID());
+        }
+        return length;
+    }
+
+    @Test
+    public void longestRoadIsLongestTrail() {
+        RoadNetwork network = new RoadNetwork(graph, 2);
+        assertEquals(2, build(network, 0, 0, 1));
+        // a separate shorter road does not change the longest
+        assertEquals(2, build(network, 0, 5));
+        // joining them up through the branch: 0-1-2-5-6
+        assertEquals(4, build(network, 0, 4));
+        assertEquals(4, build(network, 0, 2));
+        // with the loop, 0-1-2-3-7-4-3 uses every edge once
+        assertEquals(6, build(network, 0, 6, 7, 3));
+        assertEquals(0, network.getLongestRoad(1));
+    }
+
+    @Test
+    public void settlementsOfOthersBreakRoads() {
+        RoadNetwork network = new RoadNetwork(graph, 2);
+        assertEquals(4, build(network, 0, 0, 1, 2, 3));
+        // a settlement of the same player does not break it
+        assertEquals(Collections.emptySet(), network.addSettlement(0, nodes[1].getComponentID()));
+        assertEquals(4, network.getLongestRoad(0));
+
+        assertEquals(Collections.singleton(0), network.addSettlement(1, nodes[2].getComponentID()));
+        assertEquals(2, network.getLongestRoad(0));
+
+        // copies are independent, and indexing a graph that already has owners gives the same lengths
+        RoadNetwork copy = network.copy();
+        nodes[2].setOwnerId(1);
+        nodes[1].setOwnerId(0);
+        assertEquals(copy, new RoadNetwork(graph, 2));
+        assertEquals(4, build(copy, 0, 6, 7));
+        assertEquals(2, network.getLongestRoad(0));
+        assertNotEquals(copy, network);
+    }
+}
@@ -0,0 +1,121 @@
+package games.connect4;
+
+import core.AbstractForwardModel;
+import core.AbstractGameState;
+import core.CoreConstants;
+import core.Game;
+import core.actions.AbstractAction;
+import core.components.Component;
+import core.components.Token;
+import games.GameType;
+import org.junit.Test;
+import utilities.Pair;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class BitboardTests {
+
+    private Game createGame(int gridSize, int winCount, boolean bitboard) {
+        Connect4GameParameters params = new Connect4GameParameters();
+        params.setParameterValue("gridSize", gridSize);
+        params.setParameterValue("winCount", winCount);
+        params.setParameterValue("bitboard", bitboard);
+        params._reset();
+        params.setRandomSeed(42);
+        return GameType.Connect4.createGameInstance(2, params);
+    }
+
+    @Test
+    public void parameterSelectsBitboard() {
+        assertNotNull(((Connect4GameState) createGame(8, 4, true).getGameState()).getBitboard());
+        assertNull(((Connect4GameState) createGame(8, 4, false).getGameState()).getBitboard());
+    }
+
+    @Test
+    public void sameOutcomesAsGridBoard() {
+        int[][] settings = {{8, 4}, {6, 4}, {6, 3}, {10, 5}, {12, 6}};
+        int wins = 0, draws = 0;
+        for (int[] setting : settings) {
+            for (int seed = 0; seed < 100; seed++) {
+                Game gridGame = createGame(setting[0], setting[1], false);
+                Game bitGame = createGame(setting[0], setting[1], true);
+                Connect4GameState gridState = (Connect4GameState) gridGame.getGameState();
+                Connect4GameState bitState = (Connect4GameState) bitGame.getGameState();
+                AbstractForwardModel gridFM = gridGame.getForwardModel();
+                AbstractForwardModel bitFM = bitGame.getForwardModel();
+                Random rnd = new Random(seed);
+                while (gridState.isNotTerminal()) {
+                    List<AbstractAction> gridActions = gridFM.computeAvailableActions(gridState);
+                    List<AbstractAction> bitActions = bitFM.computeAvailableActions(bitState);
+                    assertEquals(gridActions, bitActions);
+                    int choice = rnd.nextInt(gridActions.size());
+                    gridFM.next(gridState, gridActions.get(choice));
+                    // play some of the moves on a copy, to check that copies are independent
+                    if (rnd.nextInt(4) == 0) {
+                        AbstractGameState copy = bitState.copy();
+                        bitFM.next(copy, bitActions.get(choice));
+                        bitFM.next(bitState, bitActions.get(choice));
+                        assertEquals(copy.getGameStatus(), bitState.getGameStatus());
+                        assertEquals(((Connect4GameState) copy).getGridBoard(), bitState.getGridBoard());
+                    } else {
+                        bitFM.next(bitState, bitActions.get(choice));
+                    }
+                    assertEquals(gridState.getGameStatus(), bitState.getGameStatus());
+                }
+                assertFalse(bitState.isNotTerminal());
+                assertEquals(gridState.getGridBoard(), bitState.getGridBoard());
+                assertArrayEquals(gridState.getPlayerResults(), bitState.getPlayerResults());
+                if (gridState.getGameStatus() == CoreConstants.GameResult.DRAW_GAME) {
+                    draws++;
+                } else {
+                    wins++;
+                    // the winning cells are a line for the winner
+                    LinkedList<Pair<Integer, Integer>> cells = bitState.getWinningCells();
+                    assertEquals(setting[1], cells.size());
+                    int winner = bitState.getPlayerResults()[0] == CoreConstants.GameResult.WIN_GAME ? 0 : 1;
+                    Token winnerToken = Connect4Constants.playerMapping.get(winner);
+                    for (Pair<Integer, Integer> cell : cells)
+                        assertEquals(winnerToken.getTokenType(), bitState.getGridBoard().getElement(cell.a, cell.b).getTokenType());
+                }
+            }
+        }
+        assertTrue(wins > 0);
+        assertTrue(draws > 0);
+    }
+
+    @Test
+    public void actionsAreCached() {
+        Game game = createGame(8, 4, true);
+        AbstractGameState state = game.getGameState();
+        AbstractForwardModel fm = game.getForwardModel();
+        List<AbstractAction> first = fm.computeAvailableActions(state);
+        List<AbstractAction> second = fm.computeAvailableActions(state.copy());
+        for (int i = 0; i < first.size(); i++)
+            assertSame(first.get(i), second.get(i));
+    }
+
+    @Test
+    public void equalsAndHashCodeDoNotChangeTheGrid() {
+        Game gridGame = createGame(8, 4, false);
+        Game bitGame = createGame(8, 4, true);
+        Connect4GameState gridState = (Connect4GameState) gridGame.getGameState();
+        Connect4GameState bitState = (Connect4GameState) bitGame.getGameState();
+        Random rnd = new Random(7);
+        for (int i = 0; i < 10; i++) {
+            List<AbstractAction> actions = gridGame.getForwardModel().computeAvailableActions(gridState);
+            int choice = rnd.nextInt(actions.size());
+            gridGame.getForwardModel().next(gridState, actions.get(choice));
+            bitGame.getForwardModel().next(bitState, bitGame.getForwardModel().computeAvailableActions(bitState).get(choice));
+        }
+        Component[][] grid = bitState.gridBoard.getGridValues();
+        AbstractGameState copy = bitState.copy();
+        assertEquals(bitState, copy);
+        assertEquals(bitState.hashCode(), copy.hashCode());
+        assertEquals(gridState.toString(), bitState.toString());
+        // the grid of the bitboard state has not been brought up to date (or copied)
+        assertSame(grid, bitState.gridBoard.getGridValues());
+        assertArrayEquals(gridState.getGridBoard().flattenGrid(), bitState.getGridBoard().flattenGrid());
+    }
+}
@@ -0,0 +1,102 @@
+package games.dotsboxes;
+
+import core.AbstractForwardModel;
+import core.AbstractGameState;
+import core.Game;
+import core.actions.AbstractAction;
+import games.GameType;
+import org.junit.Test;
+import utilities.Vector2D;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class DBGameStateTest {
+
+    private DBEdge edge(int x1, int y1, int x2, int y2) {
+        return new DBEdge(new Vector2D(x1, y1), new Vector2D(x2, y2));
+    }
+
+    private void play(AbstractForwardModel fm, DBGameState state, DBEdge... edges) {
+        for (DBEdge edge : edges) {
+            AbstractAction action = new AddGridCellEdge(edge);
+            assertTrue(fm.computeAvailableActions(state).contains(action));
+            fm.next(state, action);
+        }
+    }
+
+    @Test
+    public void completingACellScoresAndKeepsTheTurn() {
+        Game game = GameType.DotsAndBoxes.createGameInstance(2, 42);
+        DBGameState state = (DBGameState) game.getGameState();
+        AbstractForwardModel fm = game.getForwardModel();
+        assertEquals(state.grid.edges.length, fm.computeAvailableActions(state).size());
+        play(fm, state, edge(0, 0, 1, 0), edge(0, 0, 0, 1), edge(1, 0, 1, 1));
+        assertEquals(3, state.countCompleteEdges(state.grid.cells[0]));
+        assertEquals(0, state.nCellsComplete);
+
+        int player = state.getCurrentPlayer();
+        play(fm, state, edge(1, 1, 0, 1));  // either direction is the same edge
+        assertEquals(1, state.getGameScore(player), 0.0);
+        assertEquals(player, state.cellOwner[0]);
+        assertEquals(player, state.getCurrentPlayer());
+    }
+
+    @Test
+    public void copiesAreEqual() {
+        Game game = GameType.DotsAndBoxes.createGameInstance(2, 42);
+        DBGameState state = (DBGameState) game.getGameState();
+        assertEquals(state, state.copy());
+        play(game.getForwardModel(), state, edge(0, 0, 1, 0), edge(0, 0, 0, 1));
+        AbstractGameState copy = state.copy();
+        assertEquals(state, copy);
+        assertEquals(state.hashCode(), copy.hashCode());
+        play(game.getForwardModel(), state, edge(1, 0, 1, 1));
+        assertNotEquals(state, copy);
+    }
+
+    @Test
+    public void transpositionsHaveTheSameKey() {
+        DBEdgeAndScoreKey key = new DBEdgeAndScoreKey();
+        DBEdge[] edges = {edge(0, 0, 1, 0), edge(2, 2, 2, 3), edge(3, 1, 4, 1), edge(0, 2, 0, 3)};
+        String[] keys = new String[2];
+        long[] hashes = new long[2];
+        for (int run = 0; run < 2; run++) {
+            Game game = GameType.DotsAndBoxes.createGameInstance(2, 42);
+            DBGameState state = (DBGameState) game.getGameState();
+            if (run == 0) {
+                play(game.getForwardModel(), state, edges);
+            } else {
+                play(game.getForwardModel(), state, edges[2], edges[1], edges[0], edges[3]);
+            }
+            keys[run] = key.getKey(state);
+            hashes[run] = key.getHash(state);
+        }
+        assertEquals(keys[0], keys[1]);
+        assertEquals(hashes[0], hashes[1]);
+    }
+
+    @Test
+    public void copyIntoMatchesCopy() {
+        Game game = GameType.DotsAndBoxes.createGameInstance(3, 42);
+        AbstractGameState state = game.getGameState();
+        AbstractForwardModel fm = game.getForwardModel();
+        DBEdgeAndScoreKey key = new DBEdgeAndScoreKey();
+        Random rnd = new Random(42);
+        AbstractGameState target = state.copy();
+        while (state.isNotTerminal()) {
+            List<AbstractAction> actions = fm.computeAvailableActions(state);
+            fm.next(state, actions.get(rnd.nextInt(actions.size())));
+            target = state.copyInto(target, -1);
+            assertEquals(state.copy().toString(), target.toString());
+            assertEquals(key.getKey(state), key.getKey(target));
+            // and moving the target on does not change the state it was copied from
+            String before = state.toString();
+            if (target.isNotTerminal())
+                fm.next(target, fm.computeAvailableActions(target).get(0));
+            assertEquals(before, state.toString());
+        }
+    }
+}
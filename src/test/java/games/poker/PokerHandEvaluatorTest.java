@@ -0,0 +1,121 @@
+package games.poker;
+
+import core.components.FrenchCard;
+import games.poker.components.MoneyPot;
+import org.junit.Test;
+
+import java.util.*;
+
+import static core.components.FrenchCard.FrenchCardType.*;
+import static core.components.FrenchCard.Suite.*;
+import static games.poker.PokerHandEvaluator.*;
+import static org.junit.Assert.*;
+
+public class PokerHandEvaluatorTest {
+
+    // Parses cards such as "As", "Td", "9h", "2c"
+    private int[] cards(String hand) {
+        String[] names = hand.split(" ");
+        int[] retValue = new int[names.length];
+        for (int i = 0; i < names.length; i++) {
+            char n = names[i].charAt(0);
+            FrenchCard.Suite suite = names[i].charAt(1) == 's' ? Spades : names[i].charAt(1) == 'h' ? Hearts :
+                    names[i].charAt(1) == 'd' ? Diamonds : Clubs;
+            FrenchCard card;
+            switch (n) {
+                case 'A': card = new FrenchCard(Ace, suite); break;
+                case 'K': card = new FrenchCard(King, suite); break;
+                case 'Q': card = new FrenchCard(Queen, suite); break;
+                case 'J': card = new FrenchCard(Jack, suite); break;
+                case 'T': card = new FrenchCard(Number, suite, 10); break;
+                default: card = new FrenchCard(Number, suite, n - '0');
+            }
+            retValue[i] = encode(card);
+        }
+        return retValue;
+    }
+
+    private int strength(String hand) {
+        return evaluate(cards(hand));
+    }
+
+    @Test
+    public void handTypes() {
+        assertEquals(STRAIGHT_FLUSH, handType(strength("As Ks Qs Js Ts 2d 3c")));
+        assertEquals(PokerGameState.PokerHand.RoyalFlush, pokerHand(strength("As Ks Qs Js Ts 2d 3c")));
+        assertEquals(STRAIGHT_FLUSH, handType(strength("5h 4h 3h 2h Ah Kd Kc")));
+        assertEquals(FOUR_OF_A_KIND, handType(strength("9s 9h 9d 9c As Kd Qc")));
+        assertEquals(FULL_HOUSE, handType(strength("9s 9h 9d Kc Ks Kd 2c")));
+        assertEquals(FLUSH, handType(strength("2d 5d 9d Jd Kd Ks Kh")));
+        assertEquals(STRAIGHT, handType(strength("Ah 2d 3c 4s 5h Kd Kc")));
+        assertEquals(STRAIGHT, handType(strength("9h Td Jc Qs Kh")));
+        assertEquals(THREE_OF_A_KIND, handType(strength("7h 7d 7c As 2h")));
+        assertEquals(TWO_PAIR, handType(strength("7h 7d 2c 2s 4h 4c Ad")));
+        assertEquals(ONE_PAIR, handType(strength("7h 7d")));
+        assertEquals(HIGH_CARD, handType(strength("7h 2d 9c Js 4h Kd 3c")));
+        assertEquals(PokerGameState.PokerHand.HighCard, pokerHand(strength("7h 2d 9c Js 4h Kd 3c")));
+        assertEquals(1.0, normalise(strength("As Ks Qs Js Ts")), 1e-9);
+    }
+
+    @Test
+    public void tieBreaks() {
+        // higher type wins over higher cards
+        assertTrue(strength("2h 3d 4c 5s 6h") > strength("Ah Ad Ac Ks Qh"));
+        // the wheel is the lowest straight
+        assertTrue(strength("2h 3d 4c 5s 6h") > strength("Ah 2d 3c 4s 5h"));
+        // pairs are compared before kickers, and then kickers in order
+        assertTrue(strength("3h 3d 2c 4s 5h") > strength("2h 2d Ac Ks Qh"));
+        assertTrue(strength("Kh Kd Ac 4s 3h") > strength("Ks Kc Qc Js Th"));
+        assertTrue(strength("Kh Kd Ac Qs 3h") > strength("Ks Kc Ad Js Th"));
+        // two pair with the same pairs is decided by the kicker, and only the best kicker counts
+        assertTrue(strength("Jh Jd 4c 4s 9h") > strength("Js Jc 4d 4h 8h"));
+        assertEquals(strength("Jh Jd 4c 4s 3c 3d 9h"), strength("Js Jc 4d 4h 9s 8c"));
+        // only the best five cards count
+        assertEquals(strength("Ah Kd Qc Js 9h 3c 2d"), strength("As Kc Qd Jh 9s 4d 3h"));
+        // full house with higher trips wins
+        assertTrue(strength("3h 3d 3c 2s 2h") > strength("2d 2c 2h Ah As"));
+        // flushes are compared card by card
+        assertTrue(strength("Ah 9h 7h 5h 3h") > strength("Ad 9d 7d 5d 2d"));
+    }
+
+    @Test
+    public void sevenCardsMatchBestFiveCardHand() {
+        Random rnd = new Random(42);
+        List<Integer> deck = new ArrayList<>();
+        for (int suite = 0; suite < 4; suite++)
+            for (int n = 0; n < 13; n++)
+                deck.add(suite * 16 + n);
+        for (int test = 0; test < 2000; test++) {
+            Collections.shuffle(deck, rnd);
+            int[] seven = new int[7];
+            for (int i = 0; i < 7; i++)
+                seven[i] = deck.get(i);
+            int best = -1;
+            // leave out each pair of cards in turn
+            for (int a = 0; a < 7; a++) {
+                for (int b = a + 1; b < 7; b++) {
+                    int[] five = new int[5];
+                    int k = 0;
+                    for (int i = 0; i < 7; i++)
+                        if (i != a && i != b) five[k++] = seven[i];
+                    best = Math.max(best, evaluate(five));
+                }
+            }
+            assertEquals(best, evaluate(seven));
+        }
+    }
+
+    @Test
+    public void winnersOfPotHaveBestHand() {
+        PokerForwardModel fm = new PokerForwardModel();
+        PokerGameState state = new PokerGameState(new PokerGameParameters(), 3);
+        fm.setup(state);
+        MoneyPot pot = state.getMoneyPots().get(0);
+        for (int p = 0; p < 3; p++)
+            pot.increment(10, p);
+        int[] strengths = new int[]{strength("Ah Ad 2c 3s 7h"), strength("Kh Kd 2d 3h 7c"), strength("As Ac 2h 3c 7d")};
+        assertEquals(new HashSet<>(Arrays.asList(0, 2)), fm.getWinner(state, pot, strengths));
+        strengths[2] = -1;  // folded
+        assertEquals(Collections.singleton(0), fm.getWinner(state, pot, strengths));
+    }
+}
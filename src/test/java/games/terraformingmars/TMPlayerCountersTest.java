@@ -0,0 +1,82 @@
+package games.terraformingmars;
+
+import core.components.Counter;
+import games.terraformingmars.components.TMPlayerCounters;
+import org.junit.Test;
+
+import java.util.HashMap;
+
+import static games.terraformingmars.TMTypes.Resource.*;
+import static org.junit.Assert.*;
+
+public class TMPlayerCountersTest {
+
+    private TMPlayerCounters<TMTypes.Resource> resources() {
+        TMPlayerCounters<TMTypes.Resource> resources = new TMPlayerCounters<>(TMTypes.Resource.class, 2);
+        resources.add(MegaCredit, 10, 0, 100, "MegaCredit-%d");
+        resources.add(Heat, 0, 0, 100, "Heat-%d");
+        return resources;
+    }
+
+    @Test
+    public void valuesAreClampedToBounds() {
+        TMPlayerCounters<TMTypes.Resource> resources = resources();
+        assertTrue(resources.contains(MegaCredit));
+        assertFalse(resources.contains(Plant));
+        assertTrue(resources.increment(0, MegaCredit, 5));
+        assertEquals(15, resources.get(0, MegaCredit));
+        assertEquals(10, resources.get(1, MegaCredit));
+        assertFalse(resources.decrement(1, MegaCredit, 20));
+        assertEquals(0, resources.get(1, MegaCredit));
+        assertFalse(resources.increment(0, Heat, 200));
+        assertEquals(100, resources.get(0, Heat));
+    }
+
+    @Test
+    public void countersAreViewsOfTheValues() {
+        TMPlayerCounters<TMTypes.Resource> resources = resources();
+        Counter counter = resources.counter(1, MegaCredit);
+        assertNull(resources.counter(1, Plant));
+        assertEquals("MegaCredit-1", counter.getComponentName());
+        assertEquals(2, resources.counters(1).size());
+        counter.increment(3);
+        assertEquals(13, resources.get(1, MegaCredit));
+        resources.set(1, MegaCredit, 4);
+        assertEquals(4, counter.getValue());
+
+        // copies of a counter are independent of the array, but keep the same ID
+        Counter copy = counter.copy();
+        copy.increment(1);
+        assertEquals(4, resources.get(1, MegaCredit));
+        assertEquals(counter.getComponentID(), copy.getComponentID());
+    }
+
+    @Test
+    public void copiesAreIndependent() {
+        TMPlayerCounters<TMTypes.Resource> resources = resources();
+        TMPlayerCounters<TMTypes.Resource> copy = resources.copy();
+        assertEquals(resources, copy);
+        assertEquals(resources.hashCode(), copy.hashCode());
+        assertEquals(resources.counter(0, Heat).getComponentID(), copy.counter(0, Heat).getComponentID());
+
+        copy.increment(0, Heat, 2);
+        copy.counter(1, MegaCredit).decrement(1);
+        assertEquals(0, resources.get(0, Heat));
+        assertEquals(10, resources.get(1, MegaCredit));
+        assertEquals(9, copy.get(1, MegaCredit));
+        assertNotEquals(resources, copy);
+    }
+
+    @Test
+    public void mapsAreViewsOfTheValues() {
+        TMPlayerCounters<TMTypes.Resource> resources = resources();
+        HashMap<TMTypes.Resource, Counter>[] maps = resources.toMaps();
+        assertEquals(2, maps.length);
+        assertEquals(2, maps[0].size());
+        assertFalse(maps[0].containsKey(Plant));
+        assertSame(resources.counter(1, Heat), maps[1].get(Heat));
+        maps[1].get(Heat).increment(7);
+        assertEquals(7, resources.get(1, Heat));
+        assertEquals(0, resources.get(0, Heat));
+    }
+}
@@ -0,0 +1,67 @@
+package players.heuristics;
+
+import core.AbstractGameState;
+import core.interfaces.IStateFeatureVector;
+import games.GameType;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class CompiledDecisionTreeTests {
+
+    @Test
+    public void handBuiltTree() {
+        // if (f0 <= 0.5) { if (f2 in {1, 3}) 1 else 2 } else 3
+        CompiledDecisionTree tree = new CompiledDecisionTree(
+                new int[]{0, 2, -1, -1, -1},
+                new double[]{0.5, 0.0, 0.0, 0.0, 0.0},
+                new double[][]{null, {1.0, 3.0}, null, null, null},
+                new int[]{1, 2, -1, -1, -1},
+                new int[]{4, 3, -1, -1, -1},
+                new double[]{0.0, 0.0, 1.0, 2.0, 3.0});
+        assertEquals(1.0, tree.predict(new double[]{0.5, 9.0, 3.0}), 0.0);
+        assertEquals(2.0, tree.predict(new double[]{0.0, 9.0, 2.0}), 0.0);
+        assertEquals(3.0, tree.predict(new double[]{0.6, 9.0, 1.0}), 0.0);
+        assertEquals(5, tree.size());
+        assertEquals(2, tree.depth());
+    }
+
+    @Test
+    public void sameAsSparkModel() throws Exception {
+        // A DecisionTreeRegressionModel (maxDepth 5, 3 features) as saved by Spark, and what Spark predicts for
+        // some feature vectors (the first three columns), so that this test does not need Spark to run
+        String directory = "src/test/java/players/heuristics/DecisionTreeModel";
+        CompiledDecisionTree tree = CompiledDecisionTree.load(directory);
+        assertEquals(5, tree.depth());
+        List<String> lines = Files.readAllLines(Paths.get(directory, "ExpectedPredictions.txt"));
+        assertEquals(200, lines.size());
+        for (String line : lines) {
+            double[] values = Arrays.stream(line.split("\t")).mapToDouble(Double::parseDouble).toArray();
+            assertEquals(values[3], tree.predict(Arrays.copyOf(values, 3)), 0.0);
+        }
+    }
+
+    @Test
+    public void stateHeuristicUsesTree() {
+        String directory = "src/test/java/players/heuristics/DecisionTreeModel";
+        IStateFeatureVector features = new IStateFeatureVector() {
+            @Override
+            public double[] featureVector(AbstractGameState state, int playerID) {
+                return new double[]{0.8680586799484394, 4.0, 0.20624917494348666};
+            }
+
+            @Override
+            public String[] names() {
+                return new String[]{"a", "b", "c"};
+            }
+        };
+        DecisionTreeStateHeuristic heuristic = new DecisionTreeStateHeuristic(features, directory, null);
+        AbstractGameState state = GameType.TicTacToe.createGameInstance(2, 42).getGameState();
+        assertEquals(8.369063547665412, heuristic.evaluateState(state, 0), 0.0);
+    }
+}
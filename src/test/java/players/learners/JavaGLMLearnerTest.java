@@ -0,0 +1,130 @@
+package players.learners;
+
+import evaluation.loggers.FileStatsLogger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class JavaGLMLearnerTest {
+
+    File directory;
+
+    @Before
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("JavaGLMLearnerTest").toFile();
+    }
+
+    @After
+    public void tearDown() {
+        for (File file : Objects.requireNonNull(directory.listFiles()))
+            file.delete();
+        directory.delete();
+    }
+
+    // writes games of 10 rounds with three features, one of which (A) is correlated with the result
+    private String writeData(String name, int seed, int games) {
+        String file = new File(directory, name).getPath();
+        Random rnd = new Random(seed);
+        FileStatsLogger logger = new FileStatsLogger(file, "\t", false);
+        for (int g = 0; g < games; g++) {
+            double skill = rnd.nextGaussian();
+            int win = rnd.nextDouble() < 1 / (1 + Math.exp(-skill)) ? 1 : 0;
+            for (int r = 0; r < 10; r++) {
+                Map<String, Object> data = new LinkedHashMap<>();
+                data.put("GameID", (double) g);
+                data.put("Player", (double) (g % 2));
+                data.put("Round", (double) r);
+                data.put("Turn", (double) r);
+                data.put("CurrentScore", r * 0.5 + rnd.nextGaussian());
+                data.put("A", skill + rnd.nextGaussian());
+                data.put("B", rnd.nextGaussian() * 3 + 2);
+                data.put("C", (double) (r % 3));
+                data.put("PlayerCount", 2.0);
+                data.put("TotalRounds", 10.0);
+                data.put("ActionScore", 0.0);
+                data.put("Win", (double) win);
+                data.put("Ordinal", (double) (2 - win));
+                data.put("FinalScore", 5 + 3 * skill + rnd.nextGaussian());
+                logger.record(data);
+            }
+        }
+        logger.processDataAndFinish();
+        return file;
+    }
+
+    @Test
+    public void sameCoefficientsAsSpark() {
+        // the expected values are those from OLSLearner and LogisticLearner on the same data
+        String file = writeData("data.txt", 3, 60);
+        JavaOLSLearner ols = new JavaOLSLearner(0.9, AbstractLearner.Target.SCORE);
+        ols.learnFrom(file);
+        assertArrayEquals(new double[]{2.909, 0.7541, -0.01893, 0.03996}, ols.getCoefficients(), 1e-3);
+        JavaLogisticLearner logistic = new JavaLogisticLearner(0.9, AbstractLearner.Target.WIN);
+        logistic.learnFrom(file);
+        assertArrayEquals(new double[]{-0.9577, 0.2037, -0.0318, 0.0235}, logistic.getCoefficients(), 1e-4);
+    }
+
+    @Test
+    public void unregularisedOLSFitsExactly() {
+        JavaGLMLearner.SufficientStatistics statistics = new JavaGLMLearner.SufficientStatistics(3);
+        Random rnd = new Random(1);
+        for (int i = 0; i < 50; i++) {
+            double[] x = {1.0, rnd.nextGaussian(), rnd.nextGaussian() * 10};
+            statistics.add(x, 1.5 - 2.0 * x[1] + 0.25 * x[2], 1.0);
+        }
+        assertArrayEquals(new double[]{1.5, -2.0, 0.25}, statistics.solve(0.0, true, true), 1e-9);
+    }
+
+    @Test
+    public void constantFeatureHasZeroCoefficient() {
+        JavaGLMLearner.SufficientStatistics statistics = new JavaGLMLearner.SufficientStatistics(3);
+        Random rnd = new Random(1);
+        for (int i = 0; i < 50; i++) {
+            double[] x = {1.0, rnd.nextGaussian(), 4.0};
+            statistics.add(x, 1.0 + x[1], 1.0);
+        }
+        double[] coefficients = statistics.solve(0.0, true, true);
+        assertArrayEquals(new double[]{1.0, 1.0, 0.0}, coefficients, 1e-9);
+    }
+
+    @Test
+    public void incrementalLearningUsesAllData() {
+        String first = writeData("first.txt", 5, 40);
+        String second = writeData("second.txt", 6, 40);
+
+        JavaOLSLearner incrementalOLS = new JavaOLSLearner(0.9, AbstractLearner.Target.SCORE, true);
+        incrementalOLS.learnFrom(first);
+        double[] firstCoefficients = incrementalOLS.getCoefficients();
+        incrementalOLS.learnFrom(second);
+        JavaOLSLearner batchOLS = new JavaOLSLearner(0.9, AbstractLearner.Target.SCORE);
+        batchOLS.learnFrom(first, second);
+        assertArrayEquals(batchOLS.getCoefficients(), incrementalOLS.getCoefficients(), 1e-9);
+        assertNotEquals(firstCoefficients[1], incrementalOLS.getCoefficients()[1], 1e-6);
+
+        // without incremental, only the latest data is used
+        JavaOLSLearner ols = new JavaOLSLearner(0.9, AbstractLearner.Target.SCORE);
+        ols.learnFrom(first);
+        ols.learnFrom(second);
+        JavaOLSLearner secondOnly = new JavaOLSLearner(0.9, AbstractLearner.Target.SCORE);
+        secondOnly.learnFrom(second);
+        assertArrayEquals(secondOnly.getCoefficients(), ols.getCoefficients(), 1e-12);
+
+        // the logistic fit starts from the previous coefficients, so converges to the same answer
+        JavaLogisticLearner incrementalLogistic = new JavaLogisticLearner(0.9, AbstractLearner.Target.WIN, true);
+        incrementalLogistic.learnFrom(first);
+        incrementalLogistic.learnFrom(second);
+        JavaLogisticLearner batchLogistic = new JavaLogisticLearner(0.9, AbstractLearner.Target.WIN);
+        batchLogistic.learnFrom(first, second);
+        assertArrayEquals(batchLogistic.getCoefficients(), incrementalLogistic.getCoefficients(), 1e-5);
+    }
+}
@@ -0,0 +1,150 @@
+package players.mcts;
+
+import core.*;
+import core.actions.AbstractAction;
+import games.GameType;
+import games.dominion.DominionForwardModel;
+import games.dominion.DominionGameState;
+import games.dominion.DominionParameters;
+import org.junit.*;
+import players.PlayerConstants;
+import players.simple.RandomPlayer;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class CompactTreeNodeTests {
+
+    MCTSParams params;
+
+    @Before
+    public void setup() {
+        params = new MCTSParams();
+        params.setParameterValue("randomSeed", 9332);
+        params.setParameterValue("opponentTreePolicy", MCTSEnums.OpponentTreePolicy.OneTree);
+        params.setParameterValue("information", MCTSEnums.Information.Information_Set);
+        params.setParameterValue("maxTreeDepth", 50);
+        params.setParameterValue("rolloutLength", 10);
+        params.setParameterValue("budgetType", PlayerConstants.BUDGET_ITERATIONS);
+        params.setParameterValue("budget", 200);
+        params.setParameterValue("compactNodes", true);
+        params._reset();
+    }
+
+    private List<SingleTreeNode> runDominion(MCTSParams params, int moves) {
+        TestMCTSPlayer mctsPlayer = new TestMCTSPlayer(params, null);
+        List<AbstractPlayer> players = new ArrayList<>();
+        players.add(mctsPlayer);
+        players.add(new RandomPlayer(new Random(3023)));
+        players.add(new RandomPlayer(new Random(244)));
+        DominionParameters dp = new DominionParameters();
+        dp.setRandomSeed(330245);
+        Game game = new Game(GameType.Dominion, players, new DominionForwardModel(), new DominionGameState(dp, players.size()));
+        AbstractGameState state = game.getGameState();
+        AbstractForwardModel forwardModel = game.getForwardModel();
+        List<SingleTreeNode> roots = new ArrayList<>();
+        do {
+            AbstractAction actionChosen = game.getPlayers().get(state.getCurrentPlayer())
+                    ._getAction(state, forwardModel.computeAvailableActions(state));
+            if (state.getCurrentPlayer() == 0)
+                roots.add(mctsPlayer.getRoot(0));
+            forwardModel.next(state, actionChosen);
+        } while (roots.size() < moves);
+        return roots;
+    }
+
+    private void checkVisits(SingleTreeNode root, int expectedVisits) {
+        assertTrue(root instanceof CompactTreeNode);
+        assertEquals(expectedVisits, root.getVisits());
+        int childVisits = root.actionsWithStats().stream().mapToInt(root::actionVisits).sum();
+        assertEquals(expectedVisits, childVisits);
+        for (SingleTreeNode node : root.allNodesInTree()) {
+            // the maps of the default layout are never filled
+            assertTrue(node.children.isEmpty());
+            assertTrue(node.actionValues.isEmpty());
+            assertEquals(node.actionStatsCount(), node.getChildren().size());
+            for (AbstractAction action : node.actionsWithStats()) {
+                ActionStats stats = node.getActionStats(action);
+                assertTrue(stats.validVisits >= stats.nVisits);
+                assertEquals(stats.nVisits, node.actionVisits(action));
+            }
+        }
+    }
+
+    @Test
+    public void ucbTreePolicy() {
+        for (SingleTreeNode root : runDominion(params, 4))
+            checkVisits(root, 200);
+    }
+
+    @Test
+    public void exp3TreePolicy() {
+        params.setParameterValue("treePolicy", MCTSEnums.TreePolicy.EXP3);
+        params._reset();
+        for (SingleTreeNode root : runDominion(params, 4))
+            checkVisits(root, 200);
+    }
+
+    @Test
+    public void regretMatchingTreePolicy() {
+        params.setParameterValue("treePolicy", MCTSEnums.TreePolicy.RegretMatching);
+        params._reset();
+        for (SingleTreeNode root : runDominion(params, 4))
+            checkVisits(root, 200);
+    }
+
+    @Test
+    public void lambdaBackup() {
+        params.setParameterValue("backupPolicy", MCTSEnums.BackupPolicy.Lambda);
+        params.setParameterValue("backupLambda", 0.5);
+        params._reset();
+        for (SingleTreeNode root : runDominion(params, 4))
+            checkVisits(root, 200);
+    }
+
+    @Test
+    public void sameStatisticsAsDefaultLayout() {
+        // TicTacToe has no randomness, so the two layouts should make exactly the same search
+        params.setParameterValue("information", MCTSEnums.Information.Closed_Loop);
+        params._reset();
+        List<List<SingleTreeNode>> rootsByLayout = new ArrayList<>();
+        for (boolean compact : new boolean[]{false, true}) {
+            MCTSParams mctsParams = (MCTSParams) params.copy();
+            mctsParams.setParameterValue("compactNodes", compact);
+            mctsParams._reset();
+            mctsParams.setRandomSeed(9332);
+            TestMCTSPlayer mctsPlayer = new TestMCTSPlayer(mctsParams, null);
+            List<AbstractPlayer> players = List.of(mctsPlayer, new RandomPlayer(new Random(3023)));
+            Game game = GameType.TicTacToe.createGameInstance(2, 42);
+            game.reset(players);
+            AbstractGameState state = game.getGameState();
+            AbstractForwardModel forwardModel = game.getForwardModel();
+            List<SingleTreeNode> roots = new ArrayList<>();
+            while (state.isNotTerminal()) {
+                AbstractAction action = players.get(state.getCurrentPlayer())._getAction(state, forwardModel.computeAvailableActions(state));
+                if (state.getCurrentPlayer() == 0)
+                    roots.add(mctsPlayer.getRoot(0));
+                forwardModel.next(state, action);
+            }
+            rootsByLayout.add(roots);
+        }
+        List<SingleTreeNode> standard = rootsByLayout.get(0);
+        List<SingleTreeNode> compact = rootsByLayout.get(1);
+        assertEquals(standard.size(), compact.size());
+        for (int i = 0; i < standard.size(); i++) {
+            SingleTreeNode s = standard.get(i);
+            SingleTreeNode c = compact.get(i);
+            assertFalse(s instanceof CompactTreeNode);
+            assertTrue(c instanceof CompactTreeNode);
+            assertEquals(s.getVisits(), c.getVisits());
+            assertEquals(s.allNodesInTree().size(), c.allNodesInTree().size());
+            assertEquals(s.actionStatsCount(), c.actionStatsCount());
+            for (AbstractAction action : s.actionsWithStats()) {
+                assertEquals(s.actionVisits(action), c.actionVisits(action));
+                for (int p = 0; p < 2; p++)
+                    assertEquals(s.actionTotValue(action, p), c.actionTotValue(action, p), 1e-9);
+            }
+        }
+    }
+}
@@ -57,8 +57,9 @@ public class MASTRolloutMixture {
         node.updateMASTStatistics(actions, new ArrayList<>(), new double[]{1.0});
         node.updateMASTStatistics(actions, new ArrayList<>(), new double[]{2.0});
 
-        assertEquals(new Pair<>(2, 3.0), node.MASTStatistics.get(0).get(new LMRAction("Left")));
-        assertNull(node.MASTStatistics.get(0).get(new LMRAction("Middle")));
+        assertEquals(2, node.MASTStatistics.count(0, new LMRAction("Left").hashCode()));
+        assertEquals(3.0, node.MASTStatistics.total(0, new LMRAction("Left").hashCode()), 0.0);
+        assertFalse(node.MASTStatistics.contains(0, new LMRAction("Middle").hashCode()));
 
         // Now check that the rollout policy uses the MAST statistics
         assertEquals(1.5, rolloutPlayer.valueOf(new LMRAction("Left"), game), 0.001);
@@ -91,8 +92,9 @@ public class MASTRolloutMixture {
         node.updateMASTStatistics(actions, new ArrayList<>(), new double[]{1.0});
         node.updateMASTStatistics(actions, new ArrayList<>(), new double[]{2.0});
 
-        assertEquals(new Pair<>(2, 3.0), node.MASTStatistics.get(0).get(new LMRAction("Left")));
-        assertNull(node.MASTStatistics.get(0).get(new LMRAction("Middle")));
+        assertEquals(2, node.MASTStatistics.count(0, new LMRAction("Left").hashCode()));
+        assertEquals(3.0, node.MASTStatistics.total(0, new LMRAction("Left").hashCode()), 0.0);
+        assertFalse(node.MASTStatistics.contains(0, new LMRAction("Middle").hashCode()));
 
         // Now check that the rollout policy uses the MAST statistics
         assertEquals(1.5, rolloutPlayer.valueOf(new LMRAction("Left"), game), 0.001);
@@ -131,8 +133,9 @@ public class MASTRolloutMixture {
         node.updateMASTStatistics(actions, new ArrayList<>(), new double[]{1.0});
         node.updateMASTStatistics(actions, new ArrayList<>(), new double[]{2.0});
 
-        assertEquals(new Pair<>(2, 3.0), node.MASTStatistics.get(0).get(new LMRAction("Left")));
-        assertNull(node.MASTStatistics.get(0).get(new LMRAction("Middle")));
+        assertEquals(2, node.MASTStatistics.count(0, new LMRAction("Left").hashCode()));
+        assertEquals(3.0, node.MASTStatistics.total(0, new LMRAction("Left").hashCode()), 0.0);
+        assertFalse(node.MASTStatistics.contains(0, new LMRAction("Middle").hashCode()));
 
         // Now check that the rollout policy uses the MAST statistics
         assertEquals((1.5 + 47.0) / 2.0, rolloutPlayer.valueOf(new LMRAction("Left"), game), 0.001);
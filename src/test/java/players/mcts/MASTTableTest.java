@@ -0,0 +1,79 @@
+package players.mcts;
+
+import org.junit.Test;
+import utilities.Pair;
+import utilities.Utils;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class MASTTableTest {
+
+    @Test
+    public void sameStatisticsAsMapWithDecay() {
+        // the table should give the same results as the previous Map<Integer, Pair<Integer, Double>>, using Utils.decay
+        MASTTable table = new MASTTable(2);
+        Map<Integer, Pair<Integer, Double>> map = new HashMap<>();
+        Random rnd = new Random(7);
+        for (int move = 0; move < 30; move++) {
+            for (int i = 0; i < 500; i++) {
+                // keys spread over a large range, and a few hundred of them, to make the table resize
+                int key = rnd.nextInt(300) * 104729 - 5000000;
+                double value = rnd.nextDouble();
+                table.update(1, key, value);
+                Pair<Integer, Double> stats = map.getOrDefault(key, new Pair<>(0, 0.0));
+                map.put(key, new Pair<>(stats.a + 1, stats.b + value));
+            }
+            double gamma = move % 3 == 0 ? 0.5 : 0.9;
+            table.decay(gamma);
+            map = Utils.decay(map, gamma);
+
+            assertEquals(map.size(), table.size(1));
+            for (Map.Entry<Integer, Pair<Integer, Double>> entry : map.entrySet()) {
+                int key = entry.getKey();
+                assertEquals((int) entry.getValue().a, table.count(1, key));
+                assertEquals(entry.getValue().b, table.total(1, key), 1e-9);
+                double expected = entry.getValue().a > 0 ? entry.getValue().b / entry.getValue().a : -1.0;
+                assertEquals(expected, table.value(1, key, -1.0), 1e-9);
+            }
+        }
+        assertEquals(0, table.size(0));
+        assertEquals(-1.0, table.value(0, 42, -1.0), 0.0);
+    }
+
+    @Test
+    public void decayOutsideRangeDoesNothing() {
+        MASTTable table = new MASTTable(1);
+        table.update(0, 3, 2.0);
+        table.update(0, 3, 4.0);
+        table.decay(1.0);
+        assertEquals(2, table.count(0, 3));
+        assertEquals(3.0, table.value(0, 3, 0.0), 0.0);
+        table.decay(0.5);
+        assertEquals(1, table.count(0, 3));
+        assertEquals(3.0, table.total(0, 3), 0.0);
+    }
+
+    @Test
+    public void mergeAndCopy() {
+        MASTTable a = new MASTTable(2);
+        MASTTable b = new MASTTable(2);
+        a.update(0, 1, 1.0);
+        a.update(0, 1, 3.0);
+        a.decay(0.5);
+        b.update(0, 1, 10.0);
+        b.update(1, 2, 5.0);
+        MASTTable copy = a.copy();
+        a.merge(b);
+        assertEquals(2, a.count(0, 1));
+        assertEquals(12.0, a.total(0, 1), 0.0);
+        assertEquals(5.0, a.value(1, 2, 0.0), 0.0);
+        // the copy is unchanged
+        assertEquals(1, copy.count(0, 1));
+        assertEquals(2.0, copy.total(0, 1), 0.0);
+        assertFalse(copy.contains(1, 2));
+    }
+}
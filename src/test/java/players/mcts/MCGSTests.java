@@ -1,9 +1,12 @@
 package players.mcts;
 
+import core.AbstractGameState;
 import core.AbstractPlayer;
 import core.Game;
+import core.interfaces.IStateHash;
 import evaluation.features.StateKeyFromFeatureVector;
 import evaluation.features.TurnAndPlayerOnly;
+import evaluation.features.ZobristStateHash;
 import games.GameType;
 import games.dotsboxes.*;
 import games.loveletter.LoveLetterParameters;
@@ -18,6 +21,7 @@ import java.util.*;
 import java.util.function.Predicate;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
 
 public class MCGSTests {
@@ -135,6 +139,72 @@ public class MCGSTests {
         } while (game.getGameState().isNotTerminal());
     }
 
+    @Test
+    public void OneHundredIterationsHasMaxDepth2WithZobristHash() {
+        params.opponentTreePolicy = MCTSEnums.OpponentTreePolicy.MCGS;
+        params.MCGSStateHash = new ZobristStateHash();
+        params.budget = 100;
+        Game game = createDotsAndBoxes(params);
+        do {
+            int p = game.getGameState().getCurrentPlayer();
+            game.oneAction();
+            if (p == 0 && game.getTick() < 9) {
+                MCGSNode root = (MCGSNode) mctsPlayer.getRoot(0);
+                TreeStatistics stats = new TreeStatistics(root);
+                assertEquals(2, stats.depthReached);
+                assertEquals(101, stats.totalNodes);
+                assertEquals(101, root.graphNodes().size());
+                assertTrue(root.getTranspositionMap().isEmpty());
+            }
+        } while (game.getGameState().isNotTerminal());
+    }
+
+
+    @Test
+    public void HashCollisionsDoNotStopTheSearch() {
+        params.opponentTreePolicy = MCTSEnums.OpponentTreePolicy.MCGS;
+        ZobristStateHash zobrist = new ZobristStateHash();
+        // so that many different states (of the same player) share a hash; the check hash (by default the
+        // hashCode() of the state) tells them apart
+        params.MCGSStateHash = s -> zobrist.getHash(s) & 0x7 | (long) s.getCurrentPlayer() << 3;
+        params.budget = 100;
+        Game game = createDotsAndBoxes(params);
+        for (int i = 0; i < 8; i++) {
+            int p = game.getGameState().getCurrentPlayer();
+            game.oneAction();
+            if (p == 0) {
+                MCGSNode root = (MCGSNode) mctsPlayer.getRoot(0);
+                assertEquals(100, root.getVisits(), 0);
+                assertTrue(root.getHashCollisions() > 0);
+                assertTrue(root.graphNodes().size() > 16);
+                for (MCGSNode node : root.graphNodes())
+                    assertEquals(node, root.getGraphNode(node.state));
+            }
+        }
+    }
+
+    @Test
+    public void CheckKeysFindsStatesWithTheSameHashAndCheckHash() {
+        params.opponentTreePolicy = MCTSEnums.OpponentTreePolicy.MCGS;
+        // a hash that cannot tell different states of the same player apart, which only the String key shows
+        params.MCGSStateHash = new IStateHash() {
+            @Override
+            public long getHash(AbstractGameState state) {
+                return state.getCurrentPlayer();
+            }
+
+            @Override
+            public long getCheckHash(AbstractGameState state) {
+                return 0;
+            }
+        };
+        params.MCGSStateKey = new DBEdgeAndScoreKey();
+        params.budget = 100;
+        createDotsAndBoxes(params).oneAction();  // without MCGSCheckKeys the states share nodes
+        params.MCGSCheckKeys = true;
+        Game game = createDotsAndBoxes(params);
+        assertThrows(AssertionError.class, game::oneAction);
+    }
 
     @Test
     public void OneIterationHasDepthOneForMCTS() {
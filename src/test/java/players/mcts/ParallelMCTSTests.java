@@ -0,0 +1,139 @@
+package players.mcts;
+
+import core.*;
+import core.actions.AbstractAction;
+import games.GameType;
+import games.dominion.DominionForwardModel;
+import games.dominion.DominionGameState;
+import games.dominion.DominionParameters;
+import org.junit.*;
+import players.PlayerConstants;
+import players.simple.RandomPlayer;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class ParallelMCTSTests {
+
+    MCTSParams params;
+
+    @Before
+    public void setup() {
+        // values are registered with setParameterValue so that they are also used by the worker copies
+        params = new MCTSParams();
+        params.setParameterValue("randomSeed", 9332);
+        params.setParameterValue("opponentTreePolicy", MCTSEnums.OpponentTreePolicy.OneTree);
+        params.setParameterValue("information", MCTSEnums.Information.Information_Set);
+        params.setParameterValue("maxTreeDepth", 50);
+        params.setParameterValue("rolloutLength", 10);
+        params.setParameterValue("budgetType", PlayerConstants.BUDGET_ITERATIONS);
+        params.setParameterValue("budget", 200);
+        params.setParameterValue("nThreads", 4);
+        params._reset();
+    }
+
+    private List<SingleTreeNode> runGame(MCTSParams params, int moves) {
+        TestMCTSPlayer mctsPlayer = new TestMCTSPlayer(params, null);
+        List<AbstractPlayer> players = new ArrayList<>();
+        players.add(mctsPlayer);
+        players.add(new RandomPlayer(new Random(3023)));
+        players.add(new RandomPlayer(new Random(244)));
+        DominionParameters dp = new DominionParameters();
+        dp.setRandomSeed(330245);
+        Game game = new Game(GameType.Dominion, players, new DominionForwardModel(), new DominionGameState(dp, players.size()));
+        AbstractGameState state = game.getGameState();
+        AbstractForwardModel forwardModel = game.getForwardModel();
+        List<SingleTreeNode> roots = new ArrayList<>();
+        do {
+            AbstractAction actionChosen = game.getPlayers().get(state.getCurrentPlayer())
+                    ._getAction(state, forwardModel.computeAvailableActions(state));
+            if (state.getCurrentPlayer() == 0)
+                roots.add(mctsPlayer.getRoot(0));
+            forwardModel.next(state, actionChosen);
+        } while (roots.size() < moves);
+        return roots;
+    }
+
+    private void checkVisits(SingleTreeNode root, int expectedVisits) {
+        assertEquals(expectedVisits, root.getVisits());
+        int childVisits = root.actionValues.values().stream().mapToInt(stats -> stats.nVisits).sum();
+        assertEquals(expectedVisits, childVisits);
+    }
+
+    @Test
+    public void treeParallelUsesSharedIterationBudget() {
+        params.setParameterValue("parallelism", MCTSEnums.Parallelism.Tree);
+        params._reset();
+        for (SingleTreeNode root : runGame(params, 4)) {
+            checkVisits(root, 200);
+            // all virtual losses have been removed, and visits are consistent throughout the tree
+            for (SingleTreeNode node : root.allNodesInTree()) {
+                for (AbstractAction action : node.actionValues.keySet()) {
+                    ActionStats stats = node.actionValues.get(action);
+                    assertEquals(0, stats.virtualLoss);
+                    if (stats.nVisits > 0 && node.children.get(action) != null)
+                        assertEquals(stats.nVisits - 1, Arrays.stream(node.children.get(action))
+                                .filter(Objects::nonNull)
+                                .mapToInt(SingleTreeNode::getVisits).sum());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void treeParallelSelfOnly() {
+        params.setParameterValue("parallelism", MCTSEnums.Parallelism.Tree);
+        params.setParameterValue("opponentTreePolicy", MCTSEnums.OpponentTreePolicy.SelfOnly);
+        params._reset();
+        for (SingleTreeNode root : runGame(params, 4))
+            checkVisits(root, 200);
+    }
+
+    @Test
+    public void treeParallelUsesSharedFMCallBudget() {
+        params.setParameterValue("parallelism", MCTSEnums.Parallelism.Tree);
+        params.setParameterValue("budgetType", PlayerConstants.BUDGET_FM_CALLS);
+        params.setParameterValue("budget", 2000);
+        params._reset();
+        for (SingleTreeNode root : runGame(params, 3)) {
+            // a rollout is at most 10 actions, so each thread can go over by at most one iteration
+            assertTrue(root.fmCallsCount > 2000);
+            assertTrue(root.fmCallsCount < 2000 + 4 * 60);
+        }
+    }
+
+    @Test
+    public void rootParallelSplitsIterationBudget() {
+        params.setParameterValue("parallelism", MCTSEnums.Parallelism.Root);
+        params.setParameterValue("budget", 201);
+        params._reset();
+        for (SingleTreeNode root : runGame(params, 4))
+            checkVisits(root, 201);
+    }
+
+    @Test
+    public void rootParallelIsReproducible() {
+        // Dominion shuffles during the search, so we need a game with no randomness for this
+        params.setParameterValue("parallelism", MCTSEnums.Parallelism.Root);
+        params._reset();
+        List<List<AbstractAction>> actionsChosen = new ArrayList<>();
+        for (int run = 0; run < 2; run++) {
+            List<AbstractAction> actions = new ArrayList<>();
+            MCTSParams mctsParams = (MCTSParams) params.copy();
+            mctsParams.setRandomSeed(9332);
+            List<AbstractPlayer> players = List.of(new MCTSPlayer(mctsParams), new RandomPlayer(new Random(3023)));
+            Game game = GameType.TicTacToe.createGameInstance(2, 42);
+            game.reset(players);
+            AbstractGameState state = game.getGameState();
+            AbstractForwardModel forwardModel = game.getForwardModel();
+            while (state.isNotTerminal()) {
+                AbstractAction action = players.get(state.getCurrentPlayer())._getAction(state, forwardModel.computeAvailableActions(state));
+                actions.add(action);
+                forwardModel.next(state, action);
+            }
+            actionsChosen.add(actions);
+        }
+        assertEquals(actionsChosen.get(0), actionsChosen.get(1));
+    }
+}